@@ -0,0 +1,93 @@
+package com.deliverytech.delivery.benchmark;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.deliverytech.delivery.dto.PaginaClientesDTO;
+import com.deliverytech.delivery.entity.Cliente;
+import com.deliverytech.delivery.repository.ClienteRepository;
+import com.deliverytech.delivery.services.ClienteService;
+import com.deliverytech.delivery.services.IndiceClientes;
+
+/**
+ * Busca de clientes por trecho do nome: índice de trigramas x LIKE '%trecho%' no banco, primeira página de 20.
+ *
+ * ./mvnw -Pjmh verify -DskipTests -Djmh.include=BuscaClienteBenchmark -Djmh.args="-f 1 -wi 3 -i 5"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BuscaClienteBenchmark {
+
+    private static final String[] NOMES = {"João", "José", "Maria", "Ana", "Antônio", "Francisco", "Luís", "Beatriz",
+        "Conceição", "Sebastião", "Márcia", "Lúcia", "Paulo", "Cláudio", "Renata", "Gustavo"};
+    private static final String[] SOBRENOMES = {"Silva", "Santos", "Oliveira", "Souza", "Conceição", "Araújo", "Gonçalves",
+        "Simões", "Brandão", "Magalhães", "Pereira", "Lima", "Carvalho", "Ribeiro", "Fernandes", "Gomes"};
+    private static final int TAMANHO_PAGINA = 20;
+
+    @Param({"1000000"})
+    int clientes;
+
+    @Param({"silva", "conceicao", "ana bea", "gonçalves sim", "xyz", "ze"})
+    String trecho;
+
+    private ConfigurableApplicationContext contexto;
+    private ClienteService clienteService;
+    private ClienteRepository clienteRepository;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = ContextoBenchmark.iniciar();
+        JdbcTemplate jdbc = contexto.getBean(JdbcTemplate.class);
+        Random aleatorio = new Random(42);
+        Timestamp agora = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Object[]> lote = new ArrayList<>(10_000);
+        for (int i = 1; i <= clientes; i++) {
+            String nome = NOMES[aleatorio.nextInt(NOMES.length)] + " " + NOMES[aleatorio.nextInt(NOMES.length)] + " "
+                + SOBRENOMES[aleatorio.nextInt(SOBRENOMES.length)] + " " + SOBRENOMES[aleatorio.nextInt(SOBRENOMES.length)];
+            lote.add(new Object[] {i + 1_000_000L, nome, "busca" + i + "@email.com", "11900000000", "Rua " + i, agora, true});
+            if (lote.size() == 10_000 || i == clientes) {
+                jdbc.batchUpdate("INSERT INTO clientes (id, nome, email, telefone, endereco, data_cadastro, ativo) VALUES (?, ?, ?, ?, ?, ?, ?)", lote);
+                lote.clear();
+            }
+        }
+
+        contexto.getBean(IndiceClientes.class).reconstruir();
+        clienteService = contexto.getBean(ClienteService.class);
+        clienteRepository = contexto.getBean(ClienteRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public PaginaClientesDTO indiceTrigramas() {
+        return clienteService.buscarPorNome(trecho, null, TAMANHO_PAGINA);
+    }
+
+    @Benchmark
+    public List<Cliente> consultaLike() {
+        return clienteRepository.findByNomeContainingIgnoreCaseAndIdGreaterThanOrderByIdAsc(trecho, 0L, Limit.of(TAMANHO_PAGINA + 1));
+    }
+}
@@ -0,0 +1,66 @@
+package com.deliverytech.delivery.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.deliverytech.delivery.entity.ProdutoDTO;
+import com.deliverytech.delivery.services.ProdutoService;
+
+/**
+ * Listagem de cardápio (com cache) e conversão para DTO de todos os produtos (sem cache).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CardapioBenchmark {
+
+    @Param({"20"})
+    int restaurantes;
+
+    @Param({"20", "200"})
+    int produtosPorRestaurante;
+
+    private ConfigurableApplicationContext contexto;
+    private ProdutoService produtoService;
+    private Long restauranteId;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = ContextoBenchmark.iniciar();
+        ContextoBenchmark.Massa massa = ContextoBenchmark.popular(contexto, 1, restaurantes, produtosPorRestaurante);
+        produtoService = contexto.getBean(ProdutoService.class);
+        restauranteId = massa.restaurantes().get(0).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public List<ProdutoDTO> cardapioDoRestaurante() {
+        return produtoService.buscarProdutosPorRestaurante(restauranteId);
+    }
+
+    @Benchmark
+    public List<ProdutoDTO> cardapioPorCategoria() {
+        return produtoService.buscarPorCategoria("Categoria 3");
+    }
+
+    @Benchmark
+    public List<ProdutoDTO> listarTodosComToDTO() {
+        return produtoService.listarTodos();
+    }
+}
@@ -0,0 +1,79 @@
+package com.deliverytech.delivery.benchmark;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.deliverytech.delivery.DeliveryApiApplication;
+import com.deliverytech.delivery.entity.Cliente;
+import com.deliverytech.delivery.entity.Dinheiro;
+import com.deliverytech.delivery.entity.Produto;
+import com.deliverytech.delivery.entity.Restaurante;
+import com.deliverytech.delivery.repository.ClienteRepository;
+import com.deliverytech.delivery.repository.ProdutoRepository;
+import com.deliverytech.delivery.repository.RestauranteRepository;
+
+/**
+ * Sobe a aplicação sem servidor web, com um H2 em memória exclusivo, e popula o volume de dados pedido.
+ */
+final class ContextoBenchmark {
+
+    record Massa(List<Cliente> clientes, List<Restaurante> restaurantes, List<List<Produto>> cardapios) {
+    }
+
+    private ContextoBenchmark() {
+    }
+
+    static ConfigurableApplicationContext iniciar(String... propriedadesExtras) {
+        List<String> argumentos = new ArrayList<>(List.of(
+            "--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_ON_EXIT=FALSE",
+            "--spring.jpa.properties.hibernate.format_sql=false",
+            "--spring.devtools.restart.enabled=false",
+            "--logging.level.root=WARN",
+            "--logging.level.org.springframework.web=WARN",
+            "--logging.level.org.hibernate.SQL=WARN",
+            "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+        ));
+        for (String propriedade : propriedadesExtras) {
+            argumentos.add("--" + propriedade);
+        }
+        return new SpringApplicationBuilder(DeliveryApiApplication.class)
+            .web(WebApplicationType.NONE)
+            .run(argumentos.toArray(String[]::new));
+    }
+
+    static Massa popular(ConfigurableApplicationContext contexto, int clientes, int restaurantes, int produtosPorRestaurante) {
+        ClienteRepository clienteRepository = contexto.getBean(ClienteRepository.class);
+        RestauranteRepository restauranteRepository = contexto.getBean(RestauranteRepository.class);
+        ProdutoRepository produtoRepository = contexto.getBean(ProdutoRepository.class);
+
+        List<Cliente> novosClientes = new ArrayList<>(clientes);
+        for (int i = 0; i < clientes; i++) {
+            novosClientes.add(new Cliente("Cliente " + i, "bench" + i + "@email.com", "11900000000", "Rua " + i, true));
+        }
+
+        List<Restaurante> novosRestaurantes = new ArrayList<>(restaurantes);
+        for (int i = 0; i < restaurantes; i++) {
+            novosRestaurantes.add(new Restaurante(null, "Restaurante " + i, "Categoria " + (i % 5), "Rua " + i, "0000-0000",
+                new BigDecimal("5.00"), new BigDecimal("4.0"), true, null));
+        }
+        novosRestaurantes = restauranteRepository.saveAll(novosRestaurantes);
+
+        List<List<Produto>> cardapios = new ArrayList<>(restaurantes);
+        for (Restaurante restaurante : novosRestaurantes) {
+            List<Produto> produtos = new ArrayList<>(produtosPorRestaurante);
+            for (int i = 0; i < produtosPorRestaurante; i++) {
+                produtos.add(new Produto(null, "Produto " + i, "Descrição do produto " + i,
+                    Dinheiro.deCentavos(1000 + i), "Categoria " + (i % 8), true, restaurante));
+            }
+            cardapios.add(produtoRepository.saveAll(produtos));
+        }
+
+        return new Massa(clienteRepository.saveAll(novosClientes), novosRestaurantes, cardapios);
+    }
+}
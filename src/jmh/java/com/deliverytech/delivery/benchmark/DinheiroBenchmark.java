@@ -0,0 +1,71 @@
+package com.deliverytech.delivery.benchmark;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.deliverytech.delivery.entity.Dinheiro;
+import com.deliverytech.delivery.entity.ItemPedido;
+import com.deliverytech.delivery.entity.Produto;
+
+/**
+ * Total de um carrinho (itens × quantidade + taxa) em Dinheiro e em BigDecimal, sem banco nem Spring.
+ * Rodar com -prof gc: gc.alloc.rate.norm é o que cada operação aloca.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DinheiroBenchmark {
+
+    @Param({"10", "100"})
+    int itens;
+
+    private ItemPedido[] carrinho;
+    private BigDecimal[] precosBigDecimal;
+    private int[] quantidades;
+    private Dinheiro taxa;
+    private BigDecimal taxaBigDecimal;
+
+    @Setup
+    public void iniciar() {
+        carrinho = new ItemPedido[itens];
+        precosBigDecimal = new BigDecimal[itens];
+        quantidades = new int[itens];
+        for (int i = 0; i < itens; i++) {
+            Produto produto = new Produto((long) i, "Produto " + i, "Descrição", Dinheiro.deCentavos(1000 + i * 37), "Teste", true, null);
+            quantidades[i] = 1 + i % 3;
+            carrinho[i] = new ItemPedido(produto, quantidades[i]);
+            precosBigDecimal[i] = produto.getPreco().paraBigDecimal();
+        }
+        taxa = Dinheiro.de("7.90");
+        taxaBigDecimal = new BigDecimal("7.90");
+    }
+
+    @Benchmark
+    public long totalDinheiro() {
+        // Mesmo laço de PedidoService.somarItens
+        long centavos = 0;
+        for (ItemPedido item : carrinho) {
+            centavos = Math.addExact(centavos, item.getSubtotal().centavos());
+        }
+        return Math.addExact(centavos, taxa.centavos());
+    }
+
+    /** Como era antes: BigDecimal multiply/add por item */
+    @Benchmark
+    public BigDecimal totalBigDecimal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < precosBigDecimal.length; i++) {
+            total = total.add(precosBigDecimal[i].multiply(BigDecimal.valueOf(quantidades[i])));
+        }
+        return total.add(taxaBigDecimal);
+    }
+}
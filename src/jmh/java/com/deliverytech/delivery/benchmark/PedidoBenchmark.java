@@ -0,0 +1,79 @@
+package com.deliverytech.delivery.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.deliverytech.delivery.dto.ItemPedidoDTO;
+import com.deliverytech.delivery.dto.PedidoRequestDTO;
+import com.deliverytech.delivery.entity.Dinheiro;
+import com.deliverytech.delivery.entity.Pedido;
+import com.deliverytech.delivery.services.PedidoService;
+
+/**
+ * criarPedido e calcularTotal em função da quantidade de itens do pedido.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PedidoBenchmark {
+
+    @Param({"1", "10", "100"})
+    int itens;
+
+    @Param({"1000"})
+    int clientes;
+
+    @Param({"20"})
+    int restaurantes;
+
+    @Param({"100"})
+    int produtosPorRestaurante;
+
+    private ConfigurableApplicationContext contexto;
+    private PedidoService pedidoService;
+    private PedidoRequestDTO pedido;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = ContextoBenchmark.iniciar();
+        ContextoBenchmark.Massa massa = ContextoBenchmark.popular(contexto, clientes, restaurantes, Math.max(itens, produtosPorRestaurante));
+        pedidoService = contexto.getBean(PedidoService.class);
+
+        pedido = new PedidoRequestDTO();
+        pedido.setNumeroPedido("BENCH");
+        pedido.setDataPedido(LocalDateTime.now());
+        pedido.setObservacoes("Benchmark");
+        pedido.setClienteId(massa.clientes().get(0).getId());
+        pedido.setRestauranteId(massa.restaurantes().get(0).getId());
+        pedido.setItens(massa.cardapios().get(0).subList(0, itens).stream()
+            .map(produto -> new ItemPedidoDTO(produto.getId(), 2))
+            .toList());
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Pedido criarPedido() {
+        return pedidoService.criarPedido(pedido);
+    }
+
+    @Benchmark
+    public Dinheiro calcularTotal() {
+        return pedidoService.calcularTotal(pedido);
+    }
+}
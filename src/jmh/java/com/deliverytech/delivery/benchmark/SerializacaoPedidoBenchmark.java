@@ -0,0 +1,110 @@
+package com.deliverytech.delivery.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.deliverytech.delivery.dto.PedidoResponseDTO;
+import com.deliverytech.delivery.dto.PedidoResumoDTO;
+import com.deliverytech.delivery.entity.Cliente;
+import com.deliverytech.delivery.entity.Dinheiro;
+import com.deliverytech.delivery.entity.ItemPedido;
+import com.deliverytech.delivery.entity.Pedido;
+import com.deliverytech.delivery.entity.Produto;
+import com.deliverytech.delivery.entity.Restaurante;
+import com.deliverytech.delivery.enums.StatusPedido;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+/**
+ * Serialização Jackson de um pedido: entidade Pedido (grafo completo) contra os DTOs de resposta,
+ * com o ObjectMapper padrão e com o módulo Blackbird. O grafo é montado em memória, sem banco,
+ * para medir só o Jackson. O tamanho de cada resposta em bytes é impresso no setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SerializacaoPedidoBenchmark {
+
+    @Param({"3", "30"})
+    int itens;
+
+    @Param({"padrao", "blackbird"})
+    String mapper;
+
+    private ObjectMapper objectMapper;
+    private Pedido pedido;
+    private PedidoResponseDTO resposta;
+    private PedidoResumoDTO resumo;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        // Mesmos padrões do ObjectMapper do Spring Boot
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if ("blackbird".equals(mapper)) {
+            builder.modulesToInstall(new BlackbirdModule());
+        }
+        objectMapper = builder.build();
+
+        Cliente cliente = new Cliente("Cliente", "cliente@email.com", "11900000000", "Rua A", true);
+        cliente.setId(1L);
+        Restaurante restaurante = new Restaurante(1L, "Restaurante", "Italiana", "Rua B", "0000-0000",
+            new BigDecimal("5.00"), new BigDecimal("4.5"), true, null);
+
+        pedido = new Pedido();
+        pedido.setId(1L);
+        pedido.setNumeroPedido("PED-BENCH");
+        pedido.setDataPedido(LocalDateTime.now());
+        pedido.setStatus(StatusPedido.CONFIRMADO);
+        pedido.setObservacoes("Sem cebola");
+        pedido.setCliente(cliente);
+        pedido.setRestaurante(restaurante);
+        Dinheiro total = Dinheiro.de(restaurante.getTaxaEntrega());
+        for (int i = 0; i < itens; i++) {
+            Produto produto = new Produto((long) i, "Produto " + i, "Descrição do produto " + i,
+                Dinheiro.de("12.50"), "Italiana", true, restaurante);
+            ItemPedido item = new ItemPedido(produto, 2);
+            item.setId((long) i);
+            pedido.adicionarItem(item);
+            total = total.mais(item.getSubtotal());
+        }
+        pedido.setValorTotal(total.paraBigDecimal());
+
+        resposta = new PedidoResponseDTO(pedido);
+        resumo = new PedidoResumoDTO(pedido);
+
+        try {
+            System.out.printf("%nbytes por resposta (itens=%d): entidade=%d, PedidoResponseDTO=%d, PedidoResumoDTO=%d%n",
+                itens, entidadePedido().length, pedidoResponseDTO().length, pedidoResumoDTO().length);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Benchmark
+    public byte[] entidadePedido() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(pedido);
+    }
+
+    @Benchmark
+    public byte[] pedidoResponseDTO() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(resposta);
+    }
+
+    @Benchmark
+    public byte[] pedidoResumoDTO() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(resumo);
+    }
+}
@@ -0,0 +1,33 @@
+package com.deliverytech.delivery.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.deliverytech.delivery.enums.StatusPedido;
+
+/**
+ * Todas as combinações de StatusPedido.podeTransitarPara.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class StatusPedidoBenchmark {
+
+    private final StatusPedido[] status = StatusPedido.values();
+
+    @Benchmark
+    public void todasAsTransicoes(Blackhole blackhole) {
+        for (StatusPedido atual : status) {
+            for (StatusPedido novo : status) {
+                blackhole.consume(atual.podeTransitarPara(novo));
+            }
+        }
+    }
+}
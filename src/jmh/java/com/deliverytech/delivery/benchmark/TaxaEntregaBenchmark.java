@@ -0,0 +1,55 @@
+package com.deliverytech.delivery.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.deliverytech.delivery.entity.Dinheiro;
+import com.deliverytech.delivery.services.RestauranteService;
+
+/**
+ * Cotação de taxa de entrega por CEP.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TaxaEntregaBenchmark {
+
+    @Param({"01310-100", "02011-000", "30140-071"})
+    String cep;
+
+    @Param({"50"})
+    int restaurantes;
+
+    private ConfigurableApplicationContext contexto;
+    private RestauranteService restauranteService;
+    private Long restauranteId;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = ContextoBenchmark.iniciar();
+        ContextoBenchmark.Massa massa = ContextoBenchmark.popular(contexto, 1, restaurantes, 1);
+        restauranteService = contexto.getBean(RestauranteService.class);
+        restauranteId = massa.restaurantes().get(restaurantes / 2).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Dinheiro calcularTaxaEntrega() {
+        return restauranteService.calcularTaxaEntrega(restauranteId, cep);
+    }
+}
@@ -0,0 +1,37 @@
+package com.deliverytech.delivery.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.stereotype.Component;
+
+/**
+ * Conta os comandos SQL preparados pelo Hibernate na thread da requisição atual.
+ * Só conta entre iniciar() e encerrar(); fora de uma requisição (jobs, listeners assíncronos) não faz nada.
+ * Um batch JDBC conta uma vez, como foi preparado.
+ */
+@Component
+public class ContadorSql implements StatementInspector {
+
+    private final ThreadLocal<int[]> contagem = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        int[] atual = contagem.get();
+        if (atual != null) {
+            atual[0]++;
+        }
+        return sql;
+    }
+
+    public void iniciar() {
+        contagem.set(new int[1]);
+    }
+
+    /**
+     * Devolver o total contado desde iniciar() e parar de contar nesta thread
+     */
+    public int encerrar() {
+        int[] atual = contagem.get();
+        contagem.remove();
+        return atual == null ? 0 : atual[0];
+    }
+}
@@ -6,12 +6,15 @@ import com.deliverytech.delivery.repository.*;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
+// Dados de demonstração: no profile prod o banco persiste entre as subidas
 @Configuration
+@Profile("!prod")
 public class DataLoader {
 
     @Bean
@@ -34,11 +37,11 @@ public class DataLoader {
             restauranteRepo.saveAll(List.of(r1, r2));
 
             // 3️⃣ Criar produtos
-            Produto p1 = new Produto(null, "Pizza Margherita", "Clássica com queijo", new BigDecimal("30.00"), "Italiana", true, r1);
-            Produto p2 = new Produto(null, "Pizza Calabresa", "Com cebola e calabresa", new BigDecimal("35.00"), "Italiana", true, r1);
-            Produto p3 = new Produto(null, "Sushi Salmão", "8 peças", new BigDecimal("25.00"), "Japonesa", true, r2);
-            Produto p4 = new Produto(null, "Temaki", "Cone de salmão", new BigDecimal("20.00"), "Japonesa", false, r2);
-            Produto p5 = new Produto(null, "Guaraná", "350ml", new BigDecimal("6.00"), "Bebida", true, r1);
+            Produto p1 = new Produto(null, "Pizza Margherita", "Clássica com queijo", Dinheiro.de("30.00"), "Italiana", true, r1);
+            Produto p2 = new Produto(null, "Pizza Calabresa", "Com cebola e calabresa", Dinheiro.de("35.00"), "Italiana", true, r1);
+            Produto p3 = new Produto(null, "Sushi Salmão", "8 peças", Dinheiro.de("25.00"), "Japonesa", true, r2);
+            Produto p4 = new Produto(null, "Temaki", "Cone de salmão", Dinheiro.de("20.00"), "Japonesa", false, r2);
+            Produto p5 = new Produto(null, "Guaraná", "350ml", Dinheiro.de("6.00"), "Bebida", true, r1);
             produtoRepo.saveAll(List.of(p1, p2, p3, p4, p5));
 
             // 4️⃣ Criar pedidos
@@ -46,20 +49,21 @@ public class DataLoader {
             pedido1.setNumeroPedido("PED001");
             pedido1.setDataPedido(LocalDateTime.now());
             pedido1.setStatus(StatusPedido.CONFIRMADO);
-            pedido1.setValorTotal(p1.getPreco().add(p5.getPreco()));
+            pedido1.setValorTotal(p1.getPreco().mais(p5.getPreco()).paraBigDecimal());
             pedido1.setCliente(c1);
             pedido1.setRestaurante(r1);
-            pedido1.setItens(List.of(p1, p5));
+            pedido1.adicionarItem(new ItemPedido(p1, 1));
+            pedido1.adicionarItem(new ItemPedido(p5, 1));
             pedido1.setObservacoes("Sem cebola");
 
             Pedido pedido2 = new Pedido();
             pedido2.setNumeroPedido("PED002");
             pedido2.setDataPedido(LocalDateTime.now().minusDays(1));
             pedido2.setStatus(StatusPedido.PREPARANDO);
-            pedido2.setValorTotal(p3.getPreco());
+            pedido2.setValorTotal(p3.getPreco().paraBigDecimal());
             pedido2.setCliente(c2);
             pedido2.setRestaurante(r2);
-            pedido2.setItens(List.of(p3));
+            pedido2.adicionarItem(new ItemPedido(p3, 1));
             pedido2.setObservacoes("Com molho extra");
 
             pedidoRepo.saveAll(List.of(pedido1, pedido2));
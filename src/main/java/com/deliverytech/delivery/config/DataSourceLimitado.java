@@ -0,0 +1,164 @@
+package com.deliverytech.delivery.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Bulkhead na frente do DataSource: no máximo N conexões emprestadas ao mesmo tempo.
+ * Quem passa do limite espera num Semaphore (que estaciona a thread virtual sem prender o carrier),
+ * em vez de entrar no pool e no código synchronized do driver.
+ * A permissão é devolvida quando a conexão é fechada.
+ */
+public class DataSourceLimitado extends DelegatingDataSource {
+
+    private final Semaphore permissoes;
+    private final int limite;
+    private final long esperaMaximaMs;
+    private final Timer espera;
+
+    public DataSourceLimitado(DataSource alvo, int limite, long esperaMaximaMs, MeterRegistry registry) {
+        super(alvo);
+        this.permissoes = new Semaphore(limite, true);
+        this.limite = limite;
+        this.esperaMaximaMs = esperaMaximaMs;
+        this.espera = Timer.builder("delivery.datasource.espera")
+            .description("Tempo de espera por uma permissão de conexão")
+            .publishPercentiles(0.5, 0.99)
+            .register(registry);
+        Gauge.builder("delivery.datasource.permissoes.em-uso", this, DataSourceLimitado::emUso)
+            .description("Conexões emprestadas pelo bulkhead")
+            .register(registry);
+        Gauge.builder("delivery.datasource.permissoes.aguardando", permissoes, Semaphore::getQueueLength)
+            .description("Threads esperando uma permissão de conexão")
+            .register(registry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        adquirir();
+        return emprestar(super::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        adquirir();
+        return emprestar(() -> super.getConnection(username, password));
+    }
+
+    public int emUso() {
+        return limite - permissoes.availablePermits();
+    }
+
+    public int getLimite() {
+        return limite;
+    }
+
+    private void adquirir() throws SQLException {
+        long inicio = System.nanoTime();
+        boolean obtida;
+        try {
+            obtida = permissoes.tryAcquire(esperaMaximaMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrompido esperando conexão", e);
+        } finally {
+            espera.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        }
+        if (!obtida) {
+            throw new SQLTransientConnectionException(
+                "Nenhuma conexão disponível em " + esperaMaximaMs + " ms (limite " + limite + ")");
+        }
+    }
+
+    private Connection emprestar(FonteConexao fonte) throws SQLException {
+        Connection conexao;
+        try {
+            conexao = fonte.obter();
+        } catch (SQLException | RuntimeException e) {
+            permissoes.release();
+            throw e;
+        }
+
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+            new ConexaoEmprestada(conexao));
+    }
+
+    /**
+     * Conexão entregue a quem pediu. Identidade própria (equals/hashCode/toString), unwrap/isWrapperFor
+     * de Connection respondem com o próprio proxy, e depois de fechada só close e isClosed funcionam:
+     * a conexão do pool não escapa da contagem de permissões.
+     */
+    private final class ConexaoEmprestada implements InvocationHandler {
+
+        private final Connection conexao;
+        private final AtomicBoolean devolvida = new AtomicBoolean();
+
+        ConexaoEmprestada(Connection conexao) {
+            this.conexao = conexao;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+            switch (metodo.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "ConexaoEmprestada@" + Integer.toHexString(System.identityHashCode(proxy))
+                        + (devolvida.get() ? " (devolvida)" : "");
+                case "close":
+                    if (devolvida.compareAndSet(false, true)) {
+                        try {
+                            conexao.close();
+                        } finally {
+                            permissoes.release();
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    if (devolvida.get()) {
+                        return true;
+                    }
+                    break;
+                default:
+                    break;
+            }
+            if (devolvida.get()) {
+                throw new SQLException("Conexão já devolvida ao pool: " + metodo.getName());
+            }
+            if (metodo.getName().equals("unwrap") && ((Class<?>) args[0]).isInstance(proxy)) {
+                return proxy;
+            }
+            if (metodo.getName().equals("isWrapperFor") && ((Class<?>) args[0]).isInstance(proxy)) {
+                return true;
+            }
+            try {
+                return metodo.invoke(conexao, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface FonteConexao {
+        Connection obter() throws SQLException;
+    }
+}
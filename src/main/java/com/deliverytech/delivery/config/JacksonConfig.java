@@ -0,0 +1,38 @@
+package com.deliverytech.delivery.config;
+
+import java.util.List;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.deliverytech.delivery.dto.PaginaPedidosDTO;
+import com.deliverytech.delivery.dto.PedidoResponseDTO;
+import com.deliverytech.delivery.dto.PedidoResumoDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+/**
+ * Ajustes do ObjectMapper usado nas respostas da API
+ */
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * Getters e construtores chamados por lambdas geradas (LambdaMetafactory) em vez de reflexão.
+     * O Spring Boot registra no ObjectMapper qualquer bean do tipo Module.
+     */
+    @Bean
+    public BlackbirdModule blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    /**
+     * Writers prontos para as respostas de pedido dos endpoints mais chamados. O Spring Boot coloca os
+     * HttpMessageConverter declarados como bean antes dos padrões.
+     */
+    @Bean
+    public RespostasPedidoConverter respostasPedidoConverter(ObjectMapper objectMapper) {
+        return new RespostasPedidoConverter(objectMapper,
+            List.of(PedidoResponseDTO.class, PedidoResumoDTO.class, PaginaPedidosDTO.class));
+    }
+}
@@ -0,0 +1,19 @@
+package com.deliverytech.delivery.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Liga o ContadorSql ao Hibernate. Se outro StatementInspector já foi configurado
+ * (hibernate.session_factory.statement_inspector), ele é mantido e a contagem por requisição fica desligada.
+ */
+@Configuration
+public class MetricasConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer contadorSqlHibernate(ContadorSql contadorSql) {
+        return propriedades -> propriedades.putIfAbsent(AvailableSettings.STATEMENT_INSPECTOR, contadorSql);
+    }
+}
@@ -0,0 +1,55 @@
+package com.deliverytech.delivery.config;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Latência (p50/p99/p999) de cada método público dos serviços de pedido, produto, restaurante e cliente.
+ * O Timer de cada método é criado na primeira chamada e guardado por Method; daí em diante cada chamada
+ * só lê o relógio duas vezes e grava no histograma HDR do Micrometer, sem montar tags.
+ */
+@Aspect
+@Component
+public class MetricasServicosAspect {
+
+    private final MeterRegistry registry;
+    private final Map<Method, Timer> timers = new ConcurrentHashMap<>();
+
+    public MetricasServicosAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Around("execution(public * com.deliverytech.delivery.services.PedidoService.*(..))"
+        + " || execution(public * com.deliverytech.delivery.services.ProdutoService.*(..))"
+        + " || execution(public * com.deliverytech.delivery.services.RestauranteService.*(..))"
+        + " || execution(public * com.deliverytech.delivery.services.ClienteService.*(..))")
+    public Object medir(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer timer = timers.computeIfAbsent(((MethodSignature) joinPoint.getSignature()).getMethod(), this::criarTimer);
+        long inicio = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            timer.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer criarTimer(Method metodo) {
+        return Timer.builder("delivery.servico")
+            .description("Latência dos métodos de serviço")
+            .tag("classe", metodo.getDeclaringClass().getSimpleName())
+            .tag("metodo", metodo.getName())
+            .publishPercentiles(0.5, 0.99, 0.999)
+            .register(registry);
+    }
+}
@@ -0,0 +1,57 @@
+package com.deliverytech.delivery.config;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Comandos SQL por requisição, por método HTTP e padrão de URI (o mesmo do http.server.requests).
+ * Uma distribuição por endpoint, criada na primeira requisição e reaproveitada.
+ */
+@Component
+public class MetricasSqlFilter extends OncePerRequestFilter {
+
+    private final ContadorSql contadorSql;
+    private final MeterRegistry registry;
+    private final Map<String, Map<String, DistributionSummary>> distribuicoes = new ConcurrentHashMap<>();
+
+    public MetricasSqlFilter(ContadorSql contadorSql, MeterRegistry registry) {
+        this.contadorSql = contadorSql;
+        this.registry = registry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        contadorSql.iniciar();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            int comandos = contadorSql.encerrar();
+            Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            distribuicao(request.getMethod(), padrao == null ? "UNKNOWN" : padrao.toString()).record(comandos);
+        }
+    }
+
+    private DistributionSummary distribuicao(String metodo, String uri) {
+        return distribuicoes.computeIfAbsent(uri, u -> new ConcurrentHashMap<>())
+            .computeIfAbsent(metodo, m -> DistributionSummary.builder("delivery.sql.comandos")
+                .description("Comandos SQL executados por requisição")
+                .baseUnit("comandos")
+                .tag("method", m)
+                .tag("uri", uri)
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .register(registry));
+    }
+}
@@ -0,0 +1,63 @@
+package com.deliverytech.delivery.config;
+
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Conta as threads virtuais que ficaram presas ao carrier (evento JFR jdk.VirtualThreadPinned),
+ * normalmente por bloquear dentro de um bloco synchronized.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class MonitorFixacaoThreads {
+
+    private static final Logger log = LoggerFactory.getLogger(MonitorFixacaoThreads.class);
+
+    private final Timer fixacoes;
+    private final Duration limiar;
+    private RecordingStream stream;
+
+    public MonitorFixacaoThreads(MeterRegistry registry,
+                                 @Value("${delivery.threads.virtuais.fixacao.limiar-ms:20}") long limiarMs) {
+        this.fixacoes = Timer.builder("delivery.threads.virtuais.fixadas")
+            .description("Threads virtuais presas ao carrier por mais que o limiar")
+            .register(registry);
+        this.limiar = Duration.ofMillis(limiarMs);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void iniciar() {
+        if (stream != null) {
+            return;
+        }
+        stream = new RecordingStream();
+        stream.enable("jdk.VirtualThreadPinned").withThreshold(limiar).withStackTrace();
+        stream.onEvent("jdk.VirtualThreadPinned", evento -> {
+            fixacoes.record(evento.getDuration());
+            if (log.isDebugEnabled()) {
+                log.debug("Thread virtual fixada por {} ms: {}", evento.getDuration().toMillis(), evento.getStackTrace());
+            }
+        });
+        stream.startAsync();
+    }
+
+    @PreDestroy
+    public synchronized void encerrar() {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+}
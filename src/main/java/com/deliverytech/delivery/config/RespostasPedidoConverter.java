@@ -0,0 +1,53 @@
+package com.deliverytech.delivery.config;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Escreve as respostas de pedido com um ObjectWriter montado uma vez por tipo, com o serializador
+ * da raiz já resolvido. O MappingJackson2HttpMessageConverter monta um writer a cada resposta.
+ * Só escreve: a leitura dos corpos de requisição continua com o conversor padrão.
+ */
+public class RespostasPedidoConverter extends AbstractHttpMessageConverter<Object> {
+
+    private final Map<Class<?>, ObjectWriter> writers = new HashMap<>();
+
+    public RespostasPedidoConverter(ObjectMapper objectMapper, Collection<Class<?>> tipos) {
+        super(MediaType.APPLICATION_JSON);
+        for (Class<?> tipo : tipos) {
+            writers.put(tipo, objectMapper.writerFor(tipo).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET));
+        }
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return writers.containsKey(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Conversor só de escrita", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object resposta, HttpOutputMessage outputMessage) throws IOException {
+        writers.get(resposta.getClass()).writeValue(outputMessage.getBody(), resposta);
+    }
+}
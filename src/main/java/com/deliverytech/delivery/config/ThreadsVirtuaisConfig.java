@@ -0,0 +1,38 @@
+package com.deliverytech.delivery.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Modo de execução em threads virtuais (spring.threads.virtual.enabled=true).
+ * O Spring Boot já troca os executores do Tomcat e do agendamento; aqui limitamos
+ * as conexões ao banco, já que milhares de threads virtuais podem chegar ao DataSource juntas.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class ThreadsVirtuaisConfig {
+
+    @Bean
+    public static BeanPostProcessor limitarDataSource(Environment environment, ObjectProvider<MeterRegistry> registry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof DataSourceLimitado) {
+                    return bean;
+                }
+                int pool = environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+                int limite = environment.getProperty("delivery.datasource.limite.permissoes", Integer.class, pool);
+                long esperaMaximaMs = environment.getProperty("delivery.datasource.limite.espera-maxima-ms", Long.class, 5000L);
+                return new DataSourceLimitado(dataSource, limite, esperaMaximaMs, registry.getObject());
+            }
+        };
+    }
+}
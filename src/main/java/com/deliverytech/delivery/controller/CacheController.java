@@ -0,0 +1,40 @@
+package com.deliverytech.delivery.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.deliverytech.delivery.dto.RegiaoCacheDTO;
+import com.deliverytech.delivery.services.CacheSegundoNivelService;
+
+@RestController
+@RequestMapping("/api/cache")
+@CrossOrigin(origins = "*")
+public class CacheController {
+
+    @Autowired
+    private CacheSegundoNivelService cacheSegundoNivelService;
+
+    /**
+     * Acertos, falhas e ocupação de cada região do cache de segundo nível
+     */
+    @GetMapping("/regioes")
+    public ResponseEntity<List<RegiaoCacheDTO>> regioes() {
+        return ResponseEntity.ok(cacheSegundoNivelService.estatisticas());
+    }
+
+    /**
+     * Esvaziar o cache de segundo nível (depois de alterações feitas direto no banco)
+     */
+    @DeleteMapping("/regioes")
+    public ResponseEntity<String> limpar() {
+        cacheSegundoNivelService.limpar();
+        return ResponseEntity.ok("Cache de segundo nível esvaziado");
+    }
+}
@@ -4,7 +4,8 @@ import java.util.List;
 import java.util.Optional;
 
 import com.deliverytech.delivery.dto.ClienteResponseDTO;
-import com.deliverytech.delivery.dto.ClienteResquetDTO;
+import com.deliverytech.delivery.dto.ClienteRequestDTO;
+import com.deliverytech.delivery.dto.PaginaClientesDTO;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -23,6 +24,7 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.PatchMapping;
 
 import com.deliverytech.delivery.entity.Cliente;
+import com.deliverytech.delivery.exceptions.BusinessException;
 import com.deliverytech.delivery.services.ClienteService;
 
 @RestController
@@ -37,11 +39,11 @@ public class ClienteController {
      * Cadastrar novo cliente
      */
     @PostMapping
-    public ResponseEntity<?> cadastrar(@Valid @RequestBody ClienteResquetDTO dto) {
+    public ResponseEntity<?> cadastrar(@Valid @RequestBody ClienteRequestDTO dto) {
         try {
             ClienteResponseDTO clienteSalvo = clienteService.cadastrar(dto);
             return ResponseEntity.status(HttpStatus.CREATED).body(clienteSalvo);
-        } catch (IllegalArgumentException e) {
+        } catch (BusinessException | IllegalArgumentException e) {
             return ResponseEntity.badRequest().body("Erro: " + e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -86,11 +88,11 @@ public class ClienteController {
      * Atualizar cliente
      */
     @PutMapping("/{id}")
-    public ResponseEntity<?> atualizar(@PathVariable Long id, @Valid @RequestBody ClienteResquetDTO dto) {
+    public ResponseEntity<?> atualizar(@PathVariable Long id, @Valid @RequestBody ClienteRequestDTO dto) {
         try {
             ClienteResponseDTO atualizado = clienteService.atualizar(id, dto);
             return ResponseEntity.ok(atualizado);
-        } catch (IllegalArgumentException e) {
+        } catch (BusinessException | IllegalArgumentException e) {
             return ResponseEntity.badRequest().body("Erro: " + e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -115,13 +117,17 @@ public class ClienteController {
     }
 
     /**
-     * Buscar cliente por nome
+     * Buscar clientes por trecho do nome, paginado por cursor
      */
     @GetMapping("/buscar")
-    public ResponseEntity<?> buscarPorNome(@RequestParam String nome) {
+    public ResponseEntity<?> buscarPorNome(@RequestParam String nome,
+                                           @RequestParam(required = false) String cursor,
+                                           @RequestParam(defaultValue = "20") int limite) {
         try {
-            List<ClienteResponseDTO> clientes = clienteService.buscarPorNome(nome);
-            return ResponseEntity.ok(clientes);
+            PaginaClientesDTO pagina = clienteService.buscarPorNome(nome, cursor, limite);
+            return ResponseEntity.ok(pagina);
+        } catch (BusinessException e) {
+            return ResponseEntity.badRequest().body("Erro: " + e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Erro interno do servidor");
@@ -1,52 +1,157 @@
 package com.deliverytech.delivery.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.net.URI;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
+import com.deliverytech.delivery.dto.ClienteRankingDTO;
+import com.deliverytech.delivery.dto.PaginaPedidosDTO;
+import com.deliverytech.delivery.dto.PedidoRequestDTO;
+import com.deliverytech.delivery.dto.PedidoResponseDTO;
 import com.deliverytech.delivery.dto.PedidoResumoDTO;
+import com.deliverytech.delivery.dto.ProdutoMaisVendidoDTO;
+import com.deliverytech.delivery.dto.ResultadoImportacaoDTO;
+import com.deliverytech.delivery.dto.ResumoPeriodoDTO;
+import com.deliverytech.delivery.dto.SolicitacaoPedidoDTO;
 import com.deliverytech.delivery.dto.VendasRestauranteDTO;
+import com.deliverytech.delivery.entity.Dinheiro;
 import com.deliverytech.delivery.entity.Pedido;
-import com.deliverytech.delivery.entity.PedidoDTO;
 import com.deliverytech.delivery.enums.StatusPedido;
+import com.deliverytech.delivery.exceptions.BusinessException;
+import com.deliverytech.delivery.exceptions.FilaPedidosCheiaException;
+import com.deliverytech.delivery.exceptions.ItensPedidoInvalidosException;
+import com.deliverytech.delivery.exceptions.RequisicaoEmAndamentoException;
+import com.deliverytech.delivery.exceptions.ValidationErrorResponse;
+import com.deliverytech.delivery.services.ArquivoPedidosService;
+import com.deliverytech.delivery.services.FilaPedidos;
+import com.deliverytech.delivery.services.IdempotenciaPedidos;
+import com.deliverytech.delivery.services.ImportacaoService;
 import com.deliverytech.delivery.services.PedidoService;
+import com.deliverytech.delivery.services.VendasRestauranteService;
 import com.deliverytech.delivery.repository.PedidoRepository;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/pedidos")
 @CrossOrigin(origins = "*")
 public class PedidoController {
 
+    // Abaixo do timeout padrão de requisições assíncronas (30s)
+    private static final long ESPERA_MAXIMA_FILA_MS = 25_000;
+
     @Autowired
     private PedidoService pedidoService;
 
+    @Autowired
+    private ImportacaoService importacaoService;
+
+    @Autowired
+    private ArquivoPedidosService arquivoPedidosService;
+
+    @Autowired
+    private IdempotenciaPedidos idempotenciaPedidos;
+
+    @Autowired
+    private FilaPedidos filaPedidos;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     /**
-     * Criar novo pedido
+     * Criar novo pedido. Com Idempotency-Key, repetições da requisição devolvem o mesmo pedido
+     * (cabeçalho Idempotent-Replayed: true) em vez de criar outro.
      */
     @PostMapping
-    public ResponseEntity<?> criarPedido(@RequestBody PedidoDTO dto) {
+    public ResponseEntity<?> criarPedido(@Valid @RequestBody PedidoRequestDTO dto,
+                                         @RequestHeader(value = "Idempotency-Key", required = false) String chaveIdempotencia) {
         try {
-            Pedido pedido = pedidoService.criarPedido(dto);
-            return ResponseEntity.status(HttpStatus.CREATED).body(pedido);
+            if (chaveIdempotencia == null) {
+                Pedido pedido = pedidoService.criarPedido(dto);
+                return ResponseEntity.status(HttpStatus.CREATED).body(new PedidoResponseDTO(pedido));
+            }
+            IdempotenciaPedidos.Resposta resposta = idempotenciaPedidos.criar(dto, chaveIdempotencia);
+            return ResponseEntity.status(HttpStatus.CREATED)
+                .header("Idempotent-Replayed", String.valueOf(resposta.repetida()))
+                .body(resposta.pedido());
+        } catch (ItensPedidoInvalidosException e) {
+            return ResponseEntity.badRequest().body(relatorioItensInvalidos(e));
+        } catch (RequisicaoEmAndamentoException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Erro: " + e.getMessage());
+        } catch (BusinessException e) {
+            return ResponseEntity.badRequest().body("Erro: " + e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Erro interno do servidor");
+        }
+    }
+
+    /**
+     * Criar pedido pela fila (picos de demanda): 202 com o protocolo de acompanhamento, 429 com a fila cheia.
+     * O resultado sai em GET /api/pedidos/fila/{protocolo}.
+     */
+    @PostMapping("/fila")
+    public ResponseEntity<?> enfileirarPedido(@Valid @RequestBody PedidoRequestDTO dto) {
+        try {
+            SolicitacaoPedidoDTO solicitacao = filaPedidos.enfileirar(dto);
+            return ResponseEntity.accepted()
+                .location(URI.create("/api/pedidos/fila/" + solicitacao.protocolo()))
+                .body(solicitacao);
+        } catch (FilaPedidosCheiaException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("Erro: " + e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Erro: " + e.getMessage());
+        } catch (BusinessException e) {
+            return ResponseEntity.badRequest().body("Erro: " + e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Erro interno do servidor");
         }
     }
 
+    /**
+     * Situação de um pedido enviado pela fila. Com aguardarMs, responde assim que o pedido for gravado ou
+     * rejeitado (ou, ainda PENDENTE, ao fim da espera). Depois de CRIADO, o pedido segue em /{id}/eventos.
+     */
+    @GetMapping("/fila/{protocolo}")
+    public CompletableFuture<ResponseEntity<?>> consultarFila(@PathVariable String protocolo,
+                                                              @RequestParam(defaultValue = "0") long aguardarMs) {
+        try {
+            Duration espera = Duration.ofMillis(Math.clamp(aguardarMs, 0, ESPERA_MAXIMA_FILA_MS));
+            return filaPedidos.consultar(protocolo, espera).thenApply(ResponseEntity::ok);
+        } catch (BusinessException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.NOT_FOUND).body("Erro: " + e.getMessage()));
+        }
+    }
+
     /**
      * Buscar pedido completo por ID
      */
     @GetMapping("/{id}")
     public ResponseEntity<?> buscarPedidoPorId(@PathVariable Long id) {
         try {
-            Pedido pedido = pedidoService.buscarPorId(id);
+            PedidoResponseDTO pedido = pedidoService.buscarPorId(id);
             return ResponseEntity.ok(pedido);
-        } catch (IllegalArgumentException e) {
+        } catch (BusinessException | IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Erro: " + e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Erro interno do servidor");
@@ -57,9 +162,84 @@ public class PedidoController {
      * Histórico de pedidos por cliente
      */
     @GetMapping("/cliente/{clienteId}")
-    public ResponseEntity<List<Pedido>> listarPorCliente(@PathVariable Long clienteId) {
-        List<Pedido> pedidos = pedidoService.listarPorCliente(clienteId);
-        return ResponseEntity.ok(pedidos);
+    public ResponseEntity<?> listarPorCliente(@PathVariable Long clienteId,
+                                              @RequestParam(required = false) String cursor,
+                                              @RequestParam(defaultValue = "20") int limite) {
+        try {
+            PaginaPedidosDTO pagina = pedidoService.listarPorCliente(clienteId, cursor, limite);
+            return ResponseEntity.ok(pagina);
+        } catch (BusinessException e) {
+            return ResponseEntity.badRequest().body("Erro: " + e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Erro interno do servidor");
+        }
+    }
+
+    /**
+     * Histórico completo em JSON por linha (NDJSON), escrito um lote de cada vez
+     */
+    @GetMapping(value = "/cliente/{clienteId}", params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> transmitirPorCliente(@PathVariable Long clienteId,
+                                                                      @RequestParam(defaultValue = "100") int limite) {
+        ObjectWriter writer = objectMapper.writerFor(PedidoResumoDTO.class)
+            .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        StreamingResponseBody corpo = saida -> pedidoService.percorrerHistorico(clienteId, limite, lote -> {
+            try {
+                for (PedidoResumoDTO pedido : lote) {
+                    writer.writeValue(saida, pedido);
+                    saida.write('\n');
+                }
+                saida.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(corpo);
+    }
+
+    /**
+     * Importar pedidos históricos em lote: um pedido em JSON por linha (NDJSON)
+     */
+    @PostMapping(value = "/importacao", consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_PLAIN_VALUE})
+    public ResponseEntity<?> importarPedidos(InputStream corpo) {
+        try {
+            ResultadoImportacaoDTO resultado = importacaoService.importarPedidos(corpo);
+            return ResponseEntity.ok(resultado);
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().body("Erro: falha ao ler o arquivo de importação");
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Erro interno do servidor");
+        }
+    }
+
+    /**
+     * Acompanhar o pedido em tempo real (Server-Sent Events, evento "status")
+     */
+    @GetMapping(value = "/{id}/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> acompanharPedido(@PathVariable Long id) {
+        try {
+            SseEmitter emitter = pedidoService.acompanharPedido(id);
+            return emitter != null ? ResponseEntity.ok(emitter) : ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        } catch (BusinessException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+    }
+
+    /**
+     * Acompanhar em tempo real os pedidos de um restaurante (criações e transições)
+     */
+    @GetMapping(value = "/restaurante/{restauranteId}/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> acompanharRestaurante(@PathVariable Long restauranteId) {
+        try {
+            SseEmitter emitter = pedidoService.acompanharRestaurante(restauranteId);
+            return emitter != null ? ResponseEntity.ok(emitter) : ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        } catch (BusinessException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
     }
 
     /**
@@ -68,10 +248,12 @@ public class PedidoController {
     @PatchMapping("/{id}/status")
     public ResponseEntity<?> atualizarStatus(@PathVariable Long id, @RequestParam StatusPedido status) {
         try {
-            Pedido pedido = pedidoService.atualizarStatus(id, status);
+            PedidoResumoDTO pedido = pedidoService.atualizarStatus(id, status);
             return ResponseEntity.ok(pedido);
-        } catch (IllegalArgumentException e) {
+        } catch (BusinessException | IllegalArgumentException e) {
             return ResponseEntity.badRequest().body("Erro: " + e.getMessage());
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Erro: pedido alterado por outra requisição, tente novamente");
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Erro interno do servidor");
         }
@@ -83,10 +265,35 @@ public class PedidoController {
     @DeleteMapping("/{id}")
     public ResponseEntity<?> cancelarPedido(@PathVariable Long id) {
         try {
-            pedidoService.cancelarPedido(id);
-            return ResponseEntity.ok("Pedido cancelado com sucesso");
-        } catch (IllegalArgumentException e) {
+            PedidoResumoDTO pedido = pedidoService.cancelarPedido(id);
+            return ResponseEntity.ok(pedido);
+        } catch (BusinessException | IllegalArgumentException e) {
             return ResponseEntity.badRequest().body("Erro: " + e.getMessage());
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Erro: pedido alterado por outra requisição, tente novamente");
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Erro interno do servidor");
+        }
+    }
+
+    // 🔹 Pedidos arquivados (fora da tabela de pedidos; leitura mais lenta)
+
+    @GetMapping("/arquivados/{id}")
+    public ResponseEntity<?> buscarArquivado(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(arquivoPedidosService.buscarPorId(id));
+        } catch (BusinessException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Erro: " + e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Erro interno do servidor");
+        }
+    }
+
+    @GetMapping("/arquivados/cliente/{clienteId}")
+    public ResponseEntity<?> listarArquivadosPorCliente(@PathVariable Long clienteId,
+                                                        @RequestParam(defaultValue = "20") int limite) {
+        try {
+            return ResponseEntity.ok(arquivoPedidosService.listarPorCliente(clienteId, limite));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Erro interno do servidor");
         }
@@ -96,17 +303,28 @@ public class PedidoController {
      * Calcular total do pedido sem salvar
      */
     @PostMapping("/calcular")
-    public ResponseEntity<?> calcularTotal(@RequestBody PedidoDTO dto) {
+    public ResponseEntity<?> calcularTotal(@RequestBody PedidoRequestDTO dto) {
         try {
-            BigDecimal total = pedidoService.calcularTotal(dto);
+            Dinheiro total = pedidoService.calcularTotal(dto);
             return ResponseEntity.ok(total);
-        } catch (IllegalArgumentException e) {
+        } catch (ItensPedidoInvalidosException e) {
+            return ResponseEntity.badRequest().body(relatorioItensInvalidos(e));
+        } catch (BusinessException | IllegalArgumentException e) {
             return ResponseEntity.badRequest().body("Erro: " + e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Erro interno do servidor");
         }
     }
 
+    private ValidationErrorResponse relatorioItensInvalidos(ItensPedidoInvalidosException e) {
+        return new ValidationErrorResponse(
+            HttpStatus.BAD_REQUEST.value(),
+            "Itens do pedido inválidos",
+            e.getErros(),
+            LocalDateTime.now()
+        );
+    }
+
     // 🔹 Relatórios e consultas customizadas
 
     @GetMapping("/relatorio-vendas")
@@ -114,13 +332,18 @@ public class PedidoController {
         return ResponseEntity.ok(pedidoService.gerarRelatorioVendas());
     }
 
+    @PostMapping("/relatorio-vendas/reconciliar")
+    public ResponseEntity<VendasRestauranteService.ResultadoReconciliacao> reconciliarVendas() {
+        return ResponseEntity.ok(pedidoService.reconciliarVendas());
+    }
+
     @GetMapping("/acima-de/{valor}")
-    public ResponseEntity<List<Pedido>> pedidosAcimaDe(@PathVariable BigDecimal valor) {
+    public ResponseEntity<List<PedidoResponseDTO>> pedidosAcimaDe(@PathVariable BigDecimal valor) {
         return ResponseEntity.ok(pedidoService.pedidosComValorAcima(valor));
     }
 
     @GetMapping("/por-periodo-e-status")
-    public ResponseEntity<List<Pedido>> pedidosPorPeriodoEStatus(
+    public ResponseEntity<List<PedidoResponseDTO>> pedidosPorPeriodoEStatus(
             @RequestParam("inicio") LocalDateTime inicio,
             @RequestParam("fim") LocalDateTime fim,
             @RequestParam("status") StatusPedido status) {
@@ -134,13 +357,34 @@ public class PedidoController {
         return ResponseEntity.ok(pedidoService.buscarPedidosPorPeriodo(inicio, fim));
     }
 
+    /**
+     * Quantidade, valor e clientes distintos por restaurante e status no período, sem listar os pedidos
+     */
+    @GetMapping("/relatorio-periodo")
+    public ResponseEntity<List<ResumoPeriodoDTO>> relatorioPeriodo(
+            @RequestParam("inicio") LocalDateTime inicio,
+            @RequestParam("fim") LocalDateTime fim,
+            @RequestParam(value = "status", required = false) StatusPedido status) {
+        return ResponseEntity.ok(pedidoService.resumoAgregadoPorPeriodo(inicio, fim, status));
+    }
+
+    /**
+     * Produtos mais vendidos na janela do ranking; exato=true recalcula no banco
+     */
     @GetMapping("/produtos-mais-vendidos")
-    public ResponseEntity<List<Object[]>> produtosMaisVendidos() {
-        return ResponseEntity.ok(pedidoService.produtosMaisVendidos());
+    public ResponseEntity<List<ProdutoMaisVendidoDTO>> produtosMaisVendidos(
+            @RequestParam(defaultValue = "5") int limite,
+            @RequestParam(defaultValue = "false") boolean exato) {
+        return ResponseEntity.ok(pedidoService.produtosMaisVendidos(limite, exato));
     }
 
+    /**
+     * Clientes com mais pedidos na janela do ranking; exato=true recalcula no banco
+     */
     @GetMapping("/ranking-clientes")
-    public ResponseEntity<List<Object[]>> rankingClientes() {
-        return ResponseEntity.ok(pedidoService.rankingClientesPorPedidos());
+    public ResponseEntity<List<ClienteRankingDTO>> rankingClientes(
+            @RequestParam(defaultValue = "10") int limite,
+            @RequestParam(defaultValue = "false") boolean exato) {
+        return ResponseEntity.ok(pedidoService.rankingClientesPorPedidos(limite, exato));
     }
 }
\ No newline at end of file
@@ -2,13 +2,17 @@ package com.deliverytech.delivery.controller;
 
 import com.deliverytech.delivery.entity.ProdutoDTO;
 import com.deliverytech.delivery.exceptions.BusinessException;
+import com.deliverytech.delivery.services.ImportacaoService;
 import com.deliverytech.delivery.services.ProdutoService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -19,6 +23,9 @@ public class ProdutoController {
     @Autowired
     private ProdutoService produtoService;
 
+    @Autowired
+    private ImportacaoService importacaoService;
+
     /**
      * Cadastrar novo produto
      */
@@ -148,6 +155,39 @@ public class ProdutoController {
         }
     }
 
+    /**
+     * Busca textual de produtos ("salmao" encontra "Salmão"), ordenada por relevância
+     */
+    @GetMapping("/busca")
+    public ResponseEntity<?> buscarPorTexto(@RequestParam String q,
+                                            @RequestParam(required = false) Long restauranteId,
+                                            @RequestParam(defaultValue = "true") boolean apenasDisponiveis,
+                                            @RequestParam(defaultValue = "20") int limite) {
+        try {
+            return ResponseEntity.ok(produtoService.buscarPorTexto(q, restauranteId, apenasDisponiveis, limite));
+        } catch (BusinessException e) {
+            return ResponseEntity.badRequest().body("Erro: " + e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Erro interno do servidor");
+        }
+    }
+
+    /**
+     * Sugestões de nome de produto enquanto o usuário digita
+     */
+    @GetMapping("/autocompletar")
+    public ResponseEntity<?> autocompletar(@RequestParam String q,
+                                           @RequestParam(required = false) Long restauranteId,
+                                           @RequestParam(defaultValue = "8") int limite) {
+        try {
+            return ResponseEntity.ok(produtoService.autocompletar(q, restauranteId, limite));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Erro interno do servidor");
+        }
+    }
+
     /**
      * Buscar produtos por categoria
      */
@@ -161,4 +201,27 @@ public class ProdutoController {
                     .body("Erro interno do servidor");
         }
     }
+
+    /**
+     * Importar produtos em lote: um produto em JSON por linha (NDJSON)
+     */
+    @PostMapping(value = "/importacao", consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_PLAIN_VALUE})
+    public ResponseEntity<?> importar(InputStream corpo) {
+        try {
+            return ResponseEntity.ok(importacaoService.importarProdutos(corpo));
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().body("Erro: falha ao ler o arquivo de importação");
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Erro interno do servidor");
+        }
+    }
+
+    /**
+     * Estatísticas do cache de cardápio (acertos, falhas e remoções)
+     */
+    @GetMapping("/cache/estatisticas")
+    public ResponseEntity<?> estatisticasCache() {
+        return ResponseEntity.ok(produtoService.estatisticasCache());
+    }
 }
\ No newline at end of file
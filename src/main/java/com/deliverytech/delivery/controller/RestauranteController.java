@@ -1,7 +1,11 @@
 package com.deliverytech.delivery.controller;
 
+import com.deliverytech.delivery.dto.CotacaoTaxaEntregaDTO;
+import com.deliverytech.delivery.dto.PaginaRestaurantesDTO;
 import com.deliverytech.delivery.dto.RestauranteRequestDTO;
 import com.deliverytech.delivery.dto.RestauranteResponseDTO;
+import com.deliverytech.delivery.dto.TabelaTaxaEntregaDTO;
+import com.deliverytech.delivery.entity.Dinheiro;
 import com.deliverytech.delivery.exceptions.BusinessException;
 import com.deliverytech.delivery.services.RestauranteService;
 import jakarta.validation.Valid;
@@ -70,6 +74,27 @@ public class RestauranteController {
         }
     }
 
+    /**
+     * Busca da tela inicial: filtros combinados, ordenação (avaliacao, taxa ou nome) e paginação por cursor
+     */
+    @GetMapping("/busca")
+    public ResponseEntity<?> buscar(@RequestParam(required = false) String categoria,
+                                    @RequestParam(required = false) BigDecimal taxaMaxima,
+                                    @RequestParam(required = false) BigDecimal avaliacaoMinima,
+                                    @RequestParam(defaultValue = "avaliacao") String ordem,
+                                    @RequestParam(required = false) String cursor,
+                                    @RequestParam(defaultValue = "20") int limite) {
+        try {
+            PaginaRestaurantesDTO pagina = restauranteService.buscar(categoria, taxaMaxima, avaliacaoMinima, ordem, cursor, limite);
+            return ResponseEntity.ok(pagina);
+        } catch (BusinessException e) {
+            return ResponseEntity.badRequest().body("Erro: " + e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Erro interno do servidor");
+        }
+    }
+
     /**
      * Buscar restaurantes por categoria
      */
@@ -106,7 +131,7 @@ public class RestauranteController {
     @GetMapping("/{id}/taxa-entrega/{cep}")
     public ResponseEntity<?> calcularTaxaEntrega(@PathVariable Long id, @PathVariable String cep) {
         try {
-            BigDecimal taxa = restauranteService.calcularTaxaEntrega(id, cep);
+            Dinheiro taxa = restauranteService.calcularTaxaEntrega(id, cep);
             return ResponseEntity.ok(taxa);
         } catch (BusinessException e) {
             return ResponseEntity.badRequest().body("Erro: " + e.getMessage());
@@ -116,6 +141,46 @@ public class RestauranteController {
         }
     }
 
+    /**
+     * Taxa de entrega de vários restaurantes para o mesmo CEP (sem ids: todos os ativos)
+     */
+    @GetMapping("/taxa-entrega/{cep}")
+    public ResponseEntity<?> cotarTaxaEntrega(@PathVariable String cep,
+                                              @RequestParam(required = false) List<Long> ids) {
+        try {
+            List<CotacaoTaxaEntregaDTO> cotacoes = restauranteService.cotarTaxaEntrega(cep, ids);
+            return ResponseEntity.ok(cotacoes);
+        } catch (BusinessException e) {
+            return ResponseEntity.badRequest().body("Erro: " + e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Erro interno do servidor");
+        }
+    }
+
+    /**
+     * Faixas de CEP em uso no cálculo da taxa de entrega
+     */
+    @GetMapping("/taxa-entrega/faixas")
+    public ResponseEntity<TabelaTaxaEntregaDTO> tabelaTaxaEntrega() {
+        return ResponseEntity.ok(restauranteService.tabelaTaxaEntrega());
+    }
+
+    /**
+     * Substituir as faixas de CEP (vale imediatamente, sem reiniciar)
+     */
+    @PutMapping("/taxa-entrega/faixas")
+    public ResponseEntity<?> atualizarTabelaTaxaEntrega(@Valid @RequestBody TabelaTaxaEntregaDTO tabela) {
+        try {
+            return ResponseEntity.ok(restauranteService.atualizarTabelaTaxaEntrega(tabela));
+        } catch (BusinessException e) {
+            return ResponseEntity.badRequest().body("Erro: " + e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Erro interno do servidor");
+        }
+    }
+
     /**
      * Inativar restaurante
      */
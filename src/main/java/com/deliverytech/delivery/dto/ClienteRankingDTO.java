@@ -0,0 +1,15 @@
+package com.deliverytech.delivery.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClienteRankingDTO {
+
+    private Long clienteId;
+    private String nome;
+    private Long totalPedidos;
+}
@@ -0,0 +1,21 @@
+package com.deliverytech.delivery.dto;
+
+import com.deliverytech.delivery.entity.Cliente;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClienteResumoDTO {
+
+    private Long id;
+    private String nome;
+
+    public ClienteResumoDTO(Cliente cliente) {
+        this.id = cliente.getId();
+        this.nome = cliente.getNome();
+    }
+}
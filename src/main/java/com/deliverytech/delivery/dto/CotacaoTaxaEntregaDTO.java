@@ -0,0 +1,16 @@
+package com.deliverytech.delivery.dto;
+
+import com.deliverytech.delivery.entity.Dinheiro;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CotacaoTaxaEntregaDTO {
+
+    private Long restauranteId;
+    private Dinheiro taxaEntrega;
+}
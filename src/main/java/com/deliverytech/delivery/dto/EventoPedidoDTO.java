@@ -0,0 +1,12 @@
+package com.deliverytech.delivery.dto;
+
+import java.time.LocalDateTime;
+
+import com.deliverytech.delivery.enums.StatusPedido;
+
+/**
+ * Evento "status" do acompanhamento de pedidos (SSE). anterior é null na criação e no estado inicial.
+ */
+public record EventoPedidoDTO(Long pedidoId, Long restauranteId, StatusPedido anterior, StatusPedido status,
+                              LocalDateTime momento) {
+}
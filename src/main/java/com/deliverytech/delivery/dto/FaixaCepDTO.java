@@ -0,0 +1,26 @@
+package com.deliverytech.delivery.dto;
+
+import java.math.BigDecimal;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FaixaCepDTO {
+
+    @NotBlank
+    private String cepInicial;
+
+    @NotBlank
+    private String cepFinal;
+
+    @NotNull
+    @PositiveOrZero
+    private BigDecimal acrescimo;
+}
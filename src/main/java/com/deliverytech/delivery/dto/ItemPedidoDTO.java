@@ -2,9 +2,13 @@ package com.deliverytech.delivery.dto;
 
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class ItemPedidoDTO {
 
     @NotNull(message = "O ID do produto é obrigatório")
@@ -0,0 +1,20 @@
+package com.deliverytech.delivery.dto;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Item de um pedido importado. Sem precoUnitario, vale o preço atual do produto.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemPedidoImportacaoDTO {
+
+    private Long produtoId;
+    private Integer quantidade;
+    private BigDecimal precoUnitario;
+}
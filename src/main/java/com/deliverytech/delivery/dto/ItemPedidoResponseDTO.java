@@ -0,0 +1,28 @@
+package com.deliverytech.delivery.dto;
+
+import com.deliverytech.delivery.entity.Dinheiro;
+import com.deliverytech.delivery.entity.ItemPedido;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemPedidoResponseDTO {
+
+    private Long produtoId;
+    private String nomeProduto;
+    private Integer quantidade;
+    private Dinheiro precoUnitario;
+    private Dinheiro subtotal;
+
+    public ItemPedidoResponseDTO(ItemPedido item) {
+        this.produtoId = item.getProduto().getId();
+        this.nomeProduto = item.getProduto().getNome();
+        this.quantidade = item.getQuantidade();
+        this.precoUnitario = item.getPrecoUnitario();
+        this.subtotal = item.getSubtotal();
+    }
+}
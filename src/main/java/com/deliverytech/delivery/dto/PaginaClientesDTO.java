@@ -0,0 +1,9 @@
+package com.deliverytech.delivery.dto;
+
+import java.util.List;
+
+/**
+ * Página da busca de clientes por nome. proximoCursor é null na última página.
+ */
+public record PaginaClientesDTO(List<ClienteResponseDTO> itens, String proximoCursor) {
+}
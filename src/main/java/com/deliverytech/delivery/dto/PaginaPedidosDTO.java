@@ -0,0 +1,9 @@
+package com.deliverytech.delivery.dto;
+
+import java.util.List;
+
+/**
+ * Página do histórico de pedidos. proximoCursor é null na última página.
+ */
+public record PaginaPedidosDTO(List<PedidoResumoDTO> itens, String proximoCursor) {
+}
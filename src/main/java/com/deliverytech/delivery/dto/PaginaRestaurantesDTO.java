@@ -0,0 +1,9 @@
+package com.deliverytech.delivery.dto;
+
+import java.util.List;
+
+/**
+ * Página da busca de restaurantes. proximoCursor é null na última página.
+ */
+public record PaginaRestaurantesDTO(List<RestauranteResponseDTO> itens, String proximoCursor) {
+}
@@ -0,0 +1,30 @@
+package com.deliverytech.delivery.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.deliverytech.delivery.enums.StatusPedido;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Uma linha da importação de pedidos históricos. Sem status, o pedido entra como ENTREGUE;
+ * sem valorTotal, ele é calculado pelos itens mais a taxa de entrega atual do restaurante.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PedidoImportacaoDTO {
+
+    private String numeroPedido;
+    private LocalDateTime dataPedido;
+    private StatusPedido status;
+    private BigDecimal valorTotal;
+    private String observacoes;
+    private Long clienteId;
+    private Long restauranteId;
+    private List<ItemPedidoImportacaoDTO> itens;
+}
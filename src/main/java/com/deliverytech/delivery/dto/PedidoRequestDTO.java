@@ -1,12 +1,10 @@
 package com.deliverytech.delivery.dto;
 
 import jakarta.validation.Valid;
-import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -19,10 +17,6 @@ public class PedidoRequestDTO {
     @NotNull(message = "Data do pedido é obrigatória")
     private LocalDateTime dataPedido;
 
-    @NotNull(message = "Valor total é obrigatório")
-    @DecimalMin(value = "0.01", message = "O valor total deve ser maior que zero")
-    private BigDecimal valorTotal;
-
     @NotBlank(message = "Observações são obrigatórias")
     private String observacoes;
 
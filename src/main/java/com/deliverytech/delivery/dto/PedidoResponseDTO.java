@@ -3,13 +3,21 @@ package com.deliverytech.delivery.dto;
 import com.deliverytech.delivery.entity.Pedido;
 import com.deliverytech.delivery.enums.StatusPedido;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
+/**
+ * Resposta completa de um pedido. Cliente e restaurante vão resumidos (sem o cardápio);
+ * os itens levam o preço congelado no pedido.
+ */
 @Data
+@NoArgsConstructor
 public class PedidoResponseDTO {
 
     private Long id;
@@ -18,21 +26,41 @@ public class PedidoResponseDTO {
     private StatusPedido status;
     private BigDecimal valorTotal;
     private String observacoes;
-    private Long clienteId;
-    private Long restauranteId;
-    private List<Long> itens;
+    private ClienteResumoDTO cliente;
+    private RestauranteResumoDTO restaurante;
+    private List<ItemPedidoResponseDTO> itens;
 
     public PedidoResponseDTO(Pedido pedido) {
+        this(pedido, new ClienteResumoDTO(pedido.getCliente()), new RestauranteResumoDTO(pedido.getRestaurante()));
+    }
+
+    public PedidoResponseDTO(Pedido pedido, ClienteResumoDTO cliente, RestauranteResumoDTO restaurante) {
         this.id = pedido.getId();
         this.numeroPedido = pedido.getNumeroPedido();
         this.dataPedido = pedido.getDataPedido();
         this.status = pedido.getStatus();
         this.valorTotal = pedido.getValorTotal();
         this.observacoes = pedido.getObservacoes();
-        this.clienteId = pedido.getCliente().getId();
-        this.restauranteId = pedido.getRestaurante().getId();
-        this.itens = pedido.getItens().stream()
-            .map(produto -> produto.getId())
-            .collect(Collectors.toList());
+        this.cliente = cliente;
+        this.restaurante = restaurante;
+        this.itens = new ArrayList<>(pedido.getItens().size());
+        pedido.getItens().forEach(item -> this.itens.add(new ItemPedidoResponseDTO(item)));
+    }
+
+    /**
+     * Converter uma lista reaproveitando um único resumo por cliente e por restaurante
+     */
+    public static List<PedidoResponseDTO> de(List<Pedido> pedidos) {
+        Map<Long, ClienteResumoDTO> clientes = new HashMap<>();
+        Map<Long, RestauranteResumoDTO> restaurantes = new HashMap<>();
+        List<PedidoResponseDTO> respostas = new ArrayList<>(pedidos.size());
+        for (Pedido pedido : pedidos) {
+            ClienteResumoDTO cliente = clientes.computeIfAbsent(pedido.getCliente().getId(),
+                id -> new ClienteResumoDTO(pedido.getCliente()));
+            RestauranteResumoDTO restaurante = restaurantes.computeIfAbsent(pedido.getRestaurante().getId(),
+                id -> new RestauranteResumoDTO(pedido.getRestaurante()));
+            respostas.add(new PedidoResponseDTO(pedido, cliente, restaurante));
+        }
+        return respostas;
     }
-}
\ No newline at end of file
+}
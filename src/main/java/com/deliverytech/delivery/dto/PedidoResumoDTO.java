@@ -16,6 +16,14 @@ public class PedidoResumoDTO {
     private StatusPedido status;
     private BigDecimal valorTotal;
 
+    public PedidoResumoDTO(Long id, String numeroPedido, LocalDateTime dataPedido, StatusPedido status, BigDecimal valorTotal) {
+        this.id = id;
+        this.numeroPedido = numeroPedido;
+        this.dataPedido = dataPedido;
+        this.status = status;
+        this.valorTotal = valorTotal;
+    }
+
     public PedidoResumoDTO(Pedido pedido) {
         this.id = pedido.getId();
         this.numeroPedido = pedido.getNumeroPedido();
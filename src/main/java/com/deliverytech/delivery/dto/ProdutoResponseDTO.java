@@ -1,17 +1,16 @@
 package com.deliverytech.delivery.dto;
 
+import com.deliverytech.delivery.entity.Dinheiro;
 import com.deliverytech.delivery.entity.Produto;
 import lombok.Data;
 
-import java.math.BigDecimal;
-
 @Data
 public class ProdutoResponseDTO {
 
     private Long id;
     private String nome;
     private String descricao;
-    private BigDecimal preco;
+    private Dinheiro preco;
     private String categoria;
     private Boolean disponivel;
     private Long restauranteId;
@@ -0,0 +1,18 @@
+package com.deliverytech.delivery.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RegiaoCacheDTO {
+
+    private String regiao;
+    private long acertos;
+    private long falhas;
+    private long insercoes;
+    // acertos / (acertos + falhas); 0 sem nenhuma leitura
+    private double taxaAcerto;
+}
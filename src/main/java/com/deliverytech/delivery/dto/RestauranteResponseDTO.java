@@ -13,6 +13,7 @@ public class RestauranteResponseDTO {
     private String categoria;
     private String endereco;
     private BigDecimal taxaEntrega;
+    private BigDecimal avaliacao;
     private Boolean ativo;
 
     public RestauranteResponseDTO(Restaurante restaurante) {
@@ -21,6 +22,7 @@ public class RestauranteResponseDTO {
         this.categoria = restaurante.getCategoria();
         this.endereco = restaurante.getEndereco();
         this.taxaEntrega = restaurante.getTaxaEntrega();
+        this.avaliacao = restaurante.getAvaliacao();
         this.ativo = restaurante.getAtivo();
     }
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.deliverytech.delivery.dto;
+
+import com.deliverytech.delivery.entity.Restaurante;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RestauranteResumoDTO {
+
+    private Long id;
+    private String nome;
+    private String categoria;
+
+    public RestauranteResumoDTO(Restaurante restaurante) {
+        this.id = restaurante.getId();
+        this.nome = restaurante.getNome();
+        this.categoria = restaurante.getCategoria();
+    }
+}
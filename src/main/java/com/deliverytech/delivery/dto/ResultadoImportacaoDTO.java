@@ -0,0 +1,21 @@
+package com.deliverytech.delivery.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoImportacaoDTO {
+
+    private long linhasLidas;
+    private long importadas;
+    private long rejeitadas;
+    private long duracaoMs;
+    private long linhasPorSegundo;
+    // Só as primeiras rejeições, com o número da linha
+    private List<String> erros;
+}
@@ -0,0 +1,22 @@
+package com.deliverytech.delivery.dto;
+
+import java.math.BigDecimal;
+
+import com.deliverytech.delivery.enums.StatusPedido;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumoPeriodoDTO {
+
+    private Long restauranteId;
+    private String nome;
+    private StatusPedido status;
+    private Long quantidadePedidos;
+    private BigDecimal valorTotal;
+    private Long clientesDistintos;
+}
@@ -0,0 +1,12 @@
+package com.deliverytech.delivery.dto;
+
+import java.time.LocalDateTime;
+
+import com.deliverytech.delivery.enums.SituacaoSolicitacao;
+
+/**
+ * Acompanhamento de um pedido enviado pela fila. pedido vem preenchido quando CRIADO; erro, quando REJEITADO.
+ */
+public record SolicitacaoPedidoDTO(String protocolo, SituacaoSolicitacao situacao, LocalDateTime recebidaEm,
+                                   PedidoResumoDTO pedido, String erro) {
+}
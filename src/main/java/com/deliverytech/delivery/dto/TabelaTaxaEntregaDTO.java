@@ -0,0 +1,26 @@
+package com.deliverytech.delivery.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TabelaTaxaEntregaDTO {
+
+    @NotNull
+    @Valid
+    private List<FaixaCepDTO> faixas;
+
+    /** Acréscimo para CEPs fora de todas as faixas */
+    @NotNull
+    @PositiveOrZero
+    private BigDecimal acrescimoPadrao;
+}
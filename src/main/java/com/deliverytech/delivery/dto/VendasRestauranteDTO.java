@@ -1,5 +1,18 @@
 package com.deliverytech.delivery.dto;
 
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class VendasRestauranteDTO {
-    
+
+    private Long restauranteId;
+    private String nome;
+    private BigDecimal total;
+    private Long quantidadePedidos;
 }
@@ -0,0 +1,65 @@
+package com.deliverytech.delivery.entity;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import com.deliverytech.delivery.enums.Granularidade;
+import com.deliverytech.delivery.enums.StatusPedido;
+
+/**
+ * Quantidade e soma de valor_total dos pedidos de um restaurante num status, por hora ou por dia
+ * (pelo data_pedido). Mantido incrementalmente pelo AgregadoPedidosService; inclui os pedidos arquivados.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@IdClass(AgregadoPedidos.Chave.class)
+@Table(name = "agregado_pedidos")
+public class AgregadoPedidos {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 10)
+    private Granularidade granularidade;
+
+    @Id
+    private LocalDateTime inicio;
+
+    @Id
+    @Column(name = "restaurante_id")
+    private Long restauranteId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 30)
+    private StatusPedido status;
+
+    @Column(name = "quantidade_pedidos", nullable = false)
+    private Long quantidadePedidos;
+
+    @Column(name = "valor_total", nullable = false)
+    private BigDecimal valorTotal;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Chave implements Serializable {
+        private Granularidade granularidade;
+        private LocalDateTime inicio;
+        private Long restauranteId;
+        private StatusPedido status;
+    }
+}
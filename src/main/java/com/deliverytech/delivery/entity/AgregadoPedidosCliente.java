@@ -0,0 +1,68 @@
+package com.deliverytech.delivery.entity;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import com.deliverytech.delivery.enums.Granularidade;
+import com.deliverytech.delivery.enums.StatusPedido;
+
+/**
+ * Clientes de cada dia de AgregadoPedidos, com quantos pedidos cada um tem nele. Clientes distintos
+ * não se somam entre intervalos; guardando quem são, a união de vários dias continua exata.
+ * A linha some quando a quantidade chega a zero. Só existe granularidade DIA: por hora seria quase
+ * uma linha por pedido; as horas das pontas de um período leem os clientes dos pedidos.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@IdClass(AgregadoPedidosCliente.Chave.class)
+@Table(name = "agregado_pedidos_clientes")
+public class AgregadoPedidosCliente {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 10)
+    private Granularidade granularidade;
+
+    @Id
+    private LocalDateTime inicio;
+
+    @Id
+    @Column(name = "restaurante_id")
+    private Long restauranteId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 30)
+    private StatusPedido status;
+
+    @Id
+    @Column(name = "cliente_id")
+    private Long clienteId;
+
+    @Column(name = "quantidade_pedidos", nullable = false)
+    private Long quantidadePedidos;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Chave implements Serializable {
+        private Granularidade granularidade;
+        private LocalDateTime inicio;
+        private Long restauranteId;
+        private StatusPedido status;
+        private Long clienteId;
+    }
+}
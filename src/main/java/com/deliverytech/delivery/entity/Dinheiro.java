@@ -0,0 +1,121 @@
+package com.deliverytech.delivery.entity;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+/**
+ * Valor em reais guardado como long de centavos. Soma, subtração e multiplicação por quantidade são
+ * feitas em long. As operações sempre devolvem um objeto novo (nunca a constante ZERO), o que permite
+ * à JIT eliminar os intermediários que não escapam; num laço, acumule centavos() num long.
+ *
+ * Regras de arredondamento: a única conversão com perda é a de entrada (BigDecimal/texto), que
+ * arredonda para centavos com HALF_UP, como o arredondamento comercial. Daí em diante as operações
+ * são exatas; estouro de long lança ArithmeticException em vez de dar a volta.
+ *
+ * No JSON sai como número com duas casas (36.00), igual ao BigDecimal de escala 2 que substitui.
+ * No banco vira DECIMAL pelo DinheiroConverter.
+ */
+@JsonSerialize(using = Dinheiro.Serializador.class)
+@JsonDeserialize(using = Dinheiro.Desserializador.class)
+public record Dinheiro(long centavos) implements Comparable<Dinheiro>, Serializable {
+
+    public static final Dinheiro ZERO = new Dinheiro(0);
+
+    public static Dinheiro deCentavos(long centavos) {
+        return centavos == 0 ? ZERO : new Dinheiro(centavos);
+    }
+
+    /**
+     * Valor arredondado para centavos (HALF_UP). null continua null.
+     */
+    public static Dinheiro de(BigDecimal valor) {
+        if (valor == null) {
+            return null;
+        }
+        return deCentavos(valor.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+    }
+
+    /**
+     * Valor a partir do texto decimal ("36", "36.5", "36.00")
+     */
+    public static Dinheiro de(String valor) {
+        try {
+            return de(new BigDecimal(valor.trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor monetário inválido: " + valor, e);
+        }
+    }
+
+    public Dinheiro mais(Dinheiro outro) {
+        return new Dinheiro(Math.addExact(centavos, outro.centavos));
+    }
+
+    public Dinheiro menos(Dinheiro outro) {
+        return new Dinheiro(Math.subtractExact(centavos, outro.centavos));
+    }
+
+    public Dinheiro vezes(long quantidade) {
+        return new Dinheiro(Math.multiplyExact(centavos, quantidade));
+    }
+
+    public int signum() {
+        return Long.signum(centavos);
+    }
+
+    public BigDecimal paraBigDecimal() {
+        return BigDecimal.valueOf(centavos, 2);
+    }
+
+    @Override
+    public int compareTo(Dinheiro outro) {
+        return Long.compare(centavos, outro.centavos);
+    }
+
+    /**
+     * Texto decimal com duas casas, sem separador de milhar (-0.05, 36.00)
+     */
+    @Override
+    public String toString() {
+        long reais = centavos / 100;
+        int resto = (int) Math.abs(centavos % 100);
+        String sinal = centavos < 0 && reais == 0 ? "-" : "";
+        return sinal + reais + (resto < 10 ? ".0" : ".") + resto;
+    }
+
+    public static class Serializador extends JsonSerializer<Dinheiro> {
+        @Override
+        public void serialize(Dinheiro valor, JsonGenerator gerador, SerializerProvider provider) throws IOException {
+            gerador.writeNumber(valor.toString());
+        }
+    }
+
+    public static class Desserializador extends JsonDeserializer<Dinheiro> {
+        @Override
+        public Dinheiro deserialize(JsonParser parser, DeserializationContext contexto) throws IOException {
+            JsonToken token = parser.currentToken();
+            if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+                return de(parser.getDecimalValue());
+            }
+            if (token == JsonToken.VALUE_STRING) {
+                try {
+                    return de(parser.getText());
+                } catch (IllegalArgumentException e) {
+                    return (Dinheiro) contexto.handleWeirdStringValue(Dinheiro.class, parser.getText(), e.getMessage());
+                }
+            }
+            return (Dinheiro) contexto.handleUnexpectedToken(Dinheiro.class, parser);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.deliverytech.delivery.entity;
+
+import java.math.BigDecimal;
+
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Coluna DECIMAL(…, 2) ↔ Dinheiro. Dinheiro é imutável: o Hibernate não precisa copiar o valor para
+ * detectar alteração, e o cache de segundo nível guarda o próprio BigDecimal da coluna.
+ */
+@Converter
+@Immutable
+public class DinheiroConverter implements AttributeConverter<Dinheiro, BigDecimal> {
+
+    @Override
+    public BigDecimal convertToDatabaseColumn(Dinheiro valor) {
+        return valor == null ? null : valor.paraBigDecimal();
+    }
+
+    @Override
+    public Dinheiro convertToEntityAttribute(BigDecimal coluna) {
+        return Dinheiro.de(coluna);
+    }
+}
@@ -0,0 +1,55 @@
+package com.deliverytech.delivery.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "itens_pedido", indexes = {
+    @Index(name = "idx_itens_pedido_pedido", columnList = "pedido_id"),
+    @Index(name = "idx_itens_pedido_produto", columnList = "produto_id")
+})
+public class ItemPedido {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "itens_pedido_seq")
+    @SequenceGenerator(name = "itens_pedido_seq", sequenceName = "itens_pedido_seq", allocationSize = 50)
+    private Long id;
+
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "pedido_id")
+    private Pedido pedido;
+
+    @ManyToOne
+    @JoinColumn(name = "produto_id")
+    private Produto produto;
+
+    private Integer quantidade;
+
+    // Preço do produto no momento do pedido
+    @Column(name = "preco_unitario")
+    @Convert(converter = DinheiroConverter.class)
+    private Dinheiro precoUnitario;
+
+    // Construtor para linhas novas: congela o preço atual do produto
+    public ItemPedido(Produto produto, Integer quantidade) {
+        this.produto = produto;
+        this.quantidade = quantidade;
+        this.precoUnitario = produto.getPreco();
+    }
+
+    public Dinheiro getSubtotal() {
+        return precoUnitario.vezes(quantidade);
+    }
+}
@@ -2,24 +2,39 @@ package com.deliverytech.delivery.entity;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import com.deliverytech.delivery.enums.StatusPedido;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 @Entity
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "pedidos")
+@Table(name = "pedidos", uniqueConstraints = @UniqueConstraint(name = Pedido.RESTRICAO_CHAVE_IDEMPOTENCIA, columnNames = "chave_idempotencia"), indexes = {
+    // Histórico do cliente: filtro por cliente e ordem (data_pedido, id) desc
+    @Index(name = "idx_pedidos_cliente_data", columnList = "cliente_id, data_pedido, id"),
+    @Index(name = "idx_pedidos_data_pedido", columnList = "data_pedido"),
+    @Index(name = "idx_pedidos_status_data", columnList = "status, data_pedido"),
+    @Index(name = "idx_pedidos_valor_total", columnList = "valor_total"),
+    @Index(name = "idx_pedidos_numero_pedido", columnList = "numero_pedido"),
+    @Index(name = "idx_pedidos_restaurante", columnList = "restaurante_id")
+})
 public class Pedido {
 
+    public static final String RESTRICAO_CHAVE_IDEMPOTENCIA = "uk_pedidos_chave_idempotencia";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pedidos_seq")
+    @SequenceGenerator(name = "pedidos_seq", sequenceName = "pedidos_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "numero_pedido")
@@ -36,6 +51,15 @@ public class Pedido {
 
     private String observacoes;
 
+    // Idempotency-Key da criação; a restrição única impede dois pedidos para a mesma chave
+    @Column(name = "chave_idempotencia", length = 100)
+    @JsonIgnore
+    private String chaveIdempotencia;
+
+    @Version
+    @JsonIgnore
+    private Long versao;
+
     @ManyToOne
     @JoinColumn(name = "cliente_id")
     private Cliente cliente;
@@ -44,11 +68,13 @@ public class Pedido {
     @JoinColumn(name = "restaurante_id")
     private Restaurante restaurante;
 
-    @ManyToMany
-    @JoinTable(
-        name = "pedido_produto",
-        joinColumns = @JoinColumn(name = "pedido_id"),
-        inverseJoinColumns = @JoinColumn(name = "produto_id")
-    )
-    private List<Produto> itens;
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @OneToMany(mappedBy = "pedido", cascade = CascadeType.ALL, orphanRemoval = true)
+    private List<ItemPedido> itens = new ArrayList<>();
+
+    public void adicionarItem(ItemPedido item) {
+        item.setPedido(this);
+        itens.add(item);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,64 @@
+package com.deliverytech.delivery.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.deliverytech.delivery.enums.StatusPedido;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Pedido finalizado (entregue ou cancelado) retirado da tabela de pedidos pelo arquivamento.
+ * As colunas servem de filtro; o pedido completo, com itens, fica em conteudo (JSON com gzip).
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "pedidos_arquivados", indexes = {
+    @Index(name = "idx_pedidos_arquivados_cliente_data", columnList = "cliente_id, data_pedido"),
+    @Index(name = "idx_pedidos_arquivados_restaurante", columnList = "restaurante_id"),
+    @Index(name = "idx_pedidos_arquivados_data_pedido", columnList = "data_pedido")
+})
+public class PedidoArquivado {
+
+    // Mesmo id do pedido original
+    @Id
+    private Long id;
+
+    @Column(name = "numero_pedido")
+    private String numeroPedido;
+
+    @Column(name = "data_pedido")
+    private LocalDateTime dataPedido;
+
+    @Enumerated(EnumType.STRING)
+    private StatusPedido status;
+
+    @Column(name = "valor_total")
+    private BigDecimal valorTotal;
+
+    @Column(name = "cliente_id")
+    private Long clienteId;
+
+    @Column(name = "restaurante_id")
+    private Long restauranteId;
+
+    @Column(name = "arquivado_em")
+    private LocalDateTime arquivadoEm;
+
+    @Lob
+    @ToString.Exclude
+    private byte[] conteudo;
+}
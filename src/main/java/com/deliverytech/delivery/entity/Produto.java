@@ -1,28 +1,36 @@
 package com.deliverytech.delivery.entity;
 
-import java.math.BigDecimal;
-
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "produtos")
+@Table(name = "produtos", indexes = {
+    @Index(name = "idx_produtos_restaurante_disponivel", columnList = "restaurante_id, disponivel"),
+    @Index(name = "idx_produtos_categoria", columnList = "categoria"),
+    @Index(name = "idx_produtos_preco", columnList = "preco")
+})
 public class Produto {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "produtos_seq")
+    @SequenceGenerator(name = "produtos_seq", sequenceName = "produtos_seq", allocationSize = 50)
     private Long id;
 
     private String nome;
 
     private String descricao;
 
-    private BigDecimal preco;
+    @Convert(converter = DinheiroConverter.class)
+    private Dinheiro preco;
 
     private String categoria;
 
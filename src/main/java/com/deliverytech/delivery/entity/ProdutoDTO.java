@@ -1,7 +1,5 @@
 package com.deliverytech.delivery.entity;
 
-import java.math.BigDecimal;
-
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -13,7 +11,7 @@ public class ProdutoDTO {
     private Long id;
     private String nome;
     private String descricao;
-    private BigDecimal preco;
+    private Dinheiro preco;
     private String categoria;
     private Boolean disponivel;
     private Long restauranteId;
@@ -0,0 +1,29 @@
+package com.deliverytech.delivery.enums;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Tamanho do intervalo de um agregado de pedidos (agregado_pedidos)
+ */
+public enum Granularidade {
+    HORA(ChronoUnit.HOURS),
+    DIA(ChronoUnit.DAYS);
+
+    private final ChronoUnit unidade;
+
+    Granularidade(ChronoUnit unidade) {
+        this.unidade = unidade;
+    }
+
+    /** Início do intervalo que contém o instante */
+    public LocalDateTime inicioDe(LocalDateTime instante) {
+        return instante.truncatedTo(unidade);
+    }
+
+    /** Primeiro início de intervalo igual ou posterior ao instante */
+    public LocalDateTime proximoInicio(LocalDateTime instante) {
+        LocalDateTime inicio = inicioDe(instante);
+        return inicio.equals(instante) ? inicio : inicio.plus(1, unidade);
+    }
+}
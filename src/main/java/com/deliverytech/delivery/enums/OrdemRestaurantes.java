@@ -0,0 +1,10 @@
+package com.deliverytech.delivery.enums;
+
+/**
+ * Ordenação da busca de restaurantes. Empates são desfeitos pelo id.
+ */
+public enum OrdemRestaurantes {
+    AVALIACAO,  // maior avaliação primeiro
+    TAXA,       // menor taxa de entrega primeiro
+    NOME
+}
@@ -0,0 +1,10 @@
+package com.deliverytech.delivery.enums;
+
+/**
+ * Andamento de um pedido enviado pela fila de criação assíncrona
+ */
+public enum SituacaoSolicitacao {
+    PENDENTE,
+    CRIADO,
+    REJEITADO
+}
@@ -0,0 +1,9 @@
+package com.deliverytech.delivery.events;
+
+import com.deliverytech.delivery.dto.ClienteResponseDTO;
+
+/**
+ * Publicado pelo ClienteService após cadastrar ou atualizar um cliente. anterior é null no cadastro.
+ */
+public record ClienteAlteradoEvent(ClienteResponseDTO anterior, ClienteResponseDTO atual) {
+}
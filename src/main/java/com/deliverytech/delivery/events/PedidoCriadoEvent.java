@@ -0,0 +1,26 @@
+package com.deliverytech.delivery.events;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.deliverytech.delivery.entity.Pedido;
+
+/**
+ * Publicado pelo PedidoService após criar um pedido. Leva só os dados necessários para os consumidores
+ * (rankings, agregados), sem referências a entidades.
+ */
+public record PedidoCriadoEvent(Long pedidoId, Long clienteId, Long restauranteId, LocalDateTime dataPedido,
+                                BigDecimal valorTotal, List<Item> itens) {
+
+    public record Item(Long produtoId, int quantidade) {
+    }
+
+    public static PedidoCriadoEvent de(Pedido pedido) {
+        return new PedidoCriadoEvent(pedido.getId(), pedido.getCliente().getId(), pedido.getRestaurante().getId(),
+            pedido.getDataPedido(), pedido.getValorTotal(),
+            pedido.getItens().stream()
+                .map(item -> new Item(item.getProduto().getId(), item.getQuantidade()))
+                .toList());
+    }
+}
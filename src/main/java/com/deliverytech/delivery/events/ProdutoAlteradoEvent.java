@@ -0,0 +1,10 @@
+package com.deliverytech.delivery.events;
+
+import com.deliverytech.delivery.entity.ProdutoDTO;
+
+/**
+ * Publicado pelo ProdutoService após cadastrar, atualizar, alterar disponibilidade ou excluir um produto.
+ * anterior é null no cadastro e atual é null na exclusão.
+ */
+public record ProdutoAlteradoEvent(ProdutoDTO anterior, ProdutoDTO atual) {
+}
@@ -0,0 +1,10 @@
+package com.deliverytech.delivery.events;
+
+import com.deliverytech.delivery.dto.RestauranteResponseDTO;
+
+/**
+ * Publicado pelo RestauranteService após cadastrar, atualizar, inativar ou excluir um restaurante.
+ * anterior é null no cadastro e atual é null na exclusão.
+ */
+public record RestauranteAlteradoEvent(RestauranteResponseDTO anterior, RestauranteResponseDTO atual) {
+}
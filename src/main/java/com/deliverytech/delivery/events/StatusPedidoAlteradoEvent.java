@@ -0,0 +1,19 @@
+package com.deliverytech.delivery.events;
+
+import java.time.LocalDateTime;
+
+import com.deliverytech.delivery.entity.Pedido;
+import com.deliverytech.delivery.enums.StatusPedido;
+
+/**
+ * Publicado quando um pedido é criado (anterior = null) ou muda de status pelo StatusPedidoPipeline.
+ * Alimenta o acompanhamento em tempo real (RastreamentoPedidos).
+ */
+public record StatusPedidoAlteradoEvent(Long pedidoId, Long restauranteId, StatusPedido anterior, StatusPedido status,
+                                        LocalDateTime momento) {
+
+    public static StatusPedidoAlteradoEvent criado(Pedido pedido) {
+        return new StatusPedidoAlteradoEvent(pedido.getId(), pedido.getRestaurante().getId(), null, pedido.getStatus(),
+            LocalDateTime.now());
+    }
+}
@@ -0,0 +1,11 @@
+package com.deliverytech.delivery.exceptions;
+
+/**
+ * A fila de criação assíncrona de pedidos está no limite; o cliente deve tentar de novo mais tarde.
+ */
+public class FilaPedidosCheiaException extends RuntimeException {
+
+    public FilaPedidosCheiaException(String message) {
+        super(message);
+    }
+}
@@ -26,6 +26,17 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
     }
 
+    @ExceptionHandler(ItensPedidoInvalidosException.class)
+    public ResponseEntity<ValidationErrorResponse> handleItensPedidoInvalidos(ItensPedidoInvalidosException ex) {
+        ValidationErrorResponse error = new ValidationErrorResponse(
+                HttpStatus.BAD_REQUEST.value(),
+                "Itens do pedido inválidos",
+                ex.getErros(),
+                LocalDateTime.now()
+        );
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
     @ExceptionHandler(BusinessException.class)
     public ResponseEntity<ValidationErrorResponse> handleBusinessException(BusinessException ex) {
         ValidationErrorResponse error = new ValidationErrorResponse(
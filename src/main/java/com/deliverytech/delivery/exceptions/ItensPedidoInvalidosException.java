@@ -0,0 +1,20 @@
+package com.deliverytech.delivery.exceptions;
+
+import java.util.Map;
+
+/**
+ * Relatório completo dos itens inválidos de um pedido, indexado pela posição do item ("itens[i]").
+ */
+public class ItensPedidoInvalidosException extends BusinessException {
+
+    private final Map<String, String> erros;
+
+    public ItensPedidoInvalidosException(Map<String, String> erros) {
+        super("Itens do pedido inválidos: " + String.join("; ", erros.values()));
+        this.erros = erros;
+    }
+
+    public Map<String, String> getErros() {
+        return erros;
+    }
+}
@@ -0,0 +1,11 @@
+package com.deliverytech.delivery.exceptions;
+
+/**
+ * A requisição original com a mesma Idempotency-Key ainda não terminou dentro do tempo de espera.
+ */
+public class RequisicaoEmAndamentoException extends RuntimeException {
+
+    public RequisicaoEmAndamentoException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,56 @@
+package com.deliverytech.delivery.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.QueryHint;
+
+import com.deliverytech.delivery.entity.AgregadoPedidosCliente;
+import com.deliverytech.delivery.enums.Granularidade;
+import com.deliverytech.delivery.enums.StatusPedido;
+
+@Repository
+public interface AgregadoPedidosClienteRepository extends JpaRepository<AgregadoPedidosCliente, AgregadoPedidosCliente.Chave> {
+
+    // Contar (ou descontar) um pedido do cliente no intervalo; a linha é apagada quando fica sem pedidos
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "agregado_pedidos_clientes"))
+    @Query(value = """
+        MERGE INTO agregado_pedidos_clientes c
+        USING (VALUES (CAST(:granularidade AS VARCHAR(10)), CAST(:inicio AS TIMESTAMP(6)), CAST(:restauranteId AS BIGINT),
+                       CAST(:status AS VARCHAR(30)), CAST(:clienteId AS BIGINT)))
+            AS n (granularidade, inicio, restaurante_id, status, cliente_id)
+        ON c.granularidade = n.granularidade AND c.inicio = n.inicio AND c.restaurante_id = n.restaurante_id
+            AND c.status = n.status AND c.cliente_id = n.cliente_id
+        WHEN MATCHED AND c.quantidade_pedidos + :quantidade <= 0 THEN DELETE
+        WHEN MATCHED THEN UPDATE SET quantidade_pedidos = c.quantidade_pedidos + :quantidade
+        WHEN NOT MATCHED AND :quantidade > 0 THEN INSERT (granularidade, inicio, restaurante_id, status, cliente_id, quantidade_pedidos)
+            VALUES (n.granularidade, n.inicio, n.restaurante_id, n.status, n.cliente_id, :quantidade)
+        """, nativeQuery = true)
+    int acumular(@Param("granularidade") String granularidade,
+                 @Param("inicio") LocalDateTime inicio,
+                 @Param("restauranteId") Long restauranteId,
+                 @Param("status") String status,
+                 @Param("clienteId") Long clienteId,
+                 @Param("quantidade") long quantidade);
+
+    // Clientes de cada restaurante e status nos dias inteiros de [de, ate) (só há linhas por DIA)
+    @Query("""
+        SELECT DISTINCT c.restauranteId, c.status, c.clienteId
+        FROM AgregadoPedidosCliente c
+        WHERE c.granularidade = :granularidade AND c.inicio >= :de AND c.inicio < :ate AND c.status IN :status
+        """)
+    List<Object[]> clientesEntre(@Param("granularidade") Granularidade granularidade,
+                                 @Param("de") LocalDateTime de,
+                                 @Param("ate") LocalDateTime ate,
+                                 @Param("status") Collection<StatusPedido> status);
+}
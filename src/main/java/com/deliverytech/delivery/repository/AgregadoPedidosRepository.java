@@ -0,0 +1,56 @@
+package com.deliverytech.delivery.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.QueryHint;
+
+import com.deliverytech.delivery.entity.AgregadoPedidos;
+import com.deliverytech.delivery.enums.Granularidade;
+import com.deliverytech.delivery.enums.StatusPedido;
+
+@Repository
+public interface AgregadoPedidosRepository extends JpaRepository<AgregadoPedidos, AgregadoPedidos.Chave> {
+
+    // Somar (ou subtrair) no intervalo, criando a linha se ainda não existe. MERGE numa instrução só:
+    // dois pedidos no mesmo intervalo novo não disputam o insert. O hint limita o flush antes dela a esta tabela.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "agregado_pedidos"))
+    @Query(value = """
+        MERGE INTO agregado_pedidos a
+        USING (VALUES (CAST(:granularidade AS VARCHAR(10)), CAST(:inicio AS TIMESTAMP(6)), CAST(:restauranteId AS BIGINT), CAST(:status AS VARCHAR(30))))
+            AS n (granularidade, inicio, restaurante_id, status)
+        ON a.granularidade = n.granularidade AND a.inicio = n.inicio AND a.restaurante_id = n.restaurante_id AND a.status = n.status
+        WHEN MATCHED THEN UPDATE SET quantidade_pedidos = a.quantidade_pedidos + :quantidade, valor_total = a.valor_total + :valor
+        WHEN NOT MATCHED THEN INSERT (granularidade, inicio, restaurante_id, status, quantidade_pedidos, valor_total)
+            VALUES (n.granularidade, n.inicio, n.restaurante_id, n.status, :quantidade, :valor)
+        """, nativeQuery = true)
+    int acumular(@Param("granularidade") String granularidade,
+                 @Param("inicio") LocalDateTime inicio,
+                 @Param("restauranteId") Long restauranteId,
+                 @Param("status") String status,
+                 @Param("quantidade") long quantidade,
+                 @Param("valor") BigDecimal valor);
+
+    // Intervalos inteiros de [de, ate), somados por restaurante e status
+    @Query("""
+        SELECT a.restauranteId, a.status, SUM(a.quantidadePedidos), SUM(a.valorTotal)
+        FROM AgregadoPedidos a
+        WHERE a.granularidade = :granularidade AND a.inicio >= :de AND a.inicio < :ate AND a.status IN :status
+        GROUP BY a.restauranteId, a.status
+        """)
+    List<Object[]> somarEntre(@Param("granularidade") Granularidade granularidade,
+                              @Param("de") LocalDateTime de,
+                              @Param("ate") LocalDateTime ate,
+                              @Param("status") Collection<StatusPedido> status);
+}
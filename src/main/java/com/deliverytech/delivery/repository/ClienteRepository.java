@@ -6,7 +6,10 @@ import com.deliverytech.delivery.entity.Cliente;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 @Repository
 public interface ClienteRepository extends JpaRepository<Cliente, Long> {
@@ -22,4 +25,19 @@ public interface ClienteRepository extends JpaRepository<Cliente, Long> {
 
     // Buscar clientes por nome (contendo, ignorando maiúsculas/minúsculas)
     List<Cliente> findByNomeContainingIgnoreCase(String nome);
+
+    // Mesma busca, paginada por id (usada enquanto o índice de nomes ainda está carregando)
+    List<Cliente> findByNomeContainingIgnoreCaseAndIdGreaterThanOrderByIdAsc(String nome, Long id, Limit limite);
+
+    // IDs de todos os clientes (validação da importação em lote)
+    @Query("SELECT c.id FROM Cliente c")
+    List<Long> listarIds();
+
+    // Id e nome em ordem de id a partir de um id (carga do índice de nomes em lotes)
+    @Query("SELECT c.id, c.nome FROM Cliente c WHERE c.id > :apos ORDER BY c.id")
+    List<Object[]> listarNomesAposId(@Param("apos") Long apos, Limit limite);
+
+    // Id e email em ordem de id a partir de um id (carga do filtro de emails em lotes)
+    @Query("SELECT c.id, c.email FROM Cliente c WHERE c.id > :apos ORDER BY c.id")
+    List<Object[]> listarEmailsAposId(@Param("apos") Long apos, Limit limite);
 }
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.deliverytech.delivery.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.deliverytech.delivery.dto.PedidoResumoDTO;
+import com.deliverytech.delivery.entity.PedidoArquivado;
+import com.deliverytech.delivery.enums.StatusPedido;
+
+@Repository
+public interface PedidoArquivadoRepository extends JpaRepository<PedidoArquivado, Long> {
+
+    // Pedidos arquivados do cliente, do mais recente para o mais antigo, sem abrir o conteúdo
+    @Query("""
+        SELECT new com.deliverytech.delivery.dto.PedidoResumoDTO(a.id, a.numeroPedido, a.dataPedido, a.status, a.valorTotal)
+        FROM PedidoArquivado a
+        WHERE a.clienteId = :clienteId
+        ORDER BY a.dataPedido DESC, a.id DESC
+        """)
+    List<PedidoResumoDTO> historicoDoCliente(@Param("clienteId") Long clienteId, Limit limite);
+
+    // Parte arquivada das bordas do relatório por período
+    @Query("""
+        SELECT a.restauranteId, a.status, a.clienteId, a.valorTotal
+        FROM PedidoArquivado a
+        WHERE a.dataPedido >= :de AND a.dataPedido < :ate AND a.status IN :status
+        """)
+    List<Object[]> linhasParaAgregadoEntre(@Param("de") LocalDateTime de,
+                                           @Param("ate") LocalDateTime ate,
+                                           @Param("status") Collection<StatusPedido> status);
+}
@@ -2,23 +2,30 @@ package com.deliverytech.delivery.repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.deliverytech.delivery.entity.Pedido;
 import com.deliverytech.delivery.enums.StatusPedido;
-import com.deliverytech.delivery.dto.VendasRestauranteDTO;
 import com.deliverytech.delivery.dto.PedidoResumoDTO;
+import com.deliverytech.delivery.dto.ProdutoMaisVendidoDTO;
+import com.deliverytech.delivery.dto.ClienteRankingDTO;
 
 @Repository
 public interface PedidoRepository extends JpaRepository<Pedido, Long> {
 
     // 🔹 Métodos derivados
-    List<Pedido> findByClienteIdOrderByDataPedidoDesc(Long clienteId);
+    // JPQL em vez de derivado: o derivado filtrava pelo id de clientes num left join e percorria todo o idx_pedidos_data_pedido
+    @Query("SELECT p FROM Pedido p WHERE p.cliente.id = :clienteId ORDER BY p.dataPedido DESC")
+    List<Pedido> findByClienteIdOrderByDataPedidoDesc(@Param("clienteId") Long clienteId);
 
     List<Pedido> findByNumeroPedido(String numeroPedido);
 
@@ -30,37 +37,122 @@ public interface PedidoRepository extends JpaRepository<Pedido, Long> {
 
     // 🔹 Consultas com @Query
 
-    @Query("SELECT r.nome AS nome, SUM(p.valorTotal) AS total FROM Pedido p JOIN p.restaurante r GROUP BY r.nome")
-    List<VendasRestauranteDTO> gerarRelatorioVendas();
-
-    @Query("SELECT p FROM Pedido p WHERE p.valorTotal > :valorMinimo")
+    @Query("SELECT p FROM Pedido p JOIN FETCH p.cliente JOIN FETCH p.restaurante WHERE p.id IN :ids")
+    List<Pedido> findAllByIdParaAtualizacao(@Param("ids") Collection<Long> ids);
+
+    // 🔹 Pedido completo (cliente, restaurante, itens e produtos) numa única consulta, para montar PedidoResponseDTO
+
+    @Query("""
+        SELECT p FROM Pedido p
+        JOIN FETCH p.cliente JOIN FETCH p.restaurante
+        LEFT JOIN FETCH p.itens i LEFT JOIN FETCH i.produto
+        WHERE p.id = :id
+        """)
+    Optional<Pedido> buscarCompletoPorId(@Param("id") Long id);
+
+    @Query("""
+        SELECT p FROM Pedido p
+        JOIN FETCH p.cliente JOIN FETCH p.restaurante
+        LEFT JOIN FETCH p.itens i LEFT JOIN FETCH i.produto
+        WHERE p.valorTotal > :valorMinimo
+        """)
     List<Pedido> pedidosComValorAcima(@Param("valorMinimo") BigDecimal valorMinimo);
 
-    @Query("SELECT p FROM Pedido p WHERE p.dataPedido BETWEEN :inicio AND :fim AND p.status = :status")
+    @Query("""
+        SELECT p FROM Pedido p
+        JOIN FETCH p.cliente JOIN FETCH p.restaurante
+        LEFT JOIN FETCH p.itens i LEFT JOIN FETCH i.produto
+        WHERE p.dataPedido BETWEEN :inicio AND :fim AND p.status = :status
+        """)
     List<Pedido> relatorioPorPeriodoEStatus(@Param("inicio") LocalDateTime inicio,
                                             @Param("fim") LocalDateTime fim,
                                             @Param("status") StatusPedido status);
 
-    @Query("SELECT p.numeroPedido AS numeroPedido, p.valorTotal AS valorTotal, p.status AS status FROM Pedido p WHERE p.dataPedido BETWEEN :inicio AND :fim")
+    @Query("SELECT new com.deliverytech.delivery.dto.PedidoResumoDTO(p.id, p.numeroPedido, p.dataPedido, p.status, p.valorTotal) FROM Pedido p WHERE p.dataPedido BETWEEN :inicio AND :fim")
     List<PedidoResumoDTO> buscarPedidosPorPeriodo(@Param("inicio") LocalDateTime inicio,
                                                   @Param("fim") LocalDateTime fim);
 
-    // 🔹 Consultas nativas (opcional)
-
-    @Query(value = """
-        SELECT produto_id, COUNT(*) AS quantidade
-        FROM pedido_produto
-        GROUP BY produto_id
-        ORDER BY quantidade DESC
-        LIMIT 5
-        """, nativeQuery = true)
-    List<Object[]> produtosMaisVendidos();
-
-    @Query(value = """
-        SELECT cliente_id, COUNT(*) AS total_pedidos
-        FROM pedidos
-        GROUP BY cliente_id
-        ORDER BY total_pedidos DESC
-        """, nativeQuery = true)
-    List<Object[]> rankingClientesPorPedidos();
+    // Pedidos de [de, ate) sem montar entidades: bordas do relatório por período que não fecham uma hora
+    @Query("""
+        SELECT p.restaurante.id, p.status, p.cliente.id, p.valorTotal
+        FROM Pedido p
+        WHERE p.dataPedido >= :de AND p.dataPedido < :ate AND p.status IN :status
+        """)
+    List<Object[]> linhasParaAgregadoEntre(@Param("de") LocalDateTime de,
+                                           @Param("ate") LocalDateTime ate,
+                                           @Param("status") Collection<StatusPedido> status);
+
+    // 🔹 Histórico do cliente paginado por chave (dataPedido, id), do mais recente para o mais antigo
+
+    @Query("""
+        SELECT new com.deliverytech.delivery.dto.PedidoResumoDTO(p.id, p.numeroPedido, p.dataPedido, p.status, p.valorTotal)
+        FROM Pedido p
+        WHERE p.cliente.id = :clienteId
+        ORDER BY p.dataPedido DESC, p.id DESC
+        """)
+    List<PedidoResumoDTO> historicoDoCliente(@Param("clienteId") Long clienteId, Limit limite);
+
+    @Query("""
+        SELECT new com.deliverytech.delivery.dto.PedidoResumoDTO(p.id, p.numeroPedido, p.dataPedido, p.status, p.valorTotal)
+        FROM Pedido p
+        WHERE p.cliente.id = :clienteId
+          AND (p.dataPedido < :dataPedido OR (p.dataPedido = :dataPedido AND p.id < :id))
+        ORDER BY p.dataPedido DESC, p.id DESC
+        """)
+    List<PedidoResumoDTO> historicoDoClienteApos(@Param("clienteId") Long clienteId,
+                                                 @Param("dataPedido") LocalDateTime dataPedido,
+                                                 @Param("id") Long id,
+                                                 Limit limite);
+
+    // 🔹 Rankings por janela (modo exato e reconstrução do RankingService)
+
+    @Query("""
+        SELECT new com.deliverytech.delivery.dto.ProdutoMaisVendidoDTO(i.produto.id, i.produto.nome, SUM(i.quantidade))
+        FROM Pedido p JOIN p.itens i
+        WHERE p.dataPedido >= :desde
+        GROUP BY i.produto.id, i.produto.nome
+        ORDER BY SUM(i.quantidade) DESC, i.produto.id
+        """)
+    List<ProdutoMaisVendidoDTO> produtosMaisVendidosDesde(@Param("desde") LocalDateTime desde, Limit limite);
+
+    @Query("""
+        SELECT new com.deliverytech.delivery.dto.ClienteRankingDTO(p.cliente.id, p.cliente.nome, COUNT(p))
+        FROM Pedido p
+        WHERE p.dataPedido >= :desde
+        GROUP BY p.cliente.id, p.cliente.nome
+        ORDER BY COUNT(p) DESC, p.cliente.id
+        """)
+    List<ClienteRankingDTO> rankingClientesDesde(@Param("desde") LocalDateTime desde, Limit limite);
+
+    @Query("SELECT i.produto.id, i.quantidade, p.dataPedido FROM Pedido p JOIN p.itens i WHERE p.dataPedido >= :desde")
+    List<Object[]> itensVendidosDesde(@Param("desde") LocalDateTime desde);
+
+    @Query("SELECT p.cliente.id, p.dataPedido FROM Pedido p WHERE p.dataPedido >= :desde")
+    List<Object[]> pedidosPorClienteDesde(@Param("desde") LocalDateTime desde);
+
+    @Query("SELECT p.id FROM Pedido p WHERE p.chaveIdempotencia = :chave")
+    Optional<Long> buscarIdPorChaveIdempotencia(@Param("chave") String chave);
+
+    // 🔹 Arquivamento de pedidos finalizados
+
+    @Query("SELECT p.id FROM Pedido p WHERE p.status IN :status AND p.dataPedido < :limite ORDER BY p.id")
+    List<Long> idsParaArquivar(@Param("status") Collection<StatusPedido> status,
+                               @Param("limite") LocalDateTime limite,
+                               Limit lote);
+
+    @Query("""
+        SELECT DISTINCT p FROM Pedido p
+        JOIN FETCH p.cliente JOIN FETCH p.restaurante
+        LEFT JOIN FETCH p.itens i LEFT JOIN FETCH i.produto
+        WHERE p.id IN :ids
+        """)
+    List<Pedido> buscarCompletosPorIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM ItemPedido i WHERE i.pedido.id IN :ids")
+    int excluirItensDosPedidos(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM Pedido p WHERE p.id IN :ids")
+    int excluirPorIds(@Param("ids") Collection<Long> ids);
 }
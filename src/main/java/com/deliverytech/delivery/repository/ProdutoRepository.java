@@ -1,29 +1,74 @@
 package com.deliverytech.delivery.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.hibernate.jpa.HibernateHints;
+import jakarta.persistence.QueryHint;
 
+import com.deliverytech.delivery.entity.Dinheiro;
 import com.deliverytech.delivery.entity.Produto;
+import com.deliverytech.delivery.entity.ProdutoDTO;
 
-import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ProdutoRepository extends JpaRepository<Produto, Long> {
 
-    // Buscar produto por restaurante ID
-    List<Produto> findByRestauranteId(Long restauranteId);
+    // Buscar produto por restaurante ID. Escrita em JPQL: a consulta derivada fazia left join com restaurantes
+    // e filtrava pelo id de lá, varrendo produtos em vez de usar idx_produtos_restaurante_disponivel
+    @Query("SELECT p FROM Produto p WHERE p.restaurante.id = :restauranteId")
+    List<Produto> findByRestauranteId(@Param("restauranteId") Long restauranteId);
 
     // Buscar produtos disponíveis
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "consultas-produtos")
+    })
     List<Produto> findByDisponivelTrue();
 
     // Buscar produtos por categoria
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "consultas-produtos")
+    })
     List<Produto> findByCategoria(String categoria);
 
     // Buscar produtos com preço menor ou igual ao valor informado
-    List<Produto> findByPrecoLessThanEqual(BigDecimal preco);
+    List<Produto> findByPrecoLessThanEqual(Dinheiro preco);
 
-    List<Produto> findByRestauranteIdAndDisponivelTrue(Long restauranteId);
+    @Query("SELECT p FROM Produto p WHERE p.restaurante.id = :restauranteId AND p.disponivel = true")
+    List<Produto> findByRestauranteIdAndDisponivelTrue(@Param("restauranteId") Long restauranteId);
     
     List<Produto> findByCategoriaIgnoreCase(String categoria);
-}
\ No newline at end of file
+
+    // Buscar vários produtos de uma vez, já com o restaurante carregado (uma única consulta)
+    @Query("SELECT p FROM Produto p JOIN FETCH p.restaurante WHERE p.id IN :ids")
+    List<Produto> findAllByIdComRestaurante(@Param("ids") Collection<Long> ids);
+
+    // Preço e restaurante de cada produto, sem montar entidades (validação da importação em lote)
+    @Query("SELECT p.id, p.preco, p.restaurante.id FROM Produto p")
+    List<Object[]> listarPrecosERestaurantes();
+
+    // Produtos em ordem de id a partir de um id, já como DTO (carga do índice de busca em lotes)
+    @Query("SELECT new com.deliverytech.delivery.entity.ProdutoDTO(p.id, p.nome, p.descricao, p.preco, p.categoria, p.disponivel, p.restaurante.id) " +
+           "FROM Produto p WHERE p.id > :apos ORDER BY p.id")
+    List<ProdutoDTO> listarAposId(@Param("apos") Long apos, Limit limite);
+
+    // Busca por trecho (já em minúsculas, com % e _ escapados) enquanto o índice em memória não está pronto;
+    // apenasDisponiveis = false aceita também disponivel = false (comparado à coluna para o tipo do parâmetro ser conhecido)
+    @Query("SELECT new com.deliverytech.delivery.entity.ProdutoDTO(p.id, p.nome, p.descricao, p.preco, p.categoria, p.disponivel, p.restaurante.id) " +
+           "FROM Produto p " +
+           "WHERE (:restauranteId IS NULL OR p.restaurante.id = :restauranteId) " +
+           "AND (p.disponivel = true OR p.disponivel = :apenasDisponiveis) " +
+           "AND (LOWER(p.nome) LIKE :trecho ESCAPE '\\' OR LOWER(p.descricao) LIKE :trecho ESCAPE '\\' OR LOWER(p.categoria) LIKE :trecho ESCAPE '\\') " +
+           "ORDER BY p.nome, p.id")
+    List<ProdutoDTO> buscarPorTrecho(@Param("trecho") String trecho,
+                                     @Param("restauranteId") Long restauranteId,
+                                     @Param("apenasDisponiveis") boolean apenasDisponiveis,
+                                     Limit limite);
+}
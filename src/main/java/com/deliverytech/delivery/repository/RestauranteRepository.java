@@ -4,9 +4,14 @@ import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
 import com.deliverytech.delivery.entity.Restaurante;
 
 @Repository
@@ -16,9 +21,17 @@ public interface RestauranteRepository extends JpaRepository<Restaurante, Long>
     Optional<Restaurante> findByNome(String nome);
 
     // Buscar restaurantes ativos
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "consultas-restaurantes")
+    })
     List<Restaurante> findByAtivoTrue();
 
     // Buscar por categoria
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "consultas-restaurantes")
+    })
     List<Restaurante> findByCategoria(String categoria);
 
     // Buscar restaurantes com taxa de entrega menor ou igual
@@ -26,4 +39,8 @@ public interface RestauranteRepository extends JpaRepository<Restaurante, Long>
 
     // Buscar os 5 primeiros restaurantes ordenados por nome (ascendente)
     List<Restaurante> findTop5ByOrderByNomeAsc();
+
+    // Taxa de entrega de cada restaurante, sem montar entidades (validação da importação em lote)
+    @Query("SELECT r.id, r.taxaEntrega FROM Restaurante r")
+    List<Object[]> listarTaxasEntrega();
 }
@@ -0,0 +1,74 @@
+package com.deliverytech.delivery.repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+import com.deliverytech.delivery.dto.VendasRestauranteDTO;
+import com.deliverytech.delivery.entity.VendasRestaurante;
+
+@Repository
+public interface VendasRestauranteRepository extends JpaRepository<VendasRestaurante, Long> {
+
+    // Somar (ou subtrair) direto no banco, sem ler a linha antes, criando a linha se ainda não existe.
+    // MERGE numa instrução só: dois pedidos do primeiro restaurante sem linha não disputam o insert.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "vendas_restaurante"))
+    @Query(value = """
+        MERGE INTO vendas_restaurante v
+        USING (VALUES (CAST(:restauranteId AS BIGINT))) AS n (restaurante_id)
+        ON v.restaurante_id = n.restaurante_id
+        WHEN MATCHED THEN UPDATE SET valor_total = v.valor_total + :valor, quantidade_pedidos = v.quantidade_pedidos + :quantidade
+        WHEN NOT MATCHED THEN INSERT (restaurante_id, valor_total, quantidade_pedidos) VALUES (n.restaurante_id, :valor, :quantidade)
+        """, nativeQuery = true)
+    int acumular(@Param("restauranteId") Long restauranteId,
+                 @Param("valor") BigDecimal valor,
+                 @Param("quantidade") long quantidade);
+
+    // Linha zerada para cada restaurante que ainda não tem (antes de travar as linhas na reconciliação)
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "vendas_restaurante"))
+    @Query(value = """
+        MERGE INTO vendas_restaurante v
+        USING (SELECT id FROM restaurantes) AS r
+        ON v.restaurante_id = r.id
+        WHEN NOT MATCHED THEN INSERT (restaurante_id, valor_total, quantidade_pedidos) VALUES (r.id, 0, 0)
+        """, nativeQuery = true)
+    int criarLinhasQueFaltam();
+
+    // SELECT ... FOR UPDATE: quem já somou espera a reconciliação terminar; quem somou antes já terminou
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT v FROM VendasRestaurante v ORDER BY v.restauranteId")
+    List<VendasRestaurante> travarTodas();
+
+    // Vendas recalculadas dos pedidos ativos e dos arquivados numa instrução só: o arquivamento move
+    // pedidos entre as duas tabelas, e duas consultas separadas contariam um pedido movido duas ou nenhuma vez.
+    // Linhas: restaurante_id, valor_total, quantidade_pedidos.
+    @Query(value = """
+        SELECT t.restaurante_id, SUM(t.valor_total), COUNT(*)
+        FROM (SELECT p.restaurante_id, p.valor_total FROM pedidos p WHERE p.status <> 'CANCELADO'
+              UNION ALL
+              SELECT a.restaurante_id, a.valor_total FROM pedidos_arquivados a WHERE a.status <> 'CANCELADO') t
+        GROUP BY t.restaurante_id
+        """, nativeQuery = true)
+    List<Object[]> recalcular();
+
+    // Relatório lido do agregado: uma linha por restaurante
+    @Query("""
+        SELECT new com.deliverytech.delivery.dto.VendasRestauranteDTO(v.restauranteId, r.nome, v.valorTotal, v.quantidadePedidos)
+        FROM VendasRestaurante v JOIN Restaurante r ON r.id = v.restauranteId
+        ORDER BY r.nome
+        """)
+    List<VendasRestauranteDTO> relatorio();
+}
@@ -0,0 +1,274 @@
+package com.deliverytech.delivery.services;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.deliverytech.delivery.dto.ResumoPeriodoDTO;
+import com.deliverytech.delivery.entity.Pedido;
+import com.deliverytech.delivery.entity.Restaurante;
+import com.deliverytech.delivery.enums.Granularidade;
+import com.deliverytech.delivery.enums.StatusPedido;
+import com.deliverytech.delivery.repository.AgregadoPedidosClienteRepository;
+import com.deliverytech.delivery.repository.AgregadoPedidosRepository;
+import com.deliverytech.delivery.repository.PedidoArquivadoRepository;
+import com.deliverytech.delivery.repository.PedidoRepository;
+import com.deliverytech.delivery.repository.RestauranteRepository;
+
+/**
+ * Agregados de pedidos por hora e por dia, por restaurante e status: quantidade e soma de valor_total;
+ * os clientes de cada dia ficam em AgregadoPedidosCliente. Os métodos de registro participam da transação
+ * do pedido, como o agregado de vendas.
+ *
+ * O relatório por período junta os dias inteiros do intervalo, as horas inteiras das pontas e só lê
+ * pedidos (ativos e arquivados) nos pedaços de hora do começo e do fim. Clientes distintos são exatos:
+ * vêm dos dias inteiros e, nas pontas, dos pedidos de até um dia de cada lado, então essa parte do
+ * relatório cresce com os pedidos das pontas e não só com o número de intervalos.
+ */
+@Service
+public class AgregadoPedidosService {
+
+    private static final Set<StatusPedido> TODOS = EnumSet.allOf(StatusPedido.class);
+
+    /** Pedaço [de, ate) do intervalo pedido; granularidade null = ler os pedidos */
+    record Fatia(Granularidade granularidade, LocalDateTime de, LocalDateTime ate) {
+    }
+
+    private record Chave(Long restauranteId, StatusPedido status) {
+    }
+
+    private static final class Acumulado {
+        long quantidade;
+        BigDecimal valor = BigDecimal.ZERO;
+        final Set<Long> clientes = new HashSet<>();
+    }
+
+    private record Intervalo(Granularidade granularidade, LocalDateTime inicio, Long restauranteId, StatusPedido status) {
+        static final Comparator<Intervalo> ORDEM = Comparator.comparing(Intervalo::granularidade)
+            .thenComparing(Intervalo::inicio).thenComparing(Intervalo::restauranteId).thenComparing(Intervalo::status);
+    }
+
+    private record IntervaloCliente(Intervalo intervalo, Long clienteId) {
+        static final Comparator<IntervaloCliente> ORDEM = Comparator.comparing(IntervaloCliente::intervalo, Intervalo.ORDEM)
+            .thenComparing(IntervaloCliente::clienteId);
+    }
+
+    private static final class Soma {
+        long quantidade;
+        BigDecimal valor = BigDecimal.ZERO;
+    }
+
+    /** Somas por intervalo ainda não gravadas, ordenadas pela chave */
+    private static final class Lancamentos {
+        final Map<Intervalo, Soma> intervalos = new TreeMap<>(Intervalo.ORDEM);
+        final Map<IntervaloCliente, Long> clientes = new TreeMap<>(IntervaloCliente.ORDEM);
+
+        void somar(Pedido pedido, StatusPedido status, long quantidade) {
+            Long clienteId = pedido.getCliente() != null ? pedido.getCliente().getId() : null;
+            BigDecimal valor = pedido.getValorTotal() != null ? pedido.getValorTotal() : BigDecimal.ZERO;
+            if (quantidade < 0) {
+                valor = valor.negate();
+            }
+            for (Granularidade granularidade : Granularidade.values()) {
+                Intervalo intervalo = new Intervalo(granularidade, granularidade.inicioDe(pedido.getDataPedido()),
+                    pedido.getRestaurante().getId(), status);
+                Soma soma = intervalos.computeIfAbsent(intervalo, i -> new Soma());
+                soma.quantidade += quantidade;
+                soma.valor = soma.valor.add(valor);
+                if (clienteId != null && granularidade == Granularidade.DIA) {
+                    clientes.merge(new IntervaloCliente(intervalo, clienteId), quantidade, Long::sum);
+                }
+            }
+        }
+    }
+
+    @Autowired
+    private AgregadoPedidosRepository agregadoRepository;
+
+    @Autowired
+    private AgregadoPedidosClienteRepository clientesRepository;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private PedidoArquivadoRepository pedidoArquivadoRepository;
+
+    @Autowired
+    private RestauranteRepository restauranteRepository;
+
+    /**
+     * Somar um pedido novo aos intervalos da sua hora e do seu dia
+     */
+    @Transactional
+    public void registrarPedido(Pedido pedido) {
+        registrarPedidos(List.of(pedido));
+    }
+
+    /**
+     * Somar vários pedidos novos (um lote de importação): uma instrução por intervalo, não por pedido
+     */
+    @Transactional
+    public void registrarPedidos(Collection<Pedido> pedidos) {
+        Lancamentos lancamentos = new Lancamentos();
+        for (Pedido pedido : pedidos) {
+            lancamentos.somar(pedido, pedido.getStatus(), 1);
+        }
+        gravar(lancamentos);
+    }
+
+    /**
+     * Mover o pedido do status anterior para o novo nos intervalos da sua hora e do seu dia
+     */
+    @Transactional
+    public void registrarMudancaStatus(Pedido pedido, StatusPedido anterior, StatusPedido novo) {
+        if (anterior == novo) {
+            return;
+        }
+        Lancamentos lancamentos = new Lancamentos();
+        lancamentos.somar(pedido, anterior, -1);
+        lancamentos.somar(pedido, novo, 1);
+        gravar(lancamentos);
+    }
+
+    /**
+     * Quantidade, valor e clientes distintos por restaurante e status dos pedidos com data_pedido
+     * entre inicio e fim (inclusive, como o BETWEEN das consultas por período). status null = todos.
+     */
+    @Transactional(readOnly = true)
+    public List<ResumoPeriodoDTO> resumo(LocalDateTime inicio, LocalDateTime fim, StatusPedido status) {
+        Collection<StatusPedido> filtro = status != null ? EnumSet.of(status) : TODOS;
+        // data_pedido tem precisão de microssegundos: "até fim, inclusive" = "antes de fim + 1µs"
+        LocalDateTime ate = fim.truncatedTo(ChronoUnit.MICROS).plus(1, ChronoUnit.MICROS);
+
+        Map<Chave, Acumulado> resultado = new HashMap<>();
+        for (Fatia fatia : fatiar(inicio, ate)) {
+            if (fatia.granularidade() == null) {
+                somarLinhas(resultado, pedidoRepository.linhasParaAgregadoEntre(fatia.de(), fatia.ate(), filtro));
+                somarLinhas(resultado, pedidoArquivadoRepository.linhasParaAgregadoEntre(fatia.de(), fatia.ate(), filtro));
+                continue;
+            }
+            for (Object[] linha : agregadoRepository.somarEntre(fatia.granularidade(), fatia.de(), fatia.ate(), filtro)) {
+                Acumulado acumulado = acumuladoDe(resultado, linha);
+                acumulado.quantidade += ((Number) linha[2]).longValue();
+                acumulado.valor = acumulado.valor.add((BigDecimal) linha[3]);
+            }
+            if (fatia.granularidade() == Granularidade.DIA) {
+                for (Object[] linha : clientesRepository.clientesEntre(fatia.granularidade(), fatia.de(), fatia.ate(), filtro)) {
+                    acumuladoDe(resultado, linha).clientes.add((Long) linha[2]);
+                }
+            } else {
+                // Clientes só por dia: nas horas das pontas, lidos dos pedidos
+                somarClientes(resultado, pedidoRepository.linhasParaAgregadoEntre(fatia.de(), fatia.ate(), filtro));
+                somarClientes(resultado, pedidoArquivadoRepository.linhasParaAgregadoEntre(fatia.de(), fatia.ate(), filtro));
+            }
+        }
+
+        Set<Long> restaurantes = resultado.keySet().stream().map(Chave::restauranteId).collect(Collectors.toSet());
+        Map<Long, String> nomes = restauranteRepository.findAllById(restaurantes).stream()
+            .collect(Collectors.toMap(Restaurante::getId, Restaurante::getNome));
+        return resultado.entrySet().stream()
+            .filter(e -> e.getValue().quantidade > 0)
+            .sorted(Comparator.comparing((Map.Entry<Chave, Acumulado> e) -> e.getKey().restauranteId())
+                .thenComparing(e -> e.getKey().status()))
+            .map(e -> new ResumoPeriodoDTO(e.getKey().restauranteId(), nomes.get(e.getKey().restauranteId()), e.getKey().status(),
+                e.getValue().quantidade, e.getValue().valor, (long) e.getValue().clientes.size()))
+            .toList();
+    }
+
+    /**
+     * Dividir [de, ate) em pedaços lidos dos pedidos (antes da primeira e depois da última hora inteira),
+     * horas inteiras (antes do primeiro e depois do último dia inteiro) e dias inteiros
+     */
+    static List<Fatia> fatiar(LocalDateTime de, LocalDateTime ate) {
+        List<Fatia> fatias = new ArrayList<>();
+        if (!de.isBefore(ate)) {
+            return fatias;
+        }
+        LocalDateTime primeiraHora = Granularidade.HORA.proximoInicio(de);
+        LocalDateTime ultimaHora = Granularidade.HORA.inicioDe(ate);
+        if (!primeiraHora.isBefore(ultimaHora)) {
+            fatias.add(new Fatia(null, de, ate));
+            return fatias;
+        }
+
+        adicionar(fatias, null, de, primeiraHora);
+        LocalDateTime primeiroDia = Granularidade.DIA.proximoInicio(primeiraHora);
+        LocalDateTime ultimoDia = Granularidade.DIA.inicioDe(ultimaHora);
+        if (primeiroDia.isBefore(ultimoDia)) {
+            adicionar(fatias, Granularidade.HORA, primeiraHora, primeiroDia);
+            adicionar(fatias, Granularidade.DIA, primeiroDia, ultimoDia);
+            adicionar(fatias, Granularidade.HORA, ultimoDia, ultimaHora);
+        } else {
+            adicionar(fatias, Granularidade.HORA, primeiraHora, ultimaHora);
+        }
+        adicionar(fatias, null, ultimaHora, ate);
+        return fatias;
+    }
+
+    private static void adicionar(List<Fatia> fatias, Granularidade granularidade, LocalDateTime de, LocalDateTime ate) {
+        if (de.isBefore(ate)) {
+            fatias.add(new Fatia(granularidade, de, ate));
+        }
+    }
+
+    private static void somarLinhas(Map<Chave, Acumulado> resultado, List<Object[]> linhas) {
+        for (Object[] linha : linhas) {
+            Acumulado acumulado = acumuladoDe(resultado, linha);
+            acumulado.quantidade++;
+            if (linha[3] != null) {
+                acumulado.valor = acumulado.valor.add((BigDecimal) linha[3]);
+            }
+            if (linha[2] != null) {
+                acumulado.clientes.add((Long) linha[2]);
+            }
+        }
+    }
+
+    private static void somarClientes(Map<Chave, Acumulado> resultado, List<Object[]> linhas) {
+        for (Object[] linha : linhas) {
+            if (linha[2] != null) {
+                acumuladoDe(resultado, linha).clientes.add((Long) linha[2]);
+            }
+        }
+    }
+
+    private static Acumulado acumuladoDe(Map<Chave, Acumulado> resultado, Object[] linha) {
+        return resultado.computeIfAbsent(new Chave((Long) linha[0], (StatusPedido) linha[1]), chave -> new Acumulado());
+    }
+
+    /**
+     * Grava as somas na ordem das chaves: transações que tocam vários intervalos travam as linhas
+     * sempre na mesma ordem e não ficam esperando uma pela outra
+     */
+    private void gravar(Lancamentos lancamentos) {
+        lancamentos.intervalos.forEach((intervalo, soma) -> {
+            if (soma.quantidade != 0 || soma.valor.signum() != 0) {
+                agregadoRepository.acumular(intervalo.granularidade().name(), intervalo.inicio(), intervalo.restauranteId(),
+                    intervalo.status().name(), soma.quantidade, soma.valor);
+            }
+        });
+        lancamentos.clientes.forEach((cliente, quantidade) -> {
+            if (quantidade != 0) {
+                Intervalo intervalo = cliente.intervalo();
+                clientesRepository.acumular(intervalo.granularidade().name(), intervalo.inicio(), intervalo.restauranteId(),
+                    intervalo.status().name(), cliente.clienteId(), quantidade);
+            }
+        });
+    }
+}
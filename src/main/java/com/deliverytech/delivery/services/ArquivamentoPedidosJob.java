@@ -0,0 +1,21 @@
+package com.deliverytech.delivery.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Arquiva periodicamente os pedidos finalizados mais antigos que delivery.pedidos.arquivamento.idade.
+ */
+@Component
+public class ArquivamentoPedidosJob {
+
+    @Autowired
+    private ArquivoPedidosService arquivoPedidosService;
+
+    @Scheduled(fixedDelayString = "${delivery.pedidos.arquivamento.intervalo-ms:3600000}",
+               initialDelayString = "${delivery.pedidos.arquivamento.intervalo-ms:3600000}")
+    public void executar() {
+        arquivoPedidosService.arquivarAntigos();
+    }
+}
@@ -0,0 +1,163 @@
+package com.deliverytech.delivery.services;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.deliverytech.delivery.dto.PedidoResponseDTO;
+import com.deliverytech.delivery.dto.PedidoResumoDTO;
+import com.deliverytech.delivery.entity.Pedido;
+import com.deliverytech.delivery.entity.PedidoArquivado;
+import com.deliverytech.delivery.enums.StatusPedido;
+import com.deliverytech.delivery.exceptions.BusinessException;
+import com.deliverytech.delivery.repository.PedidoArquivadoRepository;
+import com.deliverytech.delivery.repository.PedidoRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Move pedidos finalizados (entregues ou cancelados) mais antigos que a idade configurada para
+ * pedidos_arquivados, em lotes, cada lote numa transação. A tabela de pedidos fica só com o que ainda
+ * é consultado no dia a dia; os arquivados são lidos por aqui, um caminho à parte e mais lento.
+ */
+@Service
+public class ArquivoPedidosService {
+
+    private static final Logger log = LoggerFactory.getLogger(ArquivoPedidosService.class);
+
+    private static final Set<StatusPedido> FINALIZADOS = EnumSet.of(StatusPedido.ENTREGUE, StatusPedido.CANCELADO);
+    private static final int LIMITE_MAXIMO_PAGINA = 100;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private PedidoArquivadoRepository arquivadoRepository;
+
+    @Autowired
+    private StatusPedidoPipeline statusPipeline;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transacao;
+    private final ObjectWriter escritor;
+    private final ObjectReader leitor;
+    private final Duration idade;
+    private final int tamanhoLote;
+
+    public ArquivoPedidosService(PlatformTransactionManager transactionManager,
+                                 ObjectMapper objectMapper,
+                                 @Value("${delivery.pedidos.arquivamento.idade:90d}") Duration idade,
+                                 @Value("${delivery.pedidos.arquivamento.tamanho-lote:500}") int tamanhoLote) {
+        if (tamanhoLote < 1) {
+            throw new IllegalArgumentException("delivery.pedidos.arquivamento.tamanho-lote deve ser maior que zero");
+        }
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.escritor = objectMapper.writerFor(PedidoResponseDTO.class);
+        this.leitor = objectMapper.readerFor(PedidoResponseDTO.class);
+        this.idade = idade;
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    /**
+     * Arquivar, lote a lote, todos os pedidos finalizados com data anterior a agora - idade.
+     * Retorna quantos pedidos foram arquivados.
+     */
+    public int arquivarAntigos() {
+        LocalDateTime limite = LocalDateTime.now().minus(idade);
+        int total = 0;
+        int arquivados;
+        do {
+            arquivados = transacao.execute(status -> arquivarLote(limite));
+            total += arquivados;
+        } while (arquivados == tamanhoLote);
+
+        if (total > 0) {
+            log.info("Arquivamento: {} pedidos finalizados antes de {}", total, limite);
+        }
+        return total;
+    }
+
+    /**
+     * Pedido arquivado completo, como era quando saiu da tabela de pedidos
+     */
+    @Transactional(readOnly = true)
+    public PedidoResponseDTO buscarPorId(Long id) {
+        PedidoArquivado arquivado = arquivadoRepository.findById(id)
+            .orElseThrow(() -> new BusinessException("Pedido arquivado não encontrado: " + id));
+        return descompactar(arquivado.getConteudo());
+    }
+
+    /**
+     * Pedidos arquivados do cliente, do mais recente para o mais antigo
+     */
+    @Transactional(readOnly = true)
+    public List<PedidoResumoDTO> listarPorCliente(Long clienteId, int limite) {
+        return arquivadoRepository.historicoDoCliente(clienteId, Limit.of(Math.clamp(limite, 1, LIMITE_MAXIMO_PAGINA)));
+    }
+
+    private int arquivarLote(LocalDateTime limite) {
+        List<Long> ids = pedidoRepository.idsParaArquivar(FINALIZADOS, limite, Limit.of(tamanhoLote));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        LocalDateTime agora = LocalDateTime.now();
+        for (Pedido pedido : pedidoRepository.buscarCompletosPorIds(ids)) {
+            entityManager.persist(new PedidoArquivado(pedido.getId(), pedido.getNumeroPedido(), pedido.getDataPedido(),
+                pedido.getStatus(), pedido.getValorTotal(), pedido.getCliente().getId(), pedido.getRestaurante().getId(),
+                agora, compactar(new PedidoResponseDTO(pedido))));
+        }
+        entityManager.flush();
+        // Os pedidos carregados acima deixariam de existir no banco; sem isso o contexto tentaria atualizá-los
+        entityManager.clear();
+
+        pedidoRepository.excluirItensDosPedidos(ids);
+        pedidoRepository.excluirPorIds(ids);
+        ids.forEach(statusPipeline::descartar);
+        return ids.size();
+    }
+
+    private byte[] compactar(PedidoResponseDTO pedido) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream gzip = new GZIPOutputStream(bytes)) {
+            escritor.writeValue(gzip, pedido);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private PedidoResponseDTO descompactar(byte[] conteudo) {
+        try (InputStream gzip = new GZIPInputStream(new ByteArrayInputStream(conteudo))) {
+            return leitor.readValue(gzip);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.deliverytech.delivery.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.deliverytech.delivery.dto.RegiaoCacheDTO;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Estatísticas e limpeza do cache de segundo nível do Hibernate (regiões definidas em ehcache.xml).
+ * Escritas feitas pelo Hibernate já atualizam as regiões; limpar só é necessário depois de
+ * alterações feitas direto no banco.
+ */
+@Service
+public class CacheSegundoNivelService {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    public List<RegiaoCacheDTO> estatisticas() {
+        Statistics estatisticas = sessionFactory().getStatistics();
+        String[] regioes = estatisticas.getSecondLevelCacheRegionNames();
+        Arrays.sort(regioes);
+
+        List<RegiaoCacheDTO> resultado = new ArrayList<>(regioes.length);
+        for (String regiao : regioes) {
+            CacheRegionStatistics regiaoEstatisticas = estatisticas.getCacheRegionStatistics(regiao);
+            if (regiaoEstatisticas == null) {
+                continue;
+            }
+            long acertos = regiaoEstatisticas.getHitCount();
+            long falhas = regiaoEstatisticas.getMissCount();
+            resultado.add(new RegiaoCacheDTO(regiao, acertos, falhas, regiaoEstatisticas.getPutCount(),
+                acertos + falhas == 0 ? 0 : (double) acertos / (acertos + falhas)));
+        }
+        return resultado;
+    }
+
+    /**
+     * Esvaziar todas as regiões de entidades e de consultas
+     */
+    public void limpar() {
+        sessionFactory().getCache().evictAllRegions();
+    }
+
+    private SessionFactory sessionFactory() {
+        return entityManagerFactory.unwrap(SessionFactory.class);
+    }
+}
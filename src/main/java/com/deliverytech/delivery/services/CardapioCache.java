@@ -0,0 +1,164 @@
+package com.deliverytech.delivery.services;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.deliverytech.delivery.entity.ProdutoDTO;
+import com.deliverytech.delivery.events.ProdutoAlteradoEvent;
+import com.deliverytech.delivery.events.RestauranteAlteradoEvent;
+
+/**
+ * Cache em memória dos cardápios (por restaurante e por categoria).
+ *
+ * Guarda listas imutáveis de ProdutoDTO, limitadas pelo peso total (quantidade de produtos em cache),
+ * removendo as menos usadas primeiro. A invalidação acontece após o commit de cada alteração de produto.
+ * Uma carga iniciada antes de uma invalidação nunca é gravada, então o cache não guarda um cardápio antigo.
+ */
+@Component
+public class CardapioCache {
+
+    public record Estatisticas(long acertos, long falhas, long remocoes, int entradas, long peso, long pesoMaximo) {
+    }
+
+    private record Chave(String tipo, Object valor) {
+    }
+
+    private final long pesoMaximo;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<Chave, List<ProdutoDTO>> entradas = new LinkedHashMap<>(64, 0.75f, true);
+    private long pesoAtual;
+    private long geracao;
+
+    private final LongAdder acertos = new LongAdder();
+    private final LongAdder falhas = new LongAdder();
+    private final LongAdder remocoes = new LongAdder();
+
+    public CardapioCache(@Value("${delivery.cache.cardapio.peso-maximo:50000}") long pesoMaximo) {
+        this.pesoMaximo = pesoMaximo;
+    }
+
+    public List<ProdutoDTO> porRestaurante(Long restauranteId, Supplier<List<ProdutoDTO>> carregar) {
+        return obter(new Chave("restaurante", restauranteId), carregar);
+    }
+
+    public List<ProdutoDTO> porCategoria(String categoria, Supplier<List<ProdutoDTO>> carregar) {
+        return obter(new Chave("categoria", normalizar(categoria)), carregar);
+    }
+
+    private List<ProdutoDTO> obter(Chave chave, Supplier<List<ProdutoDTO>> carregar) {
+        long geracaoInicial;
+        lock.lock();
+        try {
+            List<ProdutoDTO> emCache = entradas.get(chave);
+            if (emCache != null) {
+                acertos.increment();
+                return emCache;
+            }
+            geracaoInicial = geracao;
+        } finally {
+            lock.unlock();
+        }
+
+        falhas.increment();
+        List<ProdutoDTO> carregado = List.copyOf(carregar.get());
+
+        lock.lock();
+        try {
+            // Houve invalidação durante a carga: devolve o resultado, mas não guarda
+            if (geracao == geracaoInicial && !entradas.containsKey(chave)) {
+                entradas.put(chave, carregado);
+                pesoAtual += peso(carregado);
+                removerExcedente();
+            }
+        } finally {
+            lock.unlock();
+        }
+        return carregado;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarProduto(ProdutoAlteradoEvent evento) {
+        List<Chave> chaves = new ArrayList<>(4);
+        for (ProdutoDTO produto : new ProdutoDTO[] {evento.anterior(), evento.atual()}) {
+            if (produto != null) {
+                chaves.add(new Chave("restaurante", produto.getRestauranteId()));
+                if (produto.getCategoria() != null) {
+                    chaves.add(new Chave("categoria", normalizar(produto.getCategoria())));
+                }
+            }
+        }
+        invalidar(chaves);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarRestaurante(RestauranteAlteradoEvent evento) {
+        // Excluir o restaurante remove seus produtos em cascata, sem eventos por produto
+        if (evento.atual() == null) {
+            invalidarTudo();
+        }
+    }
+
+    public void invalidarTudo() {
+        lock.lock();
+        try {
+            geracao++;
+            entradas.clear();
+            pesoAtual = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void invalidar(List<Chave> chaves) {
+        lock.lock();
+        try {
+            geracao++;
+            for (Chave chave : chaves) {
+                List<ProdutoDTO> removido = entradas.remove(chave);
+                if (removido != null) {
+                    pesoAtual -= peso(removido);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void removerExcedente() {
+        Iterator<Map.Entry<Chave, List<ProdutoDTO>>> it = entradas.entrySet().iterator();
+        while (pesoAtual > pesoMaximo && it.hasNext()) {
+            Map.Entry<Chave, List<ProdutoDTO>> maisAntiga = it.next();
+            pesoAtual -= peso(maisAntiga.getValue());
+            it.remove();
+            remocoes.increment();
+        }
+    }
+
+    public Estatisticas estatisticas() {
+        lock.lock();
+        try {
+            return new Estatisticas(acertos.sum(), falhas.sum(), remocoes.sum(), entradas.size(), pesoAtual, pesoMaximo);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static long peso(List<ProdutoDTO> lista) {
+        return lista.size() + 1L;
+    }
+
+    private static String normalizar(String categoria) {
+        return categoria.toLowerCase(Locale.ROOT);
+    }
+}
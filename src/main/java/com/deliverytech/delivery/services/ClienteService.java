@@ -1,12 +1,22 @@
 package com.deliverytech.delivery.services;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import com.deliverytech.delivery.dto.ClienteResponseDTO;
-import com.deliverytech.delivery.dto.ClienteResquetDTO;
+import com.deliverytech.delivery.dto.ClienteRequestDTO;
+import com.deliverytech.delivery.dto.PaginaClientesDTO;
+import com.deliverytech.delivery.events.ClienteAlteradoEvent;
 import com.deliverytech.delivery.exceptions.BusinessException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,16 +27,28 @@ import com.deliverytech.delivery.repository.ClienteRepository;
 @Transactional
 public class ClienteService {
 
+    private static final int LIMITE_MAXIMO_PAGINA = 100;
+
     @Autowired
     private ClienteRepository clienteRepository;
 
+    @Autowired
+    private IndiceClientes indiceClientes;
+
+    @Autowired
+    private RegistroEmails registroEmails;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
-     * Cadastrar novo cliente
+     * Cadastrar novo cliente. A consulta de email duplicado só é feita quando o filtro de emails não
+     * descarta o email; a restrição única da tabela decide os cadastros simultâneos.
      */
-    public ClienteResponseDTO cadastrar(ClienteResquetDTO dto) {
+    public ClienteResponseDTO cadastrar(ClienteRequestDTO dto) {
         validarDadosCliente(dto);
 
-        if (clienteRepository.existsByEmail(dto.getEmail())) {
+        if (registroEmails.podeExistir(dto.getEmail()) && clienteRepository.existsByEmail(dto.getEmail())) {
             throw new BusinessException("Email já cadastrado: " + dto.getEmail());
         }
 
@@ -38,7 +60,10 @@ public class ClienteService {
         cliente.setAtivo(true);
         cliente.setDataCadastro(LocalDateTime.now());
 
-        return new ClienteResponseDTO(clienteRepository.save(cliente));
+        ClienteResponseDTO novo = new ClienteResponseDTO(salvarComEmailUnico(cliente));
+        registroEmails.registrar(novo.getEmail());
+        eventPublisher.publishEvent(new ClienteAlteradoEvent(null, novo));
+        return novo;
     }
 
     /**
@@ -74,23 +99,29 @@ public class ClienteService {
     /**
      * Atualizar dados do cliente
      */
-    public ClienteResponseDTO atualizar(Long id, ClienteResquetDTO dto) {
+    public ClienteResponseDTO atualizar(Long id, ClienteRequestDTO dto) {
         validarDadosCliente(dto);
 
         Cliente cliente = clienteRepository.findById(id)
             .orElseThrow(() -> new BusinessException("Cliente não encontrado: " + id));
 
-        if (!cliente.getEmail().equals(dto.getEmail()) &&
-            clienteRepository.existsByEmail(dto.getEmail())) {
+        boolean emailAlterado = !cliente.getEmail().equals(dto.getEmail());
+        if (emailAlterado && registroEmails.podeExistir(dto.getEmail()) && clienteRepository.existsByEmail(dto.getEmail())) {
             throw new BusinessException("Email já cadastrado: " + dto.getEmail());
         }
 
+        ClienteResponseDTO anterior = new ClienteResponseDTO(cliente);
         cliente.setNome(dto.getNome());
         cliente.setEmail(dto.getEmail());
         cliente.setTelefone(dto.getTelefone());
         cliente.setEndereco(dto.getEndereco());
 
-        return new ClienteResponseDTO(clienteRepository.save(cliente));
+        ClienteResponseDTO atual = new ClienteResponseDTO(emailAlterado ? salvarComEmailUnico(cliente) : clienteRepository.save(cliente));
+        if (emailAlterado) {
+            registroEmails.registrar(atual.getEmail());
+        }
+        eventPublisher.publishEvent(new ClienteAlteradoEvent(anterior, atual));
+        return atual;
     }
 
     /**
@@ -116,19 +147,72 @@ public class ClienteService {
     }
 
     /**
-     * Buscar clientes por nome
+     * Buscar clientes por trecho do nome (sem diferenciar maiúsculas e acentos), em ordem de id e paginado por cursor
      */
     @Transactional(readOnly = true)
-    public List<ClienteResponseDTO> buscarPorNome(String nome) {
-        return clienteRepository.findByNomeContainingIgnoreCase(nome).stream()
-            .map(ClienteResponseDTO::new)
-            .toList();
+    public PaginaClientesDTO buscarPorNome(String nome, String cursor, int limite) {
+        if (nome == null || nome.isBlank()) {
+            throw new BusinessException("Informe o nome para a busca");
+        }
+        int tamanho = Math.clamp(limite, 1, LIMITE_MAXIMO_PAGINA);
+        long aposId = decodificarCursor(cursor);
+
+        List<ClienteResponseDTO> itens;
+        boolean haMais;
+        if (indiceClientes.isPronto()) {
+            IndiceClientes.Pagina pagina = indiceClientes.buscar(nome, aposId, tamanho);
+            // Só a página vai ao banco, pela chave primária
+            Map<Long, ClienteResponseDTO> porId = clienteRepository.findAllById(pagina.ids()).stream()
+                .collect(Collectors.toMap(Cliente::getId, ClienteResponseDTO::new));
+            itens = pagina.ids().stream().map(porId::get).filter(c -> c != null).toList();
+            haMais = pagina.haMais();
+        } else {
+            List<ClienteResponseDTO> encontrados = clienteRepository
+                .findByNomeContainingIgnoreCaseAndIdGreaterThanOrderByIdAsc(nome.trim(), aposId, Limit.of(tamanho + 1)).stream()
+                .map(ClienteResponseDTO::new)
+                .toList();
+            haMais = encontrados.size() > tamanho;
+            itens = haMais ? encontrados.subList(0, tamanho) : encontrados;
+        }
+
+        String proximoCursor = haMais ? codificarCursor(itens.get(itens.size() - 1).getId()) : null;
+        return new PaginaClientesDTO(List.copyOf(itens), proximoCursor);
+    }
+
+    /**
+     * Gravar já enviando ao banco, para a violação da restrição única de email sair aqui como BusinessException
+     */
+    private Cliente salvarComEmailUnico(Cliente cliente) {
+        try {
+            return clienteRepository.saveAndFlush(cliente);
+        } catch (DataIntegrityViolationException e) {
+            String mensagem = String.valueOf(e.getMostSpecificCause().getMessage()).toLowerCase(Locale.ROOT);
+            if (mensagem.contains(Cliente.RESTRICAO_EMAIL_UNICO)) {
+                throw new BusinessException("Email já cadastrado: " + cliente.getEmail());
+            }
+            throw e;
+        }
+    }
+
+    private static long decodificarCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Cursor inválido: " + cursor);
+        }
+    }
+
+    private static String codificarCursor(Long ultimoId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(String.valueOf(ultimoId).getBytes(StandardCharsets.UTF_8));
     }
 
     /**
      * Validações de negócio
      */
-    private void validarDadosCliente(ClienteResquetDTO cliente) {
+    private void validarDadosCliente(ClienteRequestDTO cliente) {
         if (cliente.getNome() == null || cliente.getNome().trim().isEmpty()) {
             throw new BusinessException("Nome é obrigatório");
         }
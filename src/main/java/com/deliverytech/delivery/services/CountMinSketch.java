@@ -0,0 +1,98 @@
+package com.deliverytech.delivery.services;
+
+import java.util.Arrays;
+
+/**
+ * Count-min sketch com atualização conservadora (só sobe os contadores que estão no mínimo).
+ *
+ * A estimativa nunca fica abaixo da contagem real e, com probabilidade confianca, fica no máximo
+ * erro * total acima dela, para largura = e / erro e profundidade = ln(1 / (1 - confianca)).
+ * Sketches com as mesmas dimensões usam as mesmas funções de hash, então podem ser somados linha a linha.
+ */
+public class CountMinSketch {
+
+    private final int largura;
+    private final int profundidade;
+    private final long[][] tabela;
+    private long total;
+
+    public CountMinSketch(int largura, int profundidade) {
+        if (largura < 1 || profundidade < 1) {
+            throw new IllegalArgumentException("Dimensões inválidas: " + largura + " x " + profundidade);
+        }
+        this.largura = largura;
+        this.profundidade = profundidade;
+        this.tabela = new long[profundidade][largura];
+    }
+
+    public static int larguraPara(double erro) {
+        return (int) Math.ceil(Math.E / erro);
+    }
+
+    public static int profundidadePara(double confianca) {
+        return (int) Math.ceil(Math.log(1 / (1 - confianca)));
+    }
+
+    public void adicionar(long chave, long quantidade) {
+        int[] posicoes = new int[profundidade];
+        long minimo = Long.MAX_VALUE;
+        for (int linha = 0; linha < profundidade; linha++) {
+            posicoes[linha] = posicao(chave, linha);
+            minimo = Math.min(minimo, tabela[linha][posicoes[linha]]);
+        }
+
+        long alvo = minimo + quantidade;
+        for (int linha = 0; linha < profundidade; linha++) {
+            if (tabela[linha][posicoes[linha]] < alvo) {
+                tabela[linha][posicoes[linha]] = alvo;
+            }
+        }
+        total += quantidade;
+    }
+
+    public long estimar(long chave) {
+        long minimo = Long.MAX_VALUE;
+        for (int linha = 0; linha < profundidade; linha++) {
+            minimo = Math.min(minimo, tabela[linha][posicao(chave, linha)]);
+        }
+        return minimo;
+    }
+
+    /**
+     * Contador da linha para a chave; somar o mesmo contador de vários sketches dá o sketch da soma.
+     */
+    public long contador(int linha, long chave) {
+        return tabela[linha][posicao(chave, linha)];
+    }
+
+    public int profundidade() {
+        return profundidade;
+    }
+
+    public long total() {
+        return total;
+    }
+
+    public void limpar() {
+        for (long[] linha : tabela) {
+            Arrays.fill(linha, 0);
+        }
+        total = 0;
+    }
+
+    private int posicao(long chave, int linha) {
+        return (int) Long.remainderUnsigned(misturar(chave + SEMENTES[linha % SEMENTES.length] * (linha + 1)), largura);
+    }
+
+    // Finalizador do SplitMix64
+    private static long misturar(long x) {
+        x = (x ^ (x >>> 30)) * 0xbf58476d1ce4e5b9L;
+        x = (x ^ (x >>> 27)) * 0x94d049bb133111ebL;
+        return x ^ (x >>> 31);
+    }
+
+    private static final long[] SEMENTES = {
+        0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L,
+        0xFF51AFD7ED558CCDL, 0xC4CEB9FE1A85EC53L, 0x27D4EB2F165667C5L, 0x85EBCA77C2B2AE63L
+    };
+}
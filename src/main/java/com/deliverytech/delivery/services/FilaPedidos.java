@@ -0,0 +1,350 @@
+package com.deliverytech.delivery.services;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.deliverytech.delivery.dto.ItemPedidoDTO;
+import com.deliverytech.delivery.dto.PedidoRequestDTO;
+import com.deliverytech.delivery.dto.PedidoResumoDTO;
+import com.deliverytech.delivery.dto.SolicitacaoPedidoDTO;
+import com.deliverytech.delivery.enums.SituacaoSolicitacao;
+import com.deliverytech.delivery.exceptions.BusinessException;
+import com.deliverytech.delivery.exceptions.FilaPedidosCheiaException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Criação assíncrona de pedidos para picos de demanda. A requisição passa só pelas validações que não
+ * vão ao banco, entra numa fila limitada e recebe um protocolo; trabalhadores tiram da fila em lotes e
+ * gravam cada lote numa transação só. Com a fila cheia a requisição é recusada na hora, em vez de ficar
+ * presa esperando conexão. Um pedido inválido desfaz o lote inteiro: os pedidos do lote são refeitos um
+ * a um, cada um na sua transação, e só o inválido fica REJEITADO.
+ *
+ * Ao desligar, a fila para de aceitar e é esvaziada antes do banco fechar. Os resultados ficam em
+ * memória até a retenção vencer (verificada a cada lote) ou o limite de resultados guardados.
+ */
+@Component
+public class FilaPedidos implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(FilaPedidos.class);
+
+    private static final class Solicitacao {
+        final String protocolo = UUID.randomUUID().toString();
+        final LocalDateTime recebidaEm = LocalDateTime.now();
+        final PedidoRequestDTO requisicao;
+        final CompletableFuture<SolicitacaoPedidoDTO> resultado = new CompletableFuture<>();
+        volatile long concluidaEm;
+
+        Solicitacao(PedidoRequestDTO requisicao) {
+            this.requisicao = requisicao;
+        }
+
+        SolicitacaoPedidoDTO pendente() {
+            return new SolicitacaoPedidoDTO(protocolo, SituacaoSolicitacao.PENDENTE, recebidaEm, null, null);
+        }
+    }
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    private final BlockingQueue<Solicitacao> fila;
+    private final Map<String, Solicitacao> solicitacoes = new ConcurrentHashMap<>();
+    private final Queue<Solicitacao> concluidas = new ConcurrentLinkedQueue<>();
+    private final TransactionTemplate transacao;
+    private final boolean habilitada;
+    private final int capacidade;
+    private final int trabalhadores;
+    private final int tamanhoLote;
+    private final long retencaoNanos;
+    private final int resultadosMaximos;
+    private final Duration esperaDesligamento;
+
+    private final Counter aceitas;
+    private final Counter cheias;
+    private final Counter criadas;
+    private final Counter rejeitadas;
+
+    private final List<Thread> threads = new ArrayList<>();
+    private int quantidadeConcluidas;
+    private volatile boolean aceitando;
+    private volatile boolean rodando;
+
+    public FilaPedidos(PlatformTransactionManager transactionManager,
+                       MeterRegistry registry,
+                       @Value("${delivery.pedidos.fila.habilitada:true}") boolean habilitada,
+                       @Value("${delivery.pedidos.fila.capacidade:10000}") int capacidade,
+                       @Value("${delivery.pedidos.fila.trabalhadores:4}") int trabalhadores,
+                       @Value("${delivery.pedidos.fila.tamanho-lote:50}") int tamanhoLote,
+                       @Value("${delivery.pedidos.fila.retencao:10m}") Duration retencao,
+                       @Value("${delivery.pedidos.fila.resultados-maximos:100000}") int resultadosMaximos,
+                       @Value("${delivery.pedidos.fila.espera-desligamento:30s}") Duration esperaDesligamento) {
+        if (capacidade < 1 || trabalhadores < 1 || tamanhoLote < 1) {
+            throw new IllegalArgumentException("delivery.pedidos.fila: capacidade, trabalhadores e tamanho-lote devem ser maiores que zero");
+        }
+        this.fila = new ArrayBlockingQueue<>(capacidade);
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.habilitada = habilitada;
+        this.capacidade = capacidade;
+        this.trabalhadores = trabalhadores;
+        this.tamanhoLote = tamanhoLote;
+        this.retencaoNanos = retencao.toNanos();
+        this.resultadosMaximos = resultadosMaximos;
+        this.esperaDesligamento = esperaDesligamento;
+
+        this.aceitas = contador(registry, "aceita", "Pedidos aceitos na fila");
+        this.cheias = contador(registry, "cheia", "Pedidos recusados com a fila cheia");
+        this.criadas = contador(registry, "criada", "Pedidos da fila gravados");
+        this.rejeitadas = contador(registry, "rejeitada", "Pedidos da fila rejeitados na validação completa");
+        Gauge.builder("delivery.pedidos.fila.tamanho", fila, BlockingQueue::size)
+            .description("Pedidos aguardando gravação").register(registry);
+    }
+
+    /**
+     * Validar o básico e pôr o pedido na fila. Lança FilaPedidosCheiaException com a fila no limite e
+     * IllegalStateException com a fila desabilitada ou encerrando.
+     */
+    public SolicitacaoPedidoDTO enfileirar(PedidoRequestDTO dto) {
+        if (!aceitando) {
+            throw new IllegalStateException(habilitada ? "Fila de pedidos encerrando" : "Fila de pedidos desabilitada");
+        }
+        validar(dto);
+
+        Solicitacao solicitacao = new Solicitacao(dto);
+        solicitacoes.put(solicitacao.protocolo, solicitacao);
+        if (!fila.offer(solicitacao)) {
+            solicitacoes.remove(solicitacao.protocolo);
+            cheias.increment();
+            throw new FilaPedidosCheiaException("Fila de pedidos cheia (" + capacidade + "); tente novamente em instantes");
+        }
+        // stop() pode ter feito a última varredura da fila entre a verificação acima e o offer
+        if (!aceitando && fila.remove(solicitacao)) {
+            solicitacoes.remove(solicitacao.protocolo);
+            throw new IllegalStateException("Fila de pedidos encerrando");
+        }
+        aceitas.increment();
+        return solicitacao.pendente();
+    }
+
+    /**
+     * Situação do pedido. Com espera > 0, completa quando o pedido for gravado ou rejeitado, ou
+     * ao fim da espera com a situação PENDENTE.
+     */
+    public CompletableFuture<SolicitacaoPedidoDTO> consultar(String protocolo, Duration espera) {
+        Solicitacao solicitacao = solicitacoes.get(protocolo);
+        if (solicitacao == null) {
+            throw new BusinessException("Protocolo não encontrado: " + protocolo);
+        }
+        if (espera.isZero() || espera.isNegative() || solicitacao.resultado.isDone()) {
+            return CompletableFuture.completedFuture(solicitacao.resultado.getNow(solicitacao.pendente()));
+        }
+        // copy(): o tempo esgotado completa só a cópia de quem espera, não o resultado
+        return solicitacao.resultado.copy()
+            .completeOnTimeout(solicitacao.pendente(), espera.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public int pendentes() {
+        return fila.size();
+    }
+
+    @Override
+    public void start() {
+        if (habilitada) {
+            for (int i = 0; i < trabalhadores; i++) {
+                threads.add(Thread.ofPlatform().name("fila-pedidos-" + i).daemon().start(this::trabalhar));
+            }
+            aceitando = true;
+        }
+        rodando = true;
+    }
+
+    @Override
+    public void stop() {
+        aceitando = false;
+        long limite = System.nanoTime() + esperaDesligamento.toNanos();
+        try {
+            for (Thread thread : threads) {
+                thread.join(Duration.ofNanos(Math.max(1, limite - System.nanoTime())));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (threads.stream().anyMatch(Thread::isAlive)) {
+            log.warn("Fila de pedidos: trabalhadores ainda gravando após {}; {} pedidos não gravados", esperaDesligamento, fila.size());
+        } else {
+            // Aceitos depois que os trabalhadores viram a fila vazia
+            List<Solicitacao> lote = new ArrayList<>(tamanhoLote);
+            while (fila.drainTo(lote, tamanhoLote) > 0) {
+                processar(lote);
+                lote.clear();
+            }
+        }
+        threads.clear();
+        rodando = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return rodando;
+    }
+
+    /**
+     * Para depois do servidor web (que para em DEFAULT_PHASE - 2048) e antes do pipeline de status
+     * e do banco: nenhuma requisição nova chega enquanto a fila é esvaziada.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 3072;
+    }
+
+    // 🔹 Internos
+
+    private void trabalhar() {
+        List<Solicitacao> lote = new ArrayList<>(tamanhoLote);
+        while (aceitando || !fila.isEmpty()) {
+            try {
+                Solicitacao primeira = fila.poll(100, TimeUnit.MILLISECONDS);
+                if (primeira == null) {
+                    continue;
+                }
+                lote.add(primeira);
+                fila.drainTo(lote, tamanhoLote - 1);
+                processar(lote);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Fila de pedidos: falha inesperada processando lote de {}", lote.size(), e);
+            } finally {
+                lote.clear();
+            }
+        }
+    }
+
+    private void processar(List<Solicitacao> lote) {
+        List<PedidoResumoDTO> criados;
+        try {
+            criados = transacao.execute(status -> {
+                List<PedidoResumoDTO> resumos = new ArrayList<>(lote.size());
+                for (Solicitacao solicitacao : lote) {
+                    resumos.add(new PedidoResumoDTO(pedidoService.criarPedido(solicitacao.requisicao)));
+                }
+                return resumos;
+            });
+        } catch (RuntimeException e) {
+            if (lote.size() == 1) {
+                rejeitar(lote.get(0), e);
+            } else {
+                for (Solicitacao solicitacao : lote) {
+                    processarSozinho(solicitacao);
+                }
+            }
+            descartarAntigas();
+            return;
+        }
+        for (int i = 0; i < lote.size(); i++) {
+            concluir(lote.get(i), new SolicitacaoPedidoDTO(lote.get(i).protocolo, SituacaoSolicitacao.CRIADO,
+                lote.get(i).recebidaEm, criados.get(i), null));
+        }
+        criadas.increment(lote.size());
+        descartarAntigas();
+    }
+
+    private void processarSozinho(Solicitacao solicitacao) {
+        try {
+            PedidoResumoDTO criado = transacao.execute(status -> new PedidoResumoDTO(pedidoService.criarPedido(solicitacao.requisicao)));
+            concluir(solicitacao, new SolicitacaoPedidoDTO(solicitacao.protocolo, SituacaoSolicitacao.CRIADO,
+                solicitacao.recebidaEm, criado, null));
+            criadas.increment();
+        } catch (RuntimeException e) {
+            rejeitar(solicitacao, e);
+        }
+    }
+
+    private void rejeitar(Solicitacao solicitacao, RuntimeException e) {
+        String erro;
+        if (e instanceof BusinessException) {
+            erro = e.getMessage();
+        } else {
+            log.error("Fila de pedidos: falha gravando o pedido {}", solicitacao.protocolo, e);
+            erro = "Erro interno ao criar o pedido";
+        }
+        concluir(solicitacao, new SolicitacaoPedidoDTO(solicitacao.protocolo, SituacaoSolicitacao.REJEITADO,
+            solicitacao.recebidaEm, null, erro));
+        rejeitadas.increment();
+    }
+
+    private void concluir(Solicitacao solicitacao, SolicitacaoPedidoDTO resultado) {
+        solicitacao.concluidaEm = System.nanoTime();
+        synchronized (concluidas) {
+            concluidas.add(solicitacao);
+            quantidadeConcluidas++;
+        }
+        solicitacao.resultado.complete(resultado);
+    }
+
+    private void descartarAntigas() {
+        long agora = System.nanoTime();
+        synchronized (concluidas) {
+            Solicitacao maisAntiga;
+            while ((maisAntiga = concluidas.peek()) != null
+                && (quantidadeConcluidas > resultadosMaximos || agora - maisAntiga.concluidaEm > retencaoNanos)) {
+                concluidas.poll();
+                quantidadeConcluidas--;
+                solicitacoes.remove(maisAntiga.protocolo);
+            }
+        }
+    }
+
+    /**
+     * Só o que não depende do banco; cliente, restaurante e produtos são conferidos na gravação
+     */
+    private static void validar(PedidoRequestDTO dto) {
+        if (dto.getClienteId() == null || dto.getRestauranteId() == null) {
+            throw new BusinessException("Cliente e restaurante são obrigatórios");
+        }
+        if (dto.getItens() == null || dto.getItens().isEmpty()) {
+            throw new BusinessException("O pedido deve ter pelo menos um item");
+        }
+        Set<Long> produtos = new HashSet<>();
+        for (ItemPedidoDTO item : dto.getItens()) {
+            if (item == null || item.getProdutoId() == null) {
+                throw new BusinessException("Item sem ID de produto");
+            }
+            if (item.getQuantidade() == null || item.getQuantidade() < 1) {
+                throw new BusinessException("A quantidade deve ser no mínimo 1");
+            }
+            if (!produtos.add(item.getProdutoId())) {
+                throw new BusinessException("Produto repetido no pedido: " + item.getProdutoId() + " (use a quantidade)");
+            }
+        }
+    }
+
+    private static Counter contador(MeterRegistry registry, String resultado, String descricao) {
+        return Counter.builder("delivery.pedidos.fila.solicitacoes").tag("resultado", resultado)
+            .description(descricao).register(registry);
+    }
+}
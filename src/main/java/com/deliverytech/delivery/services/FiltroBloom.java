@@ -0,0 +1,92 @@
+package com.deliverytech.delivery.services;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Filtro de Bloom: responde "com certeza ausente" ou "talvez presente", sem guardar as chaves.
+ *
+ * Com bits = -n ln(p) / ln(2)^2 e hashes = (bits / n) ln(2), a taxa de falso positivo fica perto de p
+ * enquanto o filtro tiver até n chaves. Não há remoção. Adicionar e consultar podem ser feitos de
+ * várias threads ao mesmo tempo, sem lock.
+ */
+public class FiltroBloom {
+
+    private final AtomicLongArray palavras;
+    private final long bits;
+    private final int hashes;
+    private final LongAdder adicoes = new LongAdder();
+
+    public FiltroBloom(long bits, int hashes) {
+        if (bits < 64 || hashes < 1) {
+            throw new IllegalArgumentException("Dimensões inválidas: " + bits + " bits, " + hashes + " hashes");
+        }
+        int quantidadePalavras = Math.toIntExact((bits + 63) / 64);
+        this.palavras = new AtomicLongArray(quantidadePalavras);
+        this.bits = quantidadePalavras * 64L;
+        this.hashes = hashes;
+    }
+
+    public static FiltroBloom para(long capacidade, double falsoPositivo) {
+        long bits = (long) Math.ceil(-capacidade * Math.log(falsoPositivo) / (Math.log(2) * Math.log(2)));
+        int hashes = (int) Math.max(1, Math.round((double) bits / capacidade * Math.log(2)));
+        return new FiltroBloom(Math.max(bits, 64), hashes);
+    }
+
+    public void adicionar(String chave) {
+        long h1 = hash(chave);
+        long h2 = misturar(h1) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bits);
+            long mascara = 1L << bit;
+            int palavra = (int) (bit >>> 6);
+            if ((palavras.get(palavra) & mascara) == 0) {
+                palavras.getAndAccumulate(palavra, mascara, (atual, m) -> atual | m);
+            }
+        }
+        adicoes.increment();
+    }
+
+    public boolean talvezContenha(String chave) {
+        long h1 = hash(chave);
+        long h2 = misturar(h1) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bits);
+            if ((palavras.get((int) (bit >>> 6)) & 1L << bit) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Chamadas a adicionar, contando repetidas
+     */
+    public long adicoes() {
+        return adicoes.sum();
+    }
+
+    public long bits() {
+        return bits;
+    }
+
+    public int hashes() {
+        return hashes;
+    }
+
+    // Dois hashes derivados de um (Kirsch-Mitzenmacher): posição i = h1 + i * h2
+    private static long hash(String chave) {
+        long h = 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < chave.length(); i++) {
+            h = (h ^ chave.charAt(i)) * 0x100000001B3L;
+        }
+        return misturar(h);
+    }
+
+    // Finalizador do SplitMix64
+    private static long misturar(long x) {
+        x = (x ^ (x >>> 30)) * 0xbf58476d1ce4e5b9L;
+        x = (x ^ (x >>> 27)) * 0x94d049bb133111ebL;
+        return x ^ (x >>> 31);
+    }
+}
@@ -0,0 +1,216 @@
+package com.deliverytech.delivery.services;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import com.deliverytech.delivery.dto.PedidoRequestDTO;
+import com.deliverytech.delivery.dto.PedidoResponseDTO;
+import com.deliverytech.delivery.entity.Pedido;
+import com.deliverytech.delivery.exceptions.BusinessException;
+import com.deliverytech.delivery.exceptions.RequisicaoEmAndamentoException;
+import com.deliverytech.delivery.repository.PedidoRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Idempotency-Key na criação de pedidos: repetições da mesma requisição recebem o mesmo pedido.
+ *
+ * As chaves recentes ficam em memória, divididas em shards, cada um com sua trava e um LinkedHashMap em
+ * ordem de chegada (as expiradas saem pela frente, a cada acesso ao shard). A primeira requisição de uma
+ * chave cria o pedido; as concorrentes esperam por ela e recebem a mesma resposta. Passado o TTL, ou
+ * vindo por outra instância, quem garante é a restrição única em pedidos.chave_idempotencia: a criação
+ * repetida é desfeita e o pedido já gravado é devolvido. Falhas não ficam registradas.
+ */
+@Component
+public class IdempotenciaPedidos {
+
+    public static final int TAMANHO_MAXIMO_CHAVE = 100;
+
+    public record Resposta(PedidoResponseDTO pedido, boolean repetida) {
+    }
+
+    private record Entrada(PedidoRequestDTO requisicao, CompletableFuture<PedidoResponseDTO> resposta, long criadaEm) {
+    }
+
+    private static final class Shard {
+        final ReentrantLock trava = new ReentrantLock();
+        final LinkedHashMap<String, Entrada> entradas = new LinkedHashMap<>();
+    }
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    private final Shard[] shards;
+    private final long ttlNanos;
+    private final int capacidadePorShard;
+    private final long esperaMaximaMs;
+
+    private final Counter novas;
+    private final Counter repetidas;
+    private final Counter aguardadas;
+    private final Counter doBanco;
+
+    public IdempotenciaPedidos(MeterRegistry registry,
+                               @Value("${delivery.pedidos.idempotencia.ttl:15m}") Duration ttl,
+                               @Value("${delivery.pedidos.idempotencia.capacidade:50000}") int capacidade,
+                               @Value("${delivery.pedidos.idempotencia.shards:16}") int quantidadeShards,
+                               @Value("${delivery.pedidos.idempotencia.espera-maxima-ms:10000}") long esperaMaximaMs) {
+        // Potência de dois: o shard sai do hash da chave com uma máscara
+        int quantidade = Integer.highestOneBit(Math.max(1, quantidadeShards));
+        this.shards = new Shard[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            shards[i] = new Shard();
+        }
+        this.ttlNanos = ttl.toNanos();
+        this.capacidadePorShard = Math.max(1, capacidade / quantidade);
+        this.esperaMaximaMs = esperaMaximaMs;
+
+        this.novas = contador(registry, "nova", "Pedidos criados com Idempotency-Key");
+        this.repetidas = contador(registry, "repetida", "Repetições respondidas da memória");
+        this.aguardadas = contador(registry, "aguardou", "Repetições que esperaram a requisição original terminar");
+        this.doBanco = contador(registry, "banco", "Repetições resolvidas pela restrição única (chave fora da memória)");
+    }
+
+    /**
+     * Criar o pedido uma única vez por chave. repetida = true quando a resposta é a de uma requisição anterior.
+     */
+    public Resposta criar(PedidoRequestDTO dto, String chave) {
+        if (chave == null || chave.isBlank() || chave.length() > TAMANHO_MAXIMO_CHAVE) {
+            throw new BusinessException("Idempotency-Key deve ter de 1 a " + TAMANHO_MAXIMO_CHAVE + " caracteres");
+        }
+
+        Shard shard = shards[espalhar(chave.hashCode()) & (shards.length - 1)];
+        long agora = System.nanoTime();
+        Entrada nova = new Entrada(dto, new CompletableFuture<>(), agora);
+        Entrada existente;
+        shard.trava.lock();
+        try {
+            expirar(shard, agora);
+            existente = shard.entradas.putIfAbsent(chave, nova);
+        } finally {
+            shard.trava.unlock();
+        }
+
+        return existente != null ? aguardar(chave, existente, dto) : executar(chave, nova, shard);
+    }
+
+    /**
+     * Esquecer as chaves em memória (as repetições passam a ser resolvidas pelo banco)
+     */
+    void esquecer() {
+        for (Shard shard : shards) {
+            shard.trava.lock();
+            try {
+                shard.entradas.clear();
+            } finally {
+                shard.trava.unlock();
+            }
+        }
+    }
+
+    private Resposta executar(String chave, Entrada entrada, Shard shard) {
+        try {
+            Resposta resposta = criarOuRecuperar(chave, entrada.requisicao());
+            entrada.resposta().complete(resposta.pedido());
+            return resposta;
+        } catch (RuntimeException e) {
+            shard.trava.lock();
+            try {
+                shard.entradas.remove(chave, entrada);
+            } finally {
+                shard.trava.unlock();
+            }
+            entrada.resposta().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private Resposta criarOuRecuperar(String chave, PedidoRequestDTO dto) {
+        try {
+            Resposta resposta = new Resposta(new PedidoResponseDTO(pedidoService.criarPedido(dto, chave)), false);
+            novas.increment();
+            return resposta;
+        } catch (DataIntegrityViolationException e) {
+            String mensagem = String.valueOf(e.getMostSpecificCause().getMessage()).toLowerCase(Locale.ROOT);
+            if (!mensagem.contains(Pedido.RESTRICAO_CHAVE_IDEMPOTENCIA)) {
+                throw e;
+            }
+            Long pedidoId = pedidoRepository.buscarIdPorChaveIdempotencia(chave).orElseThrow(() -> e);
+            PedidoResponseDTO pedido = pedidoService.buscarPorId(pedidoId);
+            if (!Objects.equals(pedido.getCliente().getId(), dto.getClienteId())
+                || !Objects.equals(pedido.getRestaurante().getId(), dto.getRestauranteId())) {
+                throw chaveReutilizada(chave);
+            }
+            doBanco.increment();
+            return new Resposta(pedido, true);
+        }
+    }
+
+    private Resposta aguardar(String chave, Entrada existente, PedidoRequestDTO dto) {
+        if (!existente.requisicao().equals(dto)) {
+            throw chaveReutilizada(chave);
+        }
+        boolean emAndamento = !existente.resposta().isDone();
+        try {
+            PedidoResponseDTO pedido = existente.resposta().get(esperaMaximaMs, TimeUnit.MILLISECONDS);
+            (emAndamento ? aguardadas : repetidas).increment();
+            return new Resposta(pedido, true);
+        } catch (TimeoutException e) {
+            throw new RequisicaoEmAndamentoException("Pedido com a Idempotency-Key " + chave + " ainda em processamento");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RequisicaoEmAndamentoException("Interrompido aguardando o pedido da Idempotency-Key " + chave);
+        } catch (ExecutionException e) {
+            // A original falhou: a repetição recebe o mesmo erro
+            if (e.getCause() instanceof RuntimeException falha) {
+                throw falha;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void expirar(Shard shard, long agora) {
+        Iterator<Map.Entry<String, Entrada>> entradas = shard.entradas.entrySet().iterator();
+        // Abre espaço para a entrada que vai chegar
+        int excedentes = shard.entradas.size() + 1 - capacidadePorShard;
+        while (entradas.hasNext()) {
+            Entrada maisAntiga = entradas.next().getValue();
+            if (excedentes <= 0 && agora - maisAntiga.criadaEm() < ttlNanos) {
+                break;
+            }
+            entradas.remove();
+            excedentes--;
+        }
+    }
+
+    private static BusinessException chaveReutilizada(String chave) {
+        return new BusinessException("Idempotency-Key já usada em outro pedido: " + chave);
+    }
+
+    private static int espalhar(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static Counter contador(MeterRegistry registry, String resultado, String descricao) {
+        return Counter.builder("delivery.pedidos.idempotencia").tag("resultado", resultado)
+            .description(descricao).register(registry);
+    }
+}
@@ -0,0 +1,310 @@
+package com.deliverytech.delivery.services;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.deliverytech.delivery.dto.ItemPedidoImportacaoDTO;
+import com.deliverytech.delivery.dto.PedidoImportacaoDTO;
+import com.deliverytech.delivery.dto.ProdutoRequestDTO;
+import com.deliverytech.delivery.dto.ResultadoImportacaoDTO;
+import com.deliverytech.delivery.entity.Cliente;
+import com.deliverytech.delivery.entity.Dinheiro;
+import com.deliverytech.delivery.entity.ItemPedido;
+import com.deliverytech.delivery.entity.Pedido;
+import com.deliverytech.delivery.entity.Produto;
+import com.deliverytech.delivery.entity.Restaurante;
+import com.deliverytech.delivery.enums.StatusPedido;
+import com.deliverytech.delivery.exceptions.BusinessException;
+import com.deliverytech.delivery.repository.ClienteRepository;
+import com.deliverytech.delivery.repository.ProdutoRepository;
+import com.deliverytech.delivery.repository.RestauranteRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Importação em lote de dados históricos (pedidos e produtos) a partir de JSON por linha (NDJSON).
+ *
+ * Cada lote de linhas é gravado numa transação própria: persist de todas as entidades, um flush
+ * (inserts agrupados em batch JDBC pelo Hibernate, ids vindos de sequence com alocação em bloco)
+ * e clear do contexto, para a memória não crescer com o arquivo. Clientes, restaurantes e produtos
+ * são validados contra mapas carregados uma vez no início, sem consulta por linha. Uma linha
+ * inválida é rejeitada sozinha; um lote que falha no banco é rejeitado inteiro. Os pedidos de cada
+ * lote entram nos agregados por período na mesma transação, sem recalcular as tabelas inteiras.
+ */
+@Service
+public class ImportacaoService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportacaoService.class);
+
+    private static final int MAXIMO_ERROS_REPORTADOS = 100;
+
+    private record Linha<T>(long numero, T dto) {
+    }
+
+    private record PrecoProduto(Dinheiro preco, Long restauranteId) {
+    }
+
+    private static final class Progresso {
+        long lidas;
+        long importadas;
+        long rejeitadas;
+        final List<String> erros = new ArrayList<>();
+
+        void rejeitar(long linha, String motivo) {
+            rejeitadas++;
+            if (erros.size() < MAXIMO_ERROS_REPORTADOS) {
+                erros.add("Linha " + linha + ": " + motivo);
+            }
+        }
+    }
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private RestauranteRepository restauranteRepository;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private VendasRestauranteService vendasRestauranteService;
+
+    @Autowired
+    private AgregadoPedidosService agregadoPedidosService;
+
+    @Autowired
+    private RankingService rankingService;
+
+    @Autowired
+    private CardapioCache cardapioCache;
+
+    @Autowired
+    private IndiceProdutos indiceProdutos;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transacao;
+    private final ObjectReader leitorPedido;
+    private final ObjectReader leitorProduto;
+    private final int tamanhoLote;
+
+    public ImportacaoService(PlatformTransactionManager transactionManager,
+                             ObjectMapper objectMapper,
+                             @Value("${delivery.importacao.tamanho-lote:1000}") int tamanhoLote) {
+        if (tamanhoLote < 1) {
+            throw new IllegalArgumentException("delivery.importacao.tamanho-lote deve ser maior que zero");
+        }
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.leitorPedido = objectMapper.readerFor(PedidoImportacaoDTO.class);
+        this.leitorProduto = objectMapper.readerFor(ProdutoRequestDTO.class);
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    /**
+     * Importar pedidos históricos, um PedidoImportacaoDTO por linha.
+     * Cada lote soma os seus pedidos aos agregados por período; no fim, o agregado de vendas é reconciliado
+     * e o ranking reconstruído.
+     */
+    public ResultadoImportacaoDTO importarPedidos(InputStream entrada) throws IOException {
+        Set<Long> clientes = new HashSet<>(clienteRepository.listarIds());
+        Map<Long, Dinheiro> taxas = new HashMap<>();
+        for (Object[] linha : restauranteRepository.listarTaxasEntrega()) {
+            taxas.put((Long) linha[0], linha[1] != null ? Dinheiro.de((BigDecimal) linha[1]) : Dinheiro.ZERO);
+        }
+        Map<Long, PrecoProduto> produtos = new HashMap<>();
+        for (Object[] linha : produtoRepository.listarPrecosERestaurantes()) {
+            produtos.put((Long) linha[0], new PrecoProduto((Dinheiro) linha[1], (Long) linha[2]));
+        }
+
+        ResultadoImportacaoDTO resultado = importar("pedidos", entrada, leitorPedido,
+            (PedidoImportacaoDTO dto) -> paraPedido(dto, clientes, taxas, produtos), agregadoPedidosService::registrarPedidos);
+
+        if (resultado.getImportadas() > 0) {
+            vendasRestauranteService.reconciliar();
+            rankingService.reconstruir();
+        }
+        return resultado;
+    }
+
+    /**
+     * Importar produtos, um ProdutoRequestDTO por linha
+     */
+    public ResultadoImportacaoDTO importarProdutos(InputStream entrada) throws IOException {
+        Set<Long> restaurantes = new HashSet<>();
+        for (Object[] linha : restauranteRepository.listarTaxasEntrega()) {
+            restaurantes.add((Long) linha[0]);
+        }
+
+        ResultadoImportacaoDTO resultado = importar("produtos", entrada, leitorProduto,
+            (ProdutoRequestDTO dto) -> paraProduto(dto, restaurantes), produtos -> { });
+
+        if (resultado.getImportadas() > 0) {
+            // A importação grava direto pelo EntityManager, sem eventos de produto
+            cardapioCache.invalidarTudo();
+            indiceProdutos.reconstruir();
+        }
+        return resultado;
+    }
+
+    private <T, E> ResultadoImportacaoDTO importar(String tipo, InputStream entrada, ObjectReader leitor,
+                                                   Function<T, E> converter, Consumer<List<E>> aoGravar) throws IOException {
+        long inicio = System.nanoTime();
+        Progresso progresso = new Progresso();
+        List<Linha<T>> lote = new ArrayList<>(tamanhoLote);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+        String texto;
+        long numeroLinha = 0;
+        while ((texto = reader.readLine()) != null) {
+            numeroLinha++;
+            if (texto.isBlank()) {
+                continue;
+            }
+            progresso.lidas++;
+            try {
+                lote.add(new Linha<>(numeroLinha, leitor.readValue(texto)));
+            } catch (IOException e) {
+                progresso.rejeitar(numeroLinha, "JSON inválido");
+                continue;
+            }
+            if (lote.size() == tamanhoLote) {
+                gravar(lote, converter, aoGravar, progresso);
+                lote.clear();
+            }
+        }
+        if (!lote.isEmpty()) {
+            gravar(lote, converter, aoGravar, progresso);
+        }
+
+        long duracaoMs = Math.max((System.nanoTime() - inicio) / 1_000_000, 1);
+        long porSegundo = progresso.importadas * 1000 / duracaoMs;
+        log.info("Importação de {}: {} linhas, {} importadas, {} rejeitadas em {} ms ({} linhas/s)",
+            tipo, progresso.lidas, progresso.importadas, progresso.rejeitadas, duracaoMs, porSegundo);
+        return new ResultadoImportacaoDTO(progresso.lidas, progresso.importadas, progresso.rejeitadas,
+            duracaoMs, porSegundo, progresso.erros);
+    }
+
+    private <T, E> void gravar(List<Linha<T>> lote, Function<T, E> converter, Consumer<List<E>> aoGravar, Progresso progresso) {
+        List<Long> rejeitadasNoLote = new ArrayList<>();
+        try {
+            int gravadas = transacao.execute(status -> {
+                List<E> persistidas = new ArrayList<>(lote.size());
+                for (Linha<T> linha : lote) {
+                    try {
+                        E entidade = converter.apply(linha.dto());
+                        entityManager.persist(entidade);
+                        persistidas.add(entidade);
+                    } catch (BusinessException e) {
+                        rejeitadasNoLote.add(linha.numero());
+                        progresso.rejeitar(linha.numero(), e.getMessage());
+                    }
+                }
+                aoGravar.accept(persistidas);
+                entityManager.flush();
+                entityManager.clear();
+                return persistidas.size();
+            });
+            progresso.importadas += gravadas;
+        } catch (RuntimeException e) {
+            long primeira = lote.get(0).numero();
+            long ultima = lote.get(lote.size() - 1).numero();
+            // As linhas já rejeitadas pela validação foram contadas; o restante do lote volta inteiro
+            progresso.rejeitadas += lote.size() - rejeitadasNoLote.size();
+            if (progresso.erros.size() < MAXIMO_ERROS_REPORTADOS) {
+                progresso.erros.add("Linhas " + primeira + "-" + ultima + ": lote rejeitado pelo banco ("
+                    + NestedExceptionUtils.getMostSpecificCause(e).getMessage() + ")");
+            }
+            log.warn("Lote de importação (linhas {}-{}) rejeitado", primeira, ultima, e);
+        }
+    }
+
+    private Pedido paraPedido(PedidoImportacaoDTO dto, Set<Long> clientes, Map<Long, Dinheiro> taxas,
+                              Map<Long, PrecoProduto> produtos) {
+        if (dto.getClienteId() == null || !clientes.contains(dto.getClienteId())) {
+            throw new BusinessException("Cliente não encontrado: " + dto.getClienteId());
+        }
+        Dinheiro taxaEntrega = dto.getRestauranteId() != null ? taxas.get(dto.getRestauranteId()) : null;
+        if (taxaEntrega == null) {
+            throw new BusinessException("Restaurante não encontrado: " + dto.getRestauranteId());
+        }
+        if (dto.getDataPedido() == null) {
+            throw new BusinessException("dataPedido é obrigatória");
+        }
+        if (dto.getItens() == null || dto.getItens().isEmpty()) {
+            throw new BusinessException("O pedido deve ter pelo menos um item");
+        }
+
+        Pedido pedido = new Pedido();
+        pedido.setNumeroPedido(dto.getNumeroPedido());
+        pedido.setDataPedido(dto.getDataPedido());
+        pedido.setStatus(dto.getStatus() != null ? dto.getStatus() : StatusPedido.ENTREGUE);
+        pedido.setObservacoes(dto.getObservacoes());
+        pedido.setCliente(entityManager.getReference(Cliente.class, dto.getClienteId()));
+        pedido.setRestaurante(entityManager.getReference(Restaurante.class, dto.getRestauranteId()));
+
+        Dinheiro somaItens = Dinheiro.ZERO;
+        for (ItemPedidoImportacaoDTO linha : dto.getItens()) {
+            PrecoProduto produto = linha.getProdutoId() != null ? produtos.get(linha.getProdutoId()) : null;
+            if (produto == null) {
+                throw new BusinessException("Produto não encontrado: " + linha.getProdutoId());
+            }
+            if (!dto.getRestauranteId().equals(produto.restauranteId())) {
+                throw new BusinessException("Produto " + linha.getProdutoId() + " não pertence ao restaurante " + dto.getRestauranteId());
+            }
+            if (linha.getQuantidade() == null || linha.getQuantidade() < 1) {
+                throw new BusinessException("A quantidade deve ser no mínimo 1");
+            }
+
+            ItemPedido item = new ItemPedido();
+            item.setProduto(entityManager.getReference(Produto.class, linha.getProdutoId()));
+            item.setQuantidade(linha.getQuantidade());
+            item.setPrecoUnitario(linha.getPrecoUnitario() != null ? Dinheiro.de(linha.getPrecoUnitario()) : produto.preco());
+            pedido.adicionarItem(item);
+            somaItens = somaItens.mais(item.getSubtotal());
+        }
+        pedido.setValorTotal(dto.getValorTotal() != null ? dto.getValorTotal() : somaItens.mais(taxaEntrega).paraBigDecimal());
+        return pedido;
+    }
+
+    private Produto paraProduto(ProdutoRequestDTO dto, Set<Long> restaurantes) {
+        if (dto.getNome() == null || dto.getNome().isBlank()) {
+            throw new BusinessException("Nome do produto é obrigatório");
+        }
+        if (dto.getPreco() == null || dto.getPreco().signum() <= 0) {
+            throw new BusinessException("O preço deve ser maior que zero");
+        }
+        if (dto.getRestauranteId() == null || !restaurantes.contains(dto.getRestauranteId())) {
+            throw new BusinessException("Restaurante não encontrado: " + dto.getRestauranteId());
+        }
+
+        return new Produto(null, dto.getNome(), dto.getDescricao(), Dinheiro.de(dto.getPreco()), dto.getCategoria(),
+            dto.getDisponivel() == null || dto.getDisponivel(),
+            entityManager.getReference(Restaurante.class, dto.getRestauranteId()));
+    }
+}
@@ -0,0 +1,334 @@
+package com.deliverytech.delivery.services;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.deliverytech.delivery.events.ClienteAlteradoEvent;
+import com.deliverytech.delivery.repository.ClienteRepository;
+
+/**
+ * Índice de trigramas sobre o nome dos clientes, para busca por trecho do nome sem varrer a tabela.
+ *
+ * O nome é guardado dobrado (minúsculas, sem acento, espaços simples) e cada trigrama aponta para a lista
+ * ordenada das posições que o contêm. Uma busca percorre a menor lista dos trigramas do texto, confere
+ * os demais trigramas por busca binária e confirma o trecho no nome de cada candidato. Textos com menos
+ * de 3 caracteres varrem os nomes em memória.
+ *
+ * As posições são dadas em ordem de id (a carga lê em ordem de id e clientes novos têm id maior), então a
+ * varredura para assim que completa a página. Um nome alterado ganha uma posição nova, fora dessa ordem,
+ * que é conferida à parte; a antiga fica marcada como morta até a compactação, que refaz tudo em ordem de id.
+ */
+@Component
+public class IndiceClientes {
+
+    private static final Logger log = LoggerFactory.getLogger(IndiceClientes.class);
+
+    private static final int LOTE_CARGA = 5000;
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    /**
+     * Ids encontrados em ordem crescente; haMais indica que existem outros depois do último
+     */
+    public record Pagina(List<Long> ids, boolean haMais) {
+    }
+
+    /** Posições (ordinais) em ordem crescente, já que cada posição nova é maior que as anteriores */
+    private static final class Lista {
+        private int[] posicoes = new int[4];
+        private int tamanho;
+
+        void adicionar(int posicao) {
+            if (tamanho > 0 && posicoes[tamanho - 1] == posicao) {
+                return;
+            }
+            if (tamanho == posicoes.length) {
+                posicoes = Arrays.copyOf(posicoes, tamanho * 2);
+            }
+            posicoes[tamanho++] = posicao;
+        }
+
+        boolean contem(int posicao) {
+            return Arrays.binarySearch(posicoes, 0, tamanho, posicao) >= 0;
+        }
+    }
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<Long, Lista> trigramas = new HashMap<>();
+    private Map<Long, Integer> posicaoPorId = new HashMap<>();
+    private long[] ids = new long[1024];
+    private String[] nomes = new String[1024];
+    private boolean[] vivos = new boolean[1024];
+    private boolean[] foraDeOrdem = new boolean[1024];
+    private int[] posicoesForaDeOrdem = new int[16];
+    private int quantidadeForaDeOrdem;
+    private long maiorId;
+    private int total;
+    private int mortos;
+    private volatile boolean pronto;
+
+    /**
+     * Carrega os nomes em segundo plano; até terminar, a busca usa a consulta no banco
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregarNaSubida() {
+        Thread.ofPlatform().name("indice-clientes").daemon().start(() -> {
+            try {
+                reconstruir();
+            } catch (RuntimeException e) {
+                log.error("Falha ao montar o índice de nomes de clientes; busca continua no banco", e);
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarCliente(ClienteAlteradoEvent evento) {
+        lock.writeLock().lock();
+        try {
+            guardar(evento.atual().getId(), evento.atual().getNome(), true);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ler todos os nomes do banco, em lotes. Um cliente já indexado por evento não é sobrescrito
+     * pela leitura, que pode ser mais antiga.
+     */
+    public void reconstruir() {
+        long inicio = System.nanoTime();
+        Long ultimoId = 0L;
+        List<Object[]> lote;
+        do {
+            lote = clienteRepository.listarNomesAposId(ultimoId, Limit.of(LOTE_CARGA));
+            lock.writeLock().lock();
+            try {
+                for (Object[] linha : lote) {
+                    guardar((Long) linha[0], (String) linha[1], false);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (!lote.isEmpty()) {
+                ultimoId = (Long) lote.get(lote.size() - 1)[0];
+            }
+        } while (lote.size() == LOTE_CARGA);
+
+        // Clientes indexados por evento durante a carga deixam as posições lidas depois fora da ordem de id
+        lock.writeLock().lock();
+        try {
+            if (quantidadeForaDeOrdem > 0) {
+                compactar();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        pronto = true;
+        log.info("Índice de nomes de clientes montado: {} clientes, {} trigramas em {} ms",
+            posicaoPorId.size(), trigramas.size(), (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    public boolean isPronto() {
+        return pronto;
+    }
+
+    /**
+     * Ids (maiores que aposId, em ordem crescente) dos clientes cujo nome contém o texto,
+     * ignorando maiúsculas e acentos. Devolve no máximo limite ids.
+     */
+    public Pagina buscar(String texto, long aposId, int limite) {
+        String trecho = dobrar(texto);
+        if (trecho.isEmpty()) {
+            return new Pagina(List.of(), false);
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Lista> listas = new ArrayList<>();
+            for (long trigrama : trigramasDe(trecho)) {
+                Lista lista = trigramas.get(trigrama);
+                if (lista == null) {
+                    return new Pagina(List.of(), false);
+                }
+                listas.add(lista);
+            }
+            listas.sort(Comparator.comparingInt(l -> l.tamanho));
+
+            // Os limite + 1 menores ids encontrados, em ordem crescente
+            long[] menores = new long[limite + 1];
+            int encontrados = 0;
+
+            // Posições em ordem de id: para ao completar a página
+            int emOrdem = 0;
+            int fim = listas.isEmpty() ? total : listas.get(0).tamanho;
+            for (int i = 0; i < fim && emOrdem < menores.length; i++) {
+                int posicao = listas.isEmpty() ? i : listas.get(0).posicoes[i];
+                if (!foraDeOrdem[posicao] && casa(posicao, listas, trecho, aposId)) {
+                    encontrados = inserirOrdenado(menores, encontrados, ids[posicao]);
+                    emOrdem++;
+                }
+            }
+            for (int i = 0; i < quantidadeForaDeOrdem; i++) {
+                int posicao = posicoesForaDeOrdem[i];
+                if (casa(posicao, listas, trecho, aposId)) {
+                    encontrados = inserirOrdenado(menores, encontrados, ids[posicao]);
+                }
+            }
+
+            List<Long> resultado = new ArrayList<>(Math.min(encontrados, limite));
+            for (int i = 0; i < Math.min(encontrados, limite); i++) {
+                resultado.add(menores[i]);
+            }
+            return new Pagina(resultado, encontrados > limite);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean casa(int posicao, List<Lista> listas, String trecho, long aposId) {
+        if (!vivos[posicao] || ids[posicao] <= aposId) {
+            return false;
+        }
+        for (int j = 1; j < listas.size(); j++) {
+            if (!listas.get(j).contem(posicao)) {
+                return false;
+            }
+        }
+        return nomes[posicao].contains(trecho);
+    }
+
+    /**
+     * Inserir id no vetor ordenado de tamanho fixo, descartando o maior quando cheio
+     */
+    private static int inserirOrdenado(long[] menores, int quantidade, long id) {
+        if (quantidade == menores.length && id >= menores[quantidade - 1]) {
+            return quantidade;
+        }
+        int ponto = Arrays.binarySearch(menores, 0, quantidade, id);
+        if (ponto >= 0) {
+            return quantidade;
+        }
+        ponto = -ponto - 1;
+        int mover = Math.min(quantidade, menores.length - 1) - ponto;
+        if (mover > 0) {
+            System.arraycopy(menores, ponto, menores, ponto + 1, mover);
+        }
+        menores[ponto] = id;
+        return Math.min(quantidade + 1, menores.length);
+    }
+
+    /** Chamar com o lock de escrita */
+    private void guardar(Long id, String nome, boolean substituir) {
+        String dobrado = dobrar(nome);
+        Integer anterior = posicaoPorId.get(id);
+        if (anterior != null) {
+            if (!substituir || nomes[anterior].equals(dobrado)) {
+                return;
+            }
+            vivos[anterior] = false;
+            mortos++;
+        }
+
+        if (total == ids.length) {
+            int capacidade = total * 2;
+            ids = Arrays.copyOf(ids, capacidade);
+            nomes = Arrays.copyOf(nomes, capacidade);
+            vivos = Arrays.copyOf(vivos, capacidade);
+            foraDeOrdem = Arrays.copyOf(foraDeOrdem, capacidade);
+        }
+        int posicao = total++;
+        ids[posicao] = id;
+        nomes[posicao] = dobrado;
+        vivos[posicao] = true;
+        posicaoPorId.put(id, posicao);
+        if (id < maiorId) {
+            foraDeOrdem[posicao] = true;
+            if (quantidadeForaDeOrdem == posicoesForaDeOrdem.length) {
+                posicoesForaDeOrdem = Arrays.copyOf(posicoesForaDeOrdem, quantidadeForaDeOrdem * 2);
+            }
+            posicoesForaDeOrdem[quantidadeForaDeOrdem++] = posicao;
+        }
+        maiorId = Math.max(maiorId, id);
+        for (long trigrama : trigramasDe(dobrado)) {
+            trigramas.computeIfAbsent(trigrama, t -> new Lista()).adicionar(posicao);
+        }
+
+        // Na carga a compactação fica para o fim, em reconstruir()
+        if (substituir && (mortos > 1024 && mortos > total / 4 || quantidadeForaDeOrdem > 4096)) {
+            compactar();
+        }
+    }
+
+    /** Refazer as listas só com as posições vivas, em ordem de id. Chamar com o lock de escrita */
+    private void compactar() {
+        Integer[] vivas = new Integer[total - mortos];
+        int copiadas = 0;
+        for (int posicao = 0; posicao < total; posicao++) {
+            if (vivos[posicao]) {
+                vivas[copiadas++] = posicao;
+            }
+        }
+        long[] idsAntigos = ids;
+        String[] nomesAntigos = nomes;
+        Arrays.sort(vivas, Comparator.comparingLong(posicao -> idsAntigos[posicao]));
+
+        trigramas = new HashMap<>();
+        posicaoPorId = new HashMap<>();
+        ids = new long[Math.max(vivas.length * 2, 1024)];
+        nomes = new String[ids.length];
+        vivos = new boolean[ids.length];
+        foraDeOrdem = new boolean[ids.length];
+        quantidadeForaDeOrdem = 0;
+        maiorId = 0;
+        total = 0;
+        mortos = 0;
+        for (Integer posicao : vivas) {
+            guardar(idsAntigos[posicao], nomesAntigos[posicao], true);
+        }
+    }
+
+    /**
+     * Trigramas distintos do texto, cada um com os 3 caracteres em 16 bits
+     */
+    private static long[] trigramasDe(String texto) {
+        if (texto.length() < 3) {
+            return new long[0];
+        }
+        long[] resultado = new long[texto.length() - 2];
+        for (int i = 0; i < resultado.length; i++) {
+            resultado[i] = (long) texto.charAt(i) << 32 | (long) texto.charAt(i + 1) << 16 | texto.charAt(i + 2);
+        }
+        return Arrays.stream(resultado).distinct().toArray();
+    }
+
+    /**
+     * Minúsculas, sem acento, com pontuação e espaços repetidos reduzidos a um espaço ("  José  D'Ávila" -> "jose d avila")
+     */
+    static String dobrar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String semAcento = ACENTOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARADORES.matcher(semAcento.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+}
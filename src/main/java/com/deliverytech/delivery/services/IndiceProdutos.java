@@ -0,0 +1,284 @@
+package com.deliverytech.delivery.services;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.deliverytech.delivery.entity.ProdutoDTO;
+import com.deliverytech.delivery.events.ProdutoAlteradoEvent;
+import com.deliverytech.delivery.events.RestauranteAlteradoEvent;
+import com.deliverytech.delivery.repository.ProdutoRepository;
+
+/**
+ * Índice invertido de produtos (nome, descrição e categoria) para busca textual e autocomplete.
+ *
+ * Os termos são dobrados para minúsculas sem acento ("Salmão" e "salmao" são o mesmo termo) e ficam num
+ * mapa ordenado, então o último termo digitado casa por prefixo percorrendo só a faixa de termos que começa
+ * com ele. Cada termo guarda o peso por produto (nome 3, categoria 2, descrição 1) e a relevância soma
+ * peso x raridade do termo. Os eventos de produto atualizam só o produto alterado.
+ *
+ * A reconstrução (na subida e após importação em lote) monta uma estrutura nova em segundo plano enquanto a
+ * atual continua atendendo; alterações que chegam no meio valem para as duas.
+ */
+@Component
+public class IndiceProdutos {
+
+    private static final Logger log = LoggerFactory.getLogger(IndiceProdutos.class);
+
+    private static final int PESO_NOME = 3;
+    private static final int PESO_CATEGORIA = 2;
+    private static final int PESO_DESCRICAO = 1;
+    // Termos do dicionário expandidos por um prefixo; prefixos curtos demais não varrem o índice inteiro
+    private static final int MAXIMO_EXPANSOES_PREFIXO = 64;
+    private static final int LOTE_CARGA = 1000;
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^a-z0-9]+");
+    private static final Set<String> PALAVRAS_VAZIAS = Set.of("a", "o", "as", "os", "e", "de", "da", "do", "das", "dos",
+        "com", "sem", "em", "no", "na", "para", "um", "uma");
+
+    private record Documento(ProdutoDTO produto, Map<String, Integer> pesos) {
+    }
+
+    private static final class Estrutura {
+        private final ConcurrentSkipListMap<String, Map<Long, Integer>> termos = new ConcurrentSkipListMap<>();
+        private final Map<Long, Documento> documentos = new ConcurrentHashMap<>();
+
+        void guardar(ProdutoDTO produto) {
+            remover(produto.getId());
+            Map<String, Integer> pesos = new HashMap<>();
+            somarPesos(pesos, produto.getNome(), PESO_NOME);
+            somarPesos(pesos, produto.getCategoria(), PESO_CATEGORIA);
+            somarPesos(pesos, produto.getDescricao(), PESO_DESCRICAO);
+            // O documento entra antes dos termos: um id achado num termo sempre tem documento
+            documentos.put(produto.getId(), new Documento(produto, Map.copyOf(pesos)));
+            pesos.forEach((termo, peso) -> termos.computeIfAbsent(termo, t -> new ConcurrentHashMap<>()).put(produto.getId(), peso));
+        }
+
+        void remover(Long id) {
+            Documento anterior = documentos.remove(id);
+            if (anterior == null) {
+                return;
+            }
+            for (String termo : anterior.pesos().keySet()) {
+                termos.computeIfPresent(termo, (t, ids) -> {
+                    ids.remove(id);
+                    return ids.isEmpty() ? null : ids;
+                });
+            }
+        }
+    }
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    private volatile Estrutura atual = new Estrutura();
+    // Só existem durante uma reconstrução; acessados sob o lock do índice
+    private Estrutura emConstrucao;
+    private final Set<Long> removidosNaConstrucao = new HashSet<>();
+    private volatile boolean pronto;
+
+    /**
+     * Monta o índice em segundo plano: a aplicação fica pronta sem esperar a carga dos produtos
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregarNaSubida() {
+        Thread.ofPlatform().name("indice-produtos").daemon().start(this::reconstruir);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void aoAlterarProduto(ProdutoAlteradoEvent evento) {
+        if (evento.atual() != null) {
+            atual.guardar(evento.atual());
+            if (emConstrucao != null) {
+                emConstrucao.guardar(evento.atual());
+            }
+        } else if (evento.anterior() != null) {
+            removerDeTodas(evento.anterior().getId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void aoAlterarRestaurante(RestauranteAlteradoEvent evento) {
+        // Excluir o restaurante remove seus produtos em cascata, sem eventos por produto
+        if (evento.atual() == null && evento.anterior() != null) {
+            Long restauranteId = evento.anterior().getId();
+            atual.documentos.values().stream()
+                .filter(d -> restauranteId.equals(d.produto().getRestauranteId()))
+                .map(d -> d.produto().getId())
+                .toList()
+                .forEach(this::removerDeTodas);
+        }
+    }
+
+    /**
+     * Reler todos os produtos do banco, em lotes, e trocar o índice atual pelo novo ao final
+     */
+    public void reconstruir() {
+        long inicio = System.nanoTime();
+        Estrutura nova = new Estrutura();
+        synchronized (this) {
+            emConstrucao = nova;
+            removidosNaConstrucao.clear();
+        }
+        try {
+            Long ultimoId = 0L;
+            List<ProdutoDTO> lote;
+            do {
+                lote = produtoRepository.listarAposId(ultimoId, Limit.of(LOTE_CARGA));
+                synchronized (this) {
+                    for (ProdutoDTO produto : lote) {
+                        // Um evento já aplicado na estrutura nova é mais recente que a leitura do lote
+                        if (!removidosNaConstrucao.contains(produto.getId()) && !nova.documentos.containsKey(produto.getId())) {
+                            nova.guardar(produto);
+                        }
+                    }
+                }
+                if (!lote.isEmpty()) {
+                    ultimoId = lote.get(lote.size() - 1).getId();
+                }
+            } while (lote.size() == LOTE_CARGA);
+
+            synchronized (this) {
+                atual = nova;
+                pronto = true;
+            }
+            log.info("Índice de produtos montado: {} produtos, {} termos em {} ms",
+                nova.documentos.size(), nova.termos.size(), (System.nanoTime() - inicio) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("Falha ao montar o índice de produtos; mantido o índice anterior", e);
+        } finally {
+            synchronized (this) {
+                emConstrucao = null;
+                removidosNaConstrucao.clear();
+            }
+        }
+    }
+
+    /**
+     * Produtos que contêm todos os termos do texto (o último também como prefixo), do mais relevante ao menos
+     */
+    public List<ProdutoDTO> buscar(String texto, Long restauranteId, boolean apenasDisponiveis, int limite) {
+        Estrutura estrutura = atual;
+        List<String> consulta = termos(texto);
+        if (consulta.isEmpty()) {
+            return List.of();
+        }
+
+        // Pontuação por produto; começa pelo primeiro termo e só mantém quem aparece em todos
+        Map<Long, Double> pontuacao = null;
+        for (int i = 0; i < consulta.size(); i++) {
+            Map<Long, Double> doTermo = pontuarTermo(estrutura, consulta.get(i), i == consulta.size() - 1);
+            if (pontuacao == null) {
+                pontuacao = doTermo;
+            } else {
+                pontuacao.keySet().retainAll(doTermo.keySet());
+                pontuacao.replaceAll((id, valor) -> valor + doTermo.get(id));
+            }
+            if (pontuacao.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        // Top-k por relevância, empate pelo nome
+        Comparator<Map.Entry<Documento, Double>> ordem = Map.Entry.<Documento, Double>comparingByValue()
+            .thenComparing(e -> e.getKey().produto().getNome(), Comparator.reverseOrder());
+        PriorityQueue<Map.Entry<Documento, Double>> melhores = new PriorityQueue<>(ordem);
+        for (Map.Entry<Long, Double> candidato : pontuacao.entrySet()) {
+            Documento documento = estrutura.documentos.get(candidato.getKey());
+            if (documento == null
+                || restauranteId != null && !restauranteId.equals(documento.produto().getRestauranteId())
+                || apenasDisponiveis && !Boolean.TRUE.equals(documento.produto().getDisponivel())) {
+                continue;
+            }
+            melhores.add(Map.entry(documento, candidato.getValue()));
+            if (melhores.size() > limite) {
+                melhores.poll();
+            }
+        }
+
+        List<ProdutoDTO> resultado = new ArrayList<>(melhores.size());
+        while (!melhores.isEmpty()) {
+            resultado.add(melhores.poll().getKey().produto());
+        }
+        return resultado.reversed();
+    }
+
+    public boolean isPronto() {
+        return pronto;
+    }
+
+    private Map<Long, Double> pontuarTermo(Estrutura estrutura, String termo, boolean prefixo) {
+        Map<Long, Double> pontuacao = new HashMap<>();
+        Map<String, Map<Long, Integer>> casados;
+        if (prefixo) {
+            casados = estrutura.termos.subMap(termo, true, termo + Character.MAX_VALUE, false);
+        } else {
+            Map<Long, Integer> exato = estrutura.termos.get(termo);
+            casados = exato == null ? Map.of() : Map.of(termo, exato);
+        }
+
+        int total = Math.max(estrutura.documentos.size(), 1);
+        int expansoes = 0;
+        for (Map.Entry<String, Map<Long, Integer>> casado : casados.entrySet()) {
+            if (++expansoes > MAXIMO_EXPANSOES_PREFIXO) {
+                break;
+            }
+            Map<Long, Integer> ids = casado.getValue();
+            double raridade = Math.log(1.0 + (double) total / Math.max(ids.size(), 1));
+            // Termo completo vale mais que um termo que só começa com o que foi digitado
+            double fator = casado.getKey().equals(termo) ? 1.0 : 0.8;
+            ids.forEach((id, peso) -> pontuacao.merge(id, peso * raridade * fator, Math::max));
+        }
+        return pontuacao;
+    }
+
+    private void removerDeTodas(Long id) {
+        atual.remover(id);
+        if (emConstrucao != null) {
+            emConstrucao.remover(id);
+            removidosNaConstrucao.add(id);
+        }
+    }
+
+    private static void somarPesos(Map<String, Integer> pesos, String texto, int peso) {
+        for (String termo : termos(texto)) {
+            pesos.merge(termo, peso, Integer::sum);
+        }
+    }
+
+    /**
+     * Minúsculas sem acento, separadas em palavras, sem palavras vazias ("Filé de Salmão" -> file, salmao)
+     */
+    static List<String> termos(String texto) {
+        if (texto == null || texto.isBlank()) {
+            return List.of();
+        }
+        String dobrado = ACENTOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+        List<String> termos = new ArrayList<>();
+        for (String termo : SEPARADORES.split(dobrado)) {
+            if (!termo.isEmpty() && !PALAVRAS_VAZIAS.contains(termo)) {
+                termos.add(termo);
+            }
+        }
+        return termos;
+    }
+}
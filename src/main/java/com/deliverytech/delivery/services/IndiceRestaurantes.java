@@ -0,0 +1,211 @@
+package com.deliverytech.delivery.services;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.deliverytech.delivery.dto.PaginaRestaurantesDTO;
+import com.deliverytech.delivery.dto.RestauranteResponseDTO;
+import com.deliverytech.delivery.enums.OrdemRestaurantes;
+import com.deliverytech.delivery.events.RestauranteAlteradoEvent;
+import com.deliverytech.delivery.exceptions.BusinessException;
+import com.deliverytech.delivery.repository.RestauranteRepository;
+
+/**
+ * Índice em memória dos restaurantes ativos para a busca da tela inicial.
+ *
+ * Cada ordenação (avaliação, taxa, nome) tem um conjunto ordenado com todos os restaurantes e um por categoria.
+ * A página começa logo depois da chave do cursor (keyset) e, quando o filtro é sobre a própria ordenação
+ * (taxa máxima ordenando por taxa, avaliação mínima ordenando por avaliação), a varredura para no primeiro
+ * restaurante fora do filtro. Os eventos de restaurante atualizam só a entrada alterada; a busca não acessa o banco.
+ */
+@Component
+public class IndiceRestaurantes {
+
+    private static final int LIMITE_MAXIMO_PAGINA = 100;
+
+    /**
+     * Valores já normalizados para comparação: taxa em centavos, avaliação em centésimos,
+     * nome e categoria em minúsculas. restaurante é null nas chaves montadas a partir de um cursor.
+     */
+    private record Entrada(long id, String nome, String categoria, long taxaCentavos, long avaliacaoCentesimos,
+                           RestauranteResponseDTO restaurante) {
+    }
+
+    private static final Map<OrdemRestaurantes, Comparator<Entrada>> COMPARADORES = new EnumMap<>(Map.of(
+        OrdemRestaurantes.AVALIACAO, Comparator.comparingLong(Entrada::avaliacaoCentesimos).reversed()
+            .thenComparingLong(Entrada::id),
+        OrdemRestaurantes.TAXA, Comparator.comparingLong(Entrada::taxaCentavos).thenComparingLong(Entrada::id),
+        OrdemRestaurantes.NOME, Comparator.comparing(Entrada::nome).thenComparingLong(Entrada::id)));
+
+    private static final class Ordenacoes {
+        private final Map<OrdemRestaurantes, ConcurrentSkipListSet<Entrada>> conjuntos = new EnumMap<>(OrdemRestaurantes.class);
+
+        Ordenacoes() {
+            COMPARADORES.forEach((ordem, comparador) -> conjuntos.put(ordem, new ConcurrentSkipListSet<>(comparador)));
+        }
+
+        void adicionar(Entrada entrada) {
+            conjuntos.values().forEach(conjunto -> conjunto.add(entrada));
+        }
+
+        void remover(Entrada entrada) {
+            conjuntos.values().forEach(conjunto -> conjunto.remove(entrada));
+        }
+
+        NavigableSet<Entrada> em(OrdemRestaurantes ordem) {
+            return conjuntos.get(ordem);
+        }
+    }
+
+    @Autowired
+    private RestauranteRepository restauranteRepository;
+
+    private final Map<Long, Entrada> porId = new ConcurrentHashMap<>();
+    private final Ordenacoes todos = new Ordenacoes();
+    private final Map<String, Ordenacoes> porCategoria = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        restauranteRepository.findByAtivoTrue().forEach(r -> guardar(new RestauranteResponseDTO(r)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarRestaurante(RestauranteAlteradoEvent evento) {
+        RestauranteResponseDTO atual = evento.atual();
+        if (atual != null && Boolean.TRUE.equals(atual.getAtivo())) {
+            guardar(atual);
+        } else if (evento.anterior() != null) {
+            remover(evento.anterior().getId());
+        }
+    }
+
+    /**
+     * Restaurantes ativos que passam em todos os filtros informados (null = sem filtro), na ordem pedida
+     */
+    public PaginaRestaurantesDTO buscar(String categoria, BigDecimal taxaMaxima, BigDecimal avaliacaoMinima,
+                                        OrdemRestaurantes ordem, String cursor, int limite) {
+        int tamanho = Math.clamp(limite, 1, LIMITE_MAXIMO_PAGINA);
+        Ordenacoes origem = categoria == null || categoria.isBlank() ? todos : porCategoria.get(normalizar(categoria));
+        if (origem == null) {
+            return new PaginaRestaurantesDTO(List.of(), null);
+        }
+
+        NavigableSet<Entrada> conjunto = origem.em(ordem);
+        if (cursor != null && !cursor.isBlank()) {
+            conjunto = conjunto.tailSet(decodificarCursor(ordem, cursor), false);
+        }
+        long taxaMaximaCentavos = taxaMaxima == null ? Long.MAX_VALUE : centesimos(taxaMaxima);
+        long avaliacaoMinimaCentesimos = avaliacaoMinima == null ? Long.MIN_VALUE : centesimos(avaliacaoMinima);
+
+        List<RestauranteResponseDTO> itens = new ArrayList<>(tamanho);
+        Entrada ultima = null;
+        for (Entrada entrada : conjunto) {
+            if (ordem == OrdemRestaurantes.TAXA && entrada.taxaCentavos() > taxaMaximaCentavos
+                || ordem == OrdemRestaurantes.AVALIACAO && entrada.avaliacaoCentesimos() < avaliacaoMinimaCentesimos) {
+                break;
+            }
+            // Uma busca concorrente com a atualização pode passar pela versão antiga, já substituída em porId
+            if (entrada.taxaCentavos() > taxaMaximaCentavos || entrada.avaliacaoCentesimos() < avaliacaoMinimaCentesimos
+                || porId.get(entrada.id()) != entrada) {
+                continue;
+            }
+            if (itens.size() == tamanho) {
+                return new PaginaRestaurantesDTO(List.copyOf(itens), codificarCursor(ordem, ultima));
+            }
+            itens.add(entrada.restaurante());
+            ultima = entrada;
+        }
+        return new PaginaRestaurantesDTO(List.copyOf(itens), null);
+    }
+
+    private synchronized void guardar(RestauranteResponseDTO restaurante) {
+        Entrada nova = new Entrada(restaurante.getId(),
+            normalizar(restaurante.getNome()),
+            normalizar(restaurante.getCategoria()),
+            centesimos(restaurante.getTaxaEntrega()),
+            centesimos(restaurante.getAvaliacao()),
+            restaurante);
+
+        // A antiga sai antes da nova entrar: com a mesma chave de ordenação (só mudou a taxa, por exemplo)
+        // as duas são iguais para o conjunto, que não guardaria a nova nem removeria só a antiga
+        Entrada anterior = porId.put(nova.id(), nova);
+        if (anterior != null) {
+            retirar(anterior);
+        }
+        todos.adicionar(nova);
+        porCategoria.computeIfAbsent(nova.categoria(), c -> new Ordenacoes()).adicionar(nova);
+    }
+
+    private synchronized void remover(Long id) {
+        Entrada anterior = porId.remove(id);
+        if (anterior != null) {
+            retirar(anterior);
+        }
+    }
+
+    private void retirar(Entrada entrada) {
+        todos.remover(entrada);
+        Ordenacoes categoria = porCategoria.get(entrada.categoria());
+        if (categoria != null) {
+            categoria.remover(entrada);
+            if (categoria.em(OrdemRestaurantes.NOME).isEmpty()) {
+                porCategoria.remove(entrada.categoria());
+            }
+        }
+    }
+
+    private static String codificarCursor(OrdemRestaurantes ordem, Entrada ultima) {
+        String chave = switch (ordem) {
+            case AVALIACAO -> String.valueOf(ultima.avaliacaoCentesimos());
+            case TAXA -> String.valueOf(ultima.taxaCentavos());
+            case NOME -> ultima.nome();
+        };
+        String cursor = ordem.name() + "|" + chave + "|" + ultima.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Entrada decodificarCursor(OrdemRestaurantes ordem, String cursor) {
+        try {
+            String texto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int inicioChave = texto.indexOf('|');
+            int inicioId = texto.lastIndexOf('|');
+            if (inicioChave < 0 || inicioChave == inicioId || !texto.substring(0, inicioChave).equals(ordem.name())) {
+                throw new BusinessException("Cursor inválido: " + cursor);
+            }
+            String chave = texto.substring(inicioChave + 1, inicioId);
+            long id = Long.parseLong(texto.substring(inicioId + 1));
+            return switch (ordem) {
+                case AVALIACAO -> new Entrada(id, "", "", 0, Long.parseLong(chave), null);
+                case TAXA -> new Entrada(id, "", "", Long.parseLong(chave), 0, null);
+                case NOME -> new Entrada(id, chave, "", 0, 0, null);
+            };
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Cursor inválido: " + cursor);
+        }
+    }
+
+    private static String normalizar(String texto) {
+        return texto == null ? "" : texto.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static long centesimos(BigDecimal valor) {
+        return valor == null ? 0 : valor.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+}
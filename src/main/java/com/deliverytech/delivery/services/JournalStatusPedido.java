@@ -0,0 +1,232 @@
+package com.deliverytech.delivery.services;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.deliverytech.delivery.enums.StatusPedido;
+
+/**
+ * Arquivo append-only com as transições de status aceitas e ainda não gravadas no banco.
+ * Uma única thread grava: junta tudo que chegou enquanto o último fsync rodava, grava de uma vez
+ * e faz um único fsync (group commit). A transição só é confirmada depois do fsync.
+ * Formato: uma linha "pedidoId;de;para" por transição.
+ */
+public class JournalStatusPedido implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(JournalStatusPedido.class);
+
+    public record Transicao(Long pedidoId, StatusPedido de, StatusPedido para) {
+    }
+
+    private record Pendente(Transicao transicao, CompletableFuture<Void> gravada) {
+    }
+
+    private static final Pendente FIM = new Pendente(null, null);
+
+    private final Path arquivo;
+    private final BlockingQueue<Pendente> fila = new LinkedBlockingQueue<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Thread gravador;
+    private FileChannel canal;
+    private volatile boolean aberto = true;
+
+    public JournalStatusPedido(Path arquivo) {
+        this.arquivo = arquivo;
+        try {
+            Path diretorio = arquivo.toAbsolutePath().getParent();
+            if (diretorio != null) {
+                Files.createDirectories(diretorio);
+            }
+            this.canal = abrir(arquivo);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível abrir o journal de status: " + arquivo, e);
+        }
+        this.gravador = Thread.ofPlatform().name("journal-status-pedido").daemon().start(this::gravar);
+    }
+
+    /**
+     * Enfileira a transição; o futuro completa quando ela estiver no disco.
+     */
+    public CompletableFuture<Void> registrar(Transicao transicao) {
+        if (!aberto) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Journal de status fechado"));
+        }
+        Pendente pendente = new Pendente(transicao, new CompletableFuture<>());
+        fila.add(pendente);
+        return pendente.gravada();
+    }
+
+    /**
+     * Transições gravadas, na ordem em que foram aceitas. Linhas incompletas (queda no meio da escrita) são ignoradas.
+     */
+    public List<Transicao> ler() {
+        lock.lock();
+        try {
+            return lerArquivo(arquivo);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reescreve o arquivo mantendo só as transições dos pedidos que ainda não chegaram ao banco.
+     */
+    public void compactar(Set<Long> pedidosPendentes) {
+        lock.lock();
+        try {
+            if (canal.size() == 0) {
+                return;
+            }
+            // Cópia sob o lock: toda transição já gravada teve o pedido marcado como pendente antes
+            Set<Long> pendentes = Set.copyOf(pedidosPendentes);
+            List<Transicao> restantes = lerArquivo(arquivo).stream()
+                .filter(t -> pendentes.contains(t.pedidoId()))
+                .toList();
+
+            if (restantes.isEmpty()) {
+                canal.truncate(0);
+                canal.force(true);
+                return;
+            }
+
+            Path temporario = arquivo.resolveSibling(arquivo.getFileName() + ".tmp");
+            try (FileChannel novo = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                escrever(novo, restantes);
+                novo.force(true);
+            }
+            canal.close();
+            Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            canal = abrir(arquivo);
+        } catch (IOException e) {
+            log.warn("Falha ao compactar o journal de status: {}", e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long tamanho() {
+        lock.lock();
+        try {
+            return canal.size();
+        } catch (IOException e) {
+            return -1;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        aberto = false;
+        fila.add(FIM);
+        try {
+            gravador.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Pendente restante;
+        while ((restante = fila.poll()) != null) {
+            if (restante != FIM) {
+                restante.gravada().completeExceptionally(new IllegalStateException("Journal de status fechado"));
+            }
+        }
+        lock.lock();
+        try {
+            canal.close();
+        } catch (IOException e) {
+            log.warn("Falha ao fechar o journal de status: {}", e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void gravar() {
+        List<Pendente> lote = new ArrayList<>();
+        while (true) {
+            try {
+                lote.add(fila.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            fila.drainTo(lote);
+            boolean encerrar = lote.removeIf(p -> p == FIM);
+
+            if (!lote.isEmpty()) {
+                lock.lock();
+                try {
+                    escrever(canal, lote.stream().map(Pendente::transicao).toList());
+                    canal.force(false);
+                    lote.forEach(p -> p.gravada().complete(null));
+                } catch (IOException e) {
+                    lote.forEach(p -> p.gravada().completeExceptionally(e));
+                } finally {
+                    lock.unlock();
+                    lote.clear();
+                }
+            }
+            if (encerrar) {
+                return;
+            }
+        }
+    }
+
+    private static void escrever(FileChannel destino, List<Transicao> transicoes) throws IOException {
+        StringBuilder linhas = new StringBuilder(transicoes.size() * 32);
+        for (Transicao t : transicoes) {
+            linhas.append(t.pedidoId()).append(';').append(t.de()).append(';').append(t.para()).append('\n');
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(linhas.toString().getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            destino.write(buffer);
+        }
+    }
+
+    private static List<Transicao> lerArquivo(Path arquivo) {
+        List<Transicao> transicoes = new ArrayList<>();
+        try {
+            if (!Files.exists(arquivo)) {
+                return transicoes;
+            }
+            String conteudo = Files.readString(arquivo, StandardCharsets.UTF_8);
+            int fim = conteudo.lastIndexOf('\n');
+            if (fim < 0) {
+                return transicoes;
+            }
+            for (String linha : conteudo.substring(0, fim).split("\n")) {
+                String[] partes = linha.split(";");
+                try {
+                    transicoes.add(new Transicao(Long.valueOf(partes[0]),
+                        StatusPedido.valueOf(partes[1]), StatusPedido.valueOf(partes[2])));
+                } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+                    log.warn("Linha inválida no journal de status ignorada: {}", linha);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível ler o journal de status: " + arquivo, e);
+        }
+        return transicoes;
+    }
+
+    private static FileChannel abrir(Path arquivo) throws IOException {
+        return FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+}
@@ -1,28 +1,52 @@
 package com.deliverytech.delivery.services;
 
+import com.deliverytech.delivery.dto.ClienteRankingDTO;
+import com.deliverytech.delivery.dto.EventoPedidoDTO;
+import com.deliverytech.delivery.dto.ItemPedidoDTO;
+import com.deliverytech.delivery.dto.PaginaPedidosDTO;
+import com.deliverytech.delivery.dto.PedidoRequestDTO;
+import com.deliverytech.delivery.dto.PedidoResponseDTO;
 import com.deliverytech.delivery.dto.PedidoResumoDTO;
+import com.deliverytech.delivery.dto.ProdutoMaisVendidoDTO;
+import com.deliverytech.delivery.dto.ResumoPeriodoDTO;
 import com.deliverytech.delivery.dto.VendasRestauranteDTO;
 import com.deliverytech.delivery.entity.*;
 import com.deliverytech.delivery.enums.StatusPedido;
+import com.deliverytech.delivery.events.PedidoCriadoEvent;
+import com.deliverytech.delivery.events.StatusPedidoAlteradoEvent;
 import com.deliverytech.delivery.exceptions.BusinessException;
+import com.deliverytech.delivery.exceptions.ItensPedidoInvalidosException;
 import com.deliverytech.delivery.repository.ClienteRepository;
 import com.deliverytech.delivery.repository.PedidoRepository;
 import com.deliverytech.delivery.repository.ProdutoRepository;
 import com.deliverytech.delivery.repository.RestauranteRepository;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class PedidoService {
 
+    private static final int LIMITE_MAXIMO_PAGINA = 100;
+
     @Autowired
     private PedidoRepository pedidoRepository;
 
@@ -35,11 +59,38 @@ public class PedidoService {
     @Autowired
     private ProdutoRepository produtoRepository;
 
+    @Autowired
+    private VendasRestauranteService vendasRestauranteService;
+
+    @Autowired
+    private AgregadoPedidosService agregadoPedidosService;
+
+    @Autowired
+    private StatusPedidoPipeline statusPipeline;
+
+    @Autowired
+    private RankingService rankingService;
+
+    @Autowired
+    private RastreamentoPedidos rastreamento;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
      * Criar novo pedido com validações e transação
      */
     @Transactional
-    public Pedido criarPedido(PedidoDTO dto) {
+    public Pedido criarPedido(PedidoRequestDTO dto) {
+        return criarPedido(dto, null);
+    }
+
+    /**
+     * Criar novo pedido gravando a Idempotency-Key da requisição. Uma chave já usada viola
+     * a restrição única (DataIntegrityViolationException) e nada é gravado.
+     */
+    @Transactional
+    public Pedido criarPedido(PedidoRequestDTO dto, String chaveIdempotencia) {
         // 1. Validar cliente existe e está ativo
         Cliente cliente = clienteRepository.findById(dto.getClienteId())
             .orElseThrow(() -> new BusinessException("Cliente não encontrado: " + dto.getClienteId()));
@@ -55,142 +106,259 @@ public class PedidoService {
         }
 
         // 3. Validar todos os produtos existem, estão disponíveis e pertencem ao restaurante
-        List<Long> itemIds;
-        try {
-            ObjectMapper mapper = new ObjectMapper();
-            itemIds = mapper.readValue(dto.getItens(), new TypeReference<List<Long>>() {});
-        } catch (Exception e) {
-            throw new BusinessException("Formato inválido para itens: " + dto.getItens());
-        }
+        List<ItemPedido> itens = resolverItens(dto.getItens(), dto.getRestauranteId());
 
-        List<Produto> produtos = itemIds.stream()
-            .map(id -> produtoRepository.findById(id)
-                .orElseThrow(() -> new BusinessException("Produto não encontrado: " + id)))
-            .peek(produto -> {
-                if (!produto.getDisponivel()) {
-                    throw new BusinessException("Produto indisponível: " + produto.getNome());
-                }
-                if (!produto.getRestaurante().getId().equals(dto.getRestauranteId())) {
-                    throw new BusinessException("Produto " + produto.getNome() + " não pertence ao restaurante selecionado");
-                }
-            })
-            .collect(Collectors.toList());
-
-        // 4. Calcular total do pedido
-        BigDecimal totalProdutos = produtos.stream()
-            .map(Produto::getPreco)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal valorTotal = totalProdutos.add(restaurante.getTaxaEntrega());
+        // 4. Calcular total do pedido (em centavos; vira BigDecimal só na coluna valor_total)
+        Dinheiro valorTotal = somarItens(itens).mais(Dinheiro.de(restaurante.getTaxaEntrega()));
 
         // 5. Criar pedido
         Pedido pedido = new Pedido();
         pedido.setCliente(cliente);
         pedido.setRestaurante(restaurante);
         pedido.setStatus(StatusPedido.CONFIRMADO);
-        pedido.setDataPedido(dto.getDataPedido());
+        pedido.setDataPedido(dto.getDataPedido() != null ? dto.getDataPedido() : LocalDateTime.now());
         pedido.setNumeroPedido(dto.getNumeroPedido());
-        pedido.setValorTotal(valorTotal);
+        pedido.setValorTotal(valorTotal.paraBigDecimal());
         pedido.setObservacoes(dto.getObservacoes());
-        pedido.setItens(produtos);
-
-        // 6. Salvar pedido
-        return pedidoRepository.save(pedido);
+        pedido.setChaveIdempotencia(chaveIdempotencia);
+        itens.forEach(pedido::adicionarItem);
+
+        // 6. Salvar pedido e somar às vendas do restaurante e aos agregados por período
+        Pedido salvo = pedidoRepository.save(pedido);
+        vendasRestauranteService.registrarPedido(salvo);
+        agregadoPedidosService.registrarPedido(salvo);
+        eventPublisher.publishEvent(PedidoCriadoEvent.de(salvo));
+        eventPublisher.publishEvent(StatusPedidoAlteradoEvent.criado(salvo));
+        return salvo;
     }
 
     /**
      * Buscar pedido por ID
      */
-    public Pedido buscarPorId(Long id) {
-        return pedidoRepository.findById(id)
+    @Transactional(readOnly = true)
+    public PedidoResponseDTO buscarPorId(Long id) {
+        Pedido pedido = pedidoRepository.buscarCompletoPorId(id)
             .orElseThrow(() -> new BusinessException("Pedido não encontrado: " + id));
+
+        PedidoResponseDTO resposta = new PedidoResponseDTO(pedido);
+        // No modo write-behind o status mais novo pode ainda não ter chegado ao banco
+        StatusPedido statusAtual = statusPipeline.statusAtual(id);
+        if (statusAtual != null) {
+            resposta.setStatus(statusAtual);
+        }
+        return resposta;
     }
 
     /**
-     * Listar pedidos por cliente
+     * Listar pedidos por cliente, paginado por cursor (dataPedido, id)
      */
     @Transactional(readOnly = true)
-    public List<Pedido> listarPorCliente(Long clienteId) {
-        return pedidoRepository.findByClienteIdOrderByDataPedidoDesc(clienteId);
+    public PaginaPedidosDTO listarPorCliente(Long clienteId, String cursor, int limite) {
+        int tamanho = Math.clamp(limite, 1, LIMITE_MAXIMO_PAGINA);
+
+        // Busca um a mais para saber se existe próxima página
+        List<PedidoResumoDTO> itens = buscarPagina(clienteId, cursor, tamanho + 1);
+        if (itens.size() <= tamanho) {
+            return new PaginaPedidosDTO(itens, null);
+        }
+
+        List<PedidoResumoDTO> pagina = itens.subList(0, tamanho);
+        return new PaginaPedidosDTO(List.copyOf(pagina), codificarCursor(pagina.get(tamanho - 1)));
     }
 
     /**
-     * Atualizar status do pedido com validação de transição
+     * Percorrer todo o histórico do cliente em lotes, sem manter mais de um lote em memória
      */
-    public Pedido atualizarStatus(Long pedidoId, StatusPedido novoStatus) {
-    Pedido pedido = pedidoRepository.findById(pedidoId)
-        .orElseThrow(() -> new BusinessException("Pedido não encontrado: " + pedidoId));
+    public void percorrerHistorico(Long clienteId, int tamanhoLote, Consumer<List<PedidoResumoDTO>> consumidor) {
+        int tamanho = Math.clamp(tamanhoLote, 1, LIMITE_MAXIMO_PAGINA);
+        String cursor = null;
+        do {
+            List<PedidoResumoDTO> lote = buscarPagina(clienteId, cursor, tamanho);
+            if (lote.isEmpty()) {
+                return;
+            }
+            consumidor.accept(lote);
+            cursor = lote.size() == tamanho ? codificarCursor(lote.get(lote.size() - 1)) : null;
+        } while (cursor != null);
+    }
+
+    private List<PedidoResumoDTO> buscarPagina(Long clienteId, String cursor, int tamanho) {
+        if (cursor == null || cursor.isBlank()) {
+            return pedidoRepository.historicoDoCliente(clienteId, Limit.of(tamanho));
+        }
 
-    StatusPedido statusAtual = pedido.getStatus();
+        try {
+            String[] partes = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            return pedidoRepository.historicoDoClienteApos(clienteId, LocalDateTime.parse(partes[0]),
+                Long.valueOf(partes[1]), Limit.of(tamanho));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException | DateTimeParseException e) {
+            throw new BusinessException("Cursor inválido: " + cursor);
+        }
+    }
 
-    if (!statusAtual.podeTransitarPara(novoStatus)) {
-        throw new BusinessException("Transição de status não permitida: " +
-            statusAtual.getDescricao() + " → " + novoStatus.getDescricao());
+    private static String codificarCursor(PedidoResumoDTO ultimo) {
+        String chave = ultimo.getDataPedido() + "|" + ultimo.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(chave.getBytes(StandardCharsets.UTF_8));
     }
 
-    pedido.setStatus(novoStatus);
-    return pedidoRepository.save(pedido);
-}
+    /**
+     * Atualizar status do pedido com validação de transição
+     */
+    public PedidoResumoDTO atualizarStatus(Long pedidoId, StatusPedido novoStatus) {
+        return statusPipeline.atualizar(pedidoId, novoStatus);
+    }
 
     /**
-     * Cancelar pedido
+     * Acompanhar o pedido por SSE: status atual e depois cada transição.
+     * Retorna null se o limite de assinantes do nó foi atingido.
      */
-    public void cancelarPedido(Long id) {
-        Pedido pedido = pedidoRepository.findById(id)
-            .orElseThrow(() -> new BusinessException("Pedido não encontrado: " + id));
+    public SseEmitter acompanharPedido(Long id) {
+        return rastreamento.assinarPedido(id, () -> {
+            Pedido pedido = pedidoRepository.findById(id)
+                .orElseThrow(() -> new BusinessException("Pedido não encontrado: " + id));
+            // No modo write-behind a memória do pipeline está à frente do banco
+            StatusPedido emMemoria = statusPipeline.statusAtual(id);
+            return new EventoPedidoDTO(id, pedido.getRestaurante().getId(), null,
+                emMemoria != null ? emMemoria : pedido.getStatus(), LocalDateTime.now());
+        });
+    }
 
-        if (pedido.getStatus() == StatusPedido.ENTREGUE) {
-            throw new BusinessException("Pedido já entregue não pode ser cancelado");
+    /**
+     * Acompanhar por SSE os pedidos criados e as transições de um restaurante.
+     * Retorna null se o limite de assinantes do nó foi atingido.
+     */
+    public SseEmitter acompanharRestaurante(Long restauranteId) {
+        if (!restauranteRepository.existsById(restauranteId)) {
+            throw new BusinessException("Restaurante não encontrado: " + restauranteId);
         }
+        return rastreamento.assinarRestaurante(restauranteId);
+    }
 
-        pedidoRepository.delete(pedido);
+    /**
+     * Cancelar pedido: transição para CANCELADO (o pedido continua no histórico até ser arquivado)
+     */
+    public PedidoResumoDTO cancelarPedido(Long id) {
+        return statusPipeline.atualizar(id, StatusPedido.CANCELADO);
     }
 
     /**
      * Calcular total do pedido sem salvar
      */
-    public BigDecimal calcularTotal(PedidoDTO dto) {
-        List<Long> itemIds;
-        try {
-            ObjectMapper mapper = new ObjectMapper();
-            itemIds = mapper.readValue(dto.getItens(), new TypeReference<List<Long>>() {});
-        } catch (Exception e) {
-            throw new BusinessException("Formato inválido para itens: " + dto.getItens());
+    public Dinheiro calcularTotal(PedidoRequestDTO dto) {
+        return somarItens(resolverItens(dto.getItens(), null));
+    }
+
+    /**
+     * Montar as linhas do pedido com uma única consulta de produtos e validar tudo em memória.
+     * Cada produto deve aparecer em uma só linha, com a quantidade informada. Quando restauranteId
+     * é informado, também valida disponibilidade e se o produto pertence ao restaurante.
+     * Todos os problemas encontrados são reportados juntos.
+     */
+    private List<ItemPedido> resolverItens(List<ItemPedidoDTO> linhas, Long restauranteId) {
+        if (linhas == null || linhas.isEmpty()) {
+            throw new BusinessException("O pedido deve ter pelo menos um item");
         }
 
-        List<Produto> produtos = itemIds.stream()
-            .map(id -> produtoRepository.findById(id)
-                .orElseThrow(() -> new BusinessException("Produto não encontrado: " + id)))
-            .collect(Collectors.toList());
+        Set<Long> idsDistintos = new HashSet<>();
+        for (ItemPedidoDTO linha : linhas) {
+            if (linha != null && linha.getProdutoId() != null) {
+                idsDistintos.add(linha.getProdutoId());
+            }
+        }
+        Map<Long, Produto> produtosPorId = produtoRepository.findAllByIdComRestaurante(idsDistintos).stream()
+            .collect(Collectors.toMap(Produto::getId, Function.identity()));
+
+        Map<String, String> erros = new LinkedHashMap<>();
+        Set<Long> vistos = new HashSet<>();
+        List<ItemPedido> itens = new ArrayList<>(linhas.size());
+
+        for (int i = 0; i < linhas.size(); i++) {
+            ItemPedidoDTO linha = linhas.get(i);
+            String campo = "itens[" + i + "]";
+
+            if (linha == null || linha.getProdutoId() == null) {
+                erros.put(campo, "Item sem ID de produto");
+                continue;
+            }
+            Long id = linha.getProdutoId();
+            if (!vistos.add(id)) {
+                erros.put(campo, "Produto repetido no pedido: " + id + " (use a quantidade)");
+                continue;
+            }
+            if (linha.getQuantidade() == null || linha.getQuantidade() < 1) {
+                erros.put(campo, "A quantidade deve ser no mínimo 1");
+                continue;
+            }
+
+            Produto produto = produtosPorId.get(id);
+            if (produto == null) {
+                erros.put(campo, "Produto não encontrado: " + id);
+                continue;
+            }
+            if (restauranteId != null) {
+                if (!produto.getDisponivel()) {
+                    erros.put(campo, "Produto indisponível: " + produto.getNome());
+                    continue;
+                }
+                if (!produto.getRestaurante().getId().equals(restauranteId)) {
+                    erros.put(campo, "Produto " + produto.getNome() + " não pertence ao restaurante selecionado");
+                    continue;
+                }
+            }
+            itens.add(new ItemPedido(produto, linha.getQuantidade()));
+        }
+
+        if (!erros.isEmpty()) {
+            throw new ItensPedidoInvalidosException(erros);
+        }
+        return itens;
+    }
 
-        return produtos.stream()
-            .map(Produto::getPreco)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+    // Acumula em long: os subtotais não escapam e a JIT não cria objeto nenhum no laço
+    private Dinheiro somarItens(List<ItemPedido> itens) {
+        long centavos = 0;
+        for (int i = 0; i < itens.size(); i++) {
+            centavos = Math.addExact(centavos, itens.get(i).getSubtotal().centavos());
+        }
+        return Dinheiro.deCentavos(centavos);
     }
 
     // 🔹 Relatórios e consultas customizadas
 
     public List<VendasRestauranteDTO> gerarRelatorioVendas() {
-        return pedidoRepository.gerarRelatorioVendas();
+        return vendasRestauranteService.relatorio();
     }
 
-    public List<Pedido> pedidosComValorAcima(BigDecimal valor) {
-        return pedidoRepository.pedidosComValorAcima(valor);
+    public VendasRestauranteService.ResultadoReconciliacao reconciliarVendas() {
+        return vendasRestauranteService.reconciliar();
     }
 
-    public List<Pedido> relatorioPorPeriodoEStatus(LocalDateTime inicio, LocalDateTime fim, StatusPedido status) {
-        return pedidoRepository.relatorioPorPeriodoEStatus(inicio, fim, status);
+    @Transactional(readOnly = true)
+    public List<PedidoResponseDTO> pedidosComValorAcima(BigDecimal valor) {
+        return PedidoResponseDTO.de(pedidoRepository.pedidosComValorAcima(valor));
+    }
+
+    @Transactional(readOnly = true)
+    public List<PedidoResponseDTO> relatorioPorPeriodoEStatus(LocalDateTime inicio, LocalDateTime fim, StatusPedido status) {
+        return PedidoResponseDTO.de(pedidoRepository.relatorioPorPeriodoEStatus(inicio, fim, status));
     }
 
     public List<PedidoResumoDTO> buscarPedidosPorPeriodo(LocalDateTime inicio, LocalDateTime fim) {
         return pedidoRepository.buscarPedidosPorPeriodo(inicio, fim);
     }
 
-    public List<Object[]> produtosMaisVendidos() {
-        return pedidoRepository.produtosMaisVendidos();
+    /**
+     * Totais do período por restaurante e status, lidos dos agregados por hora e por dia
+     */
+    public List<ResumoPeriodoDTO> resumoAgregadoPorPeriodo(LocalDateTime inicio, LocalDateTime fim, StatusPedido status) {
+        return agregadoPedidosService.resumo(inicio, fim, status);
+    }
+
+    public List<ProdutoMaisVendidoDTO> produtosMaisVendidos(int limite, boolean exato) {
+        return exato ? rankingService.produtosMaisVendidosExato(limite) : rankingService.produtosMaisVendidos(limite);
     }
 
-    public List<Object[]> rankingClientesPorPedidos() {
-        return pedidoRepository.rankingClientesPorPedidos();
+    public List<ClienteRankingDTO> rankingClientesPorPedidos(int limite, boolean exato) {
+        return exato ? rankingService.rankingClientesExato(limite) : rankingService.rankingClientes(limite);
     }
 }
\ No newline at end of file
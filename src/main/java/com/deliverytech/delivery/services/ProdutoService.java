@@ -1,16 +1,19 @@
 package com.deliverytech.delivery.services;
 
-import java.math.BigDecimal;
 import java.util.List;
+import java.util.Locale;
 
 import com.deliverytech.delivery.exceptions.BusinessException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.deliverytech.delivery.entity.Produto;
 import com.deliverytech.delivery.entity.ProdutoDTO;
 import com.deliverytech.delivery.entity.Restaurante;
+import com.deliverytech.delivery.events.ProdutoAlteradoEvent;
 import com.deliverytech.delivery.repository.ProdutoRepository;
 import com.deliverytech.delivery.repository.RestauranteRepository;
 
@@ -23,6 +26,17 @@ public class ProdutoService {
     @Autowired
     private RestauranteRepository restauranteRepository;
 
+    @Autowired
+    private CardapioCache cardapioCache;
+
+    @Autowired
+    private IndiceProdutos indiceProdutos;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private static final int LIMITE_MAXIMO_BUSCA = 100;
+
     /**
      * Cadastrar novo produto com validação de restaurante
      */
@@ -41,7 +55,9 @@ public class ProdutoService {
         produto.setRestaurante(restaurante);
 
         Produto salvo = produtoRepository.save(produto);
-        return toDTO(salvo);
+        ProdutoDTO novo = toDTO(salvo);
+        eventPublisher.publishEvent(new ProdutoAlteradoEvent(null, novo));
+        return novo;
     }
 
     /**
@@ -57,9 +73,10 @@ public class ProdutoService {
      * Buscar produtos disponíveis por restaurante
      */
     public List<ProdutoDTO> buscarProdutosPorRestaurante(Long restauranteId) {
-        return produtoRepository.findByRestauranteIdAndDisponivelTrue(restauranteId).stream()
-            .map(this::toDTO)
-            .toList();
+        return cardapioCache.porRestaurante(restauranteId, () ->
+            produtoRepository.findByRestauranteIdAndDisponivelTrue(restauranteId).stream()
+                .map(this::toDTO)
+                .toList());
     }
 
     /**
@@ -68,7 +85,9 @@ public class ProdutoService {
     public void excluir(Long id) {
         Produto produto = produtoRepository.findById(id)
             .orElseThrow(() -> new BusinessException("Produto não encontrado: " + id));
+        ProdutoDTO anterior = toDTO(produto);
         produtoRepository.delete(produto);
+        eventPublisher.publishEvent(new ProdutoAlteradoEvent(anterior, null));
     }
 
     /**
@@ -94,6 +113,7 @@ public class ProdutoService {
             .orElseThrow(() -> new BusinessException("Produto não encontrado: " + id));
 
         validarDadosProduto(dto);
+        ProdutoDTO anterior = toDTO(produto);
 
         produto.setNome(dto.getNome());
         produto.setDescricao(dto.getDescricao());
@@ -108,7 +128,9 @@ public class ProdutoService {
         }
 
         Produto atualizado = produtoRepository.save(produto);
-        return toDTO(atualizado);
+        ProdutoDTO atual = toDTO(atualizado);
+        eventPublisher.publishEvent(new ProdutoAlteradoEvent(anterior, atual));
+        return atual;
     }
 
     /**
@@ -117,22 +139,71 @@ public class ProdutoService {
     public ProdutoDTO alterarDisponibilidade(Long id, boolean disponivel) {
         Produto produto = produtoRepository.findById(id)
             .orElseThrow(() -> new BusinessException("Produto não encontrado: " + id));
+        ProdutoDTO anterior = toDTO(produto);
 
         produto.setDisponivel(disponivel);
         Produto atualizado = produtoRepository.save(produto);
 
-        return toDTO(atualizado);
+        ProdutoDTO atual = toDTO(atualizado);
+        eventPublisher.publishEvent(new ProdutoAlteradoEvent(anterior, atual));
+        return atual;
     }
 
     /**
      * Buscar produtos por categoria
      */
     public List<ProdutoDTO> buscarPorCategoria(String categoria) {
-        return produtoRepository.findByCategoriaIgnoreCase(categoria).stream()
-            .map(this::toDTO)
+        return cardapioCache.porCategoria(categoria, () ->
+            produtoRepository.findByCategoriaIgnoreCase(categoria).stream()
+                .map(this::toDTO)
+                .toList());
+    }
+
+    /**
+     * Busca textual em nome, descrição e categoria, ignorando acentos; o último termo vale como prefixo
+     */
+    public List<ProdutoDTO> buscarPorTexto(String texto, Long restauranteId, boolean apenasDisponiveis, int limite) {
+        if (texto == null || texto.isBlank()) {
+            throw new BusinessException("Informe o texto da busca");
+        }
+        return buscarNoIndiceOuNoBanco(texto, restauranteId, apenasDisponiveis, Math.clamp(limite, 1, LIMITE_MAXIMO_BUSCA));
+    }
+
+    /**
+     * Sugestões de nome para o que já foi digitado (só produtos disponíveis)
+     */
+    public List<String> autocompletar(String texto, Long restauranteId, int limite) {
+        if (texto == null || texto.isBlank()) {
+            return List.of();
+        }
+        int tamanho = Math.clamp(limite, 1, LIMITE_MAXIMO_BUSCA);
+        // Produtos de restaurantes diferentes costumam repetir o nome; busca mais para preencher as sugestões
+        return buscarNoIndiceOuNoBanco(texto, restauranteId, true, tamanho * 4).stream()
+            .map(ProdutoDTO::getNome)
+            .distinct()
+            .limit(tamanho)
             .toList();
     }
 
+    /**
+     * Até o índice ficar pronto (carga em segundo plano na subida, ou se ela falhou) a busca vai ao banco
+     * pelo texto inteiro como trecho, sem dobrar acentos nem ordenar por relevância
+     */
+    private List<ProdutoDTO> buscarNoIndiceOuNoBanco(String texto, Long restauranteId, boolean apenasDisponiveis, int limite) {
+        if (indiceProdutos.isPronto()) {
+            return indiceProdutos.buscar(texto, restauranteId, apenasDisponiveis, limite);
+        }
+        String trecho = texto.trim().toLowerCase(Locale.ROOT).replaceAll("([\\\\%_])", "\\\\$1");
+        return produtoRepository.buscarPorTrecho("%" + trecho + "%", restauranteId, apenasDisponiveis, Limit.of(limite));
+    }
+
+    /**
+     * Estatísticas do cache de cardápio
+     */
+    public CardapioCache.Estatisticas estatisticasCache() {
+        return cardapioCache.estatisticas();
+    }
+
     /**
      * Validações de negócio
      */
@@ -143,7 +214,7 @@ public class ProdutoService {
         if (dto.getDescricao() == null || dto.getDescricao().isBlank()) {
             throw new BusinessException("Descrição do produto é obrigatória");
         }
-        if (dto.getPreco() == null || dto.getPreco().compareTo(BigDecimal.ZERO) <= 0) {
+        if (dto.getPreco() == null || dto.getPreco().signum() <= 0) {
             throw new BusinessException("Preço deve ser maior que zero");
         }
         if (dto.getCategoria() == null || dto.getCategoria().isBlank()) {
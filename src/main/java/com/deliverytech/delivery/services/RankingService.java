@@ -0,0 +1,133 @@
+package com.deliverytech.delivery.services;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.deliverytech.delivery.dto.ClienteRankingDTO;
+import com.deliverytech.delivery.dto.ProdutoMaisVendidoDTO;
+import com.deliverytech.delivery.entity.Cliente;
+import com.deliverytech.delivery.entity.Produto;
+import com.deliverytech.delivery.events.PedidoCriadoEvent;
+import com.deliverytech.delivery.repository.ClienteRepository;
+import com.deliverytech.delivery.repository.PedidoRepository;
+import com.deliverytech.delivery.repository.ProdutoRepository;
+
+/**
+ * Produtos mais vendidos e clientes com mais pedidos numa janela deslizante.
+ *
+ * Alimentado pelos pedidos criados (PedidoCriadoEvent) e reconstruído a partir do banco ao subir.
+ * As consultas leem só os TopKJanela em memória; o modo exato recalcula a mesma janela no banco
+ * e serve para conferir o erro das estimativas.
+ */
+@Service
+public class RankingService {
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    private final Clock relogio;
+    private final TopKJanela produtos;
+    private final TopKJanela clientes;
+
+    public RankingService(@Value("${delivery.ranking.janela:24h}") Duration janela,
+                          @Value("${delivery.ranking.baldes:24}") int baldes,
+                          @Value("${delivery.ranking.top-k:10}") int k,
+                          @Value("${delivery.ranking.erro:0.001}") double erro,
+                          @Value("${delivery.ranking.confianca:0.99}") double confianca) {
+        this.relogio = Clock.systemDefaultZone();
+        this.produtos = new TopKJanela(relogio, janela, baldes, k, erro, confianca);
+        this.clientes = new TopKJanela(relogio, janela, baldes, k, erro, confianca);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoCriarPedido(PedidoCriadoEvent evento) {
+        Instant quando = instante(evento.dataPedido());
+        clientes.registrar(evento.clienteId(), 1, quando);
+        for (PedidoCriadoEvent.Item item : evento.itens()) {
+            produtos.registrar(item.produtoId(), item.quantidade(), quando);
+        }
+    }
+
+    /**
+     * Refazer os rankings a partir dos pedidos da janela atual
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void reconstruir() {
+        produtos.limpar();
+        clientes.limpar();
+        LocalDateTime desde = inicioJanela();
+
+        for (Object[] linha : pedidoRepository.itensVendidosDesde(desde)) {
+            produtos.registrar((Long) linha[0], ((Number) linha[1]).longValue(), instante((LocalDateTime) linha[2]));
+        }
+        for (Object[] linha : pedidoRepository.pedidosPorClienteDesde(desde)) {
+            clientes.registrar((Long) linha[0], 1, instante((LocalDateTime) linha[1]));
+        }
+    }
+
+    public List<ProdutoMaisVendidoDTO> produtosMaisVendidos(int limite) {
+        List<TopKJanela.Contagem> top = produtos.top(limite);
+        Map<Long, String> nomes = produtoRepository.findAllById(top.stream().map(TopKJanela.Contagem::chave).toList())
+            .stream().collect(Collectors.toMap(Produto::getId, Produto::getNome));
+        return top.stream()
+            .map(c -> new ProdutoMaisVendidoDTO(c.chave(), nomes.get(c.chave()), c.quantidade()))
+            .toList();
+    }
+
+    public List<ClienteRankingDTO> rankingClientes(int limite) {
+        List<TopKJanela.Contagem> top = clientes.top(limite);
+        Map<Long, String> nomes = clienteRepository.findAllById(top.stream().map(TopKJanela.Contagem::chave).toList())
+            .stream().collect(Collectors.toMap(Cliente::getId, Cliente::getNome));
+        return top.stream()
+            .map(c -> new ClienteRankingDTO(c.chave(), nomes.get(c.chave()), c.quantidade()))
+            .toList();
+    }
+
+    /**
+     * Mesmo ranking recalculado no banco, sobre a mesma janela
+     */
+    public List<ProdutoMaisVendidoDTO> produtosMaisVendidosExato(int limite) {
+        return pedidoRepository.produtosMaisVendidosDesde(inicioJanela(), Limit.of(Math.clamp(limite, 1, produtos.getK())));
+    }
+
+    public List<ClienteRankingDTO> rankingClientesExato(int limite) {
+        return pedidoRepository.rankingClientesDesde(inicioJanela(), Limit.of(Math.clamp(limite, 1, clientes.getK())));
+    }
+
+    public long estimativaProduto(Long produtoId) {
+        return produtos.estimativa(produtoId);
+    }
+
+    public long estimativaCliente(Long clienteId) {
+        return clientes.estimativa(clienteId);
+    }
+
+    private LocalDateTime inicioJanela() {
+        return LocalDateTime.ofInstant(produtos.inicioJanela(), relogio.getZone());
+    }
+
+    private Instant instante(LocalDateTime dataPedido) {
+        return dataPedido != null ? dataPedido.atZone(relogio.getZone()).toInstant() : relogio.instant();
+    }
+}
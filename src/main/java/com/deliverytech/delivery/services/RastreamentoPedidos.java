@@ -0,0 +1,292 @@
+package com.deliverytech.delivery.services;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.deliverytech.delivery.dto.EventoPedidoDTO;
+import com.deliverytech.delivery.events.StatusPedidoAlteradoEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Acompanhamento de pedidos em tempo real (Server-Sent Events), por pedido ou pelo feed de um restaurante.
+ *
+ * A publicação não bloqueia: lê o vetor de assinantes da chave (ConcurrentHashMap, sem trava na leitura),
+ * serializa o evento uma vez e o põe na fila de cada assinante. O envio pela conexão é feito numa thread
+ * virtual por assinante, só enquanto houver fila. A fila de cada assinante é limitada: quem a enche, ou
+ * passa um intervalo inteiro de batimento sem conseguir enviar nada, é desligado e reconecta depois.
+ * Assinante parado custa só o registro aqui e a requisição assíncrona no Tomcat, sem thread.
+ */
+@Component
+public class RastreamentoPedidos {
+
+    private static final Logger log = LoggerFactory.getLogger(RastreamentoPedidos.class);
+
+    private static final Assinante[] NENHUM = new Assinante[0];
+
+    // ordemStatus < 0: sem status (batimento); nos assinantes de um pedido só passa status que avança
+    private record Envio(int ordemStatus, Set<DataWithMediaType> dados) {
+    }
+
+    private static final Envio BATIMENTO = new Envio(-1, SseEmitter.event().comment("").build());
+
+    private final Map<Long, Assinante[]> porPedido = new ConcurrentHashMap<>();
+    private final Map<Long, Assinante[]> porRestaurante = new ConcurrentHashMap<>();
+    private final AtomicInteger assinantes = new AtomicInteger();
+    private final ExecutorService envios = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final ObjectWriter escritor;
+    private final int tamanhoFila;
+    private final long timeoutMs;
+    private final int limiteAssinantes;
+    private final Counter eventos;
+    private final Counter despejos;
+
+    public RastreamentoPedidos(ObjectMapper objectMapper,
+                               MeterRegistry registry,
+                               @Value("${delivery.rastreamento.tamanho-fila:32}") int tamanhoFila,
+                               @Value("${delivery.rastreamento.timeout-ms:1800000}") long timeoutMs,
+                               @Value("${delivery.rastreamento.limite-assinantes:100000}") int limiteAssinantes) {
+        this.escritor = objectMapper.writerFor(EventoPedidoDTO.class);
+        this.tamanhoFila = Math.max(1, tamanhoFila);
+        this.timeoutMs = timeoutMs;
+        this.limiteAssinantes = limiteAssinantes;
+        this.eventos = registry.counter("delivery.rastreamento.eventos");
+        this.despejos = registry.counter("delivery.rastreamento.despejos");
+        Gauge.builder("delivery.rastreamento.assinantes", assinantes, AtomicInteger::get).register(registry);
+    }
+
+    /**
+     * Assinar as transições de um pedido. O primeiro evento é o estado atual, lido depois do registro para
+     * não perder transição; se chegar depois de uma transição mais nova, é descartado. Retorna null se o
+     * limite de assinantes foi atingido; exceções de estadoAtual desfazem o registro.
+     */
+    public SseEmitter assinarPedido(Long pedidoId, Supplier<EventoPedidoDTO> estadoAtual) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        return registrarPedido(pedidoId, emitter, estadoAtual) ? emitter : null;
+    }
+
+    /**
+     * Assinar o feed de pedidos de um restaurante (criações e transições). Retorna null no limite de assinantes.
+     */
+    public SseEmitter assinarRestaurante(Long restauranteId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        return registrarRestaurante(restauranteId, emitter) ? emitter : null;
+    }
+
+    boolean registrarRestaurante(Long restauranteId, SseEmitter emitter) {
+        return registrar(porRestaurante, restauranteId, emitter, false) != null;
+    }
+
+    boolean registrarPedido(Long pedidoId, SseEmitter emitter, Supplier<EventoPedidoDTO> estadoAtual) {
+        Assinante assinante = registrar(porPedido, pedidoId, emitter, true);
+        if (assinante == null) {
+            return false;
+        }
+        try {
+            EventoPedidoDTO estado = estadoAtual.get();
+            assinante.oferecer(envio(estado));
+        } catch (RuntimeException e) {
+            assinante.encerrar(false);
+            throw e;
+        }
+        return true;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarStatus(StatusPedidoAlteradoEvent evento) {
+        publicar(new EventoPedidoDTO(evento.pedidoId(), evento.restauranteId(), evento.anterior(), evento.status(),
+            evento.momento()));
+    }
+
+    /**
+     * Entregar o evento aos assinantes do pedido e do restaurante
+     */
+    public void publicar(EventoPedidoDTO evento) {
+        Assinante[] doPedido = porPedido.getOrDefault(evento.pedidoId(), NENHUM);
+        Assinante[] doRestaurante = evento.restauranteId() != null
+            ? porRestaurante.getOrDefault(evento.restauranteId(), NENHUM) : NENHUM;
+        if (doPedido.length == 0 && doRestaurante.length == 0) {
+            return;
+        }
+
+        Envio envio = envio(evento);
+        for (Assinante assinante : doPedido) {
+            assinante.oferecer(envio);
+        }
+        for (Assinante assinante : doRestaurante) {
+            assinante.oferecer(envio);
+        }
+        eventos.increment();
+    }
+
+    public int assinantes() {
+        return assinantes.get();
+    }
+
+    /**
+     * Comentário periódico em cada conexão parada: mantém proxies abertos e revela clientes que sumiram.
+     * Quem não enviou nada desde o batimento anterior, com fila pendente, é desligado.
+     */
+    @Scheduled(fixedDelayString = "${delivery.rastreamento.batimento-ms:30000}",
+               initialDelayString = "${delivery.rastreamento.batimento-ms:30000}")
+    public void batimento() {
+        porPedido.values().forEach(vetor -> Arrays.stream(vetor).forEach(Assinante::batimento));
+        porRestaurante.values().forEach(vetor -> Arrays.stream(vetor).forEach(Assinante::batimento));
+    }
+
+    @PreDestroy
+    public void encerrarTodos() {
+        porPedido.values().forEach(vetor -> Arrays.stream(vetor).forEach(assinante -> assinante.encerrar(true)));
+        porRestaurante.values().forEach(vetor -> Arrays.stream(vetor).forEach(assinante -> assinante.encerrar(true)));
+        envios.shutdown();
+    }
+
+    private Assinante registrar(Map<Long, Assinante[]> canal, Long chave, SseEmitter emitter, boolean soAvanca) {
+        if (assinantes.incrementAndGet() > limiteAssinantes) {
+            assinantes.decrementAndGet();
+            return null;
+        }
+        Assinante assinante = new Assinante(canal, chave, emitter, soAvanca);
+        canal.merge(chave, new Assinante[] {assinante}, (atuais, novo) -> {
+            Assinante[] vetor = Arrays.copyOf(atuais, atuais.length + 1);
+            vetor[atuais.length] = assinante;
+            return vetor;
+        });
+        emitter.onCompletion(() -> assinante.encerrar(false));
+        emitter.onError(erro -> assinante.encerrar(false));
+        emitter.onTimeout(() -> assinante.encerrar(true));
+        return assinante;
+    }
+
+    private Envio envio(EventoPedidoDTO evento) {
+        try {
+            return new Envio(evento.status().ordinal(),
+                SseEmitter.event().name("status").data(escritor.writeValueAsString(evento)).build());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar evento do pedido " + evento.pedidoId(), e);
+        }
+    }
+
+    private final class Assinante {
+
+        private final Map<Long, Assinante[]> canal;
+        private final Long chave;
+        private final SseEmitter emitter;
+        private final boolean soAvanca;
+
+        private final ConcurrentLinkedQueue<Envio> fila = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger naFila = new AtomicInteger();
+        private final AtomicBoolean enviando = new AtomicBoolean();
+        private final AtomicBoolean encerrado = new AtomicBoolean();
+        private volatile long enviados;
+        private long enviadosNoBatimento;
+        // Só a thread que detém "enviando" lê e escreve
+        private int ultimoStatus = -1;
+
+        Assinante(Map<Long, Assinante[]> canal, Long chave, SseEmitter emitter, boolean soAvanca) {
+            this.canal = canal;
+            this.chave = chave;
+            this.emitter = emitter;
+            this.soAvanca = soAvanca;
+        }
+
+        void oferecer(Envio envio) {
+            if (encerrado.get()) {
+                return;
+            }
+            if (naFila.incrementAndGet() > tamanhoFila) {
+                despejar("fila cheia");
+                return;
+            }
+            fila.offer(envio);
+            if (enviando.compareAndSet(false, true)) {
+                envios.execute(this::esvaziar);
+            }
+        }
+
+        void batimento() {
+            if (naFila.get() == 0) {
+                oferecer(BATIMENTO);
+            } else if (enviados == enviadosNoBatimento) {
+                despejar("sem progresso desde o último batimento");
+            }
+            enviadosNoBatimento = enviados;
+        }
+
+        private void esvaziar() {
+            do {
+                Envio envio;
+                while ((envio = fila.poll()) != null) {
+                    naFila.decrementAndGet();
+                    if (encerrado.get()) {
+                        return;
+                    }
+                    if (soAvanca && envio.ordemStatus() >= 0) {
+                        if (envio.ordemStatus() <= ultimoStatus) {
+                            continue;
+                        }
+                        ultimoStatus = envio.ordemStatus();
+                    }
+                    try {
+                        emitter.send(envio.dados());
+                        enviados++;
+                    } catch (IOException | IllegalStateException e) {
+                        // Cliente desconectou; o container encerra a requisição
+                        encerrar(false);
+                        return;
+                    }
+                }
+                enviando.set(false);
+            } while (!fila.isEmpty() && enviando.compareAndSet(false, true));
+        }
+
+        private void despejar(String motivo) {
+            if (!encerrado.get()) {
+                despejos.increment();
+                log.debug("Assinante {} desligado: {}", chave, motivo);
+                encerrar(true);
+            }
+        }
+
+        void encerrar(boolean completar) {
+            if (!encerrado.compareAndSet(false, true)) {
+                return;
+            }
+            canal.computeIfPresent(chave, (id, atuais) -> {
+                Assinante[] restantes = Arrays.stream(atuais).filter(a -> a != this).toArray(Assinante[]::new);
+                return restantes.length > 0 ? restantes : null;
+            });
+            assinantes.decrementAndGet();
+            fila.clear();
+            if (completar) {
+                // complete() espera um envio travado terminar; não segura quem publica
+                envios.execute(emitter::complete);
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.deliverytech.delivery.services;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import com.deliverytech.delivery.repository.ClienteRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Emails de clientes já cadastrados, num filtro de Bloom em memória.
+ *
+ * Serve para pular a consulta de email duplicado no cadastro: se o filtro diz que o email está ausente,
+ * ele não está no banco. A palavra final é sempre da restrição única na tabela; por isso um email que
+ * escape do filtro (gravado durante uma recarga, por exemplo) só custa a mensagem amigável, nunca um duplicado.
+ * Até a carga da subida terminar, todo email é tratado como "talvez cadastrado".
+ */
+@Component
+public class RegistroEmails {
+
+    private static final Logger log = LoggerFactory.getLogger(RegistroEmails.class);
+
+    private static final int LOTE_CARGA = 5000;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    private final long capacidadeMinima;
+    private final double falsoPositivo;
+    private final Counter ausentes;
+    private final Counter talvez;
+
+    private volatile FiltroBloom filtro;
+    // Filtro em montagem: recebe os emails novos junto com o atual para não perder os gravados durante a carga
+    private volatile FiltroBloom proximo;
+    private volatile long capacidadeAtual;
+    private final AtomicBoolean recarregando = new AtomicBoolean();
+
+    public RegistroEmails(MeterRegistry registry,
+                          @Value("${delivery.clientes.filtro-email.capacidade:1000000}") long capacidadeMinima,
+                          @Value("${delivery.clientes.filtro-email.falso-positivo:0.01}") double falsoPositivo) {
+        this.capacidadeMinima = capacidadeMinima;
+        this.falsoPositivo = falsoPositivo;
+        this.ausentes = Counter.builder("delivery.clientes.email.filtro").tag("resultado", "ausente")
+            .description("Cadastros em que o filtro dispensou a consulta de email duplicado").register(registry);
+        this.talvez = Counter.builder("delivery.clientes.email.filtro").tag("resultado", "talvez")
+            .description("Cadastros em que o email foi conferido no banco").register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregarNaSubida() {
+        recarregarEmSegundoPlano();
+    }
+
+    /**
+     * false quando o email com certeza não está cadastrado; true quando precisa conferir no banco
+     */
+    public boolean podeExistir(String email) {
+        FiltroBloom atual = filtro;
+        boolean resultado = atual == null || atual.talvezContenha(email);
+        (resultado ? talvez : ausentes).increment();
+        return resultado;
+    }
+
+    /**
+     * Chamar depois de gravar um email. Se a transação desfizer a gravação, o email fica como falso positivo.
+     */
+    public void registrar(String email) {
+        FiltroBloom emMontagem = proximo;
+        if (emMontagem != null) {
+            emMontagem.adicionar(email);
+        }
+        FiltroBloom atual = filtro;
+        if (atual != null) {
+            atual.adicionar(email);
+            // Acima da capacidade a taxa de falso positivo sobe: remonta com o dobro
+            if (atual.adicoes() > capacidadeAtual) {
+                recarregarEmSegundoPlano();
+            }
+        }
+    }
+
+    /**
+     * Montar um filtro novo com todos os emails do banco e trocar pelo atual
+     */
+    public void reconstruir() {
+        long inicio = System.nanoTime();
+        long capacidade = Math.max(capacidadeMinima, clienteRepository.count() * 2);
+        FiltroBloom novo = FiltroBloom.para(capacidade, falsoPositivo);
+        proximo = novo;
+
+        Long ultimoId = 0L;
+        List<Object[]> lote;
+        do {
+            lote = clienteRepository.listarEmailsAposId(ultimoId, Limit.of(LOTE_CARGA));
+            for (Object[] linha : lote) {
+                if (linha[1] != null) {
+                    novo.adicionar((String) linha[1]);
+                }
+            }
+            if (!lote.isEmpty()) {
+                ultimoId = (Long) lote.get(lote.size() - 1)[0];
+            }
+        } while (lote.size() == LOTE_CARGA);
+
+        capacidadeAtual = capacidade;
+        filtro = novo;
+        proximo = null;
+        log.info("Filtro de emails montado: {} emails, {} KiB, {} hashes em {} ms", novo.adicoes(), novo.bits() / 8 / 1024,
+            novo.hashes(), (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    public boolean isPronto() {
+        return filtro != null;
+    }
+
+    private void recarregarEmSegundoPlano() {
+        if (!recarregando.compareAndSet(false, true)) {
+            return;
+        }
+        Thread.ofPlatform().name("registro-emails").daemon().start(() -> {
+            try {
+                reconstruir();
+            } catch (RuntimeException e) {
+                log.error("Falha ao montar o filtro de emails; cadastro continua conferindo no banco", e);
+            } finally {
+                recarregando.set(false);
+            }
+        });
+    }
+}
@@ -2,15 +2,23 @@ package com.deliverytech.delivery.services;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Locale;
 
+import com.deliverytech.delivery.dto.CotacaoTaxaEntregaDTO;
+import com.deliverytech.delivery.dto.PaginaRestaurantesDTO;
 import com.deliverytech.delivery.dto.RestauranteRequestDTO;
 import com.deliverytech.delivery.dto.RestauranteResponseDTO;
+import com.deliverytech.delivery.dto.TabelaTaxaEntregaDTO;
+import com.deliverytech.delivery.entity.Dinheiro;
 import com.deliverytech.delivery.entity.Restaurante;
+import com.deliverytech.delivery.enums.OrdemRestaurantes;
+import com.deliverytech.delivery.events.RestauranteAlteradoEvent;
 import com.deliverytech.delivery.exceptions.BusinessException;
 import com.deliverytech.delivery.repository.PedidoRepository;
 import com.deliverytech.delivery.repository.ProdutoRepository;
 import com.deliverytech.delivery.repository.RestauranteRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -26,6 +34,18 @@ public class RestauranteService {
     @Autowired
     private PedidoRepository pedidoRepository;
 
+    @Autowired
+    private VendasRestauranteService vendasRestauranteService;
+
+    @Autowired
+    private TaxaEntregaEngine taxaEntregaEngine;
+
+    @Autowired
+    private IndiceRestaurantes indiceRestaurantes;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
      * Cadastrar novo restaurante
      */
@@ -43,7 +63,11 @@ public class RestauranteService {
         restaurante.setTaxaEntrega(dto.getTaxaEntrega());
         restaurante.setAtivo(true);
 
-        return new RestauranteResponseDTO(restauranteRepository.save(restaurante));
+        Restaurante salvo = restauranteRepository.save(restaurante);
+        vendasRestauranteService.inicializar(salvo.getId());
+        RestauranteResponseDTO novo = new RestauranteResponseDTO(salvo);
+        eventPublisher.publishEvent(new RestauranteAlteradoEvent(null, novo));
+        return novo;
     }
 
     /**
@@ -66,6 +90,20 @@ public class RestauranteService {
             .toList();
     }
 
+    /**
+     * Buscar restaurantes ativos com filtros combinados, ordenados e paginados por cursor (sem acessar o banco)
+     */
+    public PaginaRestaurantesDTO buscar(String categoria, BigDecimal taxaMaxima, BigDecimal avaliacaoMinima,
+                                        String ordem, String cursor, int limite) {
+        OrdemRestaurantes ordenacao;
+        try {
+            ordenacao = OrdemRestaurantes.valueOf(ordem.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Ordenação inválida: " + ordem + " (use avaliacao, taxa ou nome)");
+        }
+        return indiceRestaurantes.buscar(categoria, taxaMaxima, avaliacaoMinima, ordenacao, cursor, limite);
+    }
+
     /**
      * Buscar por categoria
      */
@@ -90,12 +128,15 @@ public class RestauranteService {
 
         validarDadosRestaurante(dto);
 
+        RestauranteResponseDTO anterior = new RestauranteResponseDTO(restaurante);
         restaurante.setNome(dto.getNome());
         restaurante.setCategoria(dto.getCategoria());
         restaurante.setEndereco(dto.getEndereco());
         restaurante.setTaxaEntrega(dto.getTaxaEntrega());
 
-        return new RestauranteResponseDTO(restauranteRepository.save(restaurante));
+        RestauranteResponseDTO atual = new RestauranteResponseDTO(restauranteRepository.save(restaurante));
+        eventPublisher.publishEvent(new RestauranteAlteradoEvent(anterior, atual));
+        return atual;
     }
 
     /**
@@ -105,8 +146,10 @@ public class RestauranteService {
         Restaurante restaurante = restauranteRepository.findById(id)
             .orElseThrow(() -> new BusinessException("Restaurante não encontrado: " + id));
 
+        RestauranteResponseDTO anterior = new RestauranteResponseDTO(restaurante);
         restaurante.setAtivo(false);
-        restauranteRepository.save(restaurante);
+        RestauranteResponseDTO atual = new RestauranteResponseDTO(restauranteRepository.save(restaurante));
+        eventPublisher.publishEvent(new RestauranteAlteradoEvent(anterior, atual));
     }
 
     /**
@@ -116,25 +159,34 @@ public class RestauranteService {
         Restaurante restaurante = restauranteRepository.findById(id)
             .orElseThrow(() -> new BusinessException("Restaurante não encontrado: " + id));
 
+        RestauranteResponseDTO anterior = new RestauranteResponseDTO(restaurante);
         restauranteRepository.delete(restaurante);
+        eventPublisher.publishEvent(new RestauranteAlteradoEvent(anterior, null));
     }
 
     /**
      * Calcular taxa de entrega com base no CEP
      */
-    public BigDecimal calcularTaxaEntrega(Long restauranteId, String cep) {
-        Restaurante restaurante = restauranteRepository.findById(restauranteId)
-            .orElseThrow(() -> new BusinessException("Restaurante não encontrado: " + restauranteId));
-
-        BigDecimal taxaBase = restaurante.getTaxaEntrega();
-
-        if (cep.startsWith("01")) {
-            return taxaBase.add(BigDecimal.valueOf(5));
-        } else if (cep.startsWith("02")) {
-            return taxaBase.add(BigDecimal.valueOf(8));
-        } else {
-            return taxaBase.add(BigDecimal.valueOf(10));
-        }
+    public Dinheiro calcularTaxaEntrega(Long restauranteId, String cep) {
+        return taxaEntregaEngine.cotar(restauranteId, cep);
+    }
+
+    /**
+     * Taxa de entrega de vários restaurantes (ou de todos os ativos) para um CEP
+     */
+    public List<CotacaoTaxaEntregaDTO> cotarTaxaEntrega(String cep, List<Long> restauranteIds) {
+        return taxaEntregaEngine.cotarVarios(cep, restauranteIds);
+    }
+
+    public TabelaTaxaEntregaDTO tabelaTaxaEntrega() {
+        return taxaEntregaEngine.tabelaAtual();
+    }
+
+    /**
+     * Substituir as faixas de CEP da taxa de entrega sem reiniciar
+     */
+    public TabelaTaxaEntregaDTO atualizarTabelaTaxaEntrega(TabelaTaxaEntregaDTO tabela) {
+        return taxaEntregaEngine.recarregar(tabela);
     }
 
     /**
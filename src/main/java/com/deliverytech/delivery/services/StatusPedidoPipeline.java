@@ -0,0 +1,454 @@
+package com.deliverytech.delivery.services;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.deliverytech.delivery.dto.PedidoResumoDTO;
+import com.deliverytech.delivery.entity.Pedido;
+import com.deliverytech.delivery.enums.StatusPedido;
+import com.deliverytech.delivery.events.StatusPedidoAlteradoEvent;
+import com.deliverytech.delivery.exceptions.BusinessException;
+import com.deliverytech.delivery.repository.PedidoRepository;
+import com.deliverytech.delivery.services.JournalStatusPedido.Transicao;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Transições de status dos pedidos.
+ *
+ * No modo "sincrono" (padrão) cada transição é uma transação com checagem de versão do pedido.
+ * No modo "write-behind" o estado em memória é a referência: a transição é validada contra ele,
+ * gravada no journal (fsync) e só então confirmada. O banco recebe, em lotes, apenas o último status
+ * de cada pedido; se a versão no banco mudou por fora, é conflito. Ao subir, o journal é reaplicado.
+ * Só os pedidos com transição ainda não gravada ficam em memória: depois da descarga o banco volta a ser
+ * a referência, e a próxima transição do pedido o carrega de novo.
+ */
+@Component
+public class StatusPedidoPipeline implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(StatusPedidoPipeline.class);
+
+    private record Estado(PedidoResumoDTO resumo, Long restauranteId, long versaoBanco) {
+        StatusPedido status() {
+            return resumo.getStatus();
+        }
+    }
+
+    private record Gravado(StatusPedido status, long versao) {
+    }
+
+    private final PedidoRepository pedidoRepository;
+    private final VendasRestauranteService vendasRestauranteService;
+    private final AgregadoPedidosService agregadoPedidosService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transacao;
+
+    private final boolean writeBehind;
+    private final Path arquivoJournal;
+    private final long intervaloMs;
+    private final int tamanhoLote;
+    private final long limiteJournalBytes;
+
+    private final Map<Long, Estado> estados = new ConcurrentHashMap<>();
+    private final Set<Long> pendentes = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock descarga = new ReentrantLock();
+
+    private final Counter transicoes;
+    private final Counter gravacoes;
+    private final Counter conflitos;
+    private final Timer tempoDescarga;
+
+    private JournalStatusPedido journal;
+    private ScheduledExecutorService agendador;
+    private volatile boolean rodando;
+
+    public StatusPedidoPipeline(PedidoRepository pedidoRepository,
+                                VendasRestauranteService vendasRestauranteService,
+                                AgregadoPedidosService agregadoPedidosService,
+                                ApplicationEventPublisher eventPublisher,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry registry,
+                                @Value("${delivery.pedidos.status.modo:sincrono}") String modo,
+                                @Value("${delivery.pedidos.status.journal-arquivo:data/status-pedidos.journal}") String arquivoJournal,
+                                @Value("${delivery.pedidos.status.intervalo-ms:200}") long intervaloMs,
+                                @Value("${delivery.pedidos.status.tamanho-lote:100}") int tamanhoLote,
+                                @Value("${delivery.pedidos.status.journal-limite-bytes:1048576}") long limiteJournalBytes) {
+        this.pedidoRepository = pedidoRepository;
+        this.vendasRestauranteService = vendasRestauranteService;
+        this.agregadoPedidosService = agregadoPedidosService;
+        this.eventPublisher = eventPublisher;
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.transacao.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        if (!modo.equals("sincrono") && !modo.equals("write-behind")) {
+            throw new IllegalArgumentException("delivery.pedidos.status.modo deve ser 'sincrono' ou 'write-behind': " + modo);
+        }
+        this.writeBehind = modo.equals("write-behind");
+        this.arquivoJournal = Path.of(arquivoJournal);
+        this.intervaloMs = intervaloMs;
+        this.tamanhoLote = Math.max(1, tamanhoLote);
+        this.limiteJournalBytes = limiteJournalBytes;
+
+        this.transicoes = registry.counter("delivery.pedidos.status.transicoes");
+        this.gravacoes = registry.counter("delivery.pedidos.status.gravacoes");
+        this.conflitos = registry.counter("delivery.pedidos.status.conflitos");
+        this.tempoDescarga = registry.timer("delivery.pedidos.status.descarga");
+        Gauge.builder("delivery.pedidos.status.pendentes", pendentes, Set::size).register(registry);
+    }
+
+    public boolean isWriteBehind() {
+        return writeBehind;
+    }
+
+    /**
+     * Aplicar a transição. No modo write-behind retorna depois do fsync do journal, antes do banco.
+     */
+    public PedidoResumoDTO atualizar(Long pedidoId, StatusPedido novoStatus) {
+        if (!writeBehind) {
+            return atualizarNoBanco(pedidoId, novoStatus);
+        }
+
+        while (true) {
+            if (!estados.containsKey(pedidoId)) {
+                carregar(pedidoId);
+            }
+
+            List<Estado> anterior = new ArrayList<>(1);
+            List<CompletableFuture<Void>> gravada = new ArrayList<>(1);
+            Estado novo;
+            try {
+                novo = estados.computeIfPresent(pedidoId, (id, atual) -> {
+                    validarTransicao(atual.status(), novoStatus);
+                    pendentes.add(id);
+                    anterior.add(atual);
+                    gravada.add(journal.registrar(new Transicao(id, atual.status(), novoStatus)));
+                    return new Estado(comStatus(atual.resumo(), novoStatus), atual.restauranteId(), atual.versaoBanco());
+                });
+            } catch (BusinessException e) {
+                // Transição recusada: um pedido recém-carregado não tem o que gravar
+                liberarSeGravado(pedidoId);
+                throw e;
+            }
+            if (novo == null) {
+                // Saiu da memória entre o carregamento e a transição; carrega de novo
+                continue;
+            }
+
+            try {
+                aguardarJournal(gravada.get(0));
+            } catch (BusinessException e) {
+                // Não ficou durável: desfaz, a menos que outra transição já tenha vindo depois
+                estados.computeIfPresent(pedidoId, (id, atual) -> atual == novo ? anterior.get(0) : atual);
+                throw e;
+            }
+            transicoes.increment();
+            eventPublisher.publishEvent(new StatusPedidoAlteradoEvent(pedidoId, novo.restauranteId(),
+                anterior.get(0).status(), novoStatus, LocalDateTime.now()));
+            return comStatus(novo.resumo(), novo.status());
+        }
+    }
+
+    /**
+     * Status mais recente conhecido em memória, ou null se o pedido não está no pipeline.
+     */
+    public StatusPedido statusAtual(Long pedidoId) {
+        Estado estado = estados.get(pedidoId);
+        return estado != null ? estado.status() : null;
+    }
+
+    public void descartar(Long pedidoId) {
+        estados.remove(pedidoId);
+        pendentes.remove(pedidoId);
+    }
+
+    public int pendentes() {
+        return pendentes.size();
+    }
+
+    /**
+     * Pedidos em memória: os pendentes e os que estão no meio de uma transição ou descarga
+     */
+    public int emMemoria() {
+        return estados.size();
+    }
+
+    /**
+     * Gravar no banco o último status de cada pedido pendente, em lotes de tamanhoLote.
+     */
+    public void descarregar() {
+        if (!writeBehind) {
+            return;
+        }
+        descarga.lock();
+        try {
+            tempoDescarga.record(() -> {
+                List<Long> ids = new ArrayList<>(pendentes);
+                for (int i = 0; i < ids.size(); i += tamanhoLote) {
+                    aplicarLote(ids.subList(i, Math.min(i + tamanhoLote, ids.size())));
+                }
+            });
+            if (pendentes.isEmpty() || journal.tamanho() > limiteJournalBytes) {
+                journal.compactar(pendentes);
+            }
+        } finally {
+            descarga.unlock();
+        }
+    }
+
+    /**
+     * Reaplicar transições do journal: em ordem, cada uma só vale se o banco ainda estiver no status de origem.
+     * Retorna quantos pedidos mudaram.
+     */
+    public int reaplicar(List<Transicao> registros) {
+        Map<Long, List<Transicao>> porPedido = registros.stream()
+            .collect(Collectors.groupingBy(Transicao::pedidoId, LinkedHashMap::new, Collectors.toList()));
+
+        Integer alterados = transacao.execute(status -> {
+            int total = 0;
+            for (Pedido pedido : pedidoRepository.findAllByIdParaAtualizacao(porPedido.keySet())) {
+                StatusPedido destino = pedido.getStatus();
+                for (Transicao transicao : porPedido.get(pedido.getId())) {
+                    if (transicao.de() == destino && destino.podeTransitarPara(transicao.para())) {
+                        destino = transicao.para();
+                    }
+                }
+                if (destino != pedido.getStatus()) {
+                    aplicarStatus(pedido, destino);
+                    total++;
+                }
+            }
+            return total;
+        });
+        return alterados != null ? alterados : 0;
+    }
+
+    // 🔹 Ciclo de vida: reaplica o journal antes do servidor web subir e descarrega tudo depois que ele para
+
+    @Override
+    public void start() {
+        if (writeBehind) {
+            journal = new JournalStatusPedido(arquivoJournal);
+            List<Transicao> registros = journal.ler();
+            if (!registros.isEmpty()) {
+                int alterados = reaplicar(registros);
+                log.info("Journal de status reaplicado: {} transições, {} pedidos atualizados", registros.size(), alterados);
+            }
+            journal.compactar(pendentes);
+
+            agendador = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("descarga-status-pedido").daemon().factory());
+            agendador.scheduleWithFixedDelay(this::descarregarAgendado, intervaloMs, intervaloMs, TimeUnit.MILLISECONDS);
+        }
+        rodando = true;
+    }
+
+    @Override
+    public void stop() {
+        if (writeBehind && rodando) {
+            agendador.shutdown();
+            try {
+                agendador.awaitTermination(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            descarregar();
+            journal.close();
+        }
+        rodando = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return rodando;
+    }
+
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    // 🔹 Internos
+
+    private PedidoResumoDTO atualizarNoBanco(Long pedidoId, StatusPedido novoStatus) {
+        return transacao.execute(status -> {
+            Pedido pedido = pedidoRepository.findById(pedidoId)
+                .orElseThrow(() -> new BusinessException("Pedido não encontrado: " + pedidoId));
+            StatusPedido anterior = pedido.getStatus();
+            validarTransicao(anterior, novoStatus);
+            aplicarStatus(pedido, novoStatus);
+            PedidoResumoDTO resumo = new PedidoResumoDTO(pedidoRepository.saveAndFlush(pedido));
+            // Dentro da transação: os ouvintes transacionais só recebem depois do commit
+            eventPublisher.publishEvent(new StatusPedidoAlteradoEvent(pedidoId, pedido.getRestaurante().getId(),
+                anterior, novoStatus, LocalDateTime.now()));
+            return resumo;
+        });
+    }
+
+    private void carregar(Long pedidoId) {
+        Pedido pedido = pedidoRepository.findById(pedidoId)
+            .orElseThrow(() -> new BusinessException("Pedido não encontrado: " + pedidoId));
+        estados.putIfAbsent(pedidoId, new Estado(new PedidoResumoDTO(pedido), pedido.getRestaurante().getId(), pedido.getVersao()));
+    }
+
+    private void aguardarJournal(CompletableFuture<Void> gravada) {
+        try {
+            gravada.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException("Interrompido gravando a transição de status", e);
+        } catch (ExecutionException e) {
+            throw new BusinessException("Falha ao gravar a transição de status", e.getCause());
+        }
+    }
+
+    private void descarregarAgendado() {
+        try {
+            descarregar();
+        } catch (RuntimeException e) {
+            log.warn("Falha na descarga de status de pedidos: {}", e.getMessage());
+        }
+    }
+
+    private void aplicarLote(List<Long> ids) {
+        ids.forEach(pendentes::remove);
+        Map<Long, Gravado> gravados;
+        try {
+            gravados = transacao.execute(status -> gravar(ids));
+        } catch (OptimisticLockingFailureException e) {
+            // Algum pedido do lote mudou por fora: regrava um a um para isolar o conflito
+            gravados = new HashMap<>();
+            for (Long id : ids) {
+                try {
+                    gravados.putAll(transacao.execute(status -> gravar(List.of(id))));
+                } catch (OptimisticLockingFailureException conflito) {
+                    resolverConflito(id);
+                } catch (RuntimeException falha) {
+                    pendentes.add(id);
+                    log.warn("Falha ao gravar status do pedido {}: {}", id, falha.getMessage());
+                }
+            }
+        } catch (RuntimeException e) {
+            pendentes.addAll(ids);
+            log.warn("Falha ao gravar lote de status de pedidos: {}", e.getMessage());
+            return;
+        }
+        gravados.forEach(this::confirmarGravacao);
+        ids.forEach(this::liberarSeGravado);
+    }
+
+    private Map<Long, Gravado> gravar(List<Long> ids) {
+        Map<Long, Pedido> pedidos = pedidoRepository.findAllByIdParaAtualizacao(ids).stream()
+            .collect(Collectors.toMap(Pedido::getId, Function.identity()));
+
+        List<Pedido> alterados = new ArrayList<>();
+        for (Long id : ids) {
+            Estado estado = estados.get(id);
+            if (estado == null) {
+                continue;
+            }
+            Pedido pedido = pedidos.get(id);
+            if (pedido == null) {
+                estados.remove(id);
+                continue;
+            }
+            if (pedido.getVersao() != estado.versaoBanco()) {
+                throw new ObjectOptimisticLockingFailureException(Pedido.class, id);
+            }
+            if (pedido.getStatus() != estado.status()) {
+                aplicarStatus(pedido, estado.status());
+                alterados.add(pedido);
+            }
+        }
+        pedidoRepository.flush();
+        gravacoes.increment(alterados.size());
+
+        Map<Long, Gravado> gravados = new HashMap<>();
+        for (Pedido pedido : alterados) {
+            gravados.put(pedido.getId(), new Gravado(pedido.getStatus(), pedido.getVersao()));
+        }
+        return gravados;
+    }
+
+    private void confirmarGravacao(Long id, Gravado gravado) {
+        estados.computeIfPresent(id, (chave, atual) -> new Estado(atual.resumo(), atual.restauranteId(), gravado.versao()));
+    }
+
+    /**
+     * Tirar o pedido da memória se não há transição por gravar. Dentro do compute: uma transição
+     * concorrente marca o pedido como pendente no mesmo compute em que muda o estado.
+     */
+    private void liberarSeGravado(Long id) {
+        estados.computeIfPresent(id, (chave, atual) -> pendentes.contains(chave) ? atual : null);
+    }
+
+    private void resolverConflito(Long id) {
+        conflitos.increment();
+        Pedido pedido = pedidoRepository.findById(id).orElse(null);
+        if (pedido == null) {
+            descartar(id);
+            return;
+        }
+        estados.computeIfPresent(id, (chave, atual) -> {
+            if (atual.status() == pedido.getStatus()) {
+                return new Estado(new PedidoResumoDTO(pedido), pedido.getRestaurante().getId(), pedido.getVersao());
+            }
+            if (pedido.getStatus().podeTransitarPara(atual.status())) {
+                // A mudança externa é compatível: regrava o status da memória sobre a versão nova
+                pendentes.add(id);
+                return new Estado(atual.resumo(), atual.restauranteId(), pedido.getVersao());
+            }
+            log.warn("Conflito no pedido {}: banco em {}, memória em {}; prevalece o banco",
+                id, pedido.getStatus(), atual.status());
+            return new Estado(new PedidoResumoDTO(pedido), pedido.getRestaurante().getId(), pedido.getVersao());
+        });
+    }
+
+    private void aplicarStatus(Pedido pedido, StatusPedido novoStatus) {
+        if (novoStatus == StatusPedido.CANCELADO && pedido.getStatus() != StatusPedido.CANCELADO) {
+            vendasRestauranteService.registrarCancelamento(pedido);
+        }
+        agregadoPedidosService.registrarMudancaStatus(pedido, pedido.getStatus(), novoStatus);
+        pedido.setStatus(novoStatus);
+    }
+
+    private static void validarTransicao(StatusPedido statusAtual, StatusPedido novoStatus) {
+        if (!statusAtual.podeTransitarPara(novoStatus)) {
+            throw new BusinessException("Transição de status não permitida: " +
+                statusAtual.getDescricao() + " → " + novoStatus.getDescricao());
+        }
+    }
+
+    private static PedidoResumoDTO comStatus(PedidoResumoDTO resumo, StatusPedido status) {
+        return new PedidoResumoDTO(resumo.getId(), resumo.getNumeroPedido(), resumo.getDataPedido(), status, resumo.getValorTotal());
+    }
+}
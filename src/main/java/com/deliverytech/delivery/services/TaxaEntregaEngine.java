@@ -0,0 +1,252 @@
+package com.deliverytech.delivery.services;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.deliverytech.delivery.dto.CotacaoTaxaEntregaDTO;
+import com.deliverytech.delivery.dto.FaixaCepDTO;
+import com.deliverytech.delivery.dto.RestauranteResponseDTO;
+import com.deliverytech.delivery.dto.TabelaTaxaEntregaDTO;
+import com.deliverytech.delivery.entity.Dinheiro;
+import com.deliverytech.delivery.entity.Restaurante;
+import com.deliverytech.delivery.events.RestauranteAlteradoEvent;
+import com.deliverytech.delivery.exceptions.BusinessException;
+import com.deliverytech.delivery.repository.RestauranteRepository;
+
+/**
+ * Cotação de taxa de entrega: taxa base do restaurante + acréscimo da faixa de CEP.
+ *
+ * As faixas ficam num snapshot imutável (arrays ordenados de CEP inicial/final, busca binária),
+ * trocado de uma vez ao recarregar. As taxas base ficam em memória, em centavos, atualizadas pelos
+ * eventos de restaurante. Uma cotação não acessa o banco e é só aritmética de long; o resultado é um Dinheiro.
+ */
+@Component
+public class TaxaEntregaEngine {
+
+    private record Tabela(int[] inicios, int[] fins, long[] acrescimos, long acrescimoPadrao) {
+    }
+
+    private record Base(long centavos, boolean ativo) {
+    }
+
+    @Autowired
+    private RestauranteRepository restauranteRepository;
+
+    private final Map<Long, Base> bases = new ConcurrentHashMap<>();
+    private volatile Tabela tabela;
+
+    public TaxaEntregaEngine(@Value("${delivery.taxa-entrega.faixas:01000000-01999999:5.00,02000000-02999999:8.00}") String faixas,
+                             @Value("${delivery.taxa-entrega.acrescimo-padrao:10.00}") BigDecimal acrescimoPadrao) {
+        List<FaixaCepDTO> configuradas = new ArrayList<>();
+        for (String faixa : faixas.split(",")) {
+            if (faixa.isBlank()) {
+                continue;
+            }
+            String[] partes = faixa.trim().split("[-:]");
+            if (partes.length != 3) {
+                throw new IllegalArgumentException("Faixa de CEP inválida em delivery.taxa-entrega.faixas: " + faixa);
+            }
+            configuradas.add(new FaixaCepDTO(partes[0], partes[1], new BigDecimal(partes[2])));
+        }
+        this.tabela = compilar(new TabelaTaxaEntregaDTO(configuradas, acrescimoPadrao));
+    }
+
+    /**
+     * Taxa de entrega de um restaurante para o CEP
+     */
+    public Dinheiro cotar(Long restauranteId, String cep) {
+        int numeroCep = normalizarCep(cep);
+        Base base = bases.get(restauranteId);
+        if (base == null) {
+            base = carregar(restauranteId);
+        }
+        return Dinheiro.deCentavos(base.centavos() + acrescimo(tabela, numeroCep));
+    }
+
+    /**
+     * Taxas de vários restaurantes para o mesmo CEP. Sem IDs, cota todos os restaurantes ativos.
+     * IDs inexistentes ficam fora do resultado.
+     */
+    public List<CotacaoTaxaEntregaDTO> cotarVarios(String cep, Collection<Long> restauranteIds) {
+        long acrescimo = acrescimo(tabela, normalizarCep(cep));
+
+        if (restauranteIds == null || restauranteIds.isEmpty()) {
+            List<CotacaoTaxaEntregaDTO> cotacoes = new ArrayList<>();
+            bases.forEach((id, base) -> {
+                if (base.ativo()) {
+                    cotacoes.add(new CotacaoTaxaEntregaDTO(id, Dinheiro.deCentavos(base.centavos() + acrescimo)));
+                }
+            });
+            cotacoes.sort(Comparator.comparing(CotacaoTaxaEntregaDTO::getRestauranteId));
+            return cotacoes;
+        }
+
+        List<Long> faltando = restauranteIds.stream().filter(id -> !bases.containsKey(id)).toList();
+        if (!faltando.isEmpty()) {
+            restauranteRepository.findAllById(faltando).forEach(this::guardar);
+        }
+
+        List<CotacaoTaxaEntregaDTO> cotacoes = new ArrayList<>(restauranteIds.size());
+        for (Long id : restauranteIds) {
+            Base base = bases.get(id);
+            if (base != null) {
+                cotacoes.add(new CotacaoTaxaEntregaDTO(id, Dinheiro.deCentavos(base.centavos() + acrescimo)));
+            }
+        }
+        return cotacoes;
+    }
+
+    public TabelaTaxaEntregaDTO tabelaAtual() {
+        Tabela atual = tabela;
+        List<FaixaCepDTO> faixas = new ArrayList<>(atual.inicios().length);
+        for (int i = 0; i < atual.inicios().length; i++) {
+            faixas.add(new FaixaCepDTO(formatarCep(atual.inicios()[i]), formatarCep(atual.fins()[i]),
+                BigDecimal.valueOf(atual.acrescimos()[i], 2)));
+        }
+        return new TabelaTaxaEntregaDTO(faixas, BigDecimal.valueOf(atual.acrescimoPadrao(), 2));
+    }
+
+    /**
+     * Trocar as faixas de CEP sem reiniciar. A tabela inteira é validada antes da troca.
+     */
+    public TabelaTaxaEntregaDTO recarregar(TabelaTaxaEntregaDTO nova) {
+        tabela = compilar(nova);
+        return tabelaAtual();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregarBases() {
+        restauranteRepository.findAll().forEach(this::guardar);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarRestaurante(RestauranteAlteradoEvent evento) {
+        if (evento.atual() == null) {
+            if (evento.anterior() != null) {
+                bases.remove(evento.anterior().getId());
+            }
+            return;
+        }
+        RestauranteResponseDTO atual = evento.atual();
+        bases.put(atual.getId(), new Base(centavos(atual.getTaxaEntrega()), Boolean.TRUE.equals(atual.getAtivo())));
+    }
+
+    private Base carregar(Long restauranteId) {
+        Restaurante restaurante = restauranteRepository.findById(restauranteId)
+            .orElseThrow(() -> new BusinessException("Restaurante não encontrado: " + restauranteId));
+        return guardar(restaurante);
+    }
+
+    private Base guardar(Restaurante restaurante) {
+        Base base = new Base(centavos(restaurante.getTaxaEntrega()), Boolean.TRUE.equals(restaurante.getAtivo()));
+        bases.put(restaurante.getId(), base);
+        return base;
+    }
+
+    private static long acrescimo(Tabela tabela, int cep) {
+        int[] inicios = tabela.inicios();
+        int baixo = 0;
+        int alto = inicios.length - 1;
+        int encontrada = -1;
+        while (baixo <= alto) {
+            int meio = (baixo + alto) >>> 1;
+            if (inicios[meio] <= cep) {
+                encontrada = meio;
+                baixo = meio + 1;
+            } else {
+                alto = meio - 1;
+            }
+        }
+        return encontrada >= 0 && cep <= tabela.fins()[encontrada] ? tabela.acrescimos()[encontrada] : tabela.acrescimoPadrao();
+    }
+
+    private static Tabela compilar(TabelaTaxaEntregaDTO dto) {
+        if (dto == null || dto.getFaixas() == null || dto.getAcrescimoPadrao() == null) {
+            throw new BusinessException("Tabela de taxa de entrega incompleta");
+        }
+
+        List<FaixaCepDTO> faixas = new ArrayList<>(dto.getFaixas());
+        int[][] limites = new int[faixas.size()][];
+        for (int i = 0; i < faixas.size(); i++) {
+            FaixaCepDTO faixa = faixas.get(i);
+            if (faixa == null || faixa.getAcrescimo() == null) {
+                throw new BusinessException("Faixa " + i + " incompleta");
+            }
+            int inicio = normalizarCep(faixa.getCepInicial());
+            int fim = normalizarCep(faixa.getCepFinal());
+            if (inicio > fim) {
+                throw new BusinessException("Faixa " + i + ": CEP inicial maior que o final");
+            }
+            if (faixa.getAcrescimo().signum() < 0) {
+                throw new BusinessException("Faixa " + i + ": acréscimo não pode ser negativo");
+            }
+            limites[i] = new int[] {inicio, fim, i};
+        }
+        if (dto.getAcrescimoPadrao().signum() < 0) {
+            throw new BusinessException("Acréscimo padrão não pode ser negativo");
+        }
+
+        Arrays.sort(limites, Comparator.comparingInt(l -> l[0]));
+        int[] inicios = new int[limites.length];
+        int[] fins = new int[limites.length];
+        long[] acrescimos = new long[limites.length];
+        for (int i = 0; i < limites.length; i++) {
+            if (i > 0 && limites[i][0] <= fins[i - 1]) {
+                throw new BusinessException("Faixas de CEP sobrepostas: " + formatarCep(limites[i][0]));
+            }
+            inicios[i] = limites[i][0];
+            fins[i] = limites[i][1];
+            acrescimos[i] = centavos(faixas.get(limites[i][2]).getAcrescimo());
+        }
+        return new Tabela(inicios, fins, acrescimos, centavos(dto.getAcrescimoPadrao()));
+    }
+
+    /**
+     * CEP com 8 dígitos; aceita hífen, ponto e espaços
+     */
+    private static int normalizarCep(String cep) {
+        if (cep == null) {
+            throw new BusinessException("CEP é obrigatório");
+        }
+        int numero = 0;
+        int digitos = 0;
+        for (int i = 0; i < cep.length(); i++) {
+            char c = cep.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (++digitos > 8) {
+                    break;
+                }
+                numero = numero * 10 + (c - '0');
+            } else if (c != '-' && c != '.' && c != ' ') {
+                digitos = -1;
+                break;
+            }
+        }
+        if (digitos != 8) {
+            throw new BusinessException("CEP inválido: " + cep);
+        }
+        return numero;
+    }
+
+    private static String formatarCep(int cep) {
+        String digitos = String.format("%08d", cep);
+        return digitos.substring(0, 5) + "-" + digitos.substring(5);
+    }
+
+    private static long centavos(BigDecimal valor) {
+        return valor == null ? 0 : Dinheiro.de(valor).centavos();
+    }
+}
@@ -0,0 +1,201 @@
+package com.deliverytech.delivery.services;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Maiores contagens (heavy hitters) numa janela deslizante.
+ *
+ * A janela é dividida em baldes de tempo, cada um com um CountMinSketch; a estimativa de uma chave
+ * soma os baldes dentro da janela. Ao lado, um conjunto limitado de candidatos (4 x k chaves) guarda
+ * as chaves com maior estimativa: uma chave nova só entra se superar a menor delas.
+ * Memória e custo de consulta não dependem do número de pedidos nem de chaves distintas.
+ */
+public class TopKJanela {
+
+    public record Contagem(long chave, long quantidade) {
+    }
+
+    private final Clock relogio;
+    private final int k;
+    private final int capacidadeCandidatos;
+    private final long duracaoBaldeMs;
+    private final int quantidadeBaldes;
+    private final CountMinSketch[] baldes;
+    private final long[] numeroBalde;
+    private final Map<Long, Long> candidatos = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private long baldeAtual;
+
+    public TopKJanela(Clock relogio, Duration janela, int quantidadeBaldes, int k, double erro, double confianca) {
+        if (quantidadeBaldes < 1 || k < 1 || janela.toMillis() < quantidadeBaldes) {
+            throw new IllegalArgumentException("Configuração de janela inválida");
+        }
+        this.relogio = relogio;
+        this.k = k;
+        this.capacidadeCandidatos = 4 * k;
+        this.quantidadeBaldes = quantidadeBaldes;
+        this.duracaoBaldeMs = janela.toMillis() / quantidadeBaldes;
+        this.baldes = new CountMinSketch[quantidadeBaldes];
+        this.numeroBalde = new long[quantidadeBaldes];
+        int largura = CountMinSketch.larguraPara(erro);
+        int profundidade = CountMinSketch.profundidadePara(confianca);
+        for (int i = 0; i < quantidadeBaldes; i++) {
+            baldes[i] = new CountMinSketch(largura, profundidade);
+            numeroBalde[i] = Long.MIN_VALUE;
+        }
+        this.baldeAtual = balde(relogio.instant());
+    }
+
+    /**
+     * Somar quantidade à chave no instante informado. Eventos fora da janela são ignorados;
+     * eventos no futuro contam no balde atual.
+     */
+    public void registrar(long chave, long quantidade, Instant quando) {
+        lock.lock();
+        try {
+            avancar();
+            long numero = Math.min(balde(quando), baldeAtual);
+            if (numero <= baldeAtual - quantidadeBaldes) {
+                return;
+            }
+            int posicao = (int) Math.floorMod(numero, (long) quantidadeBaldes);
+            if (numeroBalde[posicao] != numero) {
+                baldes[posicao].limpar();
+                numeroBalde[posicao] = numero;
+            }
+            baldes[posicao].adicionar(chave, quantidade);
+            atualizarCandidato(chave, estimar(chave));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * As maiores estimativas da janela atual, em ordem decrescente (empate pela menor chave).
+     */
+    public List<Contagem> top(int limite) {
+        lock.lock();
+        try {
+            avancar();
+            List<Contagem> contagens = new ArrayList<>(candidatos.size());
+            for (Long chave : candidatos.keySet()) {
+                long estimativa = estimar(chave);
+                if (estimativa > 0) {
+                    contagens.add(new Contagem(chave, estimativa));
+                }
+            }
+            contagens.sort(Comparator.comparingLong(Contagem::quantidade).reversed().thenComparingLong(Contagem::chave));
+            return List.copyOf(contagens.subList(0, Math.min(Math.clamp(limite, 0, k), contagens.size())));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long estimativa(long chave) {
+        lock.lock();
+        try {
+            avancar();
+            return estimar(chave);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Início do balde mais antigo ainda dentro da janela.
+     */
+    public Instant inicioJanela() {
+        lock.lock();
+        try {
+            avancar();
+            return Instant.ofEpochMilli((baldeAtual - quantidadeBaldes + 1) * duracaoBaldeMs);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getK() {
+        return k;
+    }
+
+    public void limpar() {
+        lock.lock();
+        try {
+            for (int i = 0; i < quantidadeBaldes; i++) {
+                baldes[i].limpar();
+                numeroBalde[i] = Long.MIN_VALUE;
+            }
+            candidatos.clear();
+            baldeAtual = balde(relogio.instant());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void avancar() {
+        long numero = balde(relogio.instant());
+        if (numero <= baldeAtual) {
+            return;
+        }
+        baldeAtual = numero;
+        // Baldes que saíram da janela deixam de contar; candidatos zerados saem
+        Iterator<Map.Entry<Long, Long>> iterador = candidatos.entrySet().iterator();
+        while (iterador.hasNext()) {
+            Map.Entry<Long, Long> candidato = iterador.next();
+            long estimativa = estimar(candidato.getKey());
+            if (estimativa == 0) {
+                iterador.remove();
+            } else {
+                candidato.setValue(estimativa);
+            }
+        }
+    }
+
+    private long estimar(long chave) {
+        long minimo = Long.MAX_VALUE;
+        int profundidade = baldes[0].profundidade();
+        for (int linha = 0; linha < profundidade; linha++) {
+            long soma = 0;
+            for (int i = 0; i < quantidadeBaldes; i++) {
+                if (numeroBalde[i] > baldeAtual - quantidadeBaldes) {
+                    soma += baldes[i].contador(linha, chave);
+                }
+            }
+            minimo = Math.min(minimo, soma);
+        }
+        return minimo;
+    }
+
+    private void atualizarCandidato(long chave, long estimativa) {
+        if (candidatos.containsKey(chave) || candidatos.size() < capacidadeCandidatos) {
+            candidatos.put(chave, estimativa);
+            return;
+        }
+        Map.Entry<Long, Long> menor = null;
+        for (Map.Entry<Long, Long> candidato : candidatos.entrySet()) {
+            if (menor == null || candidato.getValue() < menor.getValue()) {
+                menor = candidato;
+            }
+        }
+        // O valor guardado pode estar defasado (só muda quando a chave é tocada); confere antes de remover
+        long atualDoMenor = estimar(menor.getKey());
+        menor.setValue(atualDoMenor);
+        if (estimativa > atualDoMenor) {
+            candidatos.remove(menor.getKey());
+            candidatos.put(chave, estimativa);
+        }
+    }
+
+    private long balde(Instant instante) {
+        return Math.floorDiv(instante.toEpochMilli(), duracaoBaldeMs);
+    }
+}
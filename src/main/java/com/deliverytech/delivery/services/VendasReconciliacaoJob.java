@@ -0,0 +1,40 @@
+package com.deliverytech.delivery.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Confere periodicamente o agregado de vendas contra o recálculo completo, só reportando: a correção
+ * trava as linhas do agregado e fica para POST /api/pedidos/relatorio-vendas/reconciliar.
+ * Também roda quando a aplicação termina de subir, depois da carga inicial de dados.
+ */
+@Component
+public class VendasReconciliacaoJob {
+
+    private static final Logger log = LoggerFactory.getLogger(VendasReconciliacaoJob.class);
+
+    @Autowired
+    private VendasRestauranteService vendasRestauranteService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void aoIniciar() {
+        executar();
+    }
+
+    @Scheduled(fixedDelayString = "${delivery.vendas.reconciliacao.intervalo-ms:600000}",
+               initialDelayString = "${delivery.vendas.reconciliacao.intervalo-ms:600000}")
+    public void executar() {
+        VendasRestauranteService.ResultadoReconciliacao resultado = vendasRestauranteService.conferir();
+        if (resultado.divergencias() > 0) {
+            log.warn("Conferência de vendas encontrou {} de {} restaurantes divergentes; corrigir com a reconciliação",
+                resultado.divergencias(), resultado.restaurantesVerificados());
+        } else {
+            log.info("Conferência de vendas OK ({} restaurantes)", resultado.restaurantesVerificados());
+        }
+    }
+}
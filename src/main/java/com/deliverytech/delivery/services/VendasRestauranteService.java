@@ -0,0 +1,146 @@
+package com.deliverytech.delivery.services;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.deliverytech.delivery.dto.VendasRestauranteDTO;
+import com.deliverytech.delivery.entity.Pedido;
+import com.deliverytech.delivery.entity.VendasRestaurante;
+import com.deliverytech.delivery.repository.VendasRestauranteRepository;
+
+/**
+ * Mantém o agregado de vendas por restaurante. Os métodos de registro participam da transação
+ * do pedido, então o agregado e o pedido são gravados juntos.
+ */
+@Service
+public class VendasRestauranteService {
+
+    private static final Logger log = LoggerFactory.getLogger(VendasRestauranteService.class);
+
+    public record ResultadoReconciliacao(int restaurantesVerificados, int divergencias) {
+    }
+
+    @Autowired
+    private VendasRestauranteRepository vendasRepository;
+
+    /**
+     * Somar um pedido novo às vendas do restaurante
+     */
+    @Transactional
+    public void registrarPedido(Pedido pedido) {
+        acumular(pedido.getRestaurante().getId(), pedido.getValorTotal(), 1);
+    }
+
+    /**
+     * Retirar um pedido cancelado das vendas do restaurante
+     */
+    @Transactional
+    public void registrarCancelamento(Pedido pedido) {
+        acumular(pedido.getRestaurante().getId(), pedido.getValorTotal().negate(), -1);
+    }
+
+    /**
+     * Criar a linha do agregado para um restaurante novo
+     */
+    @Transactional
+    public void inicializar(Long restauranteId) {
+        acumular(restauranteId, BigDecimal.ZERO, 0);
+    }
+
+    /**
+     * Relatório de vendas lido do agregado (custo proporcional ao número de restaurantes)
+     */
+    @Transactional(readOnly = true)
+    public List<VendasRestauranteDTO> relatorio() {
+        return vendasRepository.relatorio();
+    }
+
+    /**
+     * Conferir o agregado contra o recálculo a partir dos pedidos, sem gravar: só registra as divergências.
+     * Não trava nada, então um pedido gravado entre o recálculo e a leitura do agregado pode aparecer como
+     * divergência passageira; quem corrige é reconciliar().
+     */
+    @Transactional(readOnly = true)
+    public ResultadoReconciliacao conferir() {
+        Map<Long, VendasRestauranteDTO> recalculado = recalcular();
+        List<VendasRestaurante> agregado = vendasRepository.findAll();
+
+        int divergencias = 0;
+        for (VendasRestaurante atual : agregado) {
+            if (!confere(atual, recalculado.remove(atual.getRestauranteId()))) {
+                divergencias++;
+            }
+        }
+        // Restaurantes com vendas e sem linha no agregado
+        for (VendasRestauranteDTO esperado : recalculado.values()) {
+            divergencias++;
+            log.warn("Vendas divergentes para o restaurante {}: sem agregado, recalculado={} ({} pedidos)",
+                esperado.getRestauranteId(), esperado.getTotal(), esperado.getQuantidadePedidos());
+        }
+        return new ResultadoReconciliacao(agregado.size() + recalculado.size(), divergencias);
+    }
+
+    /**
+     * Recalcular as vendas a partir dos pedidos (inclusive os arquivados) e corrigir o agregado onde houver diferença.
+     *
+     * As linhas do agregado ficam travadas até o fim da transação, e o recálculo só é lido depois da trava:
+     * o pedido cuja transação já somou no agregado termina antes e entra nos dois lados; o que ainda não somou
+     * não entra em nenhum e soma depois, por cima da correção. A correção é aplicada como diferença.
+     */
+    @Transactional
+    public ResultadoReconciliacao reconciliar() {
+        vendasRepository.criarLinhasQueFaltam();
+        List<VendasRestaurante> agregado = vendasRepository.travarTodas();
+        Map<Long, VendasRestauranteDTO> recalculado = recalcular();
+
+        int divergencias = 0;
+        for (VendasRestaurante atual : agregado) {
+            VendasRestauranteDTO esperado = recalculado.get(atual.getRestauranteId());
+            if (!confere(atual, esperado)) {
+                divergencias++;
+                acumular(atual.getRestauranteId(), valorDe(esperado).subtract(atual.getValorTotal()),
+                    quantidadeDe(esperado) - atual.getQuantidadePedidos());
+            }
+        }
+        return new ResultadoReconciliacao(agregado.size(), divergencias);
+    }
+
+    private Map<Long, VendasRestauranteDTO> recalcular() {
+        Map<Long, VendasRestauranteDTO> recalculado = new HashMap<>();
+        for (Object[] linha : vendasRepository.recalcular()) {
+            Long restauranteId = ((Number) linha[0]).longValue();
+            recalculado.put(restauranteId, new VendasRestauranteDTO(restauranteId, null,
+                (BigDecimal) linha[1], ((Number) linha[2]).longValue()));
+        }
+        return recalculado;
+    }
+
+    private static boolean confere(VendasRestaurante atual, VendasRestauranteDTO esperado) {
+        if (atual.getValorTotal().compareTo(valorDe(esperado)) == 0 && atual.getQuantidadePedidos() == quantidadeDe(esperado)) {
+            return true;
+        }
+        log.warn("Vendas divergentes para o restaurante {}: agregado={} ({} pedidos), recalculado={} ({} pedidos)",
+            atual.getRestauranteId(), atual.getValorTotal(), atual.getQuantidadePedidos(), valorDe(esperado), quantidadeDe(esperado));
+        return false;
+    }
+
+    private static BigDecimal valorDe(VendasRestauranteDTO vendas) {
+        return vendas != null ? vendas.getTotal() : BigDecimal.ZERO;
+    }
+
+    private static long quantidadeDe(VendasRestauranteDTO vendas) {
+        return vendas != null ? vendas.getQuantidadePedidos() : 0L;
+    }
+
+    private void acumular(Long restauranteId, BigDecimal valor, long quantidade) {
+        vendasRepository.acumular(restauranteId, valor, quantidade);
+    }
+}
@@ -1,3 +0,0 @@
-INSERT INTO cliente (id, nome, email, ativo) VALUES (1, 'Thiago', 'thiago@email.com', true);
-INSERT INTO restaurante (id, nome, ativo) VALUES (1, 'Pizza da Vila', true);
-INSERT INTO produto (id, nome, preco, categoria, disponivel, restaurante_id) VALUES (1, 'Pizza Calabresa', 45.00, 'Pizza', true, 1);
\ No newline at end of file
@@ -0,0 +1,93 @@
+-- Esquema inicial, igual ao gerado pelo Hibernate a partir das entidades.
+-- Com o profile prod o Hibernate só valida (ddl-auto=validate): mudança em entidade pede uma migração nova.
+
+-- Incremento = allocationSize das entidades (o Hibernate reserva ids em blocos de 50)
+create sequence clientes_seq start with 1 increment by 50;
+create sequence restaurantes_seq start with 1 increment by 50;
+create sequence produtos_seq start with 1 increment by 50;
+create sequence pedidos_seq start with 1 increment by 50;
+create sequence itens_pedido_seq start with 1 increment by 50;
+
+create table clientes (
+    id bigint not null,
+    nome varchar(255),
+    email varchar(255),
+    telefone varchar(255),
+    endereco varchar(255),
+    data_cadastro timestamp(6),
+    ativo boolean,
+    primary key (id),
+    constraint uk_clientes_email unique (email)
+);
+
+create table restaurantes (
+    id bigint not null,
+    nome varchar(255),
+    categoria varchar(255),
+    endereco varchar(255),
+    telefone varchar(255),
+    taxa_entrega numeric(38,2),
+    avaliacao numeric(38,2),
+    ativo boolean,
+    primary key (id)
+);
+
+create table produtos (
+    id bigint not null,
+    nome varchar(255),
+    descricao varchar(255),
+    preco numeric(38,2),
+    categoria varchar(255),
+    disponivel boolean,
+    restaurante_id bigint,
+    primary key (id)
+);
+
+create table pedidos (
+    id bigint not null,
+    numero_pedido varchar(255),
+    data_pedido timestamp(6),
+    status varchar(30),
+    valor_total numeric(38,2),
+    observacoes varchar(255),
+    versao bigint,
+    cliente_id bigint,
+    restaurante_id bigint,
+    primary key (id)
+);
+
+create table itens_pedido (
+    id bigint not null,
+    pedido_id bigint,
+    produto_id bigint,
+    quantidade integer,
+    preco_unitario numeric(38,2),
+    primary key (id)
+);
+
+create table vendas_restaurante (
+    restaurante_id bigint not null,
+    valor_total numeric(38,2) not null,
+    quantidade_pedidos bigint not null,
+    primary key (restaurante_id)
+);
+
+-- Índices das consultas de PedidoRepository e ProdutoRepository (os mesmos declarados em @Table nas entidades)
+create index idx_pedidos_cliente_data on pedidos (cliente_id, data_pedido, id);
+create index idx_pedidos_data_pedido on pedidos (data_pedido);
+create index idx_pedidos_status_data on pedidos (status, data_pedido);
+create index idx_pedidos_valor_total on pedidos (valor_total);
+create index idx_pedidos_numero_pedido on pedidos (numero_pedido);
+create index idx_pedidos_restaurante on pedidos (restaurante_id);
+create index idx_itens_pedido_pedido on itens_pedido (pedido_id);
+create index idx_itens_pedido_produto on itens_pedido (produto_id);
+create index idx_produtos_restaurante_disponivel on produtos (restaurante_id, disponivel);
+create index idx_produtos_categoria on produtos (categoria);
+create index idx_produtos_preco on produtos (preco);
+
+-- Chaves estrangeiras depois dos índices: o H2 aproveita o índice que já começa pela coluna em vez de criar outro
+alter table produtos add constraint fk_produtos_restaurante foreign key (restaurante_id) references restaurantes (id);
+alter table pedidos add constraint fk_pedidos_cliente foreign key (cliente_id) references clientes (id);
+alter table pedidos add constraint fk_pedidos_restaurante foreign key (restaurante_id) references restaurantes (id);
+alter table itens_pedido add constraint fk_itens_pedido_pedido foreign key (pedido_id) references pedidos (id);
+alter table itens_pedido add constraint fk_itens_pedido_produto foreign key (produto_id) references produtos (id);
@@ -0,0 +1,16 @@
+-- Pedidos finalizados retirados de pedidos pelo arquivamento (ArquivoPedidosService)
+create table pedidos_arquivados (
+    id bigint not null,
+    numero_pedido varchar(255),
+    data_pedido timestamp(6),
+    status varchar(30),
+    valor_total numeric(38,2),
+    cliente_id bigint,
+    restaurante_id bigint,
+    arquivado_em timestamp(6),
+    conteudo blob,
+    primary key (id)
+);
+
+create index idx_pedidos_arquivados_cliente_data on pedidos_arquivados (cliente_id, data_pedido);
+create index idx_pedidos_arquivados_restaurante on pedidos_arquivados (restaurante_id);
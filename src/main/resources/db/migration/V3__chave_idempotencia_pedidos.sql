@@ -0,0 +1,3 @@
+-- Idempotency-Key da criação do pedido (null para pedidos criados sem chave)
+alter table pedidos add column chave_idempotencia varchar(100);
+alter table pedidos add constraint uk_pedidos_chave_idempotencia unique (chave_idempotencia);
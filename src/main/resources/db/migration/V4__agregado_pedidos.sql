@@ -0,0 +1,42 @@
+-- Agregados de pedidos por hora e por dia (AgregadoPedidosService), mantidos a cada pedido criado e mudança de status
+create table agregado_pedidos (
+    granularidade varchar(10) not null,
+    inicio timestamp(6) not null,
+    restaurante_id bigint not null,
+    status varchar(30) not null,
+    quantidade_pedidos bigint not null,
+    valor_total numeric(38,2) not null,
+    primary key (granularidade, inicio, restaurante_id, status)
+);
+
+-- Clientes de cada dia (só granularidade DIA), para contar clientes distintos na união de vários dias
+create table agregado_pedidos_clientes (
+    granularidade varchar(10) not null,
+    inicio timestamp(6) not null,
+    restaurante_id bigint not null,
+    status varchar(30) not null,
+    cliente_id bigint not null,
+    quantidade_pedidos bigint not null,
+    primary key (granularidade, inicio, restaurante_id, status, cliente_id)
+);
+
+-- Bordas do relatório por período também leem os arquivados pelo data_pedido
+create index idx_pedidos_arquivados_data_pedido on pedidos_arquivados (data_pedido);
+
+-- Pedidos que já existiam entram nos agregados
+insert into agregado_pedidos (granularidade, inicio, restaurante_id, status, quantidade_pedidos, valor_total)
+select g.granularidade, case g.granularidade when 'HORA' then date_trunc('HOUR', p.data_pedido) else date_trunc('DAY', p.data_pedido) end,
+       p.restaurante_id, p.status, count(*), coalesce(sum(p.valor_total), 0)
+from (select data_pedido, restaurante_id, status, valor_total from pedidos
+      union all select data_pedido, restaurante_id, status, valor_total from pedidos_arquivados) p
+cross join (values ('HORA'), ('DIA')) as g (granularidade)
+where p.data_pedido is not null and p.restaurante_id is not null and p.status is not null
+group by g.granularidade, case g.granularidade when 'HORA' then date_trunc('HOUR', p.data_pedido) else date_trunc('DAY', p.data_pedido) end,
+         p.restaurante_id, p.status;
+
+insert into agregado_pedidos_clientes (granularidade, inicio, restaurante_id, status, cliente_id, quantidade_pedidos)
+select 'DIA', date_trunc('DAY', p.data_pedido), p.restaurante_id, p.status, p.cliente_id, count(*)
+from (select data_pedido, restaurante_id, status, cliente_id from pedidos
+      union all select data_pedido, restaurante_id, status, cliente_id from pedidos_arquivados) p
+where p.data_pedido is not null and p.restaurante_id is not null and p.status is not null and p.cliente_id is not null
+group by date_trunc('DAY', p.data_pedido), p.restaurante_id, p.status, p.cliente_id;
@@ -0,0 +1,127 @@
+package com.deliverytech.delivery;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.deliverytech.delivery.dto.ItemPedidoDTO;
+import com.deliverytech.delivery.dto.PedidoRequestDTO;
+import com.deliverytech.delivery.dto.RestauranteRequestDTO;
+import com.deliverytech.delivery.entity.Cliente;
+import com.deliverytech.delivery.entity.Dinheiro;
+import com.deliverytech.delivery.entity.Pedido;
+import com.deliverytech.delivery.entity.Produto;
+import com.deliverytech.delivery.entity.Restaurante;
+import com.deliverytech.delivery.enums.StatusPedido;
+import com.deliverytech.delivery.repository.ClienteRepository;
+import com.deliverytech.delivery.repository.PedidoRepository;
+import com.deliverytech.delivery.repository.ProdutoRepository;
+import com.deliverytech.delivery.repository.RestauranteRepository;
+
+/**
+ * Massa de dados dos testes de integração. Cada chamada grava entidades novas, com nome, e-mail e
+ * número de pedido únicos, para que os testes não dependam uns dos outros nem da ordem em que rodam
+ * sobre o mesmo banco.
+ */
+@Component
+public class Fixtures {
+
+    private static final AtomicLong SEQUENCIA = new AtomicLong();
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private RestauranteRepository restauranteRepository;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    public Cliente cliente() {
+        return clienteRepository.save(new Cliente("Cliente", "cliente" + unico() + "@email.com", "11900000000", "Rua C", true));
+    }
+
+    public Restaurante restaurante() {
+        return restaurante("5.00");
+    }
+
+    public Restaurante restaurante(String taxaEntrega) {
+        return restauranteRepository.save(new Restaurante(null, "Restaurante " + unico(), "Teste", "Rua R", "0000-0000",
+            new BigDecimal(taxaEntrega), new BigDecimal("4.0"), true, null));
+    }
+
+    public Produto produto(Restaurante restaurante) {
+        return produto(restaurante, "Prato", "20.00");
+    }
+
+    public Produto produto(Restaurante restaurante, String nome, String preco) {
+        return produtoRepository.save(new Produto(null, nome, nome + " do dia", Dinheiro.de(preco), "Teste", true, restaurante));
+    }
+
+    /**
+     * Grava o pedido direto no repositório, sem passar pelo checkout: para testes que só precisam de
+     * um pedido existente num dado status.
+     */
+    public Pedido pedidoGravado(Cliente cliente, Restaurante restaurante, StatusPedido status) {
+        Pedido pedido = new Pedido();
+        pedido.setNumeroPedido(numeroPedido());
+        pedido.setDataPedido(LocalDateTime.now());
+        pedido.setStatus(status);
+        pedido.setValorTotal(new BigDecimal("30.00"));
+        pedido.setCliente(cliente);
+        pedido.setRestaurante(restaurante);
+        return pedidoRepository.save(pedido);
+    }
+
+    /** Cliente, restaurante e produto novos, e o pedido de quantidade unidades do produto. */
+    public PedidoRequestDTO novoPedido(int quantidade) {
+        Restaurante restaurante = restaurante();
+        return pedido(cliente(), restaurante, produto(restaurante), quantidade);
+    }
+
+    public static PedidoRequestDTO pedido(Cliente cliente, Restaurante restaurante, Produto produto, int quantidade) {
+        return pedido(cliente, restaurante, List.of(new ItemPedidoDTO(produto.getId(), quantidade)));
+    }
+
+    public static PedidoRequestDTO pedido(Cliente cliente, Restaurante restaurante, Produto produto, int quantidade,
+            LocalDateTime dataPedido) {
+        PedidoRequestDTO dto = pedido(cliente, restaurante, produto, quantidade);
+        dto.setDataPedido(dataPedido);
+        return dto;
+    }
+
+    public static PedidoRequestDTO pedido(Cliente cliente, Restaurante restaurante, List<ItemPedidoDTO> itens) {
+        PedidoRequestDTO dto = new PedidoRequestDTO();
+        dto.setNumeroPedido(numeroPedido());
+        dto.setDataPedido(LocalDateTime.now());
+        dto.setClienteId(cliente.getId());
+        dto.setRestauranteId(restaurante.getId());
+        dto.setItens(itens);
+        return dto;
+    }
+
+    public static RestauranteRequestDTO requisicaoRestaurante(String nome, String taxaEntrega) {
+        RestauranteRequestDTO dto = new RestauranteRequestDTO();
+        dto.setNome(nome);
+        dto.setCategoria("Teste");
+        dto.setEndereco("Rua R");
+        dto.setTaxaEntrega(new BigDecimal(taxaEntrega));
+        return dto;
+    }
+
+    public static String numeroPedido() {
+        return "PED-" + unico();
+    }
+
+    /** nanoTime sozinho repete entre threads que criam dados ao mesmo tempo; a sequência desempata. */
+    public static String unico() {
+        return System.nanoTime() + "-" + SEQUENCIA.incrementAndGet();
+    }
+}
@@ -0,0 +1,36 @@
+package com.deliverytech.delivery.config;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Map;
+import java.util.UUID;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+/**
+ * O CacheManager do JCache é um por URI na JVM, e os contextos de teste ficam vivos juntos, cada um
+ * com o seu banco. Um fragmento aleatório no URI do ehcache.xml dá a cada contexto o seu CacheManager,
+ * com as mesmas regiões, limites e TTLs de produção (e missing_cache_strategy=fail).
+ */
+@Component
+class CachePorContextoDeTeste implements HibernatePropertiesCustomizer {
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        String configuracao = (String) hibernateProperties.get(ConfigSettings.CONFIG_URI);
+        try {
+            URI arquivo = new ClassPathResource(configuracao).getURL().toURI();
+            hibernateProperties.put(ConfigSettings.CONFIG_URI,
+                new URI(arquivo.getScheme(), arquivo.getSchemeSpecificPart(), UUID.randomUUID().toString()).toString());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.deliverytech.delivery.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.deliverytech.delivery.DeliveryApiApplication;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Teste de carga: 2000 clientes simultâneos contra o histórico de pedidos, com Tomcat em threads
+ * de plataforma e em threads virtuais. Compara vazão e p99.
+ *
+ * ./mvnw test -Dtest=CargaThreadsVirtuaisTest -Dcarga=true [-Dcarga.clientes=2000 -Dcarga.requisicoes=10]
+ */
+@EnabledIfSystemProperty(named = "carga", matches = "true")
+class CargaThreadsVirtuaisTest {
+
+    private static final int CLIENTES = Integer.getInteger("carga.clientes", 2000);
+    private static final int REQUISICOES_POR_CLIENTE = Integer.getInteger("carga.requisicoes", 10);
+
+    record Resultado(String modo, int requisicoes, int erros, double porSegundo, double p50Ms, double p99Ms) {
+    }
+
+    @Test
+    void compararModos() throws Exception {
+        List<Resultado> resultados = new ArrayList<>();
+        resultados.add(executar(false));
+        resultados.add(executar(true));
+
+        System.out.printf("%n%-12s %10s %6s %12s %10s %10s%n", "modo", "requisições", "erros", "req/s", "p50 ms", "p99 ms");
+        for (Resultado r : resultados) {
+            System.out.printf("%-12s %10d %6d %12.1f %10.2f %10.2f%n",
+                r.modo(), r.requisicoes(), r.erros(), r.porSegundo(), r.p50Ms(), r.p99Ms());
+        }
+
+        resultados.forEach(r -> assertEquals(0, r.erros(), "Erros no modo " + r.modo()));
+    }
+
+    private Resultado executar(boolean virtuais) throws Exception {
+        try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(DeliveryApiApplication.class).run(
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtuais,
+                "--spring.datasource.url=jdbc:h2:mem:carga-" + UUID.randomUUID() + ";DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.devtools.restart.enabled=false",
+                "--logging.level.root=WARN");
+             ExecutorService clientes = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient http = HttpClient.newBuilder()
+                 .executor(clientes)
+                 .connectTimeout(Duration.ofSeconds(30))
+                 .build()) {
+
+            URI uri = URI.create("http://localhost:" + contexto.getEnvironment().getProperty("local.server.port")
+                + "/api/pedidos/cliente/1");
+            HttpRequest requisicao = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(60)).GET().build();
+
+            // Aquecimento
+            for (int i = 0; i < 200; i++) {
+                http.send(requisicao, HttpResponse.BodyHandlers.discarding());
+            }
+
+            long[] latencias = new long[CLIENTES * REQUISICOES_POR_CLIENTE];
+            AtomicInteger erros = new AtomicInteger();
+            CountDownLatch largada = new CountDownLatch(1);
+            CountDownLatch fim = new CountDownLatch(CLIENTES);
+
+            for (int c = 0; c < CLIENTES; c++) {
+                int cliente = c;
+                clientes.submit(() -> {
+                    try {
+                        largada.await();
+                        for (int i = 0; i < REQUISICOES_POR_CLIENTE; i++) {
+                            long inicio = System.nanoTime();
+                            try {
+                                HttpResponse<Void> resposta = http.send(requisicao, HttpResponse.BodyHandlers.discarding());
+                                if (resposta.statusCode() != 200) {
+                                    erros.incrementAndGet();
+                                }
+                            } catch (Exception e) {
+                                erros.incrementAndGet();
+                            }
+                            latencias[cliente * REQUISICOES_POR_CLIENTE + i] = System.nanoTime() - inicio;
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        fim.countDown();
+                    }
+                    return null;
+                });
+            }
+
+            long inicio = System.nanoTime();
+            largada.countDown();
+            fim.await();
+            double segundos = (System.nanoTime() - inicio) / 1e9;
+
+            Arrays.sort(latencias);
+            if (virtuais) {
+                imprimirMetricas(contexto.getBean(MeterRegistry.class));
+            }
+            return new Resultado(virtuais ? "virtuais" : "plataforma", latencias.length, erros.get(),
+                latencias.length / segundos, percentil(latencias, 0.50), percentil(latencias, 0.99));
+        }
+    }
+
+    private static double percentil(long[] ordenadas, double p) {
+        return ordenadas[(int) Math.ceil(p * ordenadas.length) - 1] / 1e6;
+    }
+
+    private static void imprimirMetricas(MeterRegistry registry) {
+        Timer espera = registry.get("delivery.datasource.espera").timer();
+        Timer fixadas = registry.get("delivery.threads.virtuais.fixadas").timer();
+        System.out.printf("%nBulkhead: %d esperas, máxima %.2f ms; threads virtuais fixadas: %d%n",
+            espera.count(), espera.max(TimeUnit.MILLISECONDS), fixadas.count());
+    }
+}
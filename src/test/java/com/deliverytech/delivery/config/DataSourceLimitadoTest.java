@@ -0,0 +1,105 @@
+package com.deliverytech.delivery.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class DataSourceLimitadoTest {
+
+    private DataSource alvo;
+    private SimpleMeterRegistry registry;
+    private DataSourceLimitado dataSource;
+
+    @BeforeEach
+    void preparar() throws SQLException {
+        alvo = mock(DataSource.class);
+        when(alvo.getConnection()).thenAnswer(invocacao -> mock(Connection.class));
+        registry = new SimpleMeterRegistry();
+        dataSource = new DataSourceLimitado(alvo, 2, 50, registry);
+    }
+
+    @Test
+    void bloqueiaAlemDoLimiteELiberaAoFechar() throws SQLException {
+        Connection primeira = dataSource.getConnection();
+        Connection segunda = dataSource.getConnection();
+        assertEquals(2, dataSource.emUso());
+
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+
+        primeira.close();
+        assertEquals(1, dataSource.emUso());
+        Connection terceira = dataSource.getConnection();
+
+        segunda.close();
+        terceira.close();
+        assertEquals(0, dataSource.emUso());
+        assertEquals(4, registry.get("delivery.datasource.espera").timer().count());
+    }
+
+    @Test
+    void fecharDuasVezesDevolveUmaPermissao() throws SQLException {
+        Connection conexao = dataSource.getConnection();
+        Connection outra = dataSource.getConnection();
+
+        conexao.close();
+        conexao.close();
+
+        assertEquals(1, dataSource.emUso());
+        outra.close();
+    }
+
+    @Test
+    void conexaoEmprestadaTemIdentidadePropriaENaoEscapaDepoisDeFechada() throws SQLException {
+        Connection conexao = dataSource.getConnection();
+        Connection outra = dataSource.getConnection();
+
+        assertEquals(conexao, conexao);
+        assertNotEquals(conexao, outra);
+        assertEquals(System.identityHashCode(conexao), conexao.hashCode());
+        Set<Connection> conjunto = new HashSet<>(List.of(conexao, outra));
+        assertTrue(conjunto.contains(conexao));
+        assertSame(conexao, conexao.unwrap(Connection.class));
+        assertTrue(conexao.isWrapperFor(Connection.class));
+
+        conexao.close();
+        assertTrue(conexao.isClosed());
+        assertThrows(SQLException.class, conexao::createStatement);
+        assertThrows(SQLException.class, () -> conexao.unwrap(Connection.class));
+        assertThrows(SQLException.class, () -> conexao.setAutoCommit(false));
+        assertTrue(conjunto.contains(conexao));
+        assertEquals(1, dataSource.emUso());
+        outra.close();
+    }
+
+    @Test
+    void devolvePermissaoQuandoOPoolFalha() throws SQLException {
+        when(alvo.getConnection()).thenThrow(new SQLException("pool esgotado"));
+
+        assertThrows(SQLException.class, dataSource::getConnection);
+        assertThrows(SQLException.class, dataSource::getConnection);
+        assertThrows(SQLException.class, dataSource::getConnection);
+
+        assertEquals(0, dataSource.emUso());
+        verify(alvo, times(3)).getConnection();
+    }
+}
@@ -0,0 +1,57 @@
+package com.deliverytech.delivery.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.deliverytech.delivery.Fixtures;
+import com.deliverytech.delivery.entity.Pedido;
+import com.deliverytech.delivery.services.PedidoService;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class MetricasLatenciaTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private Fixtures fixtures;
+
+    @Test
+    void registraLatenciaDoServicoESqlPorEndpoint() throws Exception {
+        Pedido pedido = pedidoService.criarPedido(fixtures.novoPedido(1));
+
+        Timer criarPedido = registry.get("delivery.servico").tag("classe", "PedidoService").tag("metodo", "criarPedido").timer();
+        assertTrue(criarPedido.count() >= 1);
+        assertEquals(3, criarPedido.takeSnapshot().percentileValues().length);
+
+        mockMvc.perform(get("/api/pedidos/{id}", pedido.getId())).andExpect(status().isOk());
+        mockMvc.perform(get("/api/pedidos/{id}", pedido.getId())).andExpect(status().isOk());
+
+        DistributionSummary sql = registry.get("delivery.sql.comandos").tag("method", "GET").tag("uri", "/api/pedidos/{id}").summary();
+        assertEquals(2, sql.count());
+        // Pedido com cliente, restaurante e itens numa consulta só
+        assertEquals(1.0, sql.max());
+
+        Timer endpoint = registry.get("http.server.requests").tag("uri", "/api/pedidos/{id}").timer();
+        assertEquals(3, endpoint.takeSnapshot().percentileValues().length);
+    }
+}
@@ -0,0 +1,211 @@
+package com.deliverytech.delivery.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.deliverytech.delivery.entity.Dinheiro;
+import com.deliverytech.delivery.enums.StatusPedido;
+import com.deliverytech.delivery.repository.PedidoRepository;
+import com.deliverytech.delivery.repository.ProdutoRepository;
+
+/**
+ * Profile prod com o esquema criado pelas migrações (o Hibernate só valida) e o plano de cada consulta
+ * declarada em PedidoRepository e ProdutoRepository usando índice.
+ */
+@ActiveProfiles("prod")
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:${random.uuid}",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.deliverytech.delivery.config.PerfilProducaoTest$CapturaSql"
+})
+class PerfilProducaoTest {
+
+    // Consultas que leem a tabela inteira de propósito
+    private static final Map<String, String> VARREDURAS_ESPERADAS = Map.of(
+        "listarPrecosERestaurantes", "importação carrega todos os produtos",
+        "findByDisponivelTrue", "quase todo produto está disponível; resultado fica no cache de consultas",
+        "findByCategoriaIgnoreCase", "upper(categoria) não usa índice de coluna; a busca de produtos usa o índice em memória",
+        "buscarPorTrecho", "LIKE '%trecho%'; só atende enquanto o índice de produtos em memória não está pronto"
+    );
+
+    private static final Pattern PERCORRE_INDICE = Pattern.compile("/\\* PUBLIC\\.[A-Z0-9_]+ \\*/");
+
+    /** Guarda o SQL gerado pela thread do teste (as cargas em segundo plano também consultam) */
+    public static class CapturaSql implements StatementInspector {
+        static volatile Thread alvo;
+        static final List<String> comandos = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            if (Thread.currentThread() == alvo) {
+                comandos.add(sql);
+            }
+            return sql;
+        }
+    }
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transacao;
+
+    @Test
+    void migracoesCriamOEsquemaValidadoPeloHibernate() {
+        assertEquals(List.of("1", "2", "3", "4"), jdbcTemplate.queryForList(
+            "SELECT \"version\" FROM \"flyway_schema_history\" WHERE \"success\" AND \"version\" IS NOT NULL ORDER BY \"installed_rank\"", String.class));
+        // Sem os dados de demonstração: o banco em arquivo guarda os dados entre as subidas
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM clientes", Integer.class));
+    }
+
+    @Test
+    void consultasDosRepositoriosUsamIndice() throws Exception {
+        LocalDateTime agora = LocalDateTime.now();
+        Map<String, Consumer<PedidoRepository>> pedidos = new LinkedHashMap<>();
+        pedidos.put("findByClienteIdOrderByDataPedidoDesc", r -> r.findByClienteIdOrderByDataPedidoDesc(1L));
+        pedidos.put("findByNumeroPedido", r -> r.findByNumeroPedido("P-1"));
+        pedidos.put("findByStatusOrderByDataPedidoDesc", r -> r.findByStatusOrderByDataPedidoDesc(StatusPedido.CONFIRMADO));
+        pedidos.put("findTop10ByOrderByDataPedidoDesc", r -> r.findTop10ByOrderByDataPedidoDesc());
+        pedidos.put("findByDataPedidoBetween", r -> r.findByDataPedidoBetween(agora.minusDays(1), agora));
+        pedidos.put("findAllByIdParaAtualizacao", r -> r.findAllByIdParaAtualizacao(List.of(1L, 2L)));
+        pedidos.put("buscarCompletoPorId", r -> r.buscarCompletoPorId(1L));
+        pedidos.put("pedidosComValorAcima", r -> r.pedidosComValorAcima(new BigDecimal("100.00")));
+        pedidos.put("relatorioPorPeriodoEStatus", r -> r.relatorioPorPeriodoEStatus(agora.minusDays(1), agora, StatusPedido.ENTREGUE));
+        pedidos.put("buscarPedidosPorPeriodo", r -> r.buscarPedidosPorPeriodo(agora.minusDays(1), agora));
+        pedidos.put("linhasParaAgregadoEntre", r -> r.linhasParaAgregadoEntre(agora.minusHours(1), agora, List.of(StatusPedido.ENTREGUE)));
+        pedidos.put("historicoDoCliente", r -> r.historicoDoCliente(1L, Limit.of(20)));
+        pedidos.put("historicoDoClienteApos", r -> r.historicoDoClienteApos(1L, agora, 10L, Limit.of(20)));
+        pedidos.put("produtosMaisVendidosDesde", r -> r.produtosMaisVendidosDesde(agora.minusDays(1), Limit.of(10)));
+        pedidos.put("rankingClientesDesde", r -> r.rankingClientesDesde(agora.minusDays(1), Limit.of(10)));
+        pedidos.put("itensVendidosDesde", r -> r.itensVendidosDesde(agora.minusDays(1)));
+        pedidos.put("pedidosPorClienteDesde", r -> r.pedidosPorClienteDesde(agora.minusDays(1)));
+        pedidos.put("buscarIdPorChaveIdempotencia", r -> r.buscarIdPorChaveIdempotencia("chave-1"));
+        pedidos.put("idsParaArquivar", r -> r.idsParaArquivar(List.of(StatusPedido.ENTREGUE, StatusPedido.CANCELADO), agora, Limit.of(500)));
+        pedidos.put("buscarCompletosPorIds", r -> r.buscarCompletosPorIds(List.of(1L, 2L)));
+        pedidos.put("excluirItensDosPedidos", r -> transacao.executeWithoutResult(t -> r.excluirItensDosPedidos(List.of(1L, 2L))));
+        pedidos.put("excluirPorIds", r -> transacao.executeWithoutResult(t -> r.excluirPorIds(List.of(1L, 2L))));
+
+        Map<String, Consumer<ProdutoRepository>> produtos = new LinkedHashMap<>();
+        produtos.put("findByRestauranteId", r -> r.findByRestauranteId(1L));
+        produtos.put("findByDisponivelTrue", r -> r.findByDisponivelTrue());
+        produtos.put("findByCategoria", r -> r.findByCategoria("Pizza"));
+        produtos.put("findByPrecoLessThanEqual", r -> r.findByPrecoLessThanEqual(Dinheiro.de("20.00")));
+        produtos.put("findByRestauranteIdAndDisponivelTrue", r -> r.findByRestauranteIdAndDisponivelTrue(1L));
+        produtos.put("findByCategoriaIgnoreCase", r -> r.findByCategoriaIgnoreCase("pizza"));
+        produtos.put("findAllByIdComRestaurante", r -> r.findAllByIdComRestaurante(List.of(1L, 2L)));
+        produtos.put("listarPrecosERestaurantes", r -> r.listarPrecosERestaurantes());
+        produtos.put("listarAposId", r -> r.listarAposId(0L, Limit.of(100)));
+        produtos.put("buscarPorTrecho", r -> r.buscarPorTrecho("%pizza%", null, true, Limit.of(20)));
+
+        // Consulta nova no repositório precisa entrar aqui (ou em VARREDURAS_ESPERADAS, com o motivo)
+        assertEquals(declaradas(PedidoRepository.class), new TreeSet<>(pedidos.keySet()));
+        assertEquals(declaradas(ProdutoRepository.class), new TreeSet<>(produtos.keySet()));
+
+        List<String> semIndice = new ArrayList<>();
+        for (Map.Entry<String, Consumer<PedidoRepository>> consulta : pedidos.entrySet()) {
+            conferir(consulta.getKey(), () -> consulta.getValue().accept(pedidoRepository), semIndice);
+        }
+        for (Map.Entry<String, Consumer<ProdutoRepository>> consulta : produtos.entrySet()) {
+            conferir(consulta.getKey(), () -> consulta.getValue().accept(produtoRepository), semIndice);
+        }
+        assertTrue(semIndice.isEmpty(), String.join("\n", semIndice));
+    }
+
+    private void conferir(String metodo, Runnable consulta, List<String> semIndice) throws SQLException {
+        CapturaSql.comandos.clear();
+        CapturaSql.alvo = Thread.currentThread();
+        try {
+            consulta.run();
+        } finally {
+            CapturaSql.alvo = null;
+        }
+        assertFalse(CapturaSql.comandos.isEmpty(), metodo + " não foi ao banco");
+
+        for (String sql : CapturaSql.comandos) {
+            String plano = plano(sql);
+            boolean varre = varreTabela(plano);
+            if (varre != VARREDURAS_ESPERADAS.containsKey(metodo)) {
+                semIndice.add(metodo + (varre ? " varre a tabela: " : " já usa índice: ") + plano);
+            }
+        }
+    }
+
+    /**
+     * Varredura: tableScan, ou um índice percorrido inteiro (sem condição) só para ordenar, sem limite de linhas
+     */
+    private static boolean varreTabela(String plano) {
+        return plano.contains(".tableScan") || PERCORRE_INDICE.matcher(plano).find() && !plano.contains("FETCH FIRST");
+    }
+
+    /** EXPLAIN do H2, com um valor de exemplo do tipo de cada parâmetro */
+    private String plano(String sql) throws SQLException {
+        try (Connection conexao = dataSource.getConnection();
+             PreparedStatement comando = conexao.prepareStatement("EXPLAIN " + sql)) {
+            ParameterMetaData parametros = comando.getParameterMetaData();
+            for (int i = 1; i <= parametros.getParameterCount(); i++) {
+                comando.setObject(i, exemplo(parametros.getParameterType(i)));
+            }
+            try (ResultSet resultado = comando.executeQuery()) {
+                resultado.next();
+                return resultado.getString(1).replaceAll("\\s+", " ");
+            }
+        }
+    }
+
+    private static Object exemplo(int tipo) {
+        return switch (tipo) {
+            case Types.BIGINT, Types.INTEGER, Types.SMALLINT -> 1;
+            case Types.NUMERIC, Types.DECIMAL -> BigDecimal.ONE;
+            case Types.TIMESTAMP -> Timestamp.valueOf(LocalDateTime.now());
+            case Types.BOOLEAN -> true;
+            default -> StatusPedido.CONFIRMADO.name();
+        };
+    }
+
+    private static Set<String> declaradas(Class<?> repositorio) {
+        Set<String> nomes = new TreeSet<>();
+        Arrays.stream(repositorio.getDeclaredMethods()).map(Method::getName).forEach(nomes::add);
+        return nomes;
+    }
+}
@@ -0,0 +1,214 @@
+package com.deliverytech.delivery.services;
+
+import static com.deliverytech.delivery.Fixtures.pedido;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.deliverytech.delivery.Fixtures;
+import com.deliverytech.delivery.dto.ResultadoImportacaoDTO;
+import com.deliverytech.delivery.dto.ResumoPeriodoDTO;
+import com.deliverytech.delivery.entity.Cliente;
+import com.deliverytech.delivery.entity.Pedido;
+import com.deliverytech.delivery.entity.Produto;
+import com.deliverytech.delivery.entity.Restaurante;
+import com.deliverytech.delivery.enums.Granularidade;
+import com.deliverytech.delivery.enums.StatusPedido;
+import com.deliverytech.delivery.repository.AgregadoPedidosClienteRepository;
+import com.deliverytech.delivery.repository.PedidoRepository;
+
+@SpringBootTest
+class AgregadoPedidosServiceTest {
+
+    @Autowired
+    private AgregadoPedidosService agregadoPedidosService;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private ImportacaoService importacaoService;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private AgregadoPedidosClienteRepository agregadoClientesRepository;
+
+    @Autowired
+    private Fixtures fixtures;
+
+    private record Linha(StatusPedido status, long quantidade, BigDecimal valor, long clientes) {
+    }
+
+    @Test
+    void fatiarLePedidosSoNasPontasQueNaoFechamUmaHora() {
+        LocalDateTime dia = LocalDateTime.of(2031, 3, 10, 0, 0);
+        assertEquals(List.of(
+                new AgregadoPedidosService.Fatia(null, dia.withHour(10).withMinute(15), dia.withHour(11)),
+                new AgregadoPedidosService.Fatia(Granularidade.HORA, dia.withHour(11), dia.plusDays(1)),
+                new AgregadoPedidosService.Fatia(Granularidade.DIA, dia.plusDays(1), dia.plusDays(3)),
+                new AgregadoPedidosService.Fatia(Granularidade.HORA, dia.plusDays(3), dia.plusDays(3).withHour(8)),
+                new AgregadoPedidosService.Fatia(null, dia.plusDays(3).withHour(8), dia.plusDays(3).withHour(8).withMinute(30))),
+            AgregadoPedidosService.fatiar(dia.withHour(10).withMinute(15), dia.plusDays(3).withHour(8).withMinute(30)));
+
+        // Dias inteiros: nenhuma hora nem pedido
+        assertEquals(List.of(new AgregadoPedidosService.Fatia(Granularidade.DIA, dia, dia.plusDays(90))),
+            AgregadoPedidosService.fatiar(dia, dia.plusDays(90)));
+        // Sem dia inteiro no meio: horas entre as pontas
+        assertEquals(List.of(
+                new AgregadoPedidosService.Fatia(null, dia.withHour(22).withMinute(59), dia.withHour(23)),
+                new AgregadoPedidosService.Fatia(Granularidade.HORA, dia.withHour(23), dia.plusDays(1).withHour(2))),
+            AgregadoPedidosService.fatiar(dia.withHour(22).withMinute(59), dia.plusDays(1).withHour(2)));
+        // Dentro de uma hora só: tudo dos pedidos
+        assertEquals(List.of(new AgregadoPedidosService.Fatia(null, dia.withMinute(5), dia.withMinute(50))),
+            AgregadoPedidosService.fatiar(dia.withMinute(5), dia.withMinute(50)));
+        assertTrue(AgregadoPedidosService.fatiar(dia, dia).isEmpty());
+    }
+
+    @Test
+    void resumoDosAgregadosIgualAoCalculadoNosPedidos() throws Exception {
+        Restaurante r1 = fixtures.restaurante();
+        Restaurante r2 = fixtures.restaurante();
+        Produto p1 = fixtures.produto(r1);
+        Produto p2 = fixtures.produto(r2);
+        List<Cliente> clientes = List.of(fixtures.cliente(), fixtures.cliente(), fixtures.cliente());
+
+        // Pedidos de 10/03 a 13/03/2031, em horas e minutos variados
+        LocalDateTime base = LocalDateTime.of(2031, 3, 10, 0, 0);
+        List<Pedido> criados = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            LocalDateTime quando = base.plusMinutes(i * 97L + (i % 7) * 13L);
+            boolean primeiro = i % 3 != 0;
+            criados.add(pedidoService.criarPedido(pedido(clientes.get(i % clientes.size()), primeiro ? r1 : r2,
+                primeiro ? p1 : p2, 1 + i % 4, quando)));
+        }
+        for (int i = 0; i < criados.size(); i += 4) {
+            pedidoService.atualizarStatus(criados.get(i).getId(), StatusPedido.PREPARANDO);
+            if (i % 8 == 0) {
+                pedidoService.atualizarStatus(criados.get(i).getId(), StatusPedido.CANCELADO);
+            }
+        }
+        Set<Long> restaurantes = Set.of(r1.getId(), r2.getId());
+        // Clientes só por dia: uma linha por cliente, dia, restaurante e status
+        assertTrue(agregadoClientesRepository.findAll().stream().allMatch(c -> c.getGranularidade() == Granularidade.DIA));
+
+        List<LocalDateTime[]> periodos = List.of(
+            new LocalDateTime[] {base.plusHours(5).plusMinutes(17), base.plusDays(3).plusHours(2).plusMinutes(41)},
+            new LocalDateTime[] {base, base.plusDays(5)},
+            new LocalDateTime[] {base.plusHours(20), base.plusDays(1).plusHours(3)},
+            new LocalDateTime[] {base.plusHours(7).plusMinutes(2), base.plusHours(7).plusMinutes(58)},
+            new LocalDateTime[] {criados.get(10).getDataPedido(), criados.get(40).getDataPedido()});
+        for (LocalDateTime[] periodo : periodos) {
+            for (StatusPedido status : new StatusPedido[] {null, StatusPedido.CONFIRMADO, StatusPedido.CANCELADO}) {
+                assertEquals(calcularNosPedidos(periodo[0], periodo[1], status, restaurantes),
+                    doResumo(periodo[0], periodo[1], status, restaurantes), periodo[0] + " a " + periodo[1] + " " + status);
+            }
+        }
+
+        // Primeiro pedido de uma hora nova vindo de várias threads ao mesmo tempo, com uma importação
+        // em lote somando na mesma hora
+        LocalDateTime hora = base.plusDays(20).plusHours(9);
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            ndjson.append("{\"numeroPedido\":\"AGR-IMP-").append(System.nanoTime()).append("\",\"dataPedido\":\"")
+                .append(hora.plusMinutes(i * 2L)).append("\",\"status\":\"").append(i % 2 == 0 ? "CONFIRMADO" : "ENTREGUE")
+                .append("\",\"clienteId\":").append(clientes.get(i % clientes.size()).getId())
+                .append(",\"restauranteId\":").append(r1.getId())
+                .append(",\"itens\":[{\"produtoId\":").append(p1.getId()).append(",\"quantidade\":1}]}\n");
+        }
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(9);
+        try {
+            List<CompletableFuture<?>> concorrentes = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                Cliente cliente = clientes.get(i % clientes.size());
+                int minuto = i;
+                concorrentes.add(CompletableFuture.supplyAsync(() -> {
+                    aguardar(largada);
+                    return pedidoService.criarPedido(pedido(cliente, r1, p1, 1, hora.plusMinutes(minuto)));
+                }, executor));
+            }
+            concorrentes.add(CompletableFuture.supplyAsync(() -> {
+                aguardar(largada);
+                try {
+                    return importacaoService.importarPedidos(new ByteArrayInputStream(ndjson.toString().getBytes(StandardCharsets.UTF_8)));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, executor));
+            largada.countDown();
+            CompletableFuture.allOf(concorrentes.toArray(CompletableFuture[]::new)).get();
+            assertEquals(20, ((ResultadoImportacaoDTO) concorrentes.get(8).get()).getImportadas());
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(Map.of(r1.getId(), List.of(new Linha(StatusPedido.CONFIRMADO, 18, new BigDecimal("450.00"), 3),
+                new Linha(StatusPedido.ENTREGUE, 10, new BigDecimal("250.00"), 3))),
+            doResumo(hora, hora.plusHours(1), null, restaurantes));
+        assertEquals(calcularNosPedidos(hora, hora.plusDays(1), null, restaurantes), doResumo(hora, hora.plusDays(1), null, restaurantes));
+    }
+
+    private static void aguardar(CountDownLatch largada) {
+        try {
+            largada.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Map<Long, List<Linha>> doResumo(LocalDateTime inicio, LocalDateTime fim, StatusPedido status, Set<Long> restaurantes) {
+        Map<Long, List<Linha>> resultado = new HashMap<>();
+        for (ResumoPeriodoDTO resumo : agregadoPedidosService.resumo(inicio, fim, status)) {
+            if (restaurantes.contains(resumo.getRestauranteId())) {
+                resultado.computeIfAbsent(resumo.getRestauranteId(), id -> new ArrayList<>()).add(new Linha(resumo.getStatus(),
+                    resumo.getQuantidadePedidos(), resumo.getValorTotal().setScale(2), resumo.getClientesDistintos()));
+            }
+        }
+        return resultado;
+    }
+
+    /** O mesmo relatório somando os pedidos um a um */
+    private Map<Long, List<Linha>> calcularNosPedidos(LocalDateTime inicio, LocalDateTime fim, StatusPedido status, Set<Long> restaurantes) {
+        Map<Long, Map<StatusPedido, List<Pedido>>> porRestaurante = new HashMap<>();
+        for (Pedido pedido : pedidoRepository.findByDataPedidoBetween(inicio, fim)) {
+            if (restaurantes.contains(pedido.getRestaurante().getId()) && (status == null || pedido.getStatus() == status)) {
+                porRestaurante.computeIfAbsent(pedido.getRestaurante().getId(), id -> new TreeMap<>())
+                    .computeIfAbsent(pedido.getStatus(), s -> new ArrayList<>()).add(pedido);
+            }
+        }
+        Map<Long, List<Linha>> resultado = new HashMap<>();
+        porRestaurante.forEach((restauranteId, porStatus) -> porStatus.forEach((s, pedidos) -> {
+            Set<Long> clientes = new HashSet<>();
+            BigDecimal valor = BigDecimal.ZERO;
+            for (Pedido pedido : pedidos) {
+                clientes.add(pedido.getCliente().getId());
+                valor = valor.add(pedido.getValorTotal());
+            }
+            resultado.computeIfAbsent(restauranteId, id -> new ArrayList<>())
+                .add(new Linha(s, pedidos.size(), valor.setScale(2), clientes.size()));
+        }));
+        return resultado;
+    }
+}
@@ -0,0 +1,126 @@
+package com.deliverytech.delivery.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.deliverytech.delivery.Fixtures;
+import com.deliverytech.delivery.dto.PedidoRequestDTO;
+import com.deliverytech.delivery.dto.PedidoResponseDTO;
+import com.deliverytech.delivery.dto.PedidoResumoDTO;
+import com.deliverytech.delivery.entity.Cliente;
+import com.deliverytech.delivery.entity.Pedido;
+import com.deliverytech.delivery.entity.Produto;
+import com.deliverytech.delivery.entity.Restaurante;
+import com.deliverytech.delivery.enums.StatusPedido;
+import com.deliverytech.delivery.exceptions.BusinessException;
+import com.deliverytech.delivery.repository.PedidoRepository;
+
+@SpringBootTest(properties = {
+    "delivery.pedidos.arquivamento.idade=30d",
+    "delivery.pedidos.arquivamento.tamanho-lote=2"
+})
+class ArquivoPedidosServiceTest {
+
+    @Autowired
+    private ArquivoPedidosService arquivoPedidosService;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private VendasRestauranteService vendasRestauranteService;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private Fixtures fixtures;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void cancelamentoMantemOPedidoComStatusCancelado() {
+        Fixture f = fixture();
+        Pedido pedido = pedidoService.criarPedido(pedido(f, 1, LocalDateTime.now()));
+
+        PedidoResumoDTO cancelado = pedidoService.cancelarPedido(pedido.getId());
+
+        assertEquals(StatusPedido.CANCELADO, cancelado.getStatus());
+        assertEquals(StatusPedido.CANCELADO, pedidoRepository.findById(pedido.getId()).orElseThrow().getStatus());
+        assertEquals(1, pedidoService.buscarPorId(pedido.getId()).getItens().size());
+        assertThrows(BusinessException.class, () -> pedidoService.cancelarPedido(pedido.getId()));
+    }
+
+    @Test
+    void arquivaSoPedidosFinalizadosAntigosEmLotes() {
+        vendasRestauranteService.reconciliar();
+        Fixture f = fixture();
+        LocalDateTime antigo = LocalDateTime.now().minusDays(60);
+
+        Pedido entregue = entregar(pedidoService.criarPedido(pedido(f, 2, antigo)));
+        Pedido cancelado = pedidoService.criarPedido(pedido(f, 1, antigo.plusDays(1)));
+        pedidoService.cancelarPedido(cancelado.getId());
+        Pedido entregue2 = entregar(pedidoService.criarPedido(pedido(f, 3, antigo.plusDays(2))));
+        Pedido emAndamento = pedidoService.criarPedido(pedido(f, 1, antigo));
+        Pedido recente = entregar(pedidoService.criarPedido(pedido(f, 1, LocalDateTime.now())));
+
+        // Três pedidos em lotes de dois: o segundo lote sai incompleto e encerra o laço
+        assertEquals(3, arquivoPedidosService.arquivarAntigos());
+        assertEquals(0, arquivoPedidosService.arquivarAntigos());
+
+        for (Pedido arquivado : List.of(entregue, cancelado, entregue2)) {
+            assertFalse(pedidoRepository.existsById(arquivado.getId()));
+            assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM itens_pedido WHERE pedido_id = ?", Integer.class, arquivado.getId()));
+        }
+        assertTrue(pedidoRepository.existsById(emAndamento.getId()));
+        assertTrue(pedidoRepository.existsById(recente.getId()));
+
+        PedidoResponseDTO lido = arquivoPedidosService.buscarPorId(entregue.getId());
+        assertEquals(StatusPedido.ENTREGUE, lido.getStatus());
+        assertEquals(entregue.getNumeroPedido(), lido.getNumeroPedido());
+        assertEquals(0, new BigDecimal("45.00").compareTo(lido.getValorTotal()));
+        assertEquals(1, lido.getItens().size());
+        assertEquals(2, lido.getItens().get(0).getQuantidade());
+        assertEquals(f.cliente().getId(), lido.getCliente().getId());
+        assertThrows(BusinessException.class, () -> arquivoPedidosService.buscarPorId(emAndamento.getId()));
+
+        List<Long> historico = arquivoPedidosService.listarPorCliente(f.cliente().getId(), 10).stream()
+            .map(PedidoResumoDTO::getId).toList();
+        assertEquals(List.of(entregue2.getId(), cancelado.getId(), entregue.getId()), historico);
+
+        // O recálculo soma os arquivados: o agregado de vendas continua conferindo
+        assertEquals(0, vendasRestauranteService.reconciliar().divergencias());
+    }
+
+    private Pedido entregar(Pedido pedido) {
+        pedidoService.atualizarStatus(pedido.getId(), StatusPedido.PREPARANDO);
+        pedidoService.atualizarStatus(pedido.getId(), StatusPedido.SAIU_PARA_ENTREGA);
+        pedidoService.atualizarStatus(pedido.getId(), StatusPedido.ENTREGUE);
+        return pedido;
+    }
+
+    private record Fixture(Cliente cliente, Restaurante restaurante, Produto produto) {
+    }
+
+    private Fixture fixture() {
+        Restaurante restaurante = fixtures.restaurante();
+        return new Fixture(fixtures.cliente(), restaurante, fixtures.produto(restaurante));
+    }
+
+    private static PedidoRequestDTO pedido(Fixture f, int quantidade, LocalDateTime data) {
+        return Fixtures.pedido(f.cliente(), f.restaurante(), f.produto(), quantidade, data);
+    }
+}
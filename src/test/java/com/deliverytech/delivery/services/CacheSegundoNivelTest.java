@@ -0,0 +1,149 @@
+package com.deliverytech.delivery.services;
+
+import static com.deliverytech.delivery.Fixtures.pedido;
+import static com.deliverytech.delivery.Fixtures.requisicaoRestaurante;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+
+import org.ehcache.config.CacheRuntimeConfiguration;
+import org.ehcache.config.ResourceType;
+import org.ehcache.config.SizedResourcePool;
+import org.ehcache.config.units.EntryUnit;
+import org.ehcache.expiry.ExpiryPolicy;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.deliverytech.delivery.Fixtures;
+import com.deliverytech.delivery.dto.RegiaoCacheDTO;
+import com.deliverytech.delivery.entity.Cliente;
+import com.deliverytech.delivery.entity.Dinheiro;
+import com.deliverytech.delivery.entity.Pedido;
+import com.deliverytech.delivery.entity.Produto;
+import com.deliverytech.delivery.entity.ProdutoDTO;
+import com.deliverytech.delivery.entity.Restaurante;
+import com.deliverytech.delivery.repository.RestauranteRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+class CacheSegundoNivelTest {
+
+    private static final String REGIAO_RESTAURANTE = Restaurante.class.getName();
+
+    @Autowired
+    private CacheSegundoNivelService cacheService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private RestauranteService restauranteService;
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private RestauranteRepository restauranteRepository;
+
+    @Autowired
+    private Fixtures fixtures;
+
+    @Test
+    void segundaLeituraDoRestauranteVemDoCache() {
+        Restaurante restaurante = fixtures.restaurante();
+        restauranteService.buscarPorId(restaurante.getId());
+
+        long acertosAntes = regiao(REGIAO_RESTAURANTE).getAcertos();
+        restauranteService.buscarPorId(restaurante.getId());
+        restauranteService.buscarPorId(restaurante.getId());
+
+        assertEquals(acertosAntes + 2, regiao(REGIAO_RESTAURANTE).getAcertos());
+    }
+
+    @Test
+    void checkoutUsaPrecoETaxaAtualizadosMesmoComEntidadesEmCache() {
+        Cliente cliente = fixtures.cliente();
+        Restaurante restaurante = fixtures.restaurante();
+        Produto produto = fixtures.produto(restaurante);
+
+        // Primeiro pedido coloca restaurante e produto no cache
+        assertEquals(0, new BigDecimal("25.00").compareTo(pedidoService.criarPedido(pedido(cliente, restaurante, produto, 1)).getValorTotal()));
+
+        produtoService.atualizarProduto(produto.getId(), new ProdutoDTO(produto.getId(), "Prato", "Do dia",
+            Dinheiro.de("23.50"), "Teste", true, restaurante.getId()));
+        restauranteService.atualizar(restaurante.getId(), requisicaoRestaurante(restaurante.getNome(), "6.00"));
+
+        Pedido depois = pedidoService.criarPedido(pedido(cliente, restaurante, produto, 1));
+        assertEquals(0, new BigDecimal("29.50").compareTo(depois.getValorTotal()));
+        assertEquals(Dinheiro.de("23.50"), depois.getItens().get(0).getPrecoUnitario());
+        assertEquals(0, new BigDecimal("6.00").compareTo(restauranteService.buscarPorId(restaurante.getId()).getTaxaEntrega()));
+    }
+
+    @Test
+    void consultaEmCacheEhInvalidadaPelaEscrita() {
+        Restaurante restaurante = fixtures.restaurante();
+        assertTrue(ids(restauranteRepository.findByAtivoTrue()).contains(restaurante.getId()));
+
+        long acertosAntes = regiao("consultas-restaurantes").getAcertos();
+        restauranteRepository.findByAtivoTrue();
+        assertEquals(acertosAntes + 1, regiao("consultas-restaurantes").getAcertos());
+
+        restauranteService.inativar(restaurante.getId());
+
+        assertFalse(ids(restauranteRepository.findByAtivoTrue()).contains(restaurante.getId()));
+    }
+
+    @Test
+    void regioesSaoAsDoEhcacheXml() {
+        CacheManager cacheManager = ((JCacheRegionFactory) entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+            .getCache().getRegionFactory()).getCacheManager();
+        // CacheManager próprio deste contexto (config.CachePorContextoDeTeste), lido do ehcache.xml
+        assertTrue(cacheManager.getURI().getPath().endsWith("/ehcache.xml"), cacheManager.getURI().toString());
+        assertNotNull(cacheManager.getURI().getFragment());
+
+        assertRegiao(cacheManager, REGIAO_RESTAURANTE, 2000, Duration.ofMinutes(30));
+        assertRegiao(cacheManager, Produto.class.getName(), 50000, Duration.ofMinutes(30));
+        assertRegiao(cacheManager, "consultas-restaurantes", 500, Duration.ofMinutes(10));
+        assertRegiao(cacheManager, "consultas-produtos", 2000, Duration.ofMinutes(10));
+        assertRegiao(cacheManager, "default-query-results-region", 500, Duration.ofMinutes(10));
+        assertRegiao(cacheManager, "default-update-timestamps-region", 100, ExpiryPolicy.INFINITE);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void assertRegiao(CacheManager cacheManager, String nome, long entradas, Duration ttl) {
+        Cache<Object, Object> cache = cacheManager.getCache(nome);
+        assertNotNull(cache, nome);
+        Eh107Configuration<Object, Object> jcache = cache.getConfiguration(Eh107Configuration.class);
+        CacheRuntimeConfiguration<Object, Object> configuracao = jcache.unwrap(CacheRuntimeConfiguration.class);
+        SizedResourcePool heap = configuracao.getResourcePools().getPoolForResource(ResourceType.Core.HEAP);
+        assertEquals(entradas, heap.getSize(), nome);
+        assertEquals(EntryUnit.ENTRIES, heap.getUnit(), nome);
+        assertEquals(ttl, configuracao.getExpiryPolicy().getExpiryForCreation(1L, "valor"), nome);
+    }
+
+    private RegiaoCacheDTO regiao(String nome) {
+        return cacheService.estatisticas().stream()
+            .filter(r -> r.getRegiao().endsWith(nome))
+            .findFirst().orElseThrow();
+    }
+
+    private static List<Long> ids(List<Restaurante> restaurantes) {
+        return restaurantes.stream().map(Restaurante::getId).toList();
+    }
+}
@@ -0,0 +1,145 @@
+package com.deliverytech.delivery.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.deliverytech.delivery.dto.ClienteRequestDTO;
+import com.deliverytech.delivery.entity.Cliente;
+import com.deliverytech.delivery.exceptions.BusinessException;
+import com.deliverytech.delivery.repository.ClienteRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+class CadastroEmailUnicoTest {
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private RegistroEmails registroEmails;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private String prefixo;
+
+    @BeforeEach
+    void prepararFiltro() {
+        registroEmails.reconstruir();
+        prefixo = "unico" + System.nanoTime();
+    }
+
+    @Test
+    void cadastrosSimultaneosNaoDuplicamEmail() throws Exception {
+        int emails = 50;
+        int tentativasPorEmail = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<Boolean>> resultados = new ArrayList<>();
+        try {
+            for (int tentativa = 0; tentativa < tentativasPorEmail; tentativa++) {
+                for (int i = 0; i < emails; i++) {
+                    String email = prefixo + "-" + i + "@email.com";
+                    resultados.add(executor.submit(() -> {
+                        largada.await();
+                        try {
+                            clienteService.cadastrar(requisicao(email));
+                            return true;
+                        } catch (BusinessException e) {
+                            assertTrue(e.getMessage().startsWith("Email já cadastrado"), e.getMessage());
+                            return false;
+                        }
+                    }));
+                }
+            }
+            largada.countDown();
+
+            int aceitos = 0;
+            for (Future<Boolean> resultado : resultados) {
+                if (resultado.get(60, TimeUnit.SECONDS)) {
+                    aceitos++;
+                }
+            }
+            assertEquals(emails, aceitos);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long gravados = clienteRepository.findAll().stream().filter(c -> c.getEmail().startsWith(prefixo)).count();
+        assertEquals(emails, gravados);
+    }
+
+    @Test
+    void emailNovoDispensaConsultaNoBanco() {
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        double ausentesAntes = ausentes();
+        estatisticas.clear();
+
+        int cadastros = 100;
+        for (int i = 0; i < cadastros; i++) {
+            clienteService.cadastrar(requisicao(prefixo + "-" + i + "@email.com"));
+        }
+
+        // Sem o filtro seriam 200 (consulta + insert por cadastro); com ele, inserts, sequência e algum falso positivo
+        long comandos = estatisticas.getPrepareStatementCount();
+        assertTrue(comandos < cadastros * 13 / 10, "statements: " + comandos);
+        assertTrue(ausentes() - ausentesAntes >= cadastros * 0.95, "consultas dispensadas: " + (ausentes() - ausentesAntes));
+
+        // Email já registrado no filtro: conferido no banco e recusado antes do insert
+        BusinessException repetido = assertThrows(BusinessException.class,
+            () -> clienteService.cadastrar(requisicao(prefixo + "-0@email.com")));
+        assertEquals("Email já cadastrado: " + prefixo + "-0@email.com", repetido.getMessage());
+    }
+
+    @Test
+    void restricaoUnicaRecusaEmailQueEscapouDoFiltro() {
+        // Gravado direto no repositório: o filtro não sabe dele e dispensa a consulta
+        String email = prefixo + "@email.com";
+        clienteRepository.save(new Cliente("Fora do filtro", email, "11900000000", "Rua U", true));
+
+        BusinessException erro = assertThrows(BusinessException.class, () -> clienteService.cadastrar(requisicao(email)));
+        assertEquals("Email já cadastrado: " + email, erro.getMessage());
+
+        Cliente outro = clienteRepository.save(new Cliente("Outro", prefixo + "-outro@email.com", "11900000000", "Rua U", true));
+        ClienteRequestDTO alteracao = requisicao(email);
+        assertThrows(BusinessException.class, () -> clienteService.atualizar(outro.getId(), alteracao));
+        assertEquals(prefixo + "-outro@email.com", clienteRepository.findById(outro.getId()).orElseThrow().getEmail());
+    }
+
+    private double ausentes() {
+        return meterRegistry.get("delivery.clientes.email.filtro").tag("resultado", "ausente").counter().count();
+    }
+
+    private static ClienteRequestDTO requisicao(String email) {
+        ClienteRequestDTO dto = new ClienteRequestDTO();
+        dto.setNome("Cliente " + email);
+        dto.setEmail(email);
+        dto.setTelefone("11900000000");
+        dto.setEndereco("Rua U");
+        return dto;
+    }
+}
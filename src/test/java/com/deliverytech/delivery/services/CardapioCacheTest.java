@@ -0,0 +1,94 @@
+package com.deliverytech.delivery.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.deliverytech.delivery.entity.Dinheiro;
+import com.deliverytech.delivery.entity.ProdutoDTO;
+import com.deliverytech.delivery.events.ProdutoAlteradoEvent;
+
+class CardapioCacheTest {
+
+    @Test
+    void contaAcertosEFalhasEDevolveListaImutavel() {
+        CardapioCache cache = new CardapioCache(100);
+        AtomicInteger cargas = new AtomicInteger();
+
+        List<ProdutoDTO> primeira = cache.porRestaurante(1L, () -> { cargas.incrementAndGet(); return cardapio(1L, "Pizza", 3); });
+        List<ProdutoDTO> segunda = cache.porRestaurante(1L, () -> { cargas.incrementAndGet(); return cardapio(1L, "Pizza", 3); });
+
+        assertSame(primeira, segunda);
+        assertEquals(1, cargas.get());
+        assertEquals(1, cache.estatisticas().acertos());
+        assertEquals(1, cache.estatisticas().falhas());
+        assertThrows(UnsupportedOperationException.class, () -> primeira.add(new ProdutoDTO()));
+    }
+
+    @Test
+    void removeOsMenosUsadosQuandoPassaDoPeso() {
+        CardapioCache cache = new CardapioCache(10);
+
+        cache.porRestaurante(1L, () -> cardapio(1L, "A", 4)); // peso 5
+        cache.porRestaurante(2L, () -> cardapio(2L, "B", 4)); // peso 5
+        cache.porRestaurante(1L, () -> cardapio(1L, "A", 4)); // acerto: 1 passa a ser o mais recente
+        cache.porRestaurante(3L, () -> cardapio(3L, "C", 4)); // estoura: remove o 2
+
+        CardapioCache.Estatisticas estatisticas = cache.estatisticas();
+        assertEquals(1, estatisticas.remocoes());
+        assertEquals(2, estatisticas.entradas());
+        assertEquals(10, estatisticas.peso());
+
+        long falhasAntes = cache.estatisticas().falhas();
+        cache.porRestaurante(1L, () -> cardapio(1L, "A", 4));
+        assertEquals(falhasAntes, cache.estatisticas().falhas());
+    }
+
+    @Test
+    void alteracaoDeProdutoInvalidaRestauranteECategoriasAntigaENova() {
+        CardapioCache cache = new CardapioCache(100);
+        cache.porRestaurante(1L, () -> cardapio(1L, "Pizza", 2));
+        cache.porCategoria("Pizza", () -> cardapio(1L, "Pizza", 2));
+        cache.porCategoria("bebida", () -> cardapio(1L, "Bebida", 1));
+        cache.porRestaurante(2L, () -> cardapio(2L, "Sushi", 2));
+
+        ProdutoDTO anterior = produto(10L, 1L, "Pizza");
+        ProdutoDTO atual = produto(10L, 1L, "Bebida");
+        cache.aoAlterarProduto(new ProdutoAlteradoEvent(anterior, atual));
+
+        assertEquals(1, cache.estatisticas().entradas());
+    }
+
+    @Test
+    void cargaConcorrenteComInvalidacaoNaoFicaEmCache() {
+        CardapioCache cache = new CardapioCache(100);
+
+        List<ProdutoDTO> antigo = cache.porRestaurante(1L, () -> {
+            // Alguém altera o cardápio enquanto esta leitura ainda está no banco
+            cache.aoAlterarProduto(new ProdutoAlteradoEvent(null, produto(99L, 1L, "Pizza")));
+            return cardapio(1L, "Pizza", 2);
+        });
+        assertEquals(2, antigo.size());
+
+        List<ProdutoDTO> atual = cache.porRestaurante(1L, () -> cardapio(1L, "Pizza", 3));
+        assertEquals(3, atual.size());
+    }
+
+    private static List<ProdutoDTO> cardapio(Long restauranteId, String categoria, int tamanho) {
+        List<ProdutoDTO> produtos = new ArrayList<>();
+        for (int i = 0; i < tamanho; i++) {
+            produtos.add(produto((long) i, restauranteId, categoria));
+        }
+        return produtos;
+    }
+
+    private static ProdutoDTO produto(Long id, Long restauranteId, String categoria) {
+        return new ProdutoDTO(id, "Produto " + id, "Descrição", Dinheiro.de("10.00"), categoria, true, restauranteId);
+    }
+}
@@ -0,0 +1,75 @@
+package com.deliverytech.delivery.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.deliverytech.delivery.dto.CotacaoTaxaEntregaDTO;
+import com.deliverytech.delivery.entity.Dinheiro;
+import com.deliverytech.delivery.entity.DinheiroConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+
+class DinheiroTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void arredondaParaCentavosSoNaEntrada() {
+        assertEquals(3600, Dinheiro.de("36").centavos());
+        assertEquals(1001, Dinheiro.de("10.005").centavos());
+        assertEquals(1000, Dinheiro.de("10.0049").centavos());
+        assertEquals(-1001, Dinheiro.de("-10.005").centavos());
+        assertEquals(Dinheiro.ZERO, Dinheiro.de(new BigDecimal("0.004")));
+        assertNull(Dinheiro.de((BigDecimal) null));
+        assertThrows(IllegalArgumentException.class, () -> Dinheiro.de("dez reais"));
+
+        // Depois da entrada, tudo exato: 3 × 33.33 + 0.01 = 100.00
+        Dinheiro total = Dinheiro.de("33.33").vezes(3).mais(Dinheiro.deCentavos(1));
+        assertEquals(Dinheiro.de("100.00"), total);
+        assertEquals(Dinheiro.de("99.99"), total.menos(Dinheiro.deCentavos(1)));
+        assertEquals(0, new BigDecimal("100.00").compareTo(total.paraBigDecimal()));
+    }
+
+    @Test
+    void estouroLancaEmVezDeDarAVolta() {
+        Dinheiro grande = Dinheiro.deCentavos(Long.MAX_VALUE / 2 + 1);
+        assertThrows(ArithmeticException.class, () -> grande.mais(grande));
+        assertThrows(ArithmeticException.class, () -> grande.vezes(2));
+        assertThrows(ArithmeticException.class, () -> Dinheiro.deCentavos(Long.MIN_VALUE).menos(Dinheiro.deCentavos(1)));
+        assertThrows(ArithmeticException.class, () -> Dinheiro.de(new BigDecimal("1e30")));
+    }
+
+    @Test
+    void jsonIgualAoDoBigDecimalDeEscalaDois() throws Exception {
+        for (String valor : List.of("36.00", "0.05", "-0.05", "-1.50", "1234567.89", "0.00")) {
+            assertEquals(valor, Dinheiro.de(valor).toString());
+            assertEquals(objectMapper.writeValueAsString(Map.of("taxaEntrega", new BigDecimal(valor))),
+                objectMapper.writeValueAsString(Map.of("taxaEntrega", Dinheiro.de(valor))));
+        }
+        assertEquals("{\"restauranteId\":7,\"taxaEntrega\":9.50}",
+            objectMapper.writeValueAsString(new CotacaoTaxaEntregaDTO(7L, Dinheiro.de("9.5"))));
+
+        // Entrada: número ou texto, arredondados para centavos
+        CotacaoTaxaEntregaDTO lida = objectMapper.readValue("{\"restauranteId\":7,\"taxaEntrega\":9.505}", CotacaoTaxaEntregaDTO.class);
+        assertEquals(Dinheiro.deCentavos(951), lida.getTaxaEntrega());
+        assertEquals(Dinheiro.deCentavos(950), objectMapper.readValue("\"9.50\"", Dinheiro.class));
+        assertEquals(Dinheiro.deCentavos(900), objectMapper.readValue("9", Dinheiro.class));
+        assertThrows(InvalidFormatException.class, () -> objectMapper.readValue("\"nove\"", Dinheiro.class));
+    }
+
+    @Test
+    void conversorDaColuna() {
+        DinheiroConverter conversor = new DinheiroConverter();
+        assertEquals(new BigDecimal("23.50"), conversor.convertToDatabaseColumn(Dinheiro.de("23.5")));
+        assertEquals(Dinheiro.deCentavos(2350), conversor.convertToEntityAttribute(new BigDecimal("23.50")));
+        assertNull(conversor.convertToDatabaseColumn(null));
+        assertNull(conversor.convertToEntityAttribute(null));
+    }
+}
@@ -0,0 +1,193 @@
+package com.deliverytech.delivery.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.deliverytech.delivery.Fixtures;
+import com.deliverytech.delivery.dto.ItemPedidoDTO;
+import com.deliverytech.delivery.dto.PedidoRequestDTO;
+import com.deliverytech.delivery.dto.SolicitacaoPedidoDTO;
+import com.deliverytech.delivery.entity.Pedido;
+import com.deliverytech.delivery.entity.Produto;
+import com.deliverytech.delivery.enums.SituacaoSolicitacao;
+import com.deliverytech.delivery.enums.StatusPedido;
+import com.deliverytech.delivery.exceptions.BusinessException;
+import com.deliverytech.delivery.exceptions.FilaPedidosCheiaException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@SpringBootTest(properties = {"delivery.pedidos.fila.tamanho-lote=8", "delivery.pedidos.fila.trabalhadores=2"})
+@AutoConfigureMockMvc
+class FilaPedidosTest {
+
+    @Autowired
+    private FilaPedidos filaPedidos;
+
+    @Autowired
+    private VendasRestauranteService vendasRestauranteService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Fixtures fixtures;
+
+    @Test
+    void lotesGravamOsValidosERejeitamSoOInvalido() throws Exception {
+        vendasRestauranteService.reconciliar();
+        List<SolicitacaoPedidoDTO> enviadas = new ArrayList<>();
+        List<Boolean> validos = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            boolean valido = i % 10 != 7;
+            PedidoRequestDTO pedido = fixtures.novoPedido(2);
+            if (!valido) {
+                pedido.setItens(List.of(new ItemPedidoDTO(999_999L, 1)));
+            }
+            enviadas.add(filaPedidos.enfileirar(pedido));
+            validos.add(valido);
+        }
+
+        for (int i = 0; i < enviadas.size(); i++) {
+            SolicitacaoPedidoDTO resultado = filaPedidos.consultar(enviadas.get(i).protocolo(), Duration.ofSeconds(10)).get();
+            if (validos.get(i)) {
+                assertEquals(SituacaoSolicitacao.CRIADO, resultado.situacao(), resultado.erro());
+                assertEquals(0, new BigDecimal("45.00").compareTo(resultado.pedido().getValorTotal()));
+                assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pedidos WHERE id = ?", Integer.class,
+                    resultado.pedido().getId()));
+            } else {
+                assertEquals(SituacaoSolicitacao.REJEITADO, resultado.situacao());
+                assertTrue(resultado.erro().contains("Produto não encontrado: 999999"), resultado.erro());
+            }
+        }
+        // Lotes desfeitos e refeitos um a um não somam vendas em dobro
+        assertEquals(0, vendasRestauranteService.reconciliar().divergencias());
+
+        // Validação barata, sem passar pela fila
+        PedidoRequestDTO repetido = fixtures.novoPedido(1);
+        repetido.setItens(List.of(repetido.getItens().get(0), repetido.getItens().get(0)));
+        assertThrows(BusinessException.class, () -> filaPedidos.enfileirar(repetido));
+        assertThrows(BusinessException.class, () -> filaPedidos.consultar("inexistente", Duration.ZERO));
+    }
+
+    @Test
+    void endpointResponde202EAguardaOResultado() throws Exception {
+        MvcResult aceito = mockMvc.perform(post("/api/pedidos/fila").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(fixtures.novoPedido(1))))
+            .andExpect(status().isAccepted())
+            .andExpect(jsonPath("$.situacao").value("PENDENTE"))
+            .andReturn();
+        String protocolo = objectMapper.readTree(aceito.getResponse().getContentAsString()).get("protocolo").asText();
+        assertEquals("/api/pedidos/fila/" + protocolo, aceito.getResponse().getHeader("Location"));
+
+        MvcResult aguardando = mockMvc.perform(get("/api/pedidos/fila/{protocolo}", protocolo).param("aguardarMs", "10000"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mockMvc.perform(asyncDispatch(aguardando))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.situacao").value("CRIADO"))
+            .andExpect(jsonPath("$.pedido.valorTotal").value(25.0));
+
+        MvcResult desconhecido = mockMvc.perform(get("/api/pedidos/fila/{protocolo}", "nao-existe")).andReturn();
+        mockMvc.perform(asyncDispatch(desconhecido)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void filaCheiaRecusaEDesligarEsvaziaAFila() throws Exception {
+        // Instância à parte, com um trabalhador preso no primeiro pedido até a trava abrir
+        CountDownLatch trava = new CountDownLatch(1);
+        AtomicLong ids = new AtomicLong();
+        PedidoService pedidoService = mock(PedidoService.class);
+        when(pedidoService.criarPedido(any(PedidoRequestDTO.class))).thenAnswer(invocacao -> {
+            trava.await();
+            Pedido pedido = new Pedido();
+            pedido.setId(ids.incrementAndGet());
+            pedido.setStatus(StatusPedido.CONFIRMADO);
+            pedido.setValorTotal(new BigDecimal("10.00"));
+            return pedido;
+        });
+        FilaPedidos fila = new FilaPedidos(transactionManager, new SimpleMeterRegistry(), true, 2, 1, 1,
+            Duration.ofMinutes(1), 100, Duration.ofSeconds(10));
+        ReflectionTestUtils.setField(fila, "pedidoService", pedidoService);
+        fila.start();
+
+        PedidoRequestDTO pedido = fixtures.novoPedido(1);
+        List<SolicitacaoPedidoDTO> aceitas = new ArrayList<>();
+        aceitas.add(fila.enfileirar(pedido));
+        aguardar(() -> fila.pendentes() == 0);
+        aceitas.add(fila.enfileirar(pedido));
+        aceitas.add(fila.enfileirar(pedido));
+        assertThrows(FilaPedidosCheiaException.class, () -> fila.enfileirar(pedido));
+
+        CompletableFuture<Void> desligando = CompletableFuture.runAsync(fila::stop);
+        aguardar(() -> {
+            try {
+                fila.enfileirar(pedido);
+                return false;
+            } catch (IllegalStateException e) {
+                return true;
+            } catch (FilaPedidosCheiaException e) {
+                return false;
+            }
+        });
+        assertFalse(desligando.isDone());
+
+        trava.countDown();
+        desligando.get(10, TimeUnit.SECONDS);
+        assertFalse(fila.isRunning());
+        for (SolicitacaoPedidoDTO aceita : aceitas) {
+            SolicitacaoPedidoDTO resultado = fila.consultar(aceita.protocolo(), Duration.ZERO).get();
+            assertEquals(SituacaoSolicitacao.CRIADO, resultado.situacao());
+            assertNotNull(resultado.pedido().getId());
+        }
+    }
+
+    private static void aguardar(java.util.function.BooleanSupplier condicao) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condicao.getAsBoolean()) {
+            assertTrue(System.nanoTime() < limite, "condição não atingida em 5s");
+            Thread.sleep(10);
+        }
+    }
+}
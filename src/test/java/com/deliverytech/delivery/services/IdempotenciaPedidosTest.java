@@ -0,0 +1,146 @@
+package com.deliverytech.delivery.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.deliverytech.delivery.Fixtures;
+import com.deliverytech.delivery.dto.ItemPedidoDTO;
+import com.deliverytech.delivery.dto.PedidoRequestDTO;
+import com.deliverytech.delivery.exceptions.BusinessException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest
+class IdempotenciaPedidosTest {
+
+    @Autowired
+    private IdempotenciaPedidos idempotencia;
+
+    @Autowired
+    private VendasRestauranteService vendasRestauranteService;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private Fixtures fixtures;
+
+    @Test
+    void repeticoesParalelasDaMesmaChaveCriamUmPedidoSo() throws Exception {
+        vendasRestauranteService.reconciliar();
+        int chaves = 20;
+        int repeticoes = 16;
+        List<PedidoRequestDTO> requisicoes = new ArrayList<>();
+        for (int i = 0; i < chaves; i++) {
+            requisicoes.add(fixtures.novoPedido(1));
+        }
+        String prefixo = "stress-" + System.nanoTime() + "-";
+        double novasAntes = contador("nova");
+        double repetidasAntes = contador("repetida") + contador("aguardou");
+
+        // Cada chave disparada 16 vezes ao mesmo tempo, todas as chaves misturadas
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        List<List<Future<IdempotenciaPedidos.Resposta>>> respostas = new ArrayList<>();
+        try {
+            for (int i = 0; i < chaves; i++) {
+                respostas.add(new ArrayList<>());
+            }
+            for (int r = 0; r < repeticoes; r++) {
+                for (int i = 0; i < chaves; i++) {
+                    String chave = prefixo + i;
+                    PedidoRequestDTO requisicao = requisicoes.get(i);
+                    respostas.get(i).add(executor.submit(() -> {
+                        largada.await();
+                        return idempotencia.criar(requisicao, chave);
+                    }));
+                }
+            }
+            largada.countDown();
+
+            for (int i = 0; i < chaves; i++) {
+                Set<Long> ids = new HashSet<>();
+                int originais = 0;
+                for (Future<IdempotenciaPedidos.Resposta> futuro : respostas.get(i)) {
+                    IdempotenciaPedidos.Resposta resposta = futuro.get();
+                    ids.add(resposta.pedido().getId());
+                    originais += resposta.repetida() ? 0 : 1;
+                }
+                assertEquals(1, ids.size(), "chave " + i);
+                assertEquals(1, originais, "chave " + i);
+                assertEquals(1, jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM pedidos WHERE chave_idempotencia = ?", Integer.class, prefixo + i));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(novasAntes + chaves, contador("nova"));
+        assertEquals(repetidasAntes + chaves * (repeticoes - 1), contador("repetida") + contador("aguardou"));
+        // Vendas somadas uma vez por pedido
+        assertEquals(0, vendasRestauranteService.reconciliar().divergencias());
+    }
+
+    @Test
+    void chaveForaDaMemoriaEResolvidaPelaRestricaoUnica() {
+        PedidoRequestDTO requisicao = fixtures.novoPedido(2);
+        String chave = "banco-" + System.nanoTime();
+        IdempotenciaPedidos.Resposta original = idempotencia.criar(requisicao, chave);
+        assertFalse(original.repetida());
+
+        idempotencia.esquecer();
+        double doBancoAntes = contador("banco");
+        IdempotenciaPedidos.Resposta repetida = idempotencia.criar(requisicao, chave);
+
+        assertTrue(repetida.repetida());
+        assertEquals(original.pedido().getId(), repetida.pedido().getId());
+        assertEquals(0, original.pedido().getValorTotal().compareTo(repetida.pedido().getValorTotal()));
+        assertEquals(doBancoAntes + 1, contador("banco"));
+        assertEquals(1, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM pedidos WHERE chave_idempotencia = ?", Integer.class, chave));
+
+        // Mesma chave para outro cliente: erro, nos dois caminhos (memória e banco)
+        PedidoRequestDTO outra = fixtures.novoPedido(2);
+        assertThrows(BusinessException.class, () -> idempotencia.criar(outra, chave));
+        idempotencia.criar(requisicao, chave);
+        assertThrows(BusinessException.class, () -> idempotencia.criar(outra, chave));
+    }
+
+    @Test
+    void falhaNaoFicaRegistradaNaChave() {
+        PedidoRequestDTO requisicao = fixtures.novoPedido(1);
+        List<ItemPedidoDTO> itens = requisicao.getItens();
+        requisicao.setItens(List.of(new ItemPedidoDTO(999_999L, 1)));
+        String chave = "falha-" + System.nanoTime();
+
+        assertThrows(BusinessException.class, () -> idempotencia.criar(requisicao, chave));
+
+        // A requisição corrigida, com a mesma chave, é executada
+        requisicao.setItens(itens);
+        assertFalse(idempotencia.criar(requisicao, chave).repetida());
+        assertThrows(BusinessException.class, () -> idempotencia.criar(requisicao, " "));
+    }
+
+    private double contador(String resultado) {
+        return registry.counter("delivery.pedidos.idempotencia", "resultado", resultado).count();
+    }
+}
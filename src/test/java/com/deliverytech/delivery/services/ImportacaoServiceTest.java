@@ -0,0 +1,123 @@
+package com.deliverytech.delivery.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.deliverytech.delivery.Fixtures;
+import com.deliverytech.delivery.dto.ResultadoImportacaoDTO;
+import com.deliverytech.delivery.dto.VendasRestauranteDTO;
+import com.deliverytech.delivery.entity.Cliente;
+import com.deliverytech.delivery.entity.ItemPedido;
+import com.deliverytech.delivery.entity.Pedido;
+import com.deliverytech.delivery.entity.Produto;
+import com.deliverytech.delivery.entity.Restaurante;
+import com.deliverytech.delivery.repository.ProdutoRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = {
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN",
+    "delivery.importacao.tamanho-lote=7"
+})
+class ImportacaoServiceTest {
+
+    @Autowired
+    private ImportacaoService importacaoService;
+
+    @Autowired
+    private VendasRestauranteService vendasRestauranteService;
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private Fixtures fixtures;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void importaPedidosEmLotesRejeitandoSoAsLinhasInvalidas() throws Exception {
+        Cliente cliente = fixtures.cliente();
+        Restaurante restaurante = fixtures.restaurante();
+        Restaurante outro = fixtures.restaurante();
+        Produto prato = fixtures.produto(restaurante);
+        Produto alheio = fixtures.produto(outro, "Alheio", "9.00");
+
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 30; i++) {
+            // 2 x 20.00 (ou 15.00 congelado nas linhas pares) + taxa 5.00
+            String preco = i % 2 == 0 ? ",\"precoUnitario\":15.00" : "";
+            ndjson.append("{\"numeroPedido\":\"HIST-").append(i).append("\",\"dataPedido\":\"2024-01-10T12:00:00\",")
+                .append("\"clienteId\":").append(cliente.getId()).append(",\"restauranteId\":").append(restaurante.getId())
+                .append(",\"itens\":[{\"produtoId\":").append(prato.getId()).append(",\"quantidade\":2").append(preco).append("}]}\n");
+        }
+        ndjson.append("{isto não é json\n");
+        ndjson.append("\n");
+        ndjson.append("{\"dataPedido\":\"2024-01-10T12:00:00\",\"clienteId\":-1,\"restauranteId\":").append(restaurante.getId())
+            .append(",\"itens\":[{\"produtoId\":").append(prato.getId()).append(",\"quantidade\":1}]}\n");
+        ndjson.append("{\"dataPedido\":\"2024-01-10T12:00:00\",\"clienteId\":").append(cliente.getId()).append(",\"restauranteId\":")
+            .append(restaurante.getId()).append(",\"itens\":[{\"produtoId\":").append(alheio.getId()).append(",\"quantidade\":1}]}\n");
+
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear();
+
+        ResultadoImportacaoDTO resultado = importacaoService.importarPedidos(entrada(ndjson.toString()));
+
+        assertEquals(33, resultado.getLinhasLidas());
+        assertEquals(30, resultado.getImportadas());
+        assertEquals(3, resultado.getRejeitadas());
+        assertTrue(resultado.getErros().get(0).startsWith("Linha 31:"), resultado.getErros().toString());
+        assertTrue(resultado.getErros().get(1).startsWith("Linha 33:"), resultado.getErros().toString());
+        assertTrue(resultado.getErros().get(2).startsWith("Linha 34:"), resultado.getErros().toString());
+
+        // 60 inserts (pedidos + itens) em 5 lotes: batch JDBC, não uma ida ao banco por linha
+        assertEquals(30, estatisticas.getEntityStatistics(Pedido.class.getName()).getInsertCount());
+        assertEquals(30, estatisticas.getEntityStatistics(ItemPedido.class.getName()).getInsertCount());
+        assertTrue(estatisticas.getPrepareStatementCount() < 60, "statements: " + estatisticas.getPrepareStatementCount());
+
+        // Agregado de vendas reconciliado: 15 x 35.00 + 15 x 45.00
+        VendasRestauranteDTO vendas = vendasRestauranteService.relatorio().stream()
+            .filter(v -> v.getRestauranteId().equals(restaurante.getId()))
+            .findFirst().orElseThrow();
+        assertEquals(30L, vendas.getQuantidadePedidos());
+        assertEquals(0, new BigDecimal("1200.00").compareTo(vendas.getTotal()));
+    }
+
+    @Test
+    void importaProdutos() throws Exception {
+        Restaurante restaurante = fixtures.restaurante();
+        String ndjson = """
+            {"nome":"Coxinha","descricao":"Frango","preco":7.50,"categoria":"Salgados","disponivel":true,"restauranteId":%d}
+            {"nome":"Pastel","descricao":"Carne","preco":0,"categoria":"Salgados","disponivel":true,"restauranteId":%d}
+            {"nome":"Kibe","descricao":"Carne","preco":6.00,"categoria":"Salgados","restauranteId":%d}
+            """.formatted(restaurante.getId(), restaurante.getId(), restaurante.getId());
+
+        ResultadoImportacaoDTO resultado = importacaoService.importarProdutos(entrada(ndjson));
+
+        assertEquals(2, resultado.getImportadas());
+        assertEquals(1, resultado.getRejeitadas());
+        List<String> nomes = produtoRepository.findByRestauranteId(restaurante.getId()).stream().map(Produto::getNome).sorted().toList();
+        assertEquals(List.of("Coxinha", "Kibe"), nomes);
+        assertEquals(List.of("Coxinha"), produtoService.autocompletar("cox", restaurante.getId(), 5));
+    }
+
+    private static ByteArrayInputStream entrada(String texto) {
+        return new ByteArrayInputStream(texto.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,116 @@
+package com.deliverytech.delivery.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.deliverytech.delivery.dto.ClienteRequestDTO;
+import com.deliverytech.delivery.dto.ClienteResponseDTO;
+import com.deliverytech.delivery.dto.PaginaClientesDTO;
+import com.deliverytech.delivery.exceptions.BusinessException;
+
+@SpringBootTest
+class IndiceClientesTest {
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private IndiceClientes indice;
+
+    private String marcador;
+
+    @BeforeEach
+    void prepararIndice() {
+        // Termina a carga da subida, se ainda estiver em andamento
+        indice.reconstruir();
+        marcador = "Qz" + Long.toString(System.nanoTime(), 36);
+    }
+
+    @Test
+    void dobraAcentosEPontuacao() {
+        assertEquals("jose d avila", IndiceClientes.dobrar("  José  D'Ávila "));
+    }
+
+    @Test
+    void encontraTrechoSemDiferenciarAcentosEMaiusculas() {
+        ClienteResponseDTO joao = cadastrar("João da Conceição " + marcador);
+        cadastrar("Maria Souza " + marcador);
+
+        assertEquals(List.of(joao.getId()), ids(clienteService.buscarPorNome("CONCEICAO " + marcador, null, 10)));
+        assertEquals(List.of(joao.getId()), ids(clienteService.buscarPorNome("ão da concei", null, 10).itens().stream()
+            .filter(c -> c.getNome().endsWith(marcador)).toList()));
+        assertEquals(2, clienteService.buscarPorNome(marcador.toLowerCase(), null, 10).itens().size());
+
+        // Menos de 3 caracteres: varre os nomes em memória
+        IndiceClientes.Pagina curta = indice.buscar("ã", joao.getId() - 1, 1);
+        assertEquals(List.of(joao.getId()), curta.ids());
+
+        assertThrows(BusinessException.class, () -> clienteService.buscarPorNome(" ", null, 10));
+    }
+
+    @Test
+    void paginaPorCursorEmOrdemDeId() {
+        List<Long> criados = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            criados.add(cadastrar("Cliente " + i + " " + marcador).getId());
+        }
+        // Renomeado depois dos outros: a posição nova fica fora da ordem de id e ainda assim sai primeiro
+        clienteService.atualizar(criados.get(0), requisicao("Cliente renomeado " + marcador, "indice" + System.nanoTime() + "@email.com"));
+
+        List<Long> lidos = new ArrayList<>();
+        String cursor = null;
+        int paginas = 0;
+        do {
+            PaginaClientesDTO pagina = clienteService.buscarPorNome(marcador, cursor, 2);
+            lidos.addAll(ids(pagina));
+            cursor = pagina.proximoCursor();
+            paginas++;
+        } while (cursor != null);
+
+        assertEquals(criados, lidos);
+        assertEquals(3, paginas);
+    }
+
+    @Test
+    void atualizarNomeReindexa() {
+        ClienteResponseDTO cliente = cadastrar("Ana Paula " + marcador);
+
+        ClienteRequestDTO alteracao = requisicao("Ana Beatriz " + marcador, cliente.getEmail());
+        clienteService.atualizar(cliente.getId(), alteracao);
+
+        PaginaClientesDTO antigo = clienteService.buscarPorNome("paula " + marcador, null, 10);
+        assertEquals(List.of(), antigo.itens());
+        assertNull(antigo.proximoCursor());
+        assertEquals(List.of(cliente.getId()), ids(clienteService.buscarPorNome("beatriz " + marcador, null, 10)));
+    }
+
+    private ClienteResponseDTO cadastrar(String nome) {
+        return clienteService.cadastrar(requisicao(nome, "indice" + System.nanoTime() + "@email.com"));
+    }
+
+    private static ClienteRequestDTO requisicao(String nome, String email) {
+        ClienteRequestDTO dto = new ClienteRequestDTO();
+        dto.setNome(nome);
+        dto.setEmail(email);
+        dto.setTelefone("11900000000");
+        dto.setEndereco("Rua N");
+        return dto;
+    }
+
+    private static List<Long> ids(PaginaClientesDTO pagina) {
+        return ids(pagina.itens());
+    }
+
+    private static List<Long> ids(List<ClienteResponseDTO> clientes) {
+        return clientes.stream().map(ClienteResponseDTO::getId).toList();
+    }
+}
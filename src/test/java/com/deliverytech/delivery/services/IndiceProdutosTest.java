@@ -0,0 +1,110 @@
+package com.deliverytech.delivery.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.deliverytech.delivery.Fixtures;
+import com.deliverytech.delivery.entity.Dinheiro;
+import com.deliverytech.delivery.entity.ProdutoDTO;
+import com.deliverytech.delivery.exceptions.BusinessException;
+
+@SpringBootTest
+class IndiceProdutosTest {
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private Fixtures fixtures;
+
+    @Autowired
+    private IndiceProdutos indice;
+
+    @BeforeEach
+    void prepararIndice() {
+        // Termina a carga da subida, se ainda estiver em andamento: sem índice pronto a busca vai ao banco
+        indice.reconstruir();
+    }
+
+    @Test
+    void dobraAcentosERemovePalavrasVazias() {
+        assertEquals(List.of("file", "salmao", "acai"), IndiceProdutos.termos("Filé de SALMÃO com Açaí!"));
+    }
+
+    @Test
+    void buscaIgnoraAcentosCasaPrefixoEOrdenaPorRelevancia() {
+        Long restaurante = fixtures.restaurante().getId();
+        ProdutoDTO grelhado = cadastrar("Salmão Grelhado", "Com legumes", "Peixes", restaurante);
+        ProdutoDTO temaki = cadastrar("Temaki", "Salmão e cream cheese", "Japonesa", restaurante);
+        cadastrar("Yakisoba", "Legumes e carne", "Japonesa", restaurante);
+
+        // Termo no nome pesa mais que na descrição
+        assertEquals(List.of(grelhado.getId(), temaki.getId()), ids(produtoService.buscarPorTexto("salmao", restaurante, true, 10)));
+        assertEquals(List.of(grelhado.getId(), temaki.getId()), ids(produtoService.buscarPorTexto("SALM", restaurante, true, 10)));
+        // Todos os termos precisam aparecer
+        assertEquals(List.of(grelhado.getId()), ids(produtoService.buscarPorTexto("salmão legu", restaurante, true, 10)));
+        assertEquals(List.of(grelhado.getId()), ids(produtoService.buscarPorTexto("salmao", restaurante, true, 1)));
+        assertEquals(List.of(), produtoService.buscarPorTexto("pizza", restaurante, true, 10));
+
+        assertThrows(BusinessException.class, () -> produtoService.buscarPorTexto(" ", restaurante, true, 10));
+    }
+
+    @Test
+    void escritasAtualizamOIndiceEReconstrucaoMantemResultado() {
+        Long restaurante = fixtures.restaurante().getId();
+        ProdutoDTO produto = cadastrar("Pastel de Palmito", "Massa fina", "Salgados", restaurante);
+
+        produtoService.alterarDisponibilidade(produto.getId(), false);
+        assertEquals(List.of(), produtoService.buscarPorTexto("palmito", restaurante, true, 10));
+        assertEquals(List.of(produto.getId()), ids(produtoService.buscarPorTexto("palmito", restaurante, false, 10)));
+
+        produto.setNome("Pastel de Queijo");
+        produto.setDisponivel(true);
+        produtoService.atualizarProduto(produto.getId(), produto);
+        assertEquals(List.of(), produtoService.buscarPorTexto("palmito", restaurante, false, 10));
+        assertEquals(List.of("Pastel de Queijo"), produtoService.autocompletar("pastel qu", restaurante, 5));
+
+        indice.reconstruir();
+        assertEquals(List.of(produto.getId()), ids(produtoService.buscarPorTexto("queijo", restaurante, true, 10)));
+
+        produtoService.excluir(produto.getId());
+        assertEquals(List.of(), produtoService.buscarPorTexto("queijo", restaurante, false, 10));
+    }
+
+    @Test
+    void semIndiceProntoBuscaNoBancoPorTrecho() {
+        Long restaurante = fixtures.restaurante().getId();
+        ProdutoDTO grelhado = cadastrar("Salmão Grelhado", "Com legumes", "Peixes", restaurante);
+        ProdutoDTO temaki = cadastrar("Temaki", "Salmão e cream cheese", "Japonesa", restaurante);
+        ProdutoDTO desconto = cadastrar("Combo 100% salmão", "Promoção", "Japonesa", restaurante);
+        produtoService.alterarDisponibilidade(temaki.getId(), false);
+
+        ReflectionTestUtils.setField(indice, "pronto", false);
+        try {
+            assertEquals(List.of(desconto.getId(), grelhado.getId()), ids(produtoService.buscarPorTexto("SALMÃO", restaurante, true, 10)));
+            assertEquals(List.of(desconto.getId(), grelhado.getId(), temaki.getId()),
+                ids(produtoService.buscarPorTexto("salmão", restaurante, false, 10)));
+            // % digitado é literal, não curinga
+            assertEquals(List.of(desconto.getId()), ids(produtoService.buscarPorTexto("100%", restaurante, true, 10)));
+            assertEquals(List.of("Salmão Grelhado"), produtoService.autocompletar("grelh", restaurante, 5));
+        } finally {
+            ReflectionTestUtils.setField(indice, "pronto", true);
+        }
+    }
+
+    private ProdutoDTO cadastrar(String nome, String descricao, String categoria, Long restauranteId) {
+        return produtoService.cadastrarProduto(new ProdutoDTO(null, nome, descricao, Dinheiro.de("10.00"), categoria, true, restauranteId));
+    }
+
+    private static List<Long> ids(List<ProdutoDTO> produtos) {
+        return produtos.stream().map(ProdutoDTO::getId).toList();
+    }
+}
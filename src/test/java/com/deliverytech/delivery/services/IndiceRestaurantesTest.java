@@ -0,0 +1,119 @@
+package com.deliverytech.delivery.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.deliverytech.delivery.dto.PaginaRestaurantesDTO;
+import com.deliverytech.delivery.dto.RestauranteRequestDTO;
+import com.deliverytech.delivery.dto.RestauranteResponseDTO;
+import com.deliverytech.delivery.entity.Restaurante;
+import com.deliverytech.delivery.events.RestauranteAlteradoEvent;
+import com.deliverytech.delivery.exceptions.BusinessException;
+import com.deliverytech.delivery.repository.RestauranteRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+class IndiceRestaurantesTest {
+
+    @Autowired
+    private RestauranteService restauranteService;
+
+    @Autowired
+    private IndiceRestaurantes indice;
+
+    @Autowired
+    private RestauranteRepository restauranteRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void filtraOrdenaEPaginaSemAcessarOBanco() {
+        String categoria = "Busca " + System.nanoTime();
+        RestauranteResponseDTO a = novo("A", categoria, "3.00", "4.9");
+        RestauranteResponseDTO b = novo("B", categoria, "9.00", "4.7");
+        RestauranteResponseDTO c = novo("C", categoria, "5.00", "4.7");
+        RestauranteResponseDTO d = novo("D", categoria, "4.00", "3.0");
+        novo("E", categoria, "12.00", "5.0");
+
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long comandosAntes = estatisticas.getPrepareStatementCount();
+
+        // taxa <= 10 e avaliação >= 4.5, maior avaliação primeiro, empate pelo id
+        List<Long> porAvaliacao = percorrer(categoria, "10.00", "4.5", "avaliacao", 2);
+        assertEquals(List.of(a.getId(), b.getId(), c.getId()), porAvaliacao);
+
+        List<Long> porTaxa = percorrer(categoria, "10.00", null, "TAXA", 1);
+        assertEquals(List.of(a.getId(), d.getId(), c.getId(), b.getId()), porTaxa);
+
+        assertEquals(5, percorrer(categoria.toUpperCase(), null, null, "nome", 3).size());
+        assertEquals(0, estatisticas.getPrepareStatementCount() - comandosAntes);
+    }
+
+    @Test
+    void atualizarEInativarRefletemNaBusca() {
+        String categoria = "Busca " + System.nanoTime();
+        RestauranteResponseDTO barato = novo("Barato", categoria, "2.00", "4.0");
+        RestauranteResponseDTO caro = novo("Caro", categoria, "8.00", "4.0");
+
+        RestauranteRequestDTO alteracao = new RestauranteRequestDTO();
+        alteracao.setNome(caro.getNome());
+        alteracao.setCategoria(categoria);
+        alteracao.setEndereco("Rua B");
+        alteracao.setTaxaEntrega(new BigDecimal("1.00"));
+        restauranteService.atualizar(caro.getId(), alteracao);
+
+        assertEquals(List.of(caro.getId(), barato.getId()), percorrer(categoria, null, null, "taxa", 10));
+
+        restauranteService.inativar(barato.getId());
+        assertEquals(List.of(caro.getId()), percorrer(categoria, null, null, "taxa", 10));
+
+        alteracao.setCategoria("Outra " + categoria);
+        restauranteService.atualizar(caro.getId(), alteracao);
+        assertEquals(List.of(), percorrer(categoria, null, null, "taxa", 10));
+    }
+
+    @Test
+    void rejeitaOrdenacaoECursorInvalidos() {
+        assertThrows(BusinessException.class, () -> restauranteService.buscar(null, null, null, "distancia", null, 10));
+        assertThrows(BusinessException.class, () -> restauranteService.buscar(null, null, null, "nome", "xyz", 10));
+
+        PaginaRestaurantesDTO pagina = restauranteService.buscar(null, null, null, "taxa", null, 1);
+        // Cursor de outra ordenação
+        assertThrows(BusinessException.class, () -> restauranteService.buscar(null, null, null, "nome", pagina.proximoCursor(), 10));
+    }
+
+    private List<Long> percorrer(String categoria, String taxaMaxima, String avaliacaoMinima, String ordem, int limite) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            PaginaRestaurantesDTO pagina = restauranteService.buscar(categoria,
+                taxaMaxima == null ? null : new BigDecimal(taxaMaxima),
+                avaliacaoMinima == null ? null : new BigDecimal(avaliacaoMinima),
+                ordem, cursor, limite);
+            pagina.itens().forEach(r -> ids.add(r.getId()));
+            cursor = pagina.proximoCursor();
+        } while (cursor != null);
+        return ids;
+    }
+
+    private RestauranteResponseDTO novo(String nome, String categoria, String taxa, String avaliacao) {
+        // A avaliação não vem do cadastro; grava direto e avisa o índice como o serviço faria
+        Restaurante salvo = restauranteRepository.save(new Restaurante(null, nome + " " + System.nanoTime(), categoria, "Rua B", "0000-0000",
+            new BigDecimal(taxa), new BigDecimal(avaliacao), true, null));
+        RestauranteResponseDTO dto = new RestauranteResponseDTO(salvo);
+        indice.aoAlterarRestaurante(new RestauranteAlteradoEvent(null, dto));
+        return dto;
+    }
+}
@@ -0,0 +1,146 @@
+package com.deliverytech.delivery.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.deliverytech.delivery.Fixtures;
+import com.deliverytech.delivery.dto.ItemPedidoDTO;
+import com.deliverytech.delivery.dto.PedidoRequestDTO;
+import com.deliverytech.delivery.entity.Cliente;
+import com.deliverytech.delivery.entity.Dinheiro;
+import com.deliverytech.delivery.entity.Produto;
+import com.deliverytech.delivery.entity.Restaurante;
+import com.deliverytech.delivery.exceptions.ItensPedidoInvalidosException;
+import com.deliverytech.delivery.repository.ProdutoRepository;
+
+/**
+ * Checkout com 1 a 100 itens: o número de SELECTs deve ser constante (a latência é medida no profile jmh).
+ */
+@SpringBootTest(properties = {
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.deliverytech.delivery.services.PedidoServiceCheckoutTest$ContadorSelects"
+})
+class PedidoServiceCheckoutTest {
+
+    private static final int[] QUANTIDADES_ITENS = {1, 10, 25, 50, 100};
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private Fixtures fixtures;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    private Cliente cliente;
+    private Restaurante restaurante;
+    private List<Produto> cardapio;
+
+    @BeforeEach
+    void preparar() {
+        cliente = fixtures.cliente();
+        restaurante = fixtures.restaurante();
+
+        List<Produto> produtos = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            produtos.add(new Produto(null, "Produto " + i, "Descrição " + i, Dinheiro.de("10.00"), "Teste", true, restaurante));
+        }
+        cardapio = produtoRepository.saveAll(produtos);
+    }
+
+    @Test
+    void quantidadeDeSelectsNaoCresceComOsItens() {
+        // Primeiro pedido do restaurante: põe o restaurante no cache de segundo nível
+        pedidoService.criarPedido(pedido(cardapio.subList(0, 1)));
+
+        Map<Integer, Integer> selectsPorQuantidade = new LinkedHashMap<>();
+        for (int quantidade : QUANTIDADES_ITENS) {
+            PedidoRequestDTO dto = pedido(cardapio.subList(0, quantidade));
+
+            ContadorSelects.zerar();
+            pedidoService.criarPedido(dto);
+            selectsPorQuantidade.put(quantidade, ContadorSelects.total());
+        }
+
+        // cliente + produtos (uma única consulta em lote); o restaurante vem do cache de segundo nível
+        assertEquals(Map.of(1, 2, 10, 2, 25, 2, 50, 2, 100, 2), selectsPorQuantidade);
+    }
+
+    @Test
+    void relatorioDeErrosCobreTodosOsItens() {
+        Restaurante outro = fixtures.restaurante("3.00");
+        Produto deOutroRestaurante = fixtures.produto(outro, "Alheio", "9.00");
+        Produto indisponivel = cardapio.get(1);
+        indisponivel.setDisponivel(false);
+        produtoRepository.save(indisponivel);
+
+        PedidoRequestDTO dto = pedido(List.of());
+        dto.setItens(List.of(
+            new ItemPedidoDTO(cardapio.get(0).getId(), 2),
+            new ItemPedidoDTO(indisponivel.getId(), 1),
+            new ItemPedidoDTO(999999L, 1),
+            new ItemPedidoDTO(deOutroRestaurante.getId(), 1),
+            new ItemPedidoDTO(cardapio.get(0).getId(), 1)
+        ));
+
+        ItensPedidoInvalidosException erro = assertThrows(ItensPedidoInvalidosException.class, () -> pedidoService.criarPedido(dto));
+
+        assertEquals(4, erro.getErros().size());
+        assertTrue(erro.getErros().get("itens[1]").contains("indisponível"));
+        assertTrue(erro.getErros().get("itens[2]").contains("não encontrado"));
+        assertTrue(erro.getErros().get("itens[3]").contains("não pertence"));
+        assertTrue(erro.getErros().get("itens[4]").contains("repetido"));
+    }
+
+    @Test
+    void quantidadeGeraUmaLinhaComPrecoCongelado() {
+        PedidoRequestDTO dto = pedido(List.of());
+        dto.setItens(List.of(new ItemPedidoDTO(cardapio.get(0).getId(), 3), new ItemPedidoDTO(cardapio.get(2).getId(), 1)));
+
+        var pedido = pedidoService.criarPedido(dto);
+
+        assertEquals(2, pedido.getItens().size());
+        assertEquals(0, new BigDecimal("45.00").compareTo(pedido.getValorTotal()));
+        assertEquals(Dinheiro.de("40.00"), pedidoService.calcularTotal(dto));
+    }
+
+    private PedidoRequestDTO pedido(List<Produto> produtos) {
+        return Fixtures.pedido(cliente, restaurante, produtos.stream().map(p -> new ItemPedidoDTO(p.getId(), 1)).toList());
+    }
+
+    public static class ContadorSelects implements StatementInspector {
+
+        private static final AtomicInteger SELECTS = new AtomicInteger();
+
+        static void zerar() {
+            SELECTS.set(0);
+        }
+
+        static int total() {
+            return SELECTS.get();
+        }
+
+        @Override
+        public String inspect(String sql) {
+            // Busca de um novo bloco de ids na sequence não é consulta de dados
+            if (sql.regionMatches(true, 0, "select", 0, 6) && !sql.toLowerCase().contains("next value for")) {
+                SELECTS.incrementAndGet();
+            }
+            return sql;
+        }
+    }
+}
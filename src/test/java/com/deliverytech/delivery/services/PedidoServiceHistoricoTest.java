@@ -0,0 +1,104 @@
+package com.deliverytech.delivery.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.deliverytech.delivery.Fixtures;
+import com.deliverytech.delivery.dto.PaginaPedidosDTO;
+import com.deliverytech.delivery.dto.PedidoResumoDTO;
+import com.deliverytech.delivery.entity.Cliente;
+import com.deliverytech.delivery.entity.Pedido;
+import com.deliverytech.delivery.entity.Restaurante;
+import com.deliverytech.delivery.enums.StatusPedido;
+import com.deliverytech.delivery.exceptions.BusinessException;
+import com.deliverytech.delivery.repository.PedidoRepository;
+
+@SpringBootTest
+class PedidoServiceHistoricoTest {
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private Fixtures fixtures;
+
+    private Cliente cliente;
+
+    @BeforeEach
+    void preparar() {
+        cliente = fixtures.cliente();
+        Restaurante restaurante = fixtures.restaurante();
+
+        // 25 pedidos, com datas repetidas para exercitar o desempate por id
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 12, 0);
+        List<Pedido> pedidos = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            Pedido pedido = new Pedido();
+            pedido.setNumeroPedido("HIS-" + i);
+            pedido.setDataPedido(base.plusDays(i / 3));
+            pedido.setStatus(StatusPedido.ENTREGUE);
+            pedido.setValorTotal(new BigDecimal("10.00"));
+            pedido.setCliente(cliente);
+            pedido.setRestaurante(restaurante);
+            pedidos.add(pedido);
+        }
+        pedidoRepository.saveAll(pedidos);
+    }
+
+    @Test
+    void paginasPorCursorCobremTodoOHistoricoSemRepetir() {
+        List<PedidoResumoDTO> todos = new ArrayList<>();
+        String cursor = null;
+        int paginas = 0;
+        do {
+            PaginaPedidosDTO pagina = pedidoService.listarPorCliente(cliente.getId(), cursor, 10);
+            todos.addAll(pagina.itens());
+            cursor = pagina.proximoCursor();
+            paginas++;
+        } while (cursor != null);
+
+        assertEquals(3, paginas);
+        assertEquals(25, todos.size());
+        assertEquals(25, todos.stream().map(PedidoResumoDTO::getId).distinct().count());
+        for (int i = 1; i < todos.size(); i++) {
+            PedidoResumoDTO anterior = todos.get(i - 1);
+            PedidoResumoDTO atual = todos.get(i);
+            int comparacao = anterior.getDataPedido().compareTo(atual.getDataPedido());
+            assertTrue(comparacao > 0 || (comparacao == 0 && anterior.getId() > atual.getId()));
+        }
+    }
+
+    @Test
+    void ultimaPaginaNaoTemCursor() {
+        PaginaPedidosDTO pagina = pedidoService.listarPorCliente(cliente.getId(), null, 100);
+        assertEquals(25, pagina.itens().size());
+        assertNull(pagina.proximoCursor());
+    }
+
+    @Test
+    void percorrerHistoricoEntregaLotesLimitados() {
+        List<Integer> tamanhos = new ArrayList<>();
+        pedidoService.percorrerHistorico(cliente.getId(), 7, lote -> tamanhos.add(lote.size()));
+        assertEquals(List.of(7, 7, 7, 4), tamanhos);
+    }
+
+    @Test
+    void cursorInvalidoGeraErroDeNegocio() {
+        assertThrows(BusinessException.class, () -> pedidoService.listarPorCliente(cliente.getId(), "nao-e-um-cursor", 10));
+    }
+}
@@ -0,0 +1,100 @@
+package com.deliverytech.delivery.services;
+
+import static com.deliverytech.delivery.Fixtures.pedido;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import com.deliverytech.delivery.Fixtures;
+import com.deliverytech.delivery.config.RespostasPedidoConverter;
+import com.deliverytech.delivery.dto.ItemPedidoDTO;
+import com.deliverytech.delivery.dto.PedidoResponseDTO;
+import com.deliverytech.delivery.entity.Cliente;
+import com.deliverytech.delivery.entity.Dinheiro;
+import com.deliverytech.delivery.entity.Pedido;
+import com.deliverytech.delivery.entity.Produto;
+import com.deliverytech.delivery.entity.Restaurante;
+import com.deliverytech.delivery.enums.StatusPedido;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SpringBootTest
+class PedidoServiceRespostaTest {
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private Fixtures fixtures;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private HttpMessageConverters httpMessageConverters;
+
+    @Test
+    void buscarPorIdMontaRespostaCompletaForaDeTransacao() throws Exception {
+        Cliente cliente = fixtures.cliente();
+        Restaurante restaurante = fixtures.restaurante();
+        Produto pizza = fixtures.produto(restaurante, "Pizza", "40.00");
+        Produto suco = fixtures.produto(restaurante, "Suco", "8.00");
+
+        Pedido pedido = pedidoService.criarPedido(pedido(cliente, restaurante,
+            List.of(new ItemPedidoDTO(pizza.getId(), 1), new ItemPedidoDTO(suco.getId(), 2))));
+
+        PedidoResponseDTO resposta = pedidoService.buscarPorId(pedido.getId());
+        assertEquals(cliente.getNome(), resposta.getCliente().getNome());
+        assertEquals(restaurante.getId(), resposta.getRestaurante().getId());
+        assertEquals(2, resposta.getItens().size());
+        assertEquals(Dinheiro.de("16.00"), resposta.getItens().stream()
+            .filter(i -> i.getProdutoId().equals(suco.getId())).findFirst().orElseThrow().getSubtotal());
+
+        // Sem o grafo da entidade: nada de cardápio do restaurante nem restaurante repetido nos produtos
+        JsonNode json = objectMapper.readTree(objectMapper.writeValueAsBytes(resposta));
+        assertTrue(json.path("restaurante").path("produtos").isMissingNode());
+        assertTrue(json.path("itens").get(0).path("restaurante").isMissingNode());
+        assertTrue(json.path("itens").findValuesAsText("nomeProduto").contains("Pizza"));
+
+        // A resposta HTTP sai pelo writer pronto, com o mesmo JSON do ObjectMapper
+        HttpMessageConverter<?> conversor = httpMessageConverters.getConverters().stream()
+            .filter(c -> c.canWrite(PedidoResponseDTO.class, MediaType.APPLICATION_JSON))
+            .findFirst().orElseThrow();
+        assertInstanceOf(RespostasPedidoConverter.class, conversor);
+        MockHttpOutputMessage saida = new MockHttpOutputMessage();
+        ((RespostasPedidoConverter) conversor).write(resposta, MediaType.APPLICATION_JSON, saida);
+        assertEquals(json, objectMapper.readTree(saida.getBodyAsBytes()));
+    }
+
+    @Test
+    void listaReaproveitaResumoDoMesmoRestauranteECliente() {
+        Cliente cliente = fixtures.cliente();
+        Restaurante restaurante = fixtures.restaurante();
+        Produto produto = fixtures.produto(restaurante, "Prato", "30.00");
+
+        LocalDateTime inicio = LocalDateTime.now().minusSeconds(1);
+        Pedido p1 = pedidoService.criarPedido(pedido(cliente, restaurante, produto, 1));
+        Pedido p2 = pedidoService.criarPedido(pedido(cliente, restaurante, produto, 3));
+
+        List<PedidoResponseDTO> respostas = pedidoService.relatorioPorPeriodoEStatus(inicio, LocalDateTime.now().plusSeconds(1),
+            StatusPedido.CONFIRMADO).stream()
+            .filter(r -> r.getId().equals(p1.getId()) || r.getId().equals(p2.getId()))
+            .toList();
+
+        assertEquals(2, respostas.size());
+        assertSame(respostas.get(0).getRestaurante(), respostas.get(1).getRestaurante());
+        assertSame(respostas.get(0).getCliente(), respostas.get(1).getCliente());
+    }
+}
@@ -0,0 +1,68 @@
+package com.deliverytech.delivery.services;
+
+import static com.deliverytech.delivery.Fixtures.pedido;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.deliverytech.delivery.Fixtures;
+import com.deliverytech.delivery.dto.ClienteRankingDTO;
+import com.deliverytech.delivery.dto.ItemPedidoDTO;
+import com.deliverytech.delivery.dto.ProdutoMaisVendidoDTO;
+import com.deliverytech.delivery.entity.Cliente;
+import com.deliverytech.delivery.entity.Produto;
+import com.deliverytech.delivery.entity.Restaurante;
+
+@SpringBootTest
+class RankingServiceTest {
+
+    @Autowired
+    private RankingService rankingService;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private Fixtures fixtures;
+
+    @Test
+    void rankingEstimadoBateComORecalculoExato() {
+        // Outros testes gravam pedidos direto no repositório, sem evento; parte do que está no banco
+        rankingService.reconstruir();
+
+        Restaurante restaurante = fixtures.restaurante();
+        List<Produto> produtos = List.of(
+            fixtures.produto(restaurante, "Campeão", "10.00"),
+            fixtures.produto(restaurante, "Vice", "10.00"),
+            fixtures.produto(restaurante, "Terceiro", "10.00"));
+        List<Cliente> clientes = List.of(fixtures.cliente(), fixtures.cliente(), fixtures.cliente());
+
+        int[] pedidosPorCliente = {12, 9, 7};
+        for (int c = 0; c < clientes.size(); c++) {
+            for (int i = 0; i < pedidosPorCliente[c]; i++) {
+                pedidoService.criarPedido(pedido(clientes.get(c), restaurante, List.of(
+                    new ItemPedidoDTO(produtos.get(0).getId(), 50),
+                    new ItemPedidoDTO(produtos.get(1).getId(), 30 + c),
+                    new ItemPedidoDTO(produtos.get(2).getId(), 20))));
+            }
+        }
+
+        List<ProdutoMaisVendidoDTO> produtosEstimados = rankingService.produtosMaisVendidos(3);
+        List<ClienteRankingDTO> clientesEstimados = rankingService.rankingClientes(3);
+
+        assertEquals(rankingService.produtosMaisVendidosExato(3), produtosEstimados);
+        assertEquals(rankingService.rankingClientesExato(3), clientesEstimados);
+        assertEquals(1400L, rankingService.estimativaProduto(produtos.get(0).getId()));
+        assertEquals(12L, rankingService.estimativaCliente(clientes.get(0).getId()));
+        assertEquals(7L, rankingService.estimativaCliente(clientes.get(2).getId()));
+
+        // Reconstruir a partir do banco chega ao mesmo resultado do fluxo de eventos
+        rankingService.reconstruir();
+        assertEquals(produtosEstimados, rankingService.produtosMaisVendidos(3));
+        assertEquals(clientesEstimados, rankingService.rankingClientes(3));
+    }
+}
@@ -0,0 +1,174 @@
+package com.deliverytech.delivery.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.deliverytech.delivery.Fixtures;
+import com.deliverytech.delivery.dto.EventoPedidoDTO;
+import com.deliverytech.delivery.dto.PedidoRequestDTO;
+import com.deliverytech.delivery.entity.Pedido;
+import com.deliverytech.delivery.entity.Restaurante;
+import com.deliverytech.delivery.enums.StatusPedido;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest(properties = "delivery.rastreamento.tamanho-fila=4")
+@AutoConfigureMockMvc
+class RastreamentoPedidosTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RastreamentoPedidos rastreamento;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private Fixtures fixtures;
+
+    @Test
+    void transmiteEstadoInicialTransicoesEFeedDoRestaurante() throws Exception {
+        Restaurante restaurante = fixtures.restaurante();
+        Pedido pedido = pedidoService.criarPedido(pedido(restaurante));
+
+        MockHttpServletResponse doPedido = mockMvc.perform(get("/api/pedidos/{id}/eventos", pedido.getId()))
+            .andExpect(request().asyncStarted()).andReturn().getResponse();
+        MockHttpServletResponse doRestaurante = mockMvc.perform(get("/api/pedidos/restaurante/{id}/eventos", restaurante.getId()))
+            .andExpect(request().asyncStarted()).andReturn().getResponse();
+
+        pedidoService.atualizarStatus(pedido.getId(), StatusPedido.PREPARANDO);
+        pedidoService.cancelarPedido(pedido.getId());
+        Pedido outro = pedidoService.criarPedido(pedido(restaurante));
+
+        aguardar(() -> conteudo(doPedido).contains("\"status\":\"CANCELADO\""));
+        String eventos = conteudo(doPedido);
+        assertTrue(eventos.startsWith("event:status\ndata:{\"pedidoId\":" + pedido.getId()), eventos);
+        assertTrue(eventos.indexOf("\"CONFIRMADO\"") < eventos.indexOf("\"PREPARANDO\""), eventos);
+        assertTrue(eventos.indexOf("\"PREPARANDO\"") < eventos.indexOf("\"CANCELADO\""), eventos);
+
+        aguardar(() -> conteudo(doRestaurante).contains("\"pedidoId\":" + outro.getId()));
+        assertTrue(conteudo(doRestaurante).contains("\"anterior\":\"PREPARANDO\",\"status\":\"CANCELADO\""));
+
+        mockMvc.perform(get("/api/pedidos/{id}/eventos", 999_999L)).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/pedidos/restaurante/{id}/eventos", 999_999L)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void consumidorLentoEDesligadoSemAtrasarOsDemais() throws Exception {
+        long restauranteId = 888_888L;
+        CountDownLatch liberar = new CountDownLatch(1);
+        Gravador lento = new Gravador(liberar);
+        Gravador rapido = new Gravador(null);
+        int antes = rastreamento.assinantes();
+        double despejosAntes = registry.counter("delivery.rastreamento.despejos").count();
+
+        assertTrue(rastreamento.registrarRestaurante(restauranteId, lento));
+        assertTrue(rastreamento.registrarRestaurante(restauranteId, rapido));
+        assertEquals(antes + 2, rastreamento.assinantes());
+
+        // O primeiro envio do lento trava e a fila dele (4) enche no sexto evento; o rápido recebe tudo
+        for (int i = 1; i <= 10; i++) {
+            rastreamento.publicar(new EventoPedidoDTO((long) i, restauranteId, null, StatusPedido.CONFIRMADO, LocalDateTime.now()));
+            int publicados = i;
+            aguardar(() -> rapido.enviados.size() == publicados);
+            assertEquals(i < 6 ? antes + 2 : antes + 1, rastreamento.assinantes());
+        }
+        assertEquals(despejosAntes + 1, registry.counter("delivery.rastreamento.despejos").count());
+
+        liberar.countDown();
+        aguardar(() -> lento.completo);
+        assertEquals(1, lento.enviados.size());
+    }
+
+    @Test
+    void estadoInicialAtrasadoNaoSobrescreveTransicaoMaisNova() throws Exception {
+        Gravador gravador = new Gravador(null);
+        long pedidoId = 777_777L;
+
+        // A transição chega entre o registro e a leitura do estado atual
+        rastreamento.registrarPedido(pedidoId, gravador, () -> {
+            rastreamento.publicar(new EventoPedidoDTO(pedidoId, null, StatusPedido.PREPARANDO, StatusPedido.SAIU_PARA_ENTREGA, LocalDateTime.now()));
+            return new EventoPedidoDTO(pedidoId, null, null, StatusPedido.PREPARANDO, LocalDateTime.now());
+        });
+        rastreamento.publicar(new EventoPedidoDTO(pedidoId, null, StatusPedido.SAIU_PARA_ENTREGA, StatusPedido.ENTREGUE, LocalDateTime.now()));
+
+        aguardar(() -> gravador.enviados.size() == 2);
+        assertTrue(gravador.enviados.get(0).contains("SAIU_PARA_ENTREGA"));
+        assertTrue(gravador.enviados.get(1).contains("ENTREGUE"));
+    }
+
+    /** SseEmitter que guarda o que seria escrito na conexão; com trava, o primeiro envio fica preso nela */
+    private static class Gravador extends SseEmitter {
+        final List<String> enviados = new CopyOnWriteArrayList<>();
+        final CountDownLatch trava;
+        volatile boolean completo;
+
+        Gravador(CountDownLatch trava) {
+            this.trava = trava;
+        }
+
+        @Override
+        public void send(Set<DataWithMediaType> dados) throws IOException {
+            enviados.add(dados.stream().map(d -> d.getData().toString()).collect(Collectors.joining()));
+            if (trava != null) {
+                try {
+                    trava.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        @Override
+        public void complete() {
+            completo = true;
+            super.complete();
+        }
+    }
+
+    private static String conteudo(MockHttpServletResponse resposta) {
+        try {
+            return resposta.getContentAsString();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void aguardar(BooleanSupplier condicao) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condicao.getAsBoolean()) {
+            assertTrue(System.nanoTime() < limite, "condição não atingida em 5s");
+            Thread.sleep(10);
+        }
+    }
+
+    private PedidoRequestDTO pedido(Restaurante restaurante) {
+        return Fixtures.pedido(fixtures.cliente(), restaurante, fixtures.produto(restaurante), 1);
+    }
+}
@@ -0,0 +1,231 @@
+package com.deliverytech.delivery.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.deliverytech.delivery.Fixtures;
+import com.deliverytech.delivery.entity.Cliente;
+import com.deliverytech.delivery.entity.Pedido;
+import com.deliverytech.delivery.entity.Restaurante;
+import com.deliverytech.delivery.enums.StatusPedido;
+import com.deliverytech.delivery.exceptions.BusinessException;
+import com.deliverytech.delivery.repository.PedidoRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest(properties = {
+    "delivery.pedidos.status.modo=write-behind",
+    "delivery.pedidos.status.journal-arquivo=target/status-pedidos-teste.journal",
+    // Descarga só quando o teste pedir
+    "delivery.pedidos.status.intervalo-ms=3600000"
+})
+class StatusPedidoPipelineTest {
+
+    private static final Path JOURNAL = Path.of("target/status-pedidos-teste.journal");
+
+    @Autowired
+    private StatusPedidoPipeline pipeline;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private Fixtures fixtures;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    private Cliente cliente;
+    private Restaurante restaurante;
+
+    @BeforeEach
+    void preparar() {
+        cliente = fixtures.cliente();
+        restaurante = fixtures.restaurante();
+    }
+
+    @Test
+    void transicoesFicamEmMemoriaEViramUmaGravacao() {
+        Pedido pedido = novoPedido();
+        long versaoInicial = pedido.getVersao();
+
+        pipeline.atualizar(pedido.getId(), StatusPedido.PREPARANDO);
+        pipeline.atualizar(pedido.getId(), StatusPedido.SAIU_PARA_ENTREGA);
+        pipeline.atualizar(pedido.getId(), StatusPedido.ENTREGUE);
+
+        assertEquals(StatusPedido.CONFIRMADO, recarregar(pedido).getStatus());
+        assertEquals(StatusPedido.ENTREGUE, pedidoService.buscarPorId(pedido.getId()).getStatus());
+        assertThrows(BusinessException.class, () -> pipeline.atualizar(pedido.getId(), StatusPedido.CANCELADO));
+
+        pipeline.descarregar();
+
+        Pedido gravado = recarregar(pedido);
+        assertEquals(StatusPedido.ENTREGUE, gravado.getStatus());
+        assertEquals(versaoInicial + 1, gravado.getVersao());
+        assertEquals(0, pipeline.pendentes());
+    }
+
+    @Test
+    void transicoesConcorrentesAceitamSoUmaPorOrigem() throws Exception {
+        Pedido pedido = novoPedido();
+        AtomicInteger aceitas = new AtomicInteger();
+        AtomicInteger recusadas = new AtomicInteger();
+        CountDownLatch largada = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(16)) {
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                StatusPedido destino = i % 2 == 0 ? StatusPedido.PREPARANDO : StatusPedido.CANCELADO;
+                tarefas.add(executor.submit(() -> {
+                    largada.await();
+                    try {
+                        pipeline.atualizar(pedido.getId(), destino);
+                        aceitas.incrementAndGet();
+                    } catch (BusinessException e) {
+                        recusadas.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            largada.countDown();
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get();
+            }
+        }
+
+        // Cada status só pode ser deixado uma vez: CONFIRMADO → PREPARANDO → CANCELADO é o caminho mais longo
+        assertEquals(32, aceitas.get() + recusadas.get());
+        assertTrue(aceitas.get() >= 1 && aceitas.get() <= 2);
+        assertEquals(aceitas.get(), transicoesNoJournal(pedido));
+        StatusPedido status = pipeline.statusAtual(pedido.getId());
+
+        pipeline.descarregar();
+        assertEquals(status, recarregar(pedido).getStatus());
+    }
+
+    @Test
+    void escritaExternaIncompativelPrevaleceNoConflito() {
+        Pedido pedido = novoPedido();
+        double conflitosAntes = registry.get("delivery.pedidos.status.conflitos").counter().count();
+
+        pipeline.atualizar(pedido.getId(), StatusPedido.PREPARANDO);
+        Pedido externo = recarregar(pedido);
+        externo.setStatus(StatusPedido.CANCELADO);
+        pedidoRepository.save(externo);
+
+        pipeline.descarregar();
+
+        assertEquals(conflitosAntes + 1, registry.get("delivery.pedidos.status.conflitos").counter().count());
+        assertEquals(StatusPedido.CANCELADO, recarregar(pedido).getStatus());
+        // Resolvido a favor do banco, não resta nada em memória
+        assertNull(pipeline.statusAtual(pedido.getId()));
+        assertEquals(StatusPedido.CANCELADO, pedidoService.buscarPorId(pedido.getId()).getStatus());
+    }
+
+    @Test
+    void pedidosGravadosSaemDaMemoria() {
+        List<Pedido> pedidos = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            pedidos.add(novoPedido());
+        }
+        Pedido jaEntregue = novoPedido();
+        jaEntregue.setStatus(StatusPedido.ENTREGUE);
+        pedidoRepository.save(jaEntregue);
+
+        for (Pedido pedido : pedidos) {
+            pipeline.atualizar(pedido.getId(), StatusPedido.PREPARANDO);
+        }
+        for (Pedido pedido : pedidos.subList(0, 25)) {
+            pipeline.atualizar(pedido.getId(), StatusPedido.SAIU_PARA_ENTREGA);
+        }
+        // Carregado do banco e recusado: não fica em memória
+        assertThrows(BusinessException.class, () -> pipeline.atualizar(jaEntregue.getId(), StatusPedido.PREPARANDO));
+        assertEquals(50, pipeline.emMemoria());
+
+        pipeline.descarregar();
+
+        assertEquals(0, pipeline.emMemoria());
+        assertEquals(StatusPedido.SAIU_PARA_ENTREGA, recarregar(pedidos.get(0)).getStatus());
+        assertEquals(StatusPedido.PREPARANDO, recarregar(pedidos.get(49)).getStatus());
+
+        // A próxima transição recarrega do banco, com a versão gravada
+        pipeline.atualizar(pedidos.get(0).getId(), StatusPedido.ENTREGUE);
+        pipeline.descarregar();
+        assertEquals(StatusPedido.ENTREGUE, recarregar(pedidos.get(0)).getStatus());
+        assertEquals(0, pipeline.emMemoria());
+    }
+
+    @Test
+    void escritaExternaCompativelEhRegravada() {
+        Pedido pedido = novoPedido();
+
+        pipeline.atualizar(pedido.getId(), StatusPedido.PREPARANDO);
+        Pedido externo = recarregar(pedido);
+        externo.setObservacoes("Alterado por fora");
+        pedidoRepository.save(externo);
+
+        pipeline.descarregar();
+        pipeline.descarregar();
+
+        Pedido gravado = recarregar(pedido);
+        assertEquals(StatusPedido.PREPARANDO, gravado.getStatus());
+        assertEquals("Alterado por fora", gravado.getObservacoes());
+    }
+
+    @Test
+    void transicaoConfirmadaSobreviveAPerdaDaMemoria() {
+        Pedido pedido = novoPedido();
+
+        pipeline.atualizar(pedido.getId(), StatusPedido.PREPARANDO);
+        pipeline.atualizar(pedido.getId(), StatusPedido.SAIU_PARA_ENTREGA);
+
+        // Simula uma queda: memória perdida, banco ainda no status antigo, só o journal sabe
+        List<JournalStatusPedido.Transicao> registros = lerJournal(pedido);
+        pipeline.descartar(pedido.getId());
+        assertEquals(2, registros.size());
+        assertEquals(StatusPedido.CONFIRMADO, recarregar(pedido).getStatus());
+
+        assertEquals(1, pipeline.reaplicar(registros));
+        assertEquals(StatusPedido.SAIU_PARA_ENTREGA, recarregar(pedido).getStatus());
+
+        // Reaplicar de novo não muda nada
+        assertEquals(0, pipeline.reaplicar(registros));
+    }
+
+    private Pedido novoPedido() {
+        return fixtures.pedidoGravado(cliente, restaurante, StatusPedido.CONFIRMADO);
+    }
+
+    private List<JournalStatusPedido.Transicao> lerJournal(Pedido pedido) {
+        try (JournalStatusPedido journal = new JournalStatusPedido(JOURNAL)) {
+            return journal.ler().stream().filter(t -> t.pedidoId().equals(pedido.getId())).toList();
+        }
+    }
+
+    private long transicoesNoJournal(Pedido pedido) {
+        return lerJournal(pedido).size();
+    }
+
+    private Pedido recarregar(Pedido pedido) {
+        return pedidoRepository.findById(pedido.getId()).orElseThrow();
+    }
+}
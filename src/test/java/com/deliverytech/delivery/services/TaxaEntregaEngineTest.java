@@ -0,0 +1,108 @@
+package com.deliverytech.delivery.services;
+
+import static com.deliverytech.delivery.Fixtures.requisicaoRestaurante;
+import static com.deliverytech.delivery.Fixtures.unico;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.deliverytech.delivery.dto.CotacaoTaxaEntregaDTO;
+import com.deliverytech.delivery.dto.FaixaCepDTO;
+import com.deliverytech.delivery.dto.RestauranteResponseDTO;
+import com.deliverytech.delivery.dto.TabelaTaxaEntregaDTO;
+import com.deliverytech.delivery.entity.Dinheiro;
+import com.deliverytech.delivery.exceptions.BusinessException;
+
+@SpringBootTest
+class TaxaEntregaEngineTest {
+
+    @Autowired
+    private RestauranteService restauranteService;
+
+    @Autowired
+    private TaxaEntregaEngine engine;
+
+    private TabelaTaxaEntregaDTO tabelaOriginal;
+
+    @AfterEach
+    void restaurarTabela() {
+        if (tabelaOriginal != null) {
+            engine.recarregar(tabelaOriginal);
+        }
+    }
+
+    @Test
+    void tabelaPadraoReproduzRegraDePrefixo() {
+        RestauranteResponseDTO restaurante = restauranteService.cadastrar(requisicaoRestaurante("Taxa " + unico(), "4.50"));
+
+        assertEquals(Dinheiro.de("9.50"), restauranteService.calcularTaxaEntrega(restaurante.getId(), "01310-100"));
+        assertEquals(Dinheiro.de("12.50"), restauranteService.calcularTaxaEntrega(restaurante.getId(), "02011000"));
+        assertEquals(Dinheiro.de("14.50"), restauranteService.calcularTaxaEntrega(restaurante.getId(), "30140-071"));
+        assertEquals(Dinheiro.de("14.50"), restauranteService.calcularTaxaEntrega(restaurante.getId(), "00999-999"));
+    }
+
+    @Test
+    void atualizacaoDoRestauranteValeNaHora() {
+        RestauranteResponseDTO restaurante = restauranteService.cadastrar(requisicaoRestaurante("Taxa " + unico(), "4.50"));
+        restauranteService.calcularTaxaEntrega(restaurante.getId(), "01310-100");
+
+        restauranteService.atualizar(restaurante.getId(), requisicaoRestaurante(restaurante.getNome(), "7.25"));
+
+        assertEquals(Dinheiro.de("12.25"), restauranteService.calcularTaxaEntrega(restaurante.getId(), "01310-100"));
+    }
+
+    @Test
+    void recargaTrocaFaixasERejeitaSobreposicao() {
+        tabelaOriginal = engine.tabelaAtual();
+        RestauranteResponseDTO restaurante = restauranteService.cadastrar(requisicaoRestaurante("Taxa " + unico(), "3.00"));
+
+        engine.recarregar(new TabelaTaxaEntregaDTO(List.of(
+            new FaixaCepDTO("30000-000", "30999-999", new BigDecimal("2.00")),
+            new FaixaCepDTO("01000-000", "01999-999", new BigDecimal("6.00"))), new BigDecimal("12.00")));
+
+        assertEquals(Dinheiro.de("9.00"), restauranteService.calcularTaxaEntrega(restaurante.getId(), "01310-100"));
+        assertEquals(Dinheiro.de("5.00"), restauranteService.calcularTaxaEntrega(restaurante.getId(), "30140-071"));
+        assertEquals(Dinheiro.de("15.00"), restauranteService.calcularTaxaEntrega(restaurante.getId(), "02011-000"));
+
+        TabelaTaxaEntregaDTO sobreposta = new TabelaTaxaEntregaDTO(List.of(
+            new FaixaCepDTO("01000-000", "01999-999", new BigDecimal("6.00")),
+            new FaixaCepDTO("01500-000", "02500-000", new BigDecimal("7.00"))), new BigDecimal("12.00"));
+        assertThrows(BusinessException.class, () -> engine.recarregar(sobreposta));
+
+        // Tabela rejeitada não substitui a anterior
+        assertEquals(Dinheiro.de("9.00"), restauranteService.calcularTaxaEntrega(restaurante.getId(), "01310-100"));
+    }
+
+    @Test
+    void cotacaoEmLoteIgnoraInexistentesEInativos() {
+        RestauranteResponseDTO a = restauranteService.cadastrar(requisicaoRestaurante("Lote A " + unico(), "1.00"));
+        RestauranteResponseDTO b = restauranteService.cadastrar(requisicaoRestaurante("Lote B " + unico(), "2.00"));
+
+        List<CotacaoTaxaEntregaDTO> cotacoes = restauranteService.cotarTaxaEntrega("02011-000", List.of(a.getId(), b.getId(), -1L));
+        assertEquals(List.of(new CotacaoTaxaEntregaDTO(a.getId(), Dinheiro.de("9.00")),
+            new CotacaoTaxaEntregaDTO(b.getId(), Dinheiro.de("10.00"))), cotacoes);
+
+        restauranteService.inativar(b.getId());
+        List<Long> ativos = restauranteService.cotarTaxaEntrega("02011-000", null).stream()
+            .map(CotacaoTaxaEntregaDTO::getRestauranteId)
+            .toList();
+        assertEquals(true, ativos.contains(a.getId()));
+        assertEquals(false, ativos.contains(b.getId()));
+    }
+
+    @Test
+    void cepInvalidoELancado() {
+        RestauranteResponseDTO restaurante = restauranteService.cadastrar(requisicaoRestaurante("Taxa " + unico(), "4.50"));
+
+        assertThrows(BusinessException.class, () -> restauranteService.calcularTaxaEntrega(restaurante.getId(), "0131"));
+        assertThrows(BusinessException.class, () -> restauranteService.calcularTaxaEntrega(restaurante.getId(), "01310-100-9"));
+        assertThrows(BusinessException.class, () -> restauranteService.calcularTaxaEntrega(restaurante.getId(), "01A10-100"));
+    }
+}
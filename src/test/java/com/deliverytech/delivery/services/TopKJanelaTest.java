@@ -0,0 +1,142 @@
+package com.deliverytech.delivery.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class TopKJanelaTest {
+
+    /** Relógio que o teste avança manualmente. */
+    private static class RelogioManual extends Clock {
+        private Instant agora = Instant.parse("2025-01-01T00:00:00Z");
+
+        void avancar(Duration duracao) {
+            agora = agora.plus(duracao);
+        }
+
+        @Override
+        public Instant instant() {
+            return agora;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+
+    @Test
+    void estimativasRespeitamOLimiteDeErroEOTopKBateComOExato() {
+        double erro = 0.001;
+        double confianca = 0.99;
+        RelogioManual relogio = new RelogioManual();
+        TopKJanela topK = new TopKJanela(relogio, Duration.ofHours(24), 24, 10, erro, confianca);
+
+        // Fluxo Zipf (s = 1.1) sobre 20 mil produtos, espalhado pelas últimas horas
+        int chaves = 20_000;
+        double[] acumulada = new double[chaves];
+        double soma = 0;
+        for (int i = 0; i < chaves; i++) {
+            soma += 1 / Math.pow(i + 1, 1.1);
+            acumulada[i] = soma;
+        }
+        Random aleatorio = new Random(42);
+        Map<Long, Long> exato = new HashMap<>();
+        long total = 0;
+        for (int evento = 0; evento < 200_000; evento++) {
+            int posicao = Arrays.binarySearch(acumulada, aleatorio.nextDouble() * soma);
+            long chave = posicao >= 0 ? posicao : -posicao - 1;
+            long quantidade = 1 + aleatorio.nextInt(3);
+            Instant quando = relogio.instant().minus(Duration.ofMinutes(aleatorio.nextInt(600)));
+            topK.registrar(chave, quantidade, quando);
+            exato.merge(chave, quantidade, Long::sum);
+            total += quantidade;
+        }
+
+        long limite = (long) Math.ceil(erro * total);
+        int foraDoLimite = 0;
+        for (Map.Entry<Long, Long> contagem : exato.entrySet()) {
+            long estimativa = topK.estimativa(contagem.getKey());
+            assertTrue(estimativa >= contagem.getValue(), "Count-min nunca subestima");
+            if (estimativa - contagem.getValue() > limite) {
+                foraDoLimite++;
+            }
+        }
+        assertTrue(foraDoLimite <= (1 - confianca) * exato.size(),
+            foraDoLimite + " de " + exato.size() + " chaves passaram de " + limite);
+
+        List<Long> esperado = exato.entrySet().stream()
+            .sorted(Map.Entry.<Long, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+            .limit(10)
+            .map(Map.Entry::getKey)
+            .toList();
+        List<TopKJanela.Contagem> top = topK.top(10);
+        assertEquals(esperado, top.stream().map(TopKJanela.Contagem::chave).toList());
+        for (TopKJanela.Contagem contagem : top) {
+            assertTrue(contagem.quantidade() - exato.get(contagem.chave()) <= limite);
+        }
+    }
+
+    @Test
+    void contagensSaemDaJanelaComOTempo() {
+        RelogioManual relogio = new RelogioManual();
+        TopKJanela topK = new TopKJanela(relogio, Duration.ofHours(1), 4, 5, 0.001, 0.99);
+
+        topK.registrar(1, 100, relogio.instant());
+        relogio.avancar(Duration.ofMinutes(30));
+        topK.registrar(2, 50, relogio.instant());
+
+        assertEquals(List.of(new TopKJanela.Contagem(1, 100), new TopKJanela.Contagem(2, 50)), topK.top(5));
+
+        // O balde da chave 1 sai da janela de 1h; o da chave 2 continua
+        relogio.avancar(Duration.ofMinutes(31));
+        assertEquals(List.of(new TopKJanela.Contagem(2, 50)), topK.top(5));
+
+        relogio.avancar(Duration.ofHours(1));
+        assertEquals(List.of(), topK.top(5));
+    }
+
+    @Test
+    void eventosAntigosSaoIgnoradosEFuturosContamAgora() {
+        RelogioManual relogio = new RelogioManual();
+        TopKJanela topK = new TopKJanela(relogio, Duration.ofHours(1), 4, 5, 0.001, 0.99);
+
+        topK.registrar(1, 10, relogio.instant().minus(Duration.ofHours(2)));
+        topK.registrar(2, 7, relogio.instant().plus(Duration.ofDays(1)));
+
+        assertEquals(0, topK.estimativa(1));
+        assertEquals(List.of(new TopKJanela.Contagem(2, 7)), topK.top(5));
+    }
+
+    @Test
+    void chaveNovaPesadaDeslocaOsCandidatosMaisFracos() {
+        RelogioManual relogio = new RelogioManual();
+        TopKJanela topK = new TopKJanela(relogio, Duration.ofHours(1), 4, 2, 0.001, 0.99);
+
+        // 4 x k = 8 candidatos leves enchem o conjunto
+        for (long chave = 1; chave <= 8; chave++) {
+            topK.registrar(chave, 1, relogio.instant());
+        }
+        topK.registrar(99, 500, relogio.instant());
+        topK.registrar(98, 300, relogio.instant());
+
+        assertEquals(List.of(new TopKJanela.Contagem(99, 500), new TopKJanela.Contagem(98, 300)), topK.top(10));
+    }
+}
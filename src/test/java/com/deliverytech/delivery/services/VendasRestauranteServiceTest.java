@@ -0,0 +1,148 @@
+package com.deliverytech.delivery.services;
+
+import static com.deliverytech.delivery.Fixtures.pedido;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.deliverytech.delivery.Fixtures;
+import com.deliverytech.delivery.dto.VendasRestauranteDTO;
+import com.deliverytech.delivery.entity.Cliente;
+import com.deliverytech.delivery.entity.Pedido;
+import com.deliverytech.delivery.entity.Produto;
+import com.deliverytech.delivery.entity.Restaurante;
+import com.deliverytech.delivery.enums.StatusPedido;
+import com.deliverytech.delivery.repository.VendasRestauranteRepository;
+
+@SpringBootTest
+class VendasRestauranteServiceTest {
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private VendasRestauranteService vendasRestauranteService;
+
+    @Autowired
+    private VendasRestauranteRepository vendasRepository;
+
+    @Autowired
+    private Fixtures fixtures;
+
+    @Test
+    void agregadoConfereComRecalculoAposCriarCancelarEExcluir() {
+        // Outros testes gravam pedidos direto no repositório; parte de um agregado já reconciliado
+        vendasRestauranteService.reconciliar();
+
+        Cliente cliente = fixtures.cliente();
+        Restaurante restaurante = fixtures.restaurante();
+        Produto produto = fixtures.produto(restaurante);
+
+        Pedido p1 = pedidoService.criarPedido(pedido(cliente, restaurante, produto, 2)); // 45.00
+        Pedido p2 = pedidoService.criarPedido(pedido(cliente, restaurante, produto, 1)); // 25.00
+        Pedido p3 = pedidoService.criarPedido(pedido(cliente, restaurante, produto, 3)); // 65.00
+
+        pedidoService.atualizarStatus(p2.getId(), StatusPedido.CANCELADO);
+        pedidoService.cancelarPedido(p3.getId());
+        pedidoService.atualizarStatus(p1.getId(), StatusPedido.PREPARANDO);
+
+        VendasRestauranteDTO vendas = porRestaurante(vendasRestauranteService.relatorio()).get(restaurante.getId());
+        assertEquals(0, new BigDecimal("45.00").compareTo(vendas.getTotal()));
+        assertEquals(1L, vendas.getQuantidadePedidos());
+
+        assertAgregadoIgualAoRecalculo();
+        assertEquals(0, vendasRestauranteService.reconciliar().divergencias());
+    }
+
+    @Test
+    void reconciliacaoCorrigeAgregadoAdulterado() {
+        vendasRestauranteService.reconciliar();
+
+        var vendas = vendasRepository.findAll().get(0);
+        vendas.setValorTotal(vendas.getValorTotal().add(new BigDecimal("999.99")));
+        vendas.setQuantidadePedidos(vendas.getQuantidadePedidos() + 7);
+        vendasRepository.save(vendas);
+
+        // A conferência só reporta
+        assertEquals(1, vendasRestauranteService.conferir().divergencias());
+        assertEquals(1, vendasRestauranteService.conferir().divergencias());
+
+        assertEquals(1, vendasRestauranteService.reconciliar().divergencias());
+        assertAgregadoIgualAoRecalculo();
+    }
+
+    @Test
+    void reconciliacaoConcorrenteComPedidosNaoPerdeSomas() throws Exception {
+        Cliente cliente = fixtures.cliente();
+        Restaurante restaurante = fixtures.restaurante();
+        Produto produto = fixtures.produto(restaurante);
+        vendasRestauranteService.reconciliar();
+
+        AtomicBoolean terminou = new AtomicBoolean();
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        try {
+            List<CompletableFuture<?>> tarefas = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                tarefas.add(CompletableFuture.runAsync(() -> {
+                    for (int i = 0; i < 25; i++) {
+                        pedidoService.criarPedido(pedido(cliente, restaurante, produto, 1));
+                    }
+                }, executor));
+            }
+            CompletableFuture<Void> pedidos = CompletableFuture.allOf(tarefas.toArray(CompletableFuture[]::new));
+            // Pedidos em andamento não podem parecer divergência (nem ser "corrigidos" por cima)
+            CompletableFuture<Integer> reconciliacoes = CompletableFuture.supplyAsync(() -> {
+                int divergencias = 0;
+                while (!terminou.get()) {
+                    divergencias += vendasRestauranteService.reconciliar().divergencias();
+                }
+                return divergencias;
+            }, executor);
+            try {
+                pedidos.get();
+            } finally {
+                terminou.set(true);
+            }
+            assertEquals(0, reconciliacoes.get());
+        } finally {
+            executor.shutdown();
+        }
+
+        VendasRestauranteDTO vendas = porRestaurante(vendasRestauranteService.relatorio()).get(restaurante.getId());
+        assertEquals(100L, vendas.getQuantidadePedidos());
+        assertEquals(0, new BigDecimal("2500.00").compareTo(vendas.getTotal()));
+        assertEquals(0, vendasRestauranteService.conferir().divergencias());
+    }
+
+    private void assertAgregadoIgualAoRecalculo() {
+        Map<Long, VendasRestauranteDTO> recalculado = porRestaurante(vendasRepository.recalcular().stream()
+            .map(linha -> new VendasRestauranteDTO((Long) linha[0], null, (BigDecimal) linha[1], ((Number) linha[2]).longValue()))
+            .toList());
+        Map<Long, VendasRestauranteDTO> agregado = porRestaurante(vendasRestauranteService.relatorio());
+
+        agregado.forEach((restauranteId, vendas) -> {
+            VendasRestauranteDTO esperado = recalculado.get(restauranteId);
+            BigDecimal total = esperado != null ? esperado.getTotal() : BigDecimal.ZERO;
+            long quantidade = esperado != null ? esperado.getQuantidadePedidos() : 0L;
+            assertEquals(0, total.compareTo(vendas.getTotal()), "total do restaurante " + restauranteId);
+            assertEquals(quantidade, vendas.getQuantidadePedidos(), "pedidos do restaurante " + restauranteId);
+        });
+        assertEquals(true, agregado.keySet().containsAll(recalculado.keySet()));
+    }
+
+    private static Map<Long, VendasRestauranteDTO> porRestaurante(List<VendasRestauranteDTO> vendas) {
+        return vendas.stream().collect(Collectors.toMap(VendasRestauranteDTO::getRestauranteId, v -> v));
+    }
+}